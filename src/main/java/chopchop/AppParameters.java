@@ -2,11 +2,15 @@ package chopchop;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import chopchop.commons.core.Log;
 import chopchop.commons.util.FileUtil;
+import chopchop.logic.CommandServer;
 import javafx.application.Application;
 
 /**
@@ -16,6 +20,9 @@ public class AppParameters {
     private static final Log logger = new Log(AppParameters.class);
 
     private Path configPath;
+    private Path scriptPath;
+    private boolean headless;
+    private int port = CommandServer.DEFAULT_PORT;
 
     public Path getConfigPath() {
         return configPath;
@@ -25,12 +32,69 @@ public class AppParameters {
         this.configPath = configPath;
     }
 
+    /**
+     * Returns the script to run once the data is loaded (see {@code RunCommand}), or null if there is none.
+     */
+    public Path getScriptPath() {
+        return scriptPath;
+    }
+
+    public void setScriptPath(Path scriptPath) {
+        this.scriptPath = scriptPath;
+    }
+
+    /**
+     * Returns true if the application should run without its UI, serving commands over a socket instead
+     * (see {@code HeadlessApp}).
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Returns the port to serve commands on, when running headless.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
     /**
      * Parses the application command-line parameters.
      */
     public static AppParameters parse(Application.Parameters parameters) {
+        return parse(parameters.getNamed(), parameters.getUnnamed());
+    }
+
+    /**
+     * Parses the raw command-line arguments, in the same way as JavaFX does; this is used when the application
+     * is not launched through JavaFX.
+     */
+    public static AppParameters parse(String[] args) {
+        var named = new HashMap<String, String>();
+        var unnamed = new ArrayList<String>();
+
+        for (var arg : args) {
+            var eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                named.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                unnamed.add(arg);
+            }
+        }
+
+        return parse(named, unnamed);
+    }
+
+    private static AppParameters parse(Map<String, String> namedParameters, List<String> unnamedParameters) {
         AppParameters appParameters = new AppParameters();
-        Map<String, String> namedParameters = parameters.getNamed();
 
         String configPathParameter = namedParameters.get("config");
         if (configPathParameter != null && !FileUtil.isValidPath(configPathParameter)) {
@@ -39,6 +103,28 @@ public class AppParameters {
         }
         appParameters.setConfigPath(configPathParameter != null ? Paths.get(configPathParameter) : null);
 
+        String scriptPathParameter = namedParameters.get("script");
+        if (scriptPathParameter != null && !FileUtil.isValidPath(scriptPathParameter)) {
+            logger.warn("Invalid script path '%s'. Not running a script", scriptPathParameter);
+            scriptPathParameter = null;
+        }
+        appParameters.setScriptPath(scriptPathParameter != null ? Paths.get(scriptPathParameter) : null);
+
+        appParameters.setHeadless(unnamedParameters.contains("--headless"));
+
+        String portParameter = namedParameters.get("port");
+        if (portParameter != null) {
+            try {
+                var port = Integer.parseInt(portParameter);
+                if (port < 0 || port > 65535) {
+                    throw new NumberFormatException();
+                }
+                appParameters.setPort(port);
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid port '%s'. Using default port %d", portParameter, CommandServer.DEFAULT_PORT);
+            }
+        }
+
         return appParameters;
     }
 
@@ -53,11 +139,14 @@ public class AppParameters {
         }
 
         AppParameters otherAppParameters = (AppParameters) other;
-        return Objects.equals(getConfigPath(), otherAppParameters.getConfigPath());
+        return Objects.equals(getConfigPath(), otherAppParameters.getConfigPath())
+            && Objects.equals(getScriptPath(), otherAppParameters.getScriptPath())
+            && isHeadless() == otherAppParameters.isHeadless()
+            && getPort() == otherAppParameters.getPort();
     }
 
     @Override
     public int hashCode() {
-        return configPath.hashCode();
+        return Objects.hash(configPath, scriptPath, headless, port);
     }
 }
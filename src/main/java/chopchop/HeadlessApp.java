@@ -0,0 +1,52 @@
+// HeadlessApp.java
+
+package chopchop;
+
+import java.io.IOException;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.util.StringUtil;
+import chopchop.logic.CommandServer;
+
+/**
+ * Runs the application without its UI, serving commands over a local socket (see {@link CommandServer}) so that
+ * other programs can use it. This is started with the {@code --headless} parameter, and the port can be given
+ * with {@code --port=N}. Everything else (the data files, backups, workspaces, and so on) works as it does with
+ * the UI; messages that would have been shown to the user are logged instead.
+ *
+ * This is not launched through JavaFX at all, so it also works where there is no display.
+ */
+public class HeadlessApp extends MainApp {
+    private static final Log logger = new Log(HeadlessApp.class);
+
+    private CommandServer server;
+
+    /**
+     * Starts the application, and serves commands on this thread until the application is stopped.
+     */
+    public void run(AppParameters appParameters) throws Exception {
+        logger.log("ChopChop Initialisation (headless)");
+
+        // there is no FX thread, so other threads change the model while no command is running instead.
+        this.initComponents(appParameters, task -> this.server.runExclusively(task));
+        this.server = new CommandServer(this.logic, appParameters.getPort());
+
+        this.startComponents();
+        this.runScript();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "shutdown"));
+        this.server.serve();
+    }
+
+    @Override
+    public void stop() {
+        try {
+            this.server.close();
+        } catch (IOException e) {
+            logger.error("Failed to stop serving commands: %s", StringUtil.getDetails(e));
+        }
+
+        // whatever is still running must finish before the data is saved for the last time.
+        this.server.runExclusively(super::stop);
+    }
+}
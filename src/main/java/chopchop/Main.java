@@ -17,9 +17,19 @@ import javafx.application.Application;
  *
  * By having a separate main class (Main) that doesn't extend Application
  * to be the entry point of the application, we avoid this issue.
+ *
+ * When run with {@code --headless}, JavaFX is not launched at all (see {@link HeadlessApp}).
  */
 public class Main {
-    public static void main(String[] args) {
-        Application.launch(MainApp.class, args);
+    /**
+     * Starts ChopChop, with or without its UI.
+     */
+    public static void main(String[] args) throws Exception {
+        var parameters = AppParameters.parse(args);
+        if (parameters.isHeadless()) {
+            new HeadlessApp().run(parameters);
+        } else {
+            Application.launch(MainApp.class, args);
+        }
     }
 }
@@ -1,17 +1,34 @@
 package chopchop;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import chopchop.commons.core.Config;
 import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
 import chopchop.commons.util.ConfigUtil;
 import chopchop.commons.util.StringUtil;
+import chopchop.logic.BackupManager;
+import chopchop.logic.CommandQueue;
+import chopchop.logic.DataFileSync;
+import chopchop.logic.DatabaseMigration;
 import chopchop.logic.Logic;
 import chopchop.logic.LogicManager;
+import chopchop.logic.WorkspaceManager;
+import chopchop.logic.commands.CommandResult;
 import chopchop.model.Entry;
 import chopchop.model.EntryBook;
 import chopchop.model.Model;
@@ -19,20 +36,38 @@ import chopchop.model.ModelManager;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.UsageList;
 import chopchop.model.UserPrefs;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
 import chopchop.model.usage.Usage;
 import chopchop.model.util.SampleDataUtil;
+import chopchop.storage.BackupStore;
+import chopchop.storage.BinaryIngredientBookStorage;
+import chopchop.storage.BinaryIngredientUsageStorage;
+import chopchop.storage.BinaryRecipeBookStorage;
+import chopchop.storage.BinaryRecipeUsageStorage;
+import chopchop.storage.BinarySnapshot;
+import chopchop.storage.DataFileWatcher;
+import chopchop.storage.DatabaseMigrator;
+import chopchop.storage.IngredientBookStorage;
 import chopchop.storage.JsonIngredientBookStorage;
 import chopchop.storage.JsonIngredientUsageStorage;
 import chopchop.storage.JsonRecipeBookStorage;
 import chopchop.storage.JsonRecipeUsageStorage;
 import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.RecipeBookStorage;
+import chopchop.storage.ShardedRecipeBookStorage;
+import chopchop.storage.SnapshotConverter;
+import chopchop.storage.SqlDatabase;
 import chopchop.storage.Storage;
 import chopchop.storage.StorageManager;
+import chopchop.storage.UsageStorage;
 import chopchop.storage.UserPrefsStorage;
+import chopchop.storage.WorkspaceStorage;
 import chopchop.ui.DisplayNavigator;
 import chopchop.ui.Ui;
 import chopchop.ui.UiManager;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 
@@ -41,13 +76,23 @@ import javafx.stage.Stage;
  */
 public class MainApp extends Application {
     private static final Log logger = new Log(MainApp.class);
+
+    // there are only four data files, so there's no point in having more threads than that.
+    private static final int LOADER_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
     private static MainApp singletonInstance;
 
     protected Ui ui;
     protected Logic logic;
     protected Storage storage;
+    protected SqlDatabase database;
+    protected DataFileSync dataFileSync;
+    protected BackupManager backupManager;
+    protected WorkspaceManager workspaceManager;
     protected Model model;
     protected Config config;
+    protected Path scriptPath;
+    protected Executor modelExecutor;
+    protected CommandQueue commandQueue;
 
     @Override
     public void init() throws Exception {
@@ -56,58 +101,364 @@ public class MainApp extends Application {
         logger.log("ChopChop Initialisation");
         super.init();
 
-        var appParameters = AppParameters.parse(getParameters());
+        // commands (and every other change to the model) run on the queue's thread, so they don't block the UI.
+        this.initComponents(AppParameters.parse(getParameters()), task -> this.commandQueue.execute(task));
+        this.commandQueue = new CommandQueue(this.logic, Platform::runLater);
+        ui = new UiManager(logic, model, commandQueue);
+    }
+
+    /**
+     * Creates everything except the UI: the storage, the model, and the logic, along with the services that
+     * keep the data files in sync, backed up, and in their workspaces. Changes to the model from other threads
+     * are made with {@code modelExecutor}.
+     */
+    protected void initComponents(AppParameters appParameters, Executor modelExecutor) throws Exception {
+        this.modelExecutor = modelExecutor;
         this.config = initConfig(appParameters.getConfigPath());
+        this.scriptPath = appParameters.getScriptPath();
         initLogging(config);
 
         var userPrefsStorage = new JsonUserPrefsStorage(config.getUserPrefsFilePath());
         var userPrefs = initPrefs(userPrefsStorage);
 
-        var recipeBookStorage = new JsonRecipeBookStorage(userPrefs.getRecipeBookFilePath());
-        var ingredientBookStorage = new JsonIngredientBookStorage(userPrefs.getIngredientBookFilePath());
+        var compress = userPrefs.isCompressingDataFiles();
+
+        RecipeBookStorage recipeBookStorage = new JsonRecipeBookStorage(
+            userPrefs.getRecipeBookFilePath(), compress);
+        IngredientBookStorage ingredientBookStorage = new JsonIngredientBookStorage(
+            userPrefs.getIngredientBookFilePath(), compress);
+
+        UsageStorage<RecipeUsage> recipeUsageStorage = new JsonRecipeUsageStorage(
+            userPrefs.getRecipeUsageFilePath(), compress);
+        UsageStorage<IngredientUsage> ingredientUsageStorage = new JsonIngredientUsageStorage(
+            userPrefs.getIngredientUsageFilePath(), compress);
+
+        // for each kind of data, only switch to the snapshot if it exists (or could be migrated from
+        // the json file); otherwise, keep using the json file so that loading errors are reported as usual.
+        if (userPrefs.isUsingBinarySnapshots()) {
+            if (initSnapshot(BinarySnapshot.Kind.RECIPES, userPrefs.getRecipeBookFilePath())) {
+                recipeBookStorage = new BinaryRecipeBookStorage(
+                    BinarySnapshot.getSnapshotPath(userPrefs.getRecipeBookFilePath()));
+            }
+
+            if (initSnapshot(BinarySnapshot.Kind.INGREDIENTS, userPrefs.getIngredientBookFilePath())) {
+                ingredientBookStorage = new BinaryIngredientBookStorage(
+                    BinarySnapshot.getSnapshotPath(userPrefs.getIngredientBookFilePath()));
+            }
+
+            if (initSnapshot(BinarySnapshot.Kind.RECIPE_USAGES, userPrefs.getRecipeUsageFilePath())) {
+                recipeUsageStorage = new BinaryRecipeUsageStorage(
+                    BinarySnapshot.getSnapshotPath(userPrefs.getRecipeUsageFilePath()));
+            }
+
+            if (initSnapshot(BinarySnapshot.Kind.INGREDIENT_USAGES, userPrefs.getIngredientUsageFilePath())) {
+                ingredientUsageStorage = new BinaryIngredientUsageStorage(
+                    BinarySnapshot.getSnapshotPath(userPrefs.getIngredientUsageFilePath()));
+            }
+        } else {
+            exportSnapshot(BinarySnapshot.Kind.RECIPES, userPrefs.getRecipeBookFilePath());
+            exportSnapshot(BinarySnapshot.Kind.INGREDIENTS, userPrefs.getIngredientBookFilePath());
+            exportSnapshot(BinarySnapshot.Kind.RECIPE_USAGES, userPrefs.getRecipeUsageFilePath());
+            exportSnapshot(BinarySnapshot.Kind.INGREDIENT_USAGES, userPrefs.getIngredientUsageFilePath());
+        }
+
+        // sharding takes precedence over snapshots for the recipe book; as above, the json file is migrated
+        // the first time, and kept if that fails.
+        if (userPrefs.getRecipeBookSegmentCount() > 0) {
+            var sharded = new ShardedRecipeBookStorage(
+                ShardedRecipeBookStorage.getManifestPath(userPrefs.getRecipeBookFilePath()),
+                Math.min(userPrefs.getRecipeBookSegmentCount(), ShardedRecipeBookStorage.MAX_SEGMENT_COUNT),
+                compress);
 
-        var recipeUsageStorage = new JsonRecipeUsageStorage(userPrefs.getRecipeUsageFilePath());
-        var ingredientUsageStorage = new JsonIngredientUsageStorage(userPrefs.getIngredientUsageFilePath());
+            if (initShards(sharded, new JsonRecipeBookStorage(userPrefs.getRecipeBookFilePath()))) {
+                recipeBookStorage = sharded;
+            }
+        }
+
+        DatabaseMigration migration = null;
+        if (this.config.getStorageBackend() == Config.StorageBackend.DATABASE) {
+            this.database = new SqlDatabase(this.config.getDatabaseFilePath());
+            if (initDatabase(this.database, recipeBookStorage, ingredientBookStorage,
+                recipeUsageStorage, ingredientUsageStorage)) {
 
-        this.storage = new StorageManager(
-            recipeBookStorage, ingredientBookStorage,
-            recipeUsageStorage, ingredientUsageStorage,
-            userPrefsStorage);
+                this.storage = StorageManager.forDatabase(this.database, userPrefsStorage);
+
+                // the data files are kept, so that they can be migrated again with the 'migrate' command.
+                migration = new DatabaseMigration(new StorageManager(recipeBookStorage, ingredientBookStorage,
+                    recipeUsageStorage, ingredientUsageStorage, userPrefsStorage));
+            }
+        }
+
+        var usingDataFiles = this.storage == null;
+        if (usingDataFiles) {
+            // the storage is switched to another workspace's when the workspace changes.
+            this.storage = new WorkspaceStorage(new StorageManager(
+                recipeBookStorage, ingredientBookStorage,
+                recipeUsageStorage, ingredientUsageStorage,
+                userPrefsStorage));
+        }
 
         this.model = new ModelManager(new EntryBook<>(), new EntryBook<>(),
             new UsageList<>(), new UsageList<>(), userPrefs);
 
-        this.logic = new LogicManager(this.model, this.storage);
-        ui = new UiManager(logic, model);
+        BiConsumer<String, Boolean> notifier = this::showOutput;
+
+        // the database can't be edited while we have it open, so only the data files need to be watched.
+        if (usingDataFiles && userPrefs.isWatchingDataFiles()) {
+            try {
+                this.dataFileSync = new DataFileSync(this.model, this.storage, new DataFileWatcher(),
+                    this.modelExecutor, notifier);
+            } catch (IOException e) {
+                logger.warn("Failed to create data file watcher: %s", StringUtil.getDetails(e));
+            }
+        }
+
+        // likewise, the database would need to be closed to be backed up (or restored) safely. the workspaces
+        // are kept inside the data directory, so they are backed up along with everything else.
+        if (usingDataFiles) {
+            var dataDirectory = userPrefs.getRecipeBookFilePath().toAbsolutePath().getParent();
+
+            Function<Path, Storage> workspaceStorageFactory = dir -> new StorageManager(
+                new JsonRecipeBookStorage(dir.resolve(userPrefs.getRecipeBookFilePath().getFileName()), compress),
+                new JsonIngredientBookStorage(dir.resolve(userPrefs.getIngredientBookFilePath().getFileName()),
+                    compress),
+                new JsonRecipeUsageStorage(dir.resolve(userPrefs.getRecipeUsageFilePath().getFileName()), compress),
+                new JsonIngredientUsageStorage(dir.resolve(userPrefs.getIngredientUsageFilePath().getFileName()),
+                    compress),
+                userPrefsStorage);
+
+            this.workspaceManager = new WorkspaceManager(this.model, (WorkspaceStorage) this.storage,
+                workspaceStorageFactory, dataDirectory.resolve(WorkspaceManager.DIRECTORY_NAME),
+                userPrefs.getWorkspaceCacheMegabytes() * 1024L * 1024L, this.dataFileSync,
+                userPrefs.getActiveWorkspace());
+
+            this.backupManager = new BackupManager(this.model, this.storage, this.dataFileSync,
+                new BackupStore(dataDirectory.resolve(BackupStore.DIRECTORY_NAME), List.of(Log.getLogDirectory())),
+                dataDirectory,
+                userPrefs.getBackupRetention(), this.modelExecutor, notifier);
+        }
+
+        this.logic = new LogicManager(this.model, this.storage, this.dataFileSync, this.backupManager,
+            this.workspaceManager, migration);
+    }
+
+    /**
+     * Ensures that the binary snapshot for the given json data file exists and is up to date with it,
+     * converting the json file if there is one and it was changed since the snapshot was made (eg. edited
+     * by hand, or saved while snapshots were turned off). Returns false if the json file could not be
+     * converted, in which case it should continue to be used.
+     */
+    private boolean initSnapshot(BinarySnapshot.Kind kind, Path jsonPath) {
+        var snapshotPath = BinarySnapshot.getSnapshotPath(jsonPath);
+
+        try {
+            var snapshotExists = Files.exists(snapshotPath);
+            if (!Files.exists(jsonPath) || (snapshotExists && BinarySnapshot.isUpToDateWith(snapshotPath, jsonPath))) {
+                return true;
+            }
+
+            if (snapshotExists) {
+                logger.log("'%s' was changed after snapshot '%s' was made; converting it again", jsonPath,
+                    snapshotPath);
+            } else {
+                logger.log("Converting '%s' to snapshot '%s'", jsonPath, snapshotPath);
+            }
+
+            SnapshotConverter.toSnapshot(kind, jsonPath, snapshotPath);
+            return true;
+
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Failed to convert '%s' to a snapshot; using json instead: %s",
+                jsonPath, StringUtil.getDetails(e));
+            return false;
+        }
+    }
+
+    /**
+     * When snapshots are turned off, converts the snapshot left over from when they were on (if any) back into
+     * the given json data file, so that the changes saved to the snapshot are not lost. This is only done if
+     * the json file was not changed since the snapshot was made; otherwise the json file is newer, and is kept.
+     */
+    private void exportSnapshot(BinarySnapshot.Kind kind, Path jsonPath) {
+        var snapshotPath = BinarySnapshot.getSnapshotPath(jsonPath);
+
+        try {
+            if (!Files.exists(snapshotPath) || !BinarySnapshot.isUpToDateWith(snapshotPath, jsonPath)) {
+                return;
+            }
+
+            logger.log("Converting snapshot '%s' back to '%s'", snapshotPath, jsonPath);
+            SnapshotConverter.toJson(kind, snapshotPath, jsonPath);
+
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Failed to convert snapshot '%s' back to json; using '%s' as it is: %s",
+                snapshotPath, jsonPath, StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * Ensures that the sharded recipe book exists, converting the json recipe book if there is one. Returns
+     * false if the json file could not be converted, in which case it should continue to be used.
+     */
+    private boolean initShards(ShardedRecipeBookStorage sharded, RecipeBookStorage json) {
+        var manifestPath = sharded.getRecipeBookFilePath();
+        if (Files.exists(manifestPath) || !Files.exists(json.getRecipeBookFilePath())) {
+            return true;
+        }
+
+        try {
+            logger.log("Converting '%s' to sharded recipe book '%s'", json.getRecipeBookFilePath(), manifestPath);
+            var book = json.readRecipeBook();
+            if (book.isPresent()) {
+                sharded.saveRecipeBook(book.get());
+            }
+            return true;
+
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Failed to convert '%s' to a sharded recipe book; using json instead: %s",
+                json.getRecipeBookFilePath(), StringUtil.getDetails(e));
+            return false;
+        }
+    }
+
+    /**
+     * Ensures that the database exists, migrating the existing data files into it if it doesn't. Returns
+     * false if the data files could not be migrated, in which case they should continue to be used.
+     */
+    private boolean initDatabase(SqlDatabase database, RecipeBookStorage recipes, IngredientBookStorage ingredients,
+        UsageStorage<RecipeUsage> recipeUsages, UsageStorage<IngredientUsage> ingredientUsages) {
+
+        if (database.exists()) {
+            return true;
+        }
+
+        try {
+            logger.log("Migrating data files to database '%s'", database.getFilePath());
+            var summary = DatabaseMigrator.migrateToNewDatabase(recipes, ingredients, recipeUsages,
+                ingredientUsages, database);
+            logger.log("Migrated %s", summary);
+            return true;
+
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Failed to migrate data files to the database; using them instead: %s",
+                StringUtil.getDetails(e));
+            return false;
+        }
     }
 
     private void loadEntries() {
 
         // now that the UI is up, we can load the actual data. this is so there is a way to display
-        // loading errors to the user.
-        this.model.setRecipeBook(this.loadEntryBook("recipe",
-            this.storage::readRecipeBook,
-            SampleDataUtil::getSampleRecipeBook,
-            this.storage.getRecipeBookFilePath()
-        ));
-
-        this.model.setIngredientBook(this.loadEntryBook("ingredient",
-            this.storage::readIngredientBook,
-            SampleDataUtil::getSampleIngredientBook,
-            this.storage.getIngredientBookFilePath()
-        ));
-
-        this.model.setRecipeUsageList(this.loadUsages("recipe",
-            this.storage::readRecipeUsages,
-            this.storage.getRecipeUsageFilePath()
-        ));
-
-        this.model.setIngredientUsageList(this.loadUsages("ingredient",
-            this.storage::readIngredientUsages,
-            this.storage.getIngredientUsageFilePath()
-        ));
-
-        DisplayNavigator.initialLoad(this.model.getRecipeBook().getEntryList().size() > 0);
+        // loading errors to the user. the files are independent, so they are read and parsed in parallel;
+        // we then wait for all of them here, so the model is only ever updated on its own thread.
+        var executor = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            var thread = new Thread(r, "data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            var start = System.nanoTime();
+
+            var recipes = this.submitLoad(executor, "recipe book", this.storage::readRecipeBook);
+            var ingredients = this.submitLoad(executor, "ingredient book", this.storage::readIngredientBook);
+            var recipeUsages = this.submitLoad(executor, "recipe usages", this.storage::readRecipeUsages);
+            var ingredientUsages = this.submitLoad(executor, "ingredient usages",
+                this.storage::readIngredientUsages);
+
+            this.model.setRecipeBook(this.loadEntryBook("recipe",
+                recipes,
+                SampleDataUtil::getSampleRecipeBook,
+                this.storage.getRecipeBookFilePath()
+            ));
+
+            this.model.setIngredientBook(this.loadEntryBook("ingredient",
+                ingredients,
+                SampleDataUtil::getSampleIngredientBook,
+                this.storage.getIngredientBookFilePath()
+            ));
+
+            this.model.setRecipeUsageList(this.loadUsages("recipe",
+                recipeUsages,
+                this.storage.getRecipeUsageFilePath()
+            ));
+
+            this.model.setIngredientUsageList(this.loadUsages("ingredient",
+                ingredientUsages,
+                this.storage.getIngredientUsageFilePath()
+            ));
+
+            logger.log("Loaded all data in %.1f ms", (System.nanoTime() - start) / 1.0e6);
+
+        } finally {
+            executor.shutdown();
+        }
+
+        if (this.ui != null) {
+            var hasRecipes = this.model.getRecipeBook().getEntryList().size() > 0;
+            Platform.runLater(() -> DisplayNavigator.initialLoad(hasRecipes));
+        }
+    }
+
+    /**
+     * Shows a message to the user, or logs it if there is no UI.
+     */
+    protected void showOutput(String message, boolean isError) {
+        if (this.ui != null) {
+            this.ui.showCommandOutput(message, isError);
+        } else if (isError) {
+            logger.error("%s", message);
+        } else {
+            logger.log("%s", message);
+        }
+    }
+
+    /**
+     * Tells the user that a data file could not be loaded, in a dialog if there is a UI (the message itself
+     * is shown with {@link #showOutput(String, boolean)}).
+     */
+    private void showLoadingError(String header, String content) {
+        if (this.ui != null) {
+            this.ui.displayModalDialog(AlertType.ERROR, "Data Loading Error", header, content);
+        }
+    }
+
+    /**
+     * Starts loading one data file on the given executor, logging how long it took.
+     */
+    private <T> Future<T> submitLoad(ExecutorService executor, String what, Callable<T> loader) {
+        return executor.submit(() -> {
+            var start = System.nanoTime();
+            try {
+                return loader.call();
+            } finally {
+                logger.log("Loading %s took %.1f ms", what, (System.nanoTime() - start) / 1.0e6);
+            }
+        });
+    }
+
+    /**
+     * Waits for a data file to finish loading. Loading errors are rethrown as they were thrown by the
+     * storage, as if the file was loaded on this thread.
+     */
+    private static <T> T awaitLoad(Future<T> future) throws DataConversionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataConversionException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof DataConversionException) {
+                throw (DataConversionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new DataConversionException((Exception) cause);
+            }
+        }
     }
 
     /**
@@ -115,16 +466,16 @@ public class MainApp extends Application {
      * sample data is loaded; if the json was invalid, then no data is loaded.
      */
     private <T extends Entry> ReadOnlyEntryBook<T> loadEntryBook(String kind,
-        EntryBookSupplier<T> loader, Supplier<ReadOnlyEntryBook<T>> sampleData, Path path) {
+        Future<Optional<ReadOnlyEntryBook<T>>> loader, Supplier<ReadOnlyEntryBook<T>> sampleData, Path path) {
 
         try {
 
-            var opt = loader.get();
+            var opt = awaitLoad(loader);
             if (opt.isEmpty()) {
 
                 logger.log("Data file for %s book not found; starting with sample recipes", kind);
 
-                this.ui.showCommandOutput(
+                this.showOutput(
                     String.format("Could not find existing %ss, loading sample data", kind),
                     /* isError: */ false
                 );
@@ -135,14 +486,15 @@ public class MainApp extends Application {
             }
 
         } catch (DataConversionException e) {
-            logger.error("Data file for %s book was invalid; starting with an empty book", kind);
+            var reason = e.getCause() == null ? e.getMessage() : e.getCause().getMessage();
+            logger.error("Data file for %s book was invalid (%s); starting with an empty book", kind, reason);
 
-            this.ui.showCommandOutput(
-                String.format("Existing %ss were corrupted; starting with empty data", kind),
+            this.showOutput(
+                String.format("Existing %ss were corrupted (%s); starting with empty data", kind, reason),
                 /* isError: */ true
             );
 
-            this.ui.displayModalDialog(AlertType.ERROR, "Data Loading Error",
+            this.showLoadingError(
                 String.format("Failed to load %ss (from '%s')", kind, path),
                 String.format("Note that making any changes here will overwrite any existing %ss", kind));
             return new EntryBook<T>();
@@ -150,10 +502,11 @@ public class MainApp extends Application {
     }
 
 
-    private <T extends Usage> UsageList<T> loadUsages(String kind, UsageListSupplier<T> loader, Path path) {
+    private <T extends Usage> UsageList<T> loadUsages(String kind, Future<Optional<UsageList<T>>> loader,
+        Path path) {
 
         try {
-            var opt = loader.get();
+            var opt = awaitLoad(loader);
             if (opt.isEmpty()) {
 
                 logger.log("Data file for %s usage list not found", kind);
@@ -165,12 +518,12 @@ public class MainApp extends Application {
         } catch (DataConversionException e) {
             logger.error("Data file for %s usage list was invalid; starting with an empty list", kind);
 
-            this.ui.showCommandOutput(
+            this.showOutput(
                 String.format("Existing %s usages were corrupted; starting with empty data", kind),
                 /* isError: */ true
             );
 
-            this.ui.displayModalDialog(AlertType.ERROR, "Data Loading Error",
+            this.showLoadingError(
                 String.format("Failed to load %s usages (from '%s')", kind, path),
                 String.format("Note that making any changes here will overwrite any existing %ss", kind));
 
@@ -252,19 +605,92 @@ public class MainApp extends Application {
         logger.log("Starting ChopChop");
         this.ui.start(primaryStage);
 
-        // we can only load entries after the UI starts!!!!
+        // we can only load entries after the UI starts!!!! they are loaded on the model's thread, like any
+        // other change to it, so the window can be drawn in the meantime.
+        this.commandQueue.execute(() -> {
+            this.startComponents();
+            this.runScript();
+        });
+    }
+
+    /**
+     * Loads the data, and starts the services created by {@link #initComponents(AppParameters, Executor)}.
+     */
+    protected void startComponents() {
+        // the recommendations are restored first, so they don't all need to be recomputed as the data is loaded.
+        this.logic.restoreRecommendations();
         this.loadEntries();
+        this.logic.archiveColdRecipes();
+        this.logic.resumeRecommendations(this.modelExecutor);
+
+        if (this.dataFileSync != null) {
+            try {
+                this.dataFileSync.start();
+            } catch (IOException e) {
+                logger.warn("Failed to start watching data files: %s", StringUtil.getDetails(e));
+            }
+        }
+
+        if (this.backupManager != null) {
+            this.backupManager.start(this.model.getUserPrefs().getBackupIntervalMinutes());
+        }
+    }
+
+    /**
+     * Runs the script given on the command line, if there was one.
+     */
+    protected void runScript() {
+        // this goes through the usual command path, so the script is saved and can be undone as usual.
+        if (this.scriptPath != null) {
+            // slashes start named arguments, so they need to be escaped.
+            var result = this.logic.execute(String.format("run %s", this.scriptPath.toString().replace("/", "\\/")));
+            this.showOutput(result.getParts().stream()
+                .map(CommandResult.Part::getText)
+                .collect(Collectors.joining(" ")), result.isError());
+        }
     }
 
 
     @Override
     public void stop() {
         logger.log("ChopChop Shutdown");
+
+        // let the commands that were already entered finish, so they are saved; the model is ours after this.
+        if (this.commandQueue != null) {
+            this.commandQueue.close();
+        }
+
+        this.logic.saveRecommendations();
+
         try {
             this.storage.saveUserPrefs(this.model.getUserPrefs());
         } catch (IOException e) {
             logger.error("Failed to save preferences: ", StringUtil.getDetails(e));
         }
+
+        if (this.backupManager != null) {
+            try {
+                this.backupManager.close();
+            } catch (IOException e) {
+                logger.error("Failed to stop backups: %s", StringUtil.getDetails(e));
+            }
+        }
+
+        if (this.dataFileSync != null) {
+            try {
+                this.dataFileSync.close();
+            } catch (IOException e) {
+                logger.error("Failed to stop watching data files: %s", StringUtil.getDetails(e));
+            }
+        }
+
+        if (this.database != null) {
+            try {
+                this.database.close();
+            } catch (IOException e) {
+                logger.error("Failed to close database: %s", StringUtil.getDetails(e));
+            }
+        }
     }
 
 
@@ -274,17 +700,4 @@ public class MainApp extends Application {
     public static MainApp the() {
         return MainApp.singletonInstance;
     }
-
-
-
-    // dumb stuff.
-    @FunctionalInterface
-    private static interface EntryBookSupplier<T extends Entry> {
-        Optional<ReadOnlyEntryBook<T>> get() throws DataConversionException;
-    }
-
-    @FunctionalInterface
-    private static interface UsageListSupplier<T extends Usage> {
-        Optional<UsageList<T>> get() throws DataConversionException;
-    }
 }
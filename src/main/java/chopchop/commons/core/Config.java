@@ -16,6 +16,10 @@ public class Config {
     private Level logLevel = Level.INFO;
     private Path userPrefsFilePath = Paths.get("preferences.json");
 
+    // where the data is kept; the database path excludes the extension (.mv.db) that the database adds.
+    private StorageBackend storageBackend = StorageBackend.JSON;
+    private Path databaseFilePath = Paths.get("data", "chopchop");
+
     public Level getLogLevel() {
         return logLevel;
     }
@@ -32,6 +36,22 @@ public class Config {
         this.userPrefsFilePath = userPrefsFilePath;
     }
 
+    public StorageBackend getStorageBackend() {
+        return storageBackend;
+    }
+
+    public void setStorageBackend(StorageBackend storageBackend) {
+        this.storageBackend = storageBackend;
+    }
+
+    public Path getDatabaseFilePath() {
+        return databaseFilePath;
+    }
+
+    public void setDatabaseFilePath(Path databaseFilePath) {
+        this.databaseFilePath = databaseFilePath;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -44,12 +64,14 @@ public class Config {
         Config o = (Config) other;
 
         return Objects.equals(logLevel, o.logLevel)
-                && Objects.equals(userPrefsFilePath, o.userPrefsFilePath);
+                && Objects.equals(userPrefsFilePath, o.userPrefsFilePath)
+                && Objects.equals(storageBackend, o.storageBackend)
+                && Objects.equals(databaseFilePath, o.databaseFilePath);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(logLevel, userPrefsFilePath);
+        return Objects.hash(logLevel, userPrefsFilePath, storageBackend, databaseFilePath);
     }
 
     @Override
@@ -57,7 +79,16 @@ public class Config {
         StringBuilder sb = new StringBuilder();
         sb.append("Current log level : ").append(logLevel);
         sb.append("\nPreference file Location : ").append(userPrefsFilePath);
+        sb.append("\nStorage backend : ").append(storageBackend);
         return sb.toString();
     }
 
+    /**
+     * The kinds of storage that the data can be kept in.
+     */
+    public enum StorageBackend {
+        JSON,
+        DATABASE
+    }
+
 }
@@ -3,6 +3,7 @@
 package chopchop.commons.core;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -84,6 +85,13 @@ public class Log {
 
 
 
+    /**
+     * Returns the directory that the log files are written to.
+     */
+    public static Path getLogDirectory() {
+        return Paths.get(logFileLocation).getParent();
+    }
+
     /**
      * Initialises the logging subsystem, and sets up the handlers as appropriate.
      */
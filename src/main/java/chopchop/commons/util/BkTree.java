@@ -0,0 +1,181 @@
+// BkTree.java
+
+package chopchop.commons.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BK-tree of strings, for finding the strings within some edit distance of a query without comparing it with
+ * every one of them. Each child of a node is stored under its distance from the node, so by the triangle
+ * inequality a search only needs to visit the children whose distance is within the tolerance of the query's
+ * distance from the node.
+ *
+ * A string may be added more than once, and is only removed once it was removed as many times as it was added.
+ * Since a node cannot be taken out of a BK-tree without rebuilding everything under it, removed strings are only
+ * marked as such (and skipped by searches); the tree is rebuilt once they outnumber the rest.
+ */
+public class BkTree {
+    private Node root = null;
+
+    // every string in the tree (including the removed ones), and the number of them that were removed.
+    private final Map<String, Node> nodes = new HashMap<>();
+    private int removed = 0;
+
+    /**
+     * Adds the given string.
+     */
+    public void add(String str) {
+        var node = this.nodes.get(str);
+        if (node != null) {
+            if (node.count == 0) {
+                this.removed--;
+            }
+            node.count++;
+            return;
+        }
+
+        node = new Node(str);
+        this.nodes.put(str, node);
+        this.insert(node);
+    }
+
+    /**
+     * Removes the given string, once for every time it was added.
+     */
+    public void remove(String str) {
+        var node = this.nodes.get(str);
+        if (node == null || node.count == 0) {
+            return;
+        }
+
+        node.count--;
+        if (node.count > 0) {
+            return;
+        }
+
+        this.removed++;
+        if (this.removed > this.size()) {
+            this.rebuild();
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings in the tree.
+     */
+    public int size() {
+        return this.nodes.size() - this.removed;
+    }
+
+    /**
+     * Returns the strings at most {@code maxDistance} edits away from {@code query}, closest first (and then in
+     * alphabetical order), along with their distances.
+     */
+    public List<Pair<String, Integer>> search(String query, int maxDistance) {
+        var found = new ArrayList<Pair<String, Integer>>();
+        if (this.root == null) {
+            return found;
+        }
+
+        var pending = new ArrayDeque<Node>();
+        pending.push(this.root);
+
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            var dist = StringUtil.getEditDistance(query, node.str);
+
+            if (dist <= maxDistance && node.count > 0) {
+                found.add(Pair.of(node.str, dist));
+            }
+
+            for (int i = 0; i < node.distances.length; i++) {
+                if (Math.abs(node.distances[i] - dist) <= maxDistance) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+
+        found.sort(Comparator.comparing((Pair<String, Integer> p) -> p.snd()).thenComparing(Pair::fst));
+        return found;
+    }
+
+    private void insert(Node node) {
+        if (this.root == null) {
+            this.root = node;
+            return;
+        }
+
+        var parent = this.root;
+        while (true) {
+            var dist = StringUtil.getEditDistance(node.str, parent.str);
+            var child = parent.getChild(dist);
+            if (child == null) {
+                parent.addChild(dist, node);
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    private void rebuild() {
+        var remaining = new ArrayList<Node>();
+        for (var node : this.nodes.values()) {
+            if (node.count > 0) {
+                remaining.add(new Node(node.str, node.count));
+            }
+        }
+
+        this.root = null;
+        this.nodes.clear();
+        this.removed = 0;
+
+        for (var node : remaining) {
+            this.nodes.put(node.str, node);
+            this.insert(node);
+        }
+    }
+
+    private static class Node {
+        private static final int[] NO_DISTANCES = new int[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final String str;
+
+        // the number of times the string was added (less the times it was removed).
+        private int count;
+
+        // most nodes have few children, so these are kept as small as possible.
+        private int[] distances = NO_DISTANCES;
+        private Node[] children = NO_CHILDREN;
+
+        Node(String str) {
+            this(str, 1);
+        }
+
+        Node(String str, int count) {
+            this.str = str;
+            this.count = count;
+        }
+
+        Node getChild(int dist) {
+            for (int i = 0; i < this.distances.length; i++) {
+                if (this.distances[i] == dist) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int dist, Node child) {
+            this.distances = Arrays.copyOf(this.distances, this.distances.length + 1);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.distances[this.distances.length - 1] = dist;
+            this.children[this.children.length - 1] = child;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+// BulkEditableList.java
+
+package chopchop.commons.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A {@code ListenableList} that supports bulk editing operations.
+ *
+ * To start a bulk editing operation, call {@code startEditing()}, and {@code finishEditing()} to finish it.
+ * Any edits (add/set/remove) to the list between those calls will be batched up, and the listeners are only
+ * called once, after the edit finishes.
+ *
+ * These calls can be nested arbitrarily, but they must be paired and closed properly.
+ *
+ * The changes are only recorded while there are listeners, so when there are none, this is no slower than the
+ * {@code ArrayList} that backs it.
+ */
+public class BulkEditableList<T> extends AbstractList<T> implements ListenableList<T>, RandomAccess {
+
+    private final List<T> list;
+    private final List<ListListener<? super T>> listeners = new ArrayList<>();
+
+    private int editNesting = 0;
+
+    // the changes since the listeners were last called; these are only kept while there are listeners.
+    private final List<T> removed = new ArrayList<>();
+    private final List<T> added = new ArrayList<>();
+
+    /**
+     * Creates an empty list.
+     */
+    public BulkEditableList() {
+        this.list = new ArrayList<>();
+    }
+
+    /**
+     * Creates a list by copying items from the given list.
+     *
+     * @param items the input list
+     */
+    public BulkEditableList(Collection<? extends T> items) {
+        this.list = new ArrayList<>(items);
+    }
+
+    @Override
+    public void addListener(ListListener<? super T> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ListListener<? super T> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Starts a bulk edit operation on the list. Each call to {@code startEditing} must be paired
+     * with a corresponding call to {@code finishEditing}. These pairs can be nested.
+     */
+    public void startEditing() {
+        this.editNesting++;
+    }
+
+    /**
+     * Finishes a bulk edit operation on the entry list. Each call to {@code finishEditing} must be paired
+     * with a corresponding call to {@code startEditing}. These pairs can be nested.
+     */
+    public void finishEditing() {
+        this.editNesting--;
+        this.notifyListeners();
+    }
+
+    @Override
+    public T get(int index) {
+        return this.list.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.list.size();
+    }
+
+    @Override
+    public void add(int index, T item) {
+        this.list.add(index, item);
+        this.modCount++;
+
+        this.recordAdded(item);
+        this.notifyListeners();
+    }
+
+    @Override
+    public T set(int index, T item) {
+        var old = this.list.set(index, item);
+
+        this.recordRemoved(old);
+        this.recordAdded(item);
+        this.notifyListeners();
+        return old;
+    }
+
+    @Override
+    public T remove(int index) {
+        var old = this.list.remove(index);
+        this.modCount++;
+
+        this.recordRemoved(old);
+        this.notifyListeners();
+        return old;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        this.startEditing();
+        try {
+            return super.addAll(items);
+        } finally {
+            this.finishEditing();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> items) {
+        return this.removeIf(items::contains);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        // removing the elements one by one would move the rest of the list each time.
+        int kept = 0;
+        for (int i = 0; i < this.list.size(); i++) {
+            var item = this.list.get(i);
+            if (filter.test(item)) {
+                this.recordRemoved(item);
+            } else {
+                this.list.set(kept++, item);
+            }
+        }
+
+        if (kept == this.list.size()) {
+            return false;
+        }
+
+        this.list.subList(kept, this.list.size()).clear();
+        this.modCount++;
+        this.notifyListeners();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        this.setAll(List.of());
+    }
+
+    /**
+     * Replaces the contents of the list with {@code items}, notifying the listeners once.
+     */
+    public void setAll(Collection<? extends T> items) {
+        if (!this.listeners.isEmpty()) {
+            this.removed.addAll(this.list);
+            this.added.addAll(items);
+        }
+
+        this.list.clear();
+        this.list.addAll(items);
+        this.modCount++;
+        this.notifyListeners();
+    }
+
+    private void recordRemoved(T item) {
+        if (!this.listeners.isEmpty()) {
+            this.removed.add(item);
+        }
+    }
+
+    private void recordAdded(T item) {
+        if (!this.listeners.isEmpty()) {
+            this.added.add(item);
+        }
+    }
+
+    private void notifyListeners() {
+        if (this.editNesting > 0 || (this.removed.isEmpty() && this.added.isEmpty())) {
+            return;
+        }
+
+        var removed = Collections.unmodifiableList(new ArrayList<>(this.removed));
+        var added = Collections.unmodifiableList(new ArrayList<>(this.added));
+        this.removed.clear();
+        this.added.clear();
+
+        for (var listener : new ArrayList<>(this.listeners)) {
+            listener.onChanged(removed, added);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable view of this list, which can still be listened to.
+     */
+    public ListenableList<T> asUnmodifiableList() {
+        return new UnmodifiableView<>(this);
+    }
+
+    private static class UnmodifiableView<T> extends AbstractList<T> implements ListenableList<T>, RandomAccess {
+        private final ListenableList<T> list;
+
+        UnmodifiableView(ListenableList<T> list) {
+            this.list = list;
+        }
+
+        @Override
+        public T get(int index) {
+            return this.list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.list.size();
+        }
+
+        @Override
+        public void addListener(ListListener<? super T> listener) {
+            this.list.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(ListListener<? super T> listener) {
+            this.list.removeListener(listener);
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package chopchop.commons.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Writes and reads files
@@ -13,6 +25,10 @@ public class FileUtil {
 
     private static final String CHARSET = "UTF-8";
 
+    // the first two bytes of every gzip stream (RFC 1952).
+    private static final int GZIP_MAGIC_0 = 0x1f;
+    private static final int GZIP_MAGIC_1 = 0x8b;
+
     public static boolean doesFileExist(Path file) {
         return Files.exists(file) && Files.isRegularFile(file);
     }
@@ -76,6 +92,18 @@ public class FileUtil {
         return new String(Files.readAllBytes(file), CHARSET);
     }
 
+    /**
+     * Moves {@code source} over {@code target}, replacing it if it exists. Where the filesystem allows it,
+     * the move is atomic, so {@code target} is never observed in a half-written state.
+     */
+    public static void replaceFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     /**
      * Writes given string to a file.
      * Will create the file if it does not exist yet.
@@ -84,4 +112,120 @@ public class FileUtil {
         Files.write(file, content.getBytes(CHARSET));
     }
 
+    /**
+     * Returns true if the file at {@code file} is gzip-compressed; see {@link #isCompressed(InputStream)}.
+     */
+    public static boolean isCompressed(Path file) throws IOException {
+        try (var in = new BufferedInputStream(Files.newInputStream(file), 2)) {
+            return isCompressed(in);
+        }
+    }
+
+    /**
+     * Returns true if the stream starts with the gzip magic number, without consuming any of it; the stream
+     * must support {@code mark} and {@code reset}.
+     *
+     * This is how every data file is read: whether it is compressed is decided by its contents, not by its
+     * name or by the compression setting, so a file saved either way can always be read, and changing the
+     * setting only affects how files are saved from then on.
+     */
+    public static boolean isCompressed(InputStream in) throws IOException {
+        in.mark(2);
+        try {
+            return in.read() == GZIP_MAGIC_0 && in.read() == GZIP_MAGIC_1;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Opens a buffered stream for reading the file at {@code file}. If the file is gzip-compressed (see
+     * {@link #isCompressed(InputStream)}), the returned stream transparently decompresses it.
+     */
+    public static InputStream openInputStream(Path file, int bufferSize) throws IOException {
+        return wrapInputStream(Files.newInputStream(file), bufferSize);
+    }
+
+    /**
+     * Opens a stream like {@link #openInputStream(Path, int)}, but also updates {@code checksum} with every byte
+     * read from the file (ie. before decompression), so that once the stream has been read to its end, the
+     * checksum matches what {@link #checksum(Path)} would return for the file, without having to read it again.
+     */
+    public static InputStream openInputStream(Path file, int bufferSize, Checksum checksum) throws IOException {
+        return wrapInputStream(new CheckedInputStream(Files.newInputStream(file), checksum), bufferSize);
+    }
+
+    private static InputStream wrapInputStream(InputStream raw, int bufferSize) throws IOException {
+        var in = new BufferedInputStream(raw, bufferSize);
+
+        try {
+            if (!isCompressed(in)) {
+                return in;
+            }
+
+            // inflating is much faster than reading, so give the inflater a large input buffer, and buffer
+            // its output so that small reads from the caller don't each go through the inflater.
+            return new BufferedInputStream(new GZIPInputStream(in, bufferSize), bufferSize);
+
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a buffered stream for writing to the file at {@code file}, compressing the output with gzip
+     * if {@code compress} is true.
+     */
+    public static OutputStream openOutputStream(Path file, boolean compress, int bufferSize) throws IOException {
+        return wrapOutputStream(Files.newOutputStream(file), compress, bufferSize);
+    }
+
+    /**
+     * Opens a stream like {@link #openOutputStream(Path, boolean, int)}, but also updates {@code checksum} with
+     * every byte written to the file (ie. after compression), so that the checksum ends up matching what
+     * {@link #checksum(Path)} would return for the file, without having to read it again.
+     */
+    public static OutputStream openOutputStream(Path file, boolean compress, int bufferSize, Checksum checksum)
+            throws IOException {
+        return wrapOutputStream(new CheckedOutputStream(Files.newOutputStream(file), checksum), compress, bufferSize);
+    }
+
+    private static OutputStream wrapOutputStream(OutputStream out, boolean compress, int bufferSize)
+            throws IOException {
+        if (!compress) {
+            return new BufferedOutputStream(out, bufferSize);
+        }
+
+        try {
+            return new BufferedOutputStream(new GZIPOutputStream(out, bufferSize), bufferSize);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the contents of the file at {@code file}, as 8 hexadecimal digits.
+     */
+    public static String checksum(Path file) throws IOException {
+        var crc = new CRC32();
+        var buffer = new byte[64 * 1024];
+
+        try (var in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+            }
+        }
+
+        return formatChecksum(crc);
+    }
+
+    /**
+     * Returns the value of {@code checksum} as 8 hexadecimal digits, as {@link #checksum(Path)} does.
+     */
+    public static String formatChecksum(Checksum checksum) {
+        return String.format("%08x", checksum.getValue());
+    }
 }
@@ -0,0 +1,161 @@
+// FilteredListView.java
+
+package chopchop.commons.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An unmodifiable view of the elements of a {@code ListenableList} that match a predicate, optionally sorted,
+ * which is kept up to date as the source list changes (like JavaFX's {@code FilteredList} and
+ * {@code SortedList}). A null predicate matches everything, and a null comparator keeps the source's order; if
+ * both are null, the view reads straight through to the source.
+ *
+ * The view is recomputed whenever the source changes, so changes to the source should be made in bulk where
+ * possible (see {@link BulkEditableList#startEditing()}).
+ */
+public class FilteredListView<T> extends AbstractList<T> implements ListenableList<T>, RandomAccess {
+
+    private final ListenableList<T> source;
+    private final List<ListListener<? super T>> listeners = new ArrayList<>();
+
+    private Predicate<? super T> predicate;
+    private Comparator<? super T> comparator;
+
+    // the matching elements, or null when there is no predicate or comparator.
+    private List<T> filtered;
+
+    /**
+     * Creates a view of the elements of {@code source} that match {@code predicate}, in the source's order.
+     */
+    public FilteredListView(ListenableList<T> source, Predicate<? super T> predicate) {
+        this(source, predicate, /* follow: */ true);
+    }
+
+    /**
+     * Creates a view of all the elements of {@code source}.
+     */
+    public FilteredListView(ListenableList<T> source) {
+        this(source, null);
+    }
+
+    private FilteredListView(ListenableList<T> source, Predicate<? super T> predicate, boolean follow) {
+        this.source = source;
+        this.predicate = predicate;
+
+        this.refilter();
+        if (follow) {
+            this.source.addListener(this::onSourceChanged);
+        }
+    }
+
+    /**
+     * Creates a view of the elements of {@code source} that match {@code predicate}, where {@code source} will
+     * never change (eg. because it is part of a snapshot). The view does not listen to the source, so any number
+     * of these can be made without the source keeping them alive, and they can be made on any thread.
+     */
+    public static <T> FilteredListView<T> detached(ListenableList<T> source, Predicate<? super T> predicate) {
+        return new FilteredListView<>(source, predicate, /* follow: */ false);
+    }
+
+    /**
+     * Returns the predicate that elements must match to be in the view, or null if every element is.
+     */
+    public Predicate<? super T> getPredicate() {
+        return this.predicate;
+    }
+
+    /**
+     * Changes the predicate that elements must match to be in the view.
+     */
+    public void setPredicate(Predicate<? super T> predicate) {
+        if (predicate == null && this.predicate == null) {
+            return;
+        }
+
+        this.predicate = predicate;
+        this.refilterAndNotify();
+    }
+
+    /**
+     * Changes the order of the elements in the view.
+     */
+    public void setComparator(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.refilterAndNotify();
+    }
+
+    @Override
+    public void addListener(ListListener<? super T> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ListListener<? super T> listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public T get(int index) {
+        return this.filtered == null ? this.source.get(index) : this.filtered.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.filtered == null ? this.source.size() : this.filtered.size();
+    }
+
+    private void refilter() {
+        if (this.predicate == null && this.comparator == null) {
+            this.filtered = null;
+            return;
+        }
+
+        var stream = this.predicate == null ? this.source.stream() : this.source.stream().filter(this.predicate);
+        if (this.comparator != null) {
+            stream = stream.sorted(this.comparator);
+        }
+
+        this.filtered = stream.collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private void refilterAndNotify() {
+        // the whole view might have changed.
+        var old = this.listeners.isEmpty() ? List.<T>of() : new ArrayList<>(this);
+        this.modCount++;
+        this.refilter();
+        this.notifyListeners(old, this.listeners.isEmpty() ? List.of() : new ArrayList<>(this));
+    }
+
+    private void onSourceChanged(List<? extends T> removed, List<? extends T> added) {
+        this.modCount++;
+        this.refilter();
+
+        if (this.predicate == null) {
+            this.notifyListeners(removed, added);
+        } else {
+            this.notifyListeners(
+                removed.stream().filter(this.predicate).collect(Collectors.toList()),
+                added.stream().filter(this.predicate).collect(Collectors.toList()));
+        }
+    }
+
+    private void notifyListeners(List<? extends T> removed, List<? extends T> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        var unmodifiableRemoved = Collections.unmodifiableList(removed);
+        var unmodifiableAdded = Collections.unmodifiableList(added);
+
+        for (var listener : new ArrayList<>(this.listeners)) {
+            listener.onChanged(unmodifiableRemoved, unmodifiableAdded);
+        }
+    }
+}
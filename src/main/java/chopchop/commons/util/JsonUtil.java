@@ -3,17 +3,29 @@ package chopchop.commons.util;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.logging.Level;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -21,9 +33,15 @@ import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
 
 /**
  * Converts a Java object instance to JSON and vice versa
+ *
+ * The methods here use a mapper that only knows about plain (eg. annotated) classes; callers that need to
+ * read or write other classes, such as the storage layer with the model classes, can configure a copy of it
+ * (see {@link #copyObjectMapper()}) and pass it (or a reader or writer made from it) to the overloads that
+ * take one.
  */
 public class JsonUtil {
 
@@ -38,18 +56,34 @@ public class JsonUtil {
                     .addSerializer(Level.class, new ToStringSerializer())
                     .addDeserializer(Level.class, new LevelDeserializer(Level.class)));
 
-    static <T> void serializeObjectToJsonFile(Path jsonFile, T objectToSerialize) throws IOException {
-        var str = toJsonString(objectToSerialize);
-        if (!str.endsWith(String.format("%n"))) {
-            str += String.format("%n");
-        }
+    private static final ObjectWriter elementWriter = newElementWriter(objectMapper);
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Returns a copy of the mapper used here, which can be configured further (eg. with more modules) without
+     * affecting it.
+     */
+    public static ObjectMapper copyObjectMapper() {
+        return objectMapper.copy();
+    }
+
+    // the pretty printer is set on the generator itself (see writeJsonFile), so this writer must not have
+    // one -- otherwise it would install a fresh printer (and lose the indentation) for every element.
+    // we also don't want to flush the underlying stream after every element.
+    private static ObjectWriter newElementWriter(ObjectMapper mapper) {
+        return mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
 
-        FileUtil.writeToFile(jsonFile, str);
+    static <T> void serializeObjectToJsonFile(Path jsonFile, T objectToSerialize) throws IOException {
+        writeJsonFile(jsonFile, /* compress: */ false, gen -> elementWriter.writeValue(gen, objectToSerialize));
     }
 
     static <T> T deserializeObjectFromJsonFile(Path jsonFile, Class<T> classOfObjectToDeserialize)
             throws IOException {
-        return fromJsonString(FileUtil.readFromFile(jsonFile), classOfObjectToDeserialize);
+        try (var parser = openParser(jsonFile)) {
+            return objectMapper.readValue(parser, classOfObjectToDeserialize);
+        }
     }
 
     /**
@@ -94,6 +128,222 @@ public class JsonUtil {
         serializeObjectToJsonFile(filePath, jsonFile);
     }
 
+    /**
+     * Reads a json file consisting of a single object with an array field named {@code fieldName}, eg.
+     * {@code { "recipes": [ ... ] }}. Rather than deserialising the entire file at once, each element of
+     * the array is read and handed to {@code consumer} one at a time, so the file (and the list of
+     * elements) never needs to be held in memory in its entirety. Other fields in the object are skipped.
+     * The file may be gzip-compressed; see {@link FileUtil#isCompressed(InputStream)}.
+     *
+     * @param filePath     cannot be null.
+     * @param fieldName    the name of the array field to read.
+     * @param elementClass the class of each element in the array.
+     * @param consumer     receives each element, in file order.
+     * @return false if the file was not found, true otherwise.
+     * @throws DataConversionException if the file format is not as expected, or if the consumer rejected
+     *                                 an element.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String fieldName, Class<T> elementClass,
+            ElementConsumer<? super T> consumer) throws DataConversionException {
+        return readJsonArrayFile(filePath, fieldName, objectMapper.readerFor(elementClass), consumer);
+    }
+
+    /**
+     * Reads a json file like {@link #readJsonArrayFile(Path, String, Class, ElementConsumer)}, but reads each
+     * element with the given {@code reader}, which must be for the element type that {@code consumer} takes.
+     * Errors thrown by the deserialisers with an {@link IllegalValueException} as their cause are reported
+     * as that exception.
+     *
+     * If an element is invalid, or is rejected by the consumer, the error says which element it was (and
+     * which line it started on), eg. {@code "Entry 12 (line 340): Names should not be blank"}.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String fieldName, ObjectReader reader,
+            ElementConsumer<? super T> consumer) throws DataConversionException {
+        return readJsonArrayFile(filePath, fieldName, reader, Optional.empty(), consumer);
+    }
+
+    /**
+     * Reads a json file like {@link #readJsonArrayFile(Path, String, ObjectReader, ElementConsumer)}, and also
+     * updates {@code checksum} with the contents of the file as it is read (see
+     * {@link FileUtil#openInputStream(Path, int, Checksum)}). The file is always read to its end, so once this
+     * returns, the checksum matches what {@link FileUtil#checksum(Path)} would return for the file.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String fieldName, ObjectReader reader,
+            Checksum checksum, ElementConsumer<? super T> consumer) throws DataConversionException {
+        requireNonNull(checksum);
+        return readJsonArrayFile(filePath, fieldName, reader, Optional.of(checksum), consumer);
+    }
+
+    private static <T> boolean readJsonArrayFile(Path filePath, String fieldName, ObjectReader reader,
+            Optional<Checksum> checksum, ElementConsumer<? super T> consumer) throws DataConversionException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            logger.warn("Json file '%s' not found", filePath);
+            return false;
+        }
+
+        int index = 0;
+        int line = 0;
+        try (var parser = openParser(filePath, checksum)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw JsonMappingException.from(parser, "Expected a json object");
+            }
+
+            var found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.getCurrentName();
+                var token = parser.nextToken();
+
+                if (!name.equals(fieldName) || found) {
+                    parser.skipChildren();
+                    continue;
+                } else if (token != JsonToken.START_ARRAY) {
+                    throw JsonMappingException.from(parser, String.format("Expected '%s' to be an array", fieldName));
+                }
+
+                found = true;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    index++;
+                    line = parser.getTokenLocation().getLineNr();
+
+                    T element = reader.readValue(parser);
+                    if (element == null) {
+                        throw JsonMappingException.from(parser, String.format("Null element in '%s'", fieldName));
+                    }
+
+                    consumer.accept(element);
+                }
+
+                index = 0;
+            }
+
+            if (parser.getCurrentToken() != JsonToken.END_OBJECT) {
+                throw JsonMappingException.from(parser, "Unexpected end of json object");
+            } else if (!found) {
+                throw JsonMappingException.from(parser, String.format("Missing field '%s'", fieldName));
+            }
+
+            // the checksum covers the whole file, including anything after the object.
+            if (checksum.isPresent()) {
+                var in = (InputStream) parser.getInputSource();
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+        } catch (IOException e) {
+            // validation errors from the model deserialisers come wrapped in a JsonMappingException.
+            if (e.getCause() instanceof IllegalValueException) {
+                throw invalidElement(filePath, index, line, e.getCause().getMessage());
+            } else if (index > 0 && e instanceof JsonProcessingException) {
+                throw invalidElement(filePath, index, line, ((JsonProcessingException) e).getOriginalMessage());
+            }
+
+            logger.warn("Error reading from jsonFile file '%s': %s", filePath, e);
+            throw new DataConversionException(e);
+        } catch (IllegalValueException e) {
+            throw invalidElement(filePath, index, line, e.getMessage());
+        }
+
+        return true;
+    }
+
+    private static DataConversionException invalidElement(Path filePath, int index, int line, String message) {
+        var msg = index > 0
+            ? String.format("Entry %d (line %d): %s", index, line, message)
+            : message;
+
+        logger.warn("json error ('%s'): %s", filePath, msg);
+        return new DataConversionException(new IllegalValueException(msg));
+    }
+
+    /**
+     * Saves a json file consisting of a single object with an array field named {@code fieldName}; this is
+     * the counterpart of {@link #readJsonArrayFile(Path, String, Class, ElementConsumer)}. Each item is
+     * converted with {@code adapter} and written out immediately, so only one converted element is alive at
+     * any time. The output is identical to that of {@link #saveJsonFile(Object, Path)}.
+     *
+     * The file is first written to a temporary file next to it, which is then moved over the original;
+     * this way, an error halfway through writing will not leave a truncated data file behind.
+     *
+     * @param filePath  cannot be null.
+     * @param fieldName the name of the array field to write.
+     * @param items     the items to write, in order.
+     * @param adapter   converts each item into its json-serialisable form.
+     * @return the checksum of the file that was written (see {@link FileUtil#checksum(Path)}).
+     * @throws IOException if there was an error during writing to the file.
+     */
+    public static <S> String saveJsonArrayFile(Path filePath, String fieldName, Iterable<? extends S> items,
+            Function<? super S, ?> adapter) throws IOException {
+        return saveJsonArrayFile(filePath, fieldName, items, adapter, /* compress: */ false);
+    }
+
+    /**
+     * Saves a json file like {@link #saveJsonArrayFile(Path, String, Iterable, Function)}, but compresses
+     * it with gzip if {@code compress} is true. The file keeps its name either way; compressed files are
+     * detected when they are read.
+     */
+    public static <S> String saveJsonArrayFile(Path filePath, String fieldName, Iterable<? extends S> items,
+            Function<? super S, ?> adapter, boolean compress) throws IOException {
+        return saveJsonArrayFile(filePath, fieldName, items, adapter, compress, objectMapper);
+    }
+
+    /**
+     * Saves a json file like {@link #saveJsonArrayFile(Path, String, Iterable, Function, boolean)}, but writes
+     * each element with the given {@code mapper}.
+     */
+    public static <S> String saveJsonArrayFile(Path filePath, String fieldName, Iterable<? extends S> items,
+            Function<? super S, ?> adapter, boolean compress, ObjectMapper mapper) throws IOException {
+        requireNonNull(filePath);
+        requireNonNull(items);
+
+        var elementWriter = mapper == objectMapper ? JsonUtil.elementWriter : newElementWriter(mapper);
+        return writeJsonFile(filePath, compress, gen -> {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart(fieldName);
+
+            for (var item : items) {
+                elementWriter.writeValue(gen, adapter.apply(item));
+            }
+
+            gen.writeEndArray();
+            gen.writeEndObject();
+        });
+    }
+
+    private static JsonParser openParser(Path jsonFile) throws IOException {
+        return openParser(jsonFile, Optional.empty());
+    }
+
+    private static JsonParser openParser(Path jsonFile, Optional<Checksum> checksum) throws IOException {
+        var in = checksum.isPresent()
+            ? FileUtil.openInputStream(jsonFile, STREAM_BUFFER_SIZE, checksum.get())
+            : FileUtil.openInputStream(jsonFile, STREAM_BUFFER_SIZE);
+
+        return objectMapper.getFactory().createParser(in);
+    }
+
+    /**
+     * Writes a json file with the given action, returning the checksum of the file.
+     */
+    private static String writeJsonFile(Path jsonFile, boolean compress, GeneratorAction action) throws IOException {
+        var temp = jsonFile.resolveSibling(jsonFile.getFileName() + ".tmp");
+        var checksum = new CRC32();
+
+        try (var out = FileUtil.openOutputStream(temp, compress, STREAM_BUFFER_SIZE, checksum);
+             var gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+
+            gen.useDefaultPrettyPrinter();
+            action.write(gen);
+            gen.writeRaw(String.format("%n"));
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        FileUtil.replaceFile(temp, jsonFile);
+        return FileUtil.formatChecksum(checksum);
+    }
+
 
     /**
      * Converts a given string representation of a JSON data to instance of a class
@@ -101,7 +351,15 @@ public class JsonUtil {
      * @return The instance of T with the specified values in the JSON string
      */
     public static <T> T fromJsonString(String json, Class<T> instanceClass) throws IOException {
-        return objectMapper.readValue(json, instanceClass);
+        return fromJsonString(json, instanceClass, objectMapper);
+    }
+
+    /**
+     * Converts a json string into an instance of a class like {@link #fromJsonString(String, Class)}, but
+     * with the given {@code mapper}.
+     */
+    public static <T> T fromJsonString(String json, Class<T> instanceClass, ObjectMapper mapper) throws IOException {
+        return mapper.readValue(json, instanceClass);
     }
 
     /**
@@ -111,7 +369,29 @@ public class JsonUtil {
      * @return JSON data representation of the given class instance, in string
      */
     public static <T> String toJsonString(T instance) throws JsonProcessingException {
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(instance);
+        return toJsonString(instance, objectMapper);
+    }
+
+    /**
+     * Converts an instance into its json string like {@link #toJsonString(Object)}, but with the given
+     * {@code mapper}.
+     */
+    public static <T> String toJsonString(T instance, ObjectMapper mapper) throws JsonProcessingException {
+        return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(instance);
+    }
+
+    /**
+     * Receives elements read from a json array, typically converting them into the model. The conversion
+     * is allowed to fail, which aborts the read.
+     */
+    @FunctionalInterface
+    public interface ElementConsumer<T> {
+        void accept(T element) throws IllegalValueException;
+    }
+
+    @FunctionalInterface
+    private interface GeneratorAction {
+        void write(JsonGenerator gen) throws IOException;
     }
 
     /**
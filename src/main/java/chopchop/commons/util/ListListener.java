@@ -0,0 +1,18 @@
+// ListListener.java
+
+package chopchop.commons.util;
+
+import java.util.List;
+
+/**
+ * Listens for changes to a {@link ListenableList}.
+ */
+@FunctionalInterface
+public interface ListListener<T> {
+
+    /**
+     * Called after the list changes, with the elements that were removed from it and those that were added to it
+     * (an element that was replaced counts as both). During a bulk edit, this is only called once, at the end.
+     */
+    void onChanged(List<? extends T> removed, List<? extends T> added);
+}
@@ -0,0 +1,23 @@
+// ListenableList.java
+
+package chopchop.commons.util;
+
+import java.util.List;
+
+/**
+ * A list that tells its listeners when it changes. This serves the same purpose as JavaFX's
+ * {@code ObservableList}, but it does not need JavaFX, and a change costs nothing extra when there are no
+ * listeners; the UI adapts these to {@code ObservableList}s where it needs to.
+ */
+public interface ListenableList<T> extends List<T> {
+
+    /**
+     * Adds a listener that is called whenever the list changes.
+     */
+    void addListener(ListListener<? super T> listener);
+
+    /**
+     * Removes a listener that was added with {@link #addListener(ListListener)}.
+     */
+    void removeListener(ListListener<? super T> listener);
+}
@@ -12,6 +12,8 @@ import java.util.Arrays;
  */
 public class StringUtil {
 
+    private static final int MAX_TYPO_TOLERANCE = 3;
+
     /**
      * Returns true if the {@code sentence} contains the {@code word}.
      *   Ignores case, but a full word match is required.
@@ -38,6 +40,50 @@ public class StringUtil {
                 .anyMatch(preppedWord::equalsIgnoreCase);
     }
 
+    /**
+     * Returns the edit (Levenshtein) distance between the two strings, ie. the least number of single-character
+     * insertions, deletions and substitutions that turn one into the other. This is case-sensitive.
+     */
+    public static int getEditDistance(String a, String b) {
+        requireNonNull(a);
+        requireNonNull(b);
+
+        // only the previous row of the table is needed for the next one.
+        var prev = new int[b.length() + 1];
+        var curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                var substitution = prev[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                curr[j] = Math.min(substitution, Math.min(prev[j], curr[j - 1]) + 1);
+            }
+
+            var tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+
+        return prev[b.length()];
+    }
+
+    /**
+     * Returns the number of typos to tolerate when matching the given string; this grows with its length, so
+     * that short words do not match most other short words.
+     *   <br>examples:<pre>
+     *       getTypoTolerance("ab") == 0
+     *       getTypoTolerance("egg") == 1
+     *       getTypoTolerance("parmesan") == 2
+     *       </pre>
+     */
+    public static int getTypoTolerance(String str) {
+        requireNonNull(str);
+        return Math.min(MAX_TYPO_TOLERANCE, (str.length() + 1) / 4);
+    }
+
     /**
      * Returns a detailed message of the t, including the stack trace.
      */
@@ -23,6 +23,7 @@ public class Strings {
     public static final ArgName ARG_NAME            = new ArgName("name");
     public static final ArgName ARG_AFTER           = new ArgName("after");
     public static final ArgName ARG_BEFORE          = new ArgName("before");
+    public static final ArgName ARG_FUZZY           = new ArgName("fuzzy");
 
     // command names
     public static final String COMMAND_ADD          = "add";
@@ -37,6 +38,12 @@ public class Strings {
     public static final String COMMAND_VIEW         = "view";
     public static final String COMMAND_STATS        = "stats";
     public static final String COMMAND_CLEAR        = "clear";
+    public static final String COMMAND_IMPORT       = "import";
+    public static final String COMMAND_BACKUP       = "backup";
+    public static final String COMMAND_RESTORE      = "restore";
+    public static final String COMMAND_WORKSPACE    = "workspace";
+    public static final String COMMAND_MIGRATE      = "migrate";
+    public static final String COMMAND_RUN          = "run";
     public static final String COMMAND_FILTER       = "filter";
     public static final String COMMAND_DELETE       = "delete";
 
@@ -54,10 +61,25 @@ public class Strings {
         COMMAND_REDO,
         COMMAND_STATS,
         COMMAND_CLEAR,
+        COMMAND_IMPORT,
+        COMMAND_BACKUP,
+        COMMAND_RESTORE,
+        COMMAND_WORKSPACE,
+        COMMAND_MIGRATE,
+        COMMAND_RUN,
         COMMAND_FILTER,
         COMMAND_DELETE
     );
 
+    // commands that are seldom typed, which are offered after the others when completing command names.
+    public static final List<String> RARE_COMMAND_NAMES = List.of(
+        COMMAND_BACKUP,
+        COMMAND_RESTORE,
+        COMMAND_WORKSPACE,
+        COMMAND_MIGRATE,
+        COMMAND_RUN
+    );
+
     public static final String STATS_KIND_TOP       = "top";
     public static final String STATS_KIND_USED      = "used";
     public static final String STATS_KIND_MADE      = "made";
@@ -0,0 +1,265 @@
+// BackupManager.java
+
+package chopchop.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.Pair;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.Model;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.UsageList;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+import chopchop.storage.BackupStore;
+import chopchop.storage.BackupStore.Generation;
+import chopchop.storage.Storage;
+
+/**
+ * Backs up the data directory into a {@link BackupStore}, both when asked to and periodically, and restores it
+ * from there. All the file I/O happens on a single background thread, so that backups never block the UI, and
+ * so that they are never interleaved with each other; results are reported to the user on the thread that owns
+ * the model.
+ *
+ * While a backup is being restored, the data files and the model are out of sync, so commands must not be run
+ * (see {@link #isRestoring()}).
+ */
+public class BackupManager implements Closeable {
+
+    private static final Log logger = new Log(BackupManager.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Model model;
+    private final Storage storage;
+    private final DataFileSync sync;
+    private final BackupStore store;
+    private final Path dataDirectory;
+    private final int retention;
+    private final Executor modelExecutor;
+    private final BiConsumer<String, Boolean> notifier;
+
+    private final ScheduledExecutorService executor;
+
+    // these are written by the backup thread, and read on the model's thread.
+    private volatile List<Generation> generations = List.of();
+    private volatile boolean restoring = false;
+
+    /**
+     * Constructs a {@code BackupManager} that backs up {@code dataDirectory} into {@code store}.
+     *
+     * @param sync          the data file sync to update after restoring a backup, or null if there is none.
+     * @param retention     the number of backups to keep.
+     * @param modelExecutor runs tasks on the thread that owns the model (ie. the FX thread).
+     * @param notifier      shows a message to the user; the second argument is true if it is an error.
+     */
+    public BackupManager(Model model, Storage storage, DataFileSync sync, BackupStore store, Path dataDirectory,
+        int retention, Executor modelExecutor, BiConsumer<String, Boolean> notifier) {
+
+        this.model = model;
+        this.storage = storage;
+        this.sync = sync;
+        this.store = store;
+        this.dataDirectory = dataDirectory;
+        this.retention = Math.max(1, retention);
+        this.modelExecutor = modelExecutor;
+        this.notifier = notifier;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the list of existing backups, and starts backing up every {@code intervalMinutes} minutes, if that
+     * is positive.
+     */
+    public void start(int intervalMinutes) {
+        this.executor.execute(this::refreshGenerations);
+
+        if (intervalMinutes > 0) {
+            this.executor.scheduleWithFixedDelay(this::runScheduledBackup, intervalMinutes, intervalMinutes,
+                TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Returns the backups that were in the store as of the last backup operation, oldest first.
+     */
+    public List<Generation> getGenerations() {
+        return this.generations;
+    }
+
+    /**
+     * Returns true if a backup is being restored.
+     */
+    public boolean isRestoring() {
+        return this.restoring;
+    }
+
+    /**
+     * Backs up the data directory in the background, telling the user when it is done.
+     */
+    public void backup() {
+        this.executor.execute(() -> {
+            try {
+                var result = this.runBackup();
+                this.notify(result.snd()
+                    ? String.format("Created backup %d (%s)", result.fst().getNumber(), describe(result.fst()))
+                    : String.format("Nothing has changed since backup %d", result.fst().getNumber()),
+                    /* isError: */ false);
+
+            } catch (IOException e) {
+                logger.warn("Backup failed: %s", StringUtil.getDetails(e));
+                this.notify(String.format("Could not back up data: %s", e.getMessage()), /* isError: */ true);
+            }
+        });
+    }
+
+    /**
+     * Restores backup {@code number} in the background. The current data is backed up first, so that the
+     * restore can itself be undone by restoring that backup. Once the data files are restored, they are loaded
+     * into the model, and {@code onRestored} is run, on the model's thread.
+     */
+    public void restore(int number, Runnable onRestored) {
+        this.restoring = true;
+        this.executor.execute(() -> {
+            try {
+                var current = this.runBackup().fst();
+                var restored = this.store.restore(number, this.dataDirectory);
+
+                var recipes = this.storage.readRecipeBook();
+                var ingredients = this.storage.readIngredientBook();
+                var recipeUsages = this.storage.readRecipeUsages();
+                var ingredientUsages = this.storage.readIngredientUsages();
+
+                logger.log("Restored backup %d into '%s'", number, this.dataDirectory);
+                this.refreshGenerations();
+
+                this.modelExecutor.execute(() -> {
+                    this.load(recipes, ingredients, recipeUsages, ingredientUsages);
+                    this.restoring = false;
+                    onRestored.run();
+
+                    this.notifier.accept(String.format("Restored backup %d (%s); the previous data was saved "
+                        + "as backup %d", number, describe(restored), current.getNumber()), /* isError: */ false);
+                });
+
+            } catch (IOException | DataConversionException | RuntimeException e) {
+                logger.warn("Restoring backup %d failed: %s", number, StringUtil.getDetails(e));
+                this.modelExecutor.execute(() -> {
+                    this.restoring = false;
+                    this.notifier.accept(String.format("Could not restore backup %d: %s", number,
+                        e.getCause() == null ? e.getMessage() : e.getCause().getMessage()), /* isError: */ true);
+                });
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        // let a backup that is in progress finish, but don't start any more.
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Gave up waiting for backup to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runScheduledBackup() {
+        try {
+            var result = this.runBackup();
+            if (result.snd()) {
+                logger.log("Created scheduled backup %d (%s)", result.fst().getNumber(), describe(result.fst()));
+            }
+
+        } catch (IOException e) {
+            logger.warn("Scheduled backup failed: %s", StringUtil.getDetails(e));
+            this.notify(String.format("Could not back up data: %s", e.getMessage()), /* isError: */ true);
+
+        } catch (RuntimeException e) {
+            // an exception would cancel all future backups.
+            logger.error("Scheduled backup failed: %s", StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * Backs up the data directory and prunes old backups. This must be called on the backup thread.
+     */
+    private Pair<Generation, Boolean> runBackup() throws IOException {
+        var start = System.nanoTime();
+        var result = this.store.backup(this.dataDirectory);
+
+        if (result.snd()) {
+            var pruned = this.store.prune(this.retention);
+            logger.log("Backed up '%s' as generation %d in %.1f ms (%s; pruned %d)", this.dataDirectory,
+                result.fst().getNumber(), (System.nanoTime() - start) / 1.0e6, describe(result.fst()), pruned);
+        }
+
+        this.refreshGenerations();
+        return result;
+    }
+
+    private void refreshGenerations() {
+        try {
+            this.generations = List.copyOf(this.store.getGenerations());
+        } catch (IOException e) {
+            logger.warn("Could not list backups: %s", StringUtil.getDetails(e));
+        }
+    }
+
+    private void load(Optional<ReadOnlyEntryBook<Recipe>> recipes, Optional<ReadOnlyEntryBook<Ingredient>> ingredients,
+        Optional<UsageList<RecipeUsage>> recipeUsages, Optional<UsageList<IngredientUsage>> ingredientUsages) {
+
+        // a missing file means that the backup was made before there was any data of that kind.
+        this.model.setRecipeBook(recipes.orElseGet(EntryBook::new));
+        this.model.setIngredientBook(ingredients.orElseGet(EntryBook::new));
+        this.model.setRecipeUsageList(recipeUsages.orElseGet(UsageList::new));
+        this.model.setIngredientUsageList(ingredientUsages.orElseGet(UsageList::new));
+
+        if (this.sync != null) {
+            this.sync.markSaved();
+        }
+    }
+
+    private void notify(String message, boolean isError) {
+        this.modelExecutor.execute(() -> this.notifier.accept(message, isError));
+    }
+
+    /**
+     * Returns a short description of the size of a backup, eg. "4 files, 12.3 KB; 1.2 KB new".
+     */
+    public static String describe(Generation generation) {
+        return String.format("%d file%s, %s; %s new", generation.getFileCount(),
+            generation.getFileCount() == 1 ? "" : "s", formatSize(generation.getSize()),
+            formatSize(generation.getAddedSize()));
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return String.format("%d B", bytes);
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+    }
+}
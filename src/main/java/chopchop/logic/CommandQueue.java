@@ -0,0 +1,225 @@
+// CommandQueue.java
+
+package chopchop.logic;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.util.StringUtil;
+import chopchop.logic.commands.CommandResult;
+
+/**
+ * Executes commands on a dedicated thread, one at a time and in the order they were submitted, so that a slow
+ * command does not hold up whoever submitted it (ie. the UI). Each result is handed back with the result
+ * executor (ie. on the FX thread), in order.
+ *
+ * The queue's thread owns the model: every other change to the model (eg. from the background services) must be
+ * made by passing it to {@link #execute(Runnable)}. A snapshot of the model is published after every command and
+ * every such task, so that other threads can read it (see {@link Logic#publishSnapshot()}).
+ */
+public class CommandQueue implements Executor, Closeable {
+    private static final Log logger = new Log(CommandQueue.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Logic logic;
+    private final Executor resultExecutor;
+    private final ThreadPoolExecutor worker;
+
+    // the commands that have been submitted but have not finished, oldest first; guarded by this.
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    private Consumer<Boolean> busyListener = busy -> { };
+
+    /**
+     * Constructs a {@code CommandQueue} that executes commands with {@code logic}, and hands back their results
+     * (and changes in whether it is busy) with {@code resultExecutor}.
+     */
+    public CommandQueue(Logic logic, Executor resultExecutor) {
+        this.logic = logic;
+        this.resultExecutor = resultExecutor;
+
+        // tasks that arrive after the queue is closed (eg. from a service that is still stopping) are dropped.
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            var thread = new Thread(r, "command-queue");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+
+        this.execute(() -> { });
+    }
+
+    /**
+     * Sets the function that is told (with the result executor) when the queue becomes busy, ie. when a command
+     * is submitted while no other command is pending, and when it becomes idle again.
+     */
+    public synchronized void setBusyListener(Consumer<Boolean> busyListener) {
+        this.busyListener = busyListener;
+    }
+
+    /**
+     * Returns true if there are commands that have been submitted, but have not finished.
+     */
+    public synchronized boolean isBusy() {
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * Queues the given command to be executed after all the commands submitted before it; {@code onResult} is
+     * then given its result, with the result executor.
+     */
+    public void submit(String commandText, Consumer<CommandResult> onResult) {
+        var command = new Pending(commandText, onResult);
+        synchronized (this) {
+            this.pending.add(command);
+            if (this.pending.size() == 1) {
+                this.notifyBusy(true);
+            }
+        }
+
+        this.worker.execute(() -> this.run(command));
+    }
+
+    /**
+     * Runs a task that changes the model on the queue's thread, after everything submitted before it, and then
+     * publishes a snapshot of the model. This is the model executor while the queue is in use.
+     */
+    @Override
+    public void execute(Runnable task) {
+        this.worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Task failed: %s", StringUtil.getDetails(e));
+            } finally {
+                this.logic.publishSnapshot();
+            }
+        });
+    }
+
+    /**
+     * Cancels every command that is still waiting to be executed, and asks the one that is being executed to
+     * stop, if it can (see {@link Logic#cancelRunningCommand()}). The commands that were waiting are dropped
+     * without being executed, so their results are never given back.
+     *
+     * @return a message describing what was cancelled, to be shown to the user.
+     */
+    public String cancel() {
+        var dropped = new ArrayList<String>();
+        String running = null;
+        var stopping = false;
+
+        synchronized (this) {
+            for (var it = this.pending.iterator(); it.hasNext(); ) {
+                var command = it.next();
+                if (command.isStarted) {
+                    running = command.text;
+                } else {
+                    command.isCancelled = true;
+                    dropped.add(command.text);
+                    it.remove();
+                }
+            }
+
+            if (running != null) {
+                stopping = this.logic.cancelRunningCommand();
+            } else if (!dropped.isEmpty()) {
+                this.notifyBusy(false);
+            }
+        }
+
+        logger.log("Cancelled %d queued command(s); running: '%s' (stopping: %s)", dropped.size(), running,
+            stopping);
+
+        if (running == null && dropped.isEmpty()) {
+            return "There are no commands to cancel";
+        }
+
+        var sb = new StringBuilder();
+        if (!dropped.isEmpty()) {
+            sb.append(String.format("Cancelled %d queued command%s", dropped.size(),
+                dropped.size() == 1 ? "" : "s"));
+        }
+
+        if (running != null) {
+            sb.append(sb.length() == 0 ? "" : "; ");
+            sb.append(stopping
+                ? String.format("stopping '%s'", running)
+                : String.format("'%s' cannot be cancelled, and will finish", running));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Stops accepting commands, and waits for the ones that were already submitted to finish. After this, the
+     * model can be used from any (one) thread again.
+     */
+    @Override
+    public void close() {
+        this.worker.shutdown();
+        try {
+            if (!this.worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Commands were still running after %d seconds", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Pending command) {
+        synchronized (this) {
+            if (command.isCancelled) {
+                return;
+            }
+            command.isStarted = true;
+        }
+
+        CommandResult result;
+        try {
+            result = this.logic.execute(command.text);
+        } catch (RuntimeException e) {
+            logger.error("Command '%s' failed: %s", command.text, StringUtil.getDetails(e));
+            result = CommandResult.error("Internal error: %s", e);
+        }
+
+        var finished = result;
+        synchronized (this) {
+            this.pending.remove(command);
+            this.resultExecutor.execute(() -> command.onResult.accept(finished));
+
+            if (this.pending.isEmpty()) {
+                this.notifyBusy(false);
+            }
+        }
+    }
+
+    /**
+     * Tells the busy listener about a change; this must be called while holding the lock, so that the changes
+     * are delivered in the order they happened.
+     */
+    private void notifyBusy(boolean isBusy) {
+        var listener = this.busyListener;
+        this.resultExecutor.execute(() -> listener.accept(isBusy));
+    }
+
+    private static class Pending {
+        final String text;
+        final Consumer<CommandResult> onResult;
+
+        // both guarded by the queue's lock.
+        private boolean isStarted = false;
+        private boolean isCancelled = false;
+
+        Pending(String text, Consumer<CommandResult> onResult) {
+            this.text = text;
+            this.onResult = onResult;
+        }
+    }
+}
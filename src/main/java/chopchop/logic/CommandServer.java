@@ -0,0 +1,338 @@
+// CommandServer.java
+
+package chopchop.logic;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.util.StringUtil;
+import chopchop.logic.commands.CommandResult;
+import chopchop.logic.commands.QuitCommand;
+import chopchop.model.ListFilters;
+
+/**
+ * Serves {@link Logic#execute(String)} over a TCP socket bound to the loopback address, so that other programs
+ * can use ChopChop without its UI. The protocol is line-oriented, and uses UTF-8:
+ *
+ * <ul>
+ *   <li>each line sent by the client is a command, exactly as it would be typed into the command box; blank
+ *       lines are ignored.</li>
+ *   <li>each command gets one response: a status line ({@code ok} or {@code error}), then the result, then a
+ *       line containing only a full stop. Result lines that start with a full stop have another one added to
+ *       the front (as in SMTP), so the end of the response is unambiguous.</li>
+ *   <li>{@code .metrics} is answered with the server's throughput and latency, in the same format.</li>
+ *   <li>the connection is closed after {@code quit}; the server keeps running.</li>
+ * </ul>
+ *
+ * Each connection is handled on its own thread. Commands that change the model (and every other change to it; see
+ * {@link #runExclusively(Runnable)}) run one at a time, and each publishes a snapshot of the model once it is done.
+ * Read-only commands (see {@code ReadOnly}) take no lock at all: they run against the latest snapshot, so they
+ * never wait for a write, and never see one half-done.
+ *
+ * Each connection has its own {@link ListFilters}, so a client's {@code find} or {@code filter} only changes the
+ * lists (and so the indices) that its own later commands see, whether they are read-only or not.
+ */
+public class CommandServer implements Closeable {
+    public static final int DEFAULT_PORT = 5103;
+    public static final String METRICS_REQUEST = ".metrics";
+
+    private static final Log logger = new Log(CommandServer.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Logic logic;
+    private final ServerSocket serverSocket;
+    private final ExecutorService clients;
+    private final List<Socket> connections;
+
+    // held by whichever thread is changing the model; reads do not need it.
+    private final Lock writeLock = new ReentrantLock(/* fair: */ true);
+
+    private final LatencyStats reads = new LatencyStats();
+    private final LatencyStats writes = new LatencyStats();
+    private final long startTime = System.nanoTime();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a {@code CommandServer} that executes commands with {@code logic}, listening on the given port
+     * of the loopback address; if the port is 0, any free port is used (see {@link #getPort()}). Connections are
+     * only accepted once the server is started.
+     */
+    public CommandServer(Logic logic, int port) throws IOException {
+        this.logic = logic;
+        this.serverSocket = new ServerSocket(port, /* backlog: */ 50, InetAddress.getLoopbackAddress());
+        this.connections = new ArrayList<>();
+
+        this.clients = Executors.newCachedThreadPool(r -> {
+            var thread = new Thread(r, "command-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // so that reads can run concurrently right away, even before anything has been written.
+        this.runExclusively(() -> { });
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections, in the background.
+     */
+    public void start() {
+        var acceptor = new Thread(this::serve, "command-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Accepts connections on this thread, until the server is closed.
+     */
+    public void serve() {
+        logger.log("Serving commands on %s:%d", this.serverSocket.getInetAddress().getHostAddress(), this.getPort());
+
+        while (!this.closed) {
+            try {
+                var socket = this.serverSocket.accept();
+                synchronized (this.connections) {
+                    this.connections.add(socket);
+                }
+
+                this.clients.execute(() -> this.handleConnection(socket));
+
+            } catch (IOException e) {
+                if (!this.closed) {
+                    logger.warn("Failed to accept connection: %s", StringUtil.getDetails(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a task that changes the model, such that no other change is made at the same time, then publishes
+     * the new state for read-only commands. This is the model executor while the server is running, in place of
+     * the FX thread.
+     */
+    public void runExclusively(Runnable task) {
+        this.writeLock.lock();
+        try {
+            task.run();
+        } finally {
+            this.logic.publishSnapshot();
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Executes one request from a client with the given list filters, and returns the response lines, excluding
+     * the terminating full stop.
+     */
+    public List<String> handle(ListFilters filters, String request) {
+        if (request.equals(METRICS_REQUEST)) {
+            return formatResponse(/* isError: */ false, this.getMetricsReport());
+        }
+
+        var start = System.nanoTime();
+
+        // most commands are not read-only, but trying costs only a parse.
+        var readResult = this.logic.executeReadOnly(request, filters);
+        if (readResult.isPresent()) {
+            this.reads.record(System.nanoTime() - start);
+            return formatResult(readResult.get());
+        }
+
+        // execute() publishes the new snapshot itself.
+        this.writeLock.lock();
+        try {
+            var result = this.logic.execute(request, filters);
+            this.writes.record(System.nanoTime() - start);
+            return formatResult(result);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a summary of the commands executed so far, their throughput, and their latency, and of the memory
+     * used by the undo history.
+     */
+    public String getMetricsReport() {
+        var seconds = Math.max((System.nanoTime() - this.startTime) / 1.0e9, 1.0e-6);
+        return String.format("uptime: %.1f s\nread-only: %s\nother: %s\nhistory: %s", seconds,
+            this.reads.describe(seconds), this.writes.describe(seconds), this.logic.getHistoryMemoryReport());
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.serverSocket.close();
+
+        synchronized (this.connections) {
+            for (var connection : this.connections) {
+                connection.close();
+            }
+        }
+
+        this.clients.shutdown();
+        try {
+            this.clients.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.log("Stopped serving commands\n%s", this.getMetricsReport());
+    }
+
+    private void handleConnection(Socket socket) {
+        logger.log("Client connected from port %d", socket.getPort());
+
+        try (socket;
+             var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             var out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            var filters = new ListFilters();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                List<String> response;
+                try {
+                    response = this.handle(filters, line);
+                } catch (RuntimeException e) {
+                    logger.error("Command '%s' failed: %s", line, StringUtil.getDetails(e));
+                    response = formatResponse(/* isError: */ true, String.format("Internal error: %s", e));
+                }
+
+                for (var responseLine : response) {
+                    out.write(responseLine);
+                    out.write('\n');
+                }
+                out.write(".\n");
+                out.flush();
+
+                if (line.equals(QuitCommand.getCommandString())) {
+                    break;
+                }
+            }
+
+        } catch (SocketException e) {
+            // the client (or the server) went away, which is how connections usually end.
+        } catch (IOException e) {
+            logger.warn("Connection failed: %s", StringUtil.getDetails(e));
+        } finally {
+            synchronized (this.connections) {
+                this.connections.remove(socket);
+            }
+        }
+
+        logger.log("Client on port %d disconnected", socket.getPort());
+    }
+
+    private static List<String> formatResult(CommandResult result) {
+        var sb = new StringBuilder();
+        for (var part : result.getParts()) {
+            sb.append(part.getText());
+            sb.append(part.appendNewline() ? "\n" : " ");
+        }
+
+        for (var stat : result.getStatsMessage()) {
+            sb.append("\n").append(stat.fst()).append("\t").append(stat.snd());
+        }
+
+        result.getDisplayedRecipe().ifPresent(r -> sb.append("\n").append(r));
+        return formatResponse(result.isError(), sb.toString().strip());
+    }
+
+    private static List<String> formatResponse(boolean isError, String text) {
+        var lines = new ArrayList<String>();
+        lines.add(isError ? "error" : "ok");
+
+        for (var line : text.split("\n", -1)) {
+            lines.add(line.startsWith(".") ? "." + line : line);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Counts commands and their latencies. Latencies are kept in a histogram of power-of-two microsecond
+     * buckets, so that recording one takes constant time and space, and needs no locking; percentiles are
+     * accurate to within a factor of two, which is plenty to tell whether something is slow.
+     */
+    static class LatencyStats {
+        private static final int BUCKETS = 40;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+
+            var micros = Math.max(1, nanos / 1000);
+            var bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+            this.histogram.incrementAndGet(bucket);
+        }
+
+        long getCount() {
+            return this.count.sum();
+        }
+
+        /**
+         * Returns an upper bound on the given percentile of the latencies, in milliseconds.
+         */
+        double getPercentileMillis(double percentile) {
+            var total = this.getCount();
+            var rank = (long) Math.ceil(total * percentile / 100);
+            var seen = 0L;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += this.histogram.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min((1L << (i + 1)) / 1000.0, this.maxNanos.get() / 1.0e6);
+                }
+            }
+
+            return 0;
+        }
+
+        String describe(double seconds) {
+            var n = this.getCount();
+            if (n == 0) {
+                return "0 commands";
+            }
+
+            return String.format("%d command%s (%.1f/s); mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms", n,
+                n == 1 ? "" : "s", n / seconds, this.totalNanos.sum() / 1.0e6 / n, this.getPercentileMillis(50),
+                this.getPercentileMillis(99), this.maxNanos.get() / 1.0e6);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+// DataFileSync.java
+
+package chopchop.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.Entry;
+import chopchop.model.EntryBookMerge;
+import chopchop.model.Model;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.storage.DataFileWatcher;
+import chopchop.storage.Storage;
+
+/**
+ * Keeps the recipe and ingredient books in sync with their data files when those are edited outside of the app.
+ * External changes are picked up by a {@link DataFileWatcher}; the changed file is read on the watcher's thread,
+ * and then merged into the model (see {@link EntryBookMerge}) on the thread that owns the model, through the usual
+ * model methods, so only the changed entries are updated in the UI.
+ *
+ * Entries that were also changed in the app since the file was last saved are conflicts; the version in the app is
+ * kept (and will be saved with the next change), and the user is told about it.
+ *
+ * Undoable commands refer to the entries they changed, which a merge may have removed or replaced, so the merge
+ * listeners (see {@link #addMergeListener(Runnable)}) are told whenever a merge changes the model.
+ */
+public class DataFileSync implements Closeable {
+
+    private static final Log logger = new Log(DataFileSync.class);
+
+    private final DataFileWatcher watcher;
+    private final Executor modelExecutor;
+    private final BiConsumer<String, Boolean> notifier;
+
+    private final BookSync<?> recipes;
+    private final BookSync<?> ingredients;
+
+    private final List<Runnable> mergeListeners = new ArrayList<>();
+
+    /**
+     * Constructs a {@code DataFileSync} for the given model and storage.
+     *
+     * @param watcher       the watcher to use for the data files.
+     * @param modelExecutor runs tasks on the single writer of the model, ie. the one that runs commands (the
+     *                      command queue in the GUI, or {@code CommandServer#runExclusively} when headless);
+     *                      not the FX thread, since commands no longer run there.
+     * @param notifier      shows a message to the user; the second argument is true if it is an error.
+     */
+    public DataFileSync(Model model, Storage storage, DataFileWatcher watcher, Executor modelExecutor,
+        BiConsumer<String, Boolean> notifier) {
+
+        this.watcher = watcher;
+        this.modelExecutor = modelExecutor;
+        this.notifier = notifier;
+
+        this.recipes = new BookSync<>("recipe", storage::getRecipeBookFilePath, storage::readRecipeBook,
+            model::getRecipeBook, model::startEditingRecipes, model::finishEditingRecipes,
+            model::addRecipe, model::deleteRecipe, model::setRecipe);
+
+        this.ingredients = new BookSync<>("ingredient", storage::getIngredientBookFilePath,
+            storage::readIngredientBook, model::getIngredientBook, model::startEditingIngredients,
+            model::finishEditingIngredients, model::addIngredient, model::deleteIngredient, model::setIngredient);
+    }
+
+    /**
+     * Adds a listener that is called, on the {@code modelExecutor}, after external changes to a data file
+     * were merged into the model. It is not called for merges that did not change anything.
+     */
+    public void addMergeListener(Runnable listener) {
+        this.mergeListeners.add(listener);
+    }
+
+    /**
+     * Starts watching the data files. This should be called once the model has been loaded from them.
+     */
+    public void start() throws IOException {
+        this.recipes.start();
+        this.ingredients.start();
+        this.watcher.start();
+    }
+
+    /**
+     * Switches to watching the files that the storage now uses, after it was pointed at different files (eg. by
+     * switching workspaces), and records the current contents of the model as being the same as them. This
+     * must be called on the thread that owns the model, once the model has been loaded from the new files.
+     */
+    public void switchFiles() throws IOException {
+        this.recipes.switchFiles();
+        this.ingredients.switchFiles();
+    }
+
+    /**
+     * Merges any external changes to the data files that have not been merged yet, on the calling thread, which
+     * must own the model. This is cheap if there are none, and should be called before saving, so that changes
+     * which have not been picked up by the watcher yet are not overwritten.
+     */
+    public void reconcile() {
+        this.recipes.reconcile();
+        this.ingredients.reconcile();
+    }
+
+    /**
+     * Returns true if the model holds the same entries as the data files did when they were last saved or
+     * merged, ie. there were no conflicts in the last merge that have not been saved yet.
+     */
+    public boolean isInSync() {
+        return !this.recipes.hasConflicts && !this.ingredients.hasConflicts;
+    }
+
+    /**
+     * Records the current contents of the model as being the same as the data files. This should be called
+     * after saving the model, on the thread that owns it.
+     */
+    public void markSaved() {
+        this.recipes.markSynced();
+        this.ingredients.markSynced();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watcher.close();
+    }
+
+    @FunctionalInterface
+    private interface BookReader<T extends Entry> {
+        Optional<ReadOnlyEntryBook<T>> read() throws DataConversionException;
+    }
+
+    @FunctionalInterface
+    private interface EntryUpdater<T extends Entry> {
+        void update(T target, T edited);
+    }
+
+    /**
+     * Syncs one entry book with its data file.
+     */
+    private class BookSync<T extends Entry> {
+        private final String kind;
+        private final Supplier<Path> pathSupplier;
+        private final BookReader<T> reader;
+        private final Supplier<ReadOnlyEntryBook<T>> book;
+        private final Runnable startEditing;
+        private final Runnable finishEditing;
+        private final Consumer<T> adder;
+        private final Consumer<T> remover;
+        private final EntryUpdater<T> updater;
+
+        // the file currently being synced; this only changes on the thread that owns the model, but is also
+        // read on the watcher thread.
+        private volatile Path path;
+
+        // the entries as they were when the book was last in sync with the data file. this is only
+        // accessed on the thread that owns the model.
+        private List<T> base = new ArrayList<>();
+        private boolean hasConflicts = false;
+
+        BookSync(String kind, Supplier<Path> pathSupplier, BookReader<T> reader, Supplier<ReadOnlyEntryBook<T>> book,
+            Runnable startEditing, Runnable finishEditing, Consumer<T> adder, Consumer<T> remover,
+            EntryUpdater<T> updater) {
+
+            this.kind = kind;
+            this.pathSupplier = pathSupplier;
+            this.reader = reader;
+            this.book = book;
+            this.startEditing = startEditing;
+            this.finishEditing = finishEditing;
+            this.adder = adder;
+            this.remover = remover;
+            this.updater = updater;
+        }
+
+        void start() throws IOException {
+            this.switchFiles();
+        }
+
+        void switchFiles() throws IOException {
+            var path = this.pathSupplier.get();
+            this.path = path;
+
+            // the watcher keeps watching the old file, but changes to it are ignored from now on.
+            watcher.watch(path, () -> this.onFileChanged(path));
+            this.markSynced();
+        }
+
+        void markSynced() {
+            this.base = new ArrayList<>(this.book.get().getEntryList());
+            this.hasConflicts = false;
+            watcher.markSynced(this.path);
+        }
+
+        /**
+         * Called on the watcher thread. The file is read here, so as not to block the model's thread.
+         */
+        private void onFileChanged(Path path) {
+            if (!path.equals(this.path)) {
+                return;
+            }
+
+            var stamp = DataFileWatcher.getStamp(path);
+            try {
+                var remote = this.reader.read();
+                modelExecutor.execute(() -> this.merge(path, stamp, remote));
+            } catch (DataConversionException e) {
+                modelExecutor.execute(() -> this.reportInvalid(path, stamp, e));
+            }
+        }
+
+        void reconcile() {
+            if (!watcher.isModified(this.path)) {
+                return;
+            }
+
+            var stamp = DataFileWatcher.getStamp(this.path);
+            try {
+                this.merge(this.path, stamp, this.reader.read());
+            } catch (DataConversionException e) {
+                this.reportInvalid(this.path, stamp, e);
+            }
+        }
+
+        /**
+         * Returns true if the file at {@code path}, read with the given stamp, should be merged, ie. it is still
+         * the file being synced, it has not changed since, and it was not written or merged by us.
+         */
+        private boolean isPending(Path path, DataFileWatcher.Stamp stamp) {
+            return path.equals(this.path) && watcher.isModified(path)
+                && stamp.equals(DataFileWatcher.getStamp(path));
+        }
+
+        private void merge(Path path, DataFileWatcher.Stamp stamp, Optional<ReadOnlyEntryBook<T>> remote) {
+            if (!this.isPending(path, stamp)) {
+                return;
+            }
+
+            watcher.markSynced(this.path, stamp);
+            if (remote.isEmpty()) {
+                // the file was deleted; it will be written again with the next change.
+                logger.warn("Data file for %s book '%s' was removed externally", this.kind, this.path);
+                return;
+            }
+
+            var remoteEntries = new ArrayList<T>(remote.get().getEntryList());
+            var merge = EntryBookMerge.<T>compute(this.base, this.book.get().getEntryList(), remoteEntries);
+            this.base = remoteEntries;
+            this.hasConflicts = !merge.getConflicts().isEmpty();
+
+            logger.log("Merged external changes to %s book '%s': %s (%d conflicts)", this.kind, this.path, merge,
+                merge.getConflicts().size());
+
+            if (!merge.isEmpty()) {
+                this.startEditing.run();
+                try {
+                    merge.getRemoved().forEach(this.remover);
+                    merge.getUpdated().forEach(p -> this.updater.update(p.fst(), p.snd()));
+                    merge.getAdded().forEach(this.adder);
+                } finally {
+                    this.finishEditing.run();
+                }
+
+                mergeListeners.forEach(Runnable::run);
+
+                notifier.accept(String.format("Reloaded %ss changed outside ChopChop (%s)", this.kind, merge),
+                    /* isError: */ false);
+            }
+
+            if (!merge.getConflicts().isEmpty()) {
+                notifier.accept(String.format("Some %ss were changed both here and outside ChopChop; kept the "
+                    + "versions here: %s", this.kind, String.join(", ", merge.getConflicts())),
+                    /* isError: */ true);
+            }
+        }
+
+        private void reportInvalid(Path path, DataFileWatcher.Stamp stamp, DataConversionException e) {
+            if (!this.isPending(path, stamp)) {
+                // most likely, the file was read while we were saving it.
+                return;
+            }
+
+            watcher.markSynced(this.path, stamp);
+            this.hasConflicts = true;
+
+            var reason = e.getCause() == null ? e.getMessage() : e.getCause().getMessage();
+            logger.warn("Data file for %s book '%s' was changed externally, but is invalid: %s", this.kind,
+                this.path, StringUtil.getDetails(e));
+
+            notifier.accept(String.format("The %s data file was changed outside ChopChop, but could not be read "
+                + "(%s); keeping the %ss here, which will overwrite it with the next change", this.kind, reason,
+                this.kind), /* isError: */ true);
+        }
+    }
+}
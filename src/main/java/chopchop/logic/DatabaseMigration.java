@@ -0,0 +1,74 @@
+// DatabaseMigration.java
+
+package chopchop.logic;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.Result;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.Model;
+import chopchop.storage.Storage;
+
+/**
+ * Copies the data files into the model, while the data is stored in a database, so that the next save writes
+ * them into the database. This does the same as {@link chopchop.storage.DatabaseMigrator}, but from inside the
+ * app, so the data can be migrated again (eg. after the data files were edited by hand) without closing it.
+ *
+ * Since the data goes through the model, it is saved like the changes of any other command: only the rows that
+ * changed are written, all in one transaction.
+ */
+public class DatabaseMigration {
+
+    private final Storage dataFiles;
+
+    /**
+     * Constructs a {@code DatabaseMigration} that reads the data files from {@code dataFiles}.
+     */
+    public DatabaseMigration(Storage dataFiles) {
+        this.dataFiles = dataFiles;
+    }
+
+    /**
+     * Replaces the contents of the model with those of the data files. Data files that do not exist are skipped,
+     * leaving that part of the model as it is.
+     *
+     * @return a summary of what was migrated, or an error if any of the files could not be read; nothing is
+     *         changed in that case.
+     */
+    public Result<String> migrate(Model model) {
+        try {
+            // read everything first, so that an invalid file doesn't leave a half-migrated model.
+            var recipeBook = this.dataFiles.readRecipeBook();
+            var ingredientBook = this.dataFiles.readIngredientBook();
+            var recipeUsages = this.dataFiles.readRecipeUsages();
+            var ingredientUsages = this.dataFiles.readIngredientUsages();
+
+            var sb = new StringBuilder();
+            if (recipeBook.isPresent()) {
+                model.setRecipeBook(recipeBook.get());
+                sb.append(String.format("%d recipe(s); ", recipeBook.get().getEntryList().size()));
+            }
+
+            if (ingredientBook.isPresent()) {
+                model.setIngredientBook(ingredientBook.get());
+                sb.append(String.format("%d ingredient(s); ", ingredientBook.get().getEntryList().size()));
+            }
+
+            if (recipeUsages.isPresent()) {
+                model.setRecipeUsageList(recipeUsages.get());
+                sb.append(String.format("%d recipe usage(s); ", recipeUsages.get().getUsageCount()));
+            }
+
+            if (ingredientUsages.isPresent()) {
+                model.setIngredientUsageList(ingredientUsages.get());
+                sb.append(String.format("%d ingredient usage(s); ", ingredientUsages.get().getUsageCount()));
+            }
+
+            return sb.length() == 0
+                ? Result.error("There are no data files to migrate")
+                : Result.of(sb.substring(0, sb.length() - 2));
+
+        } catch (DataConversionException e) {
+            return Result.error("Could not read the data files: %s", StringUtil.getDetails(e));
+        }
+    }
+}
@@ -2,13 +2,16 @@ package chopchop.logic;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import chopchop.commons.core.GuiSettings;
+import chopchop.commons.util.ListenableList;
 import chopchop.logic.commands.CommandResult;
+import chopchop.model.ListFilters;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.recipe.Recipe;
-import javafx.collections.ObservableList;
 
 /**
  * API of the Logic component
@@ -22,6 +25,46 @@ public interface Logic {
      */
     CommandResult execute(String commandText);
 
+    /**
+     * Executes the command like {@link #execute(String)}, but with the model's lists filtered by {@code filters}
+     * instead of their own filters, which are put back afterwards; any filter that the command sets is stored in
+     * {@code filters}.
+     *
+     * @param commandText The command as entered by the user.
+     * @param filters The filters of whoever entered the command.
+     * @return the result of the command execution.
+     */
+    CommandResult execute(String commandText, ListFilters filters);
+
+    /**
+     * Executes the command if it only reads the model (see {@code ReadOnly}), and returns the result; otherwise,
+     * returns an empty optional, and the command should be executed normally. The command runs against the last
+     * snapshot published by {@link #publishSnapshot()} (so the result is empty until one has been), rather than
+     * the model itself, with its lists filtered by {@code filters}; any filter that it sets is stored there. It
+     * is not recorded in the input history, and nothing is saved. This can be called from any number of threads,
+     * while other commands are being executed.
+     *
+     * @param commandText The command as entered by the user.
+     * @param filters The filters of whoever entered the command.
+     * @return the result of the command execution, if it was read-only.
+     */
+    Optional<CommandResult> executeReadOnly(String commandText, ListFilters filters);
+
+    /**
+     * Publishes a snapshot of the model as it is now, for {@link #executeReadOnly(String, ListFilters)} to use.
+     * This must be called by the thread that changes the model, once it is done changing it; after the first
+     * call, a new snapshot is also published after every command that is executed.
+     */
+    void publishSnapshot();
+
+    /**
+     * Asks the command that is being executed right now (on another thread) to stop, if it can be cancelled (see
+     * {@code Cancellable}); it stops as soon as it safely can, and its result says so.
+     *
+     * @return true if a command was asked to stop.
+     */
+    boolean cancelRunningCommand();
+
     /**
      * Computes the completion for the given user input. If there is no completion
      * available, the string is returned as-is.
@@ -37,6 +80,30 @@ public interface Logic {
      */
     void resetCompletionState();
 
+    /**
+     * Restores the recommendations saved by {@link #saveRecommendations}, if they are still valid for the data
+     * files. This should be called before the data is loaded; recommendations are not updated until
+     * {@link #resumeRecommendations} is called.
+     */
+    void restoreRecommendations();
+
+    /**
+     * Resumes updating the recommendations once the data has been loaded. If they could not be restored, they are
+     * recomputed in the background, and the results are applied to the model using {@code modelExecutor}.
+     */
+    void resumeRecommendations(Executor modelExecutor);
+
+    /**
+     * Saves the current recommendations next to the data files, so they can be restored at the next startup.
+     */
+    void saveRecommendations();
+
+    /**
+     * Moves the recipes that have not been made for as long as the preferences say to the recipe archive, and
+     * saves the recipe book. This should be called once the data is loaded, before recommendations are resumed.
+     */
+    void archiveColdRecipes();
+
     /**
      * Returns the RecipeBook.
      */
@@ -50,12 +117,12 @@ public interface Logic {
     /**
      * Returns an unmodifiable view of the filtered list of recipes.
      */
-    ObservableList<Recipe> getFilteredRecipeList();
+    ListenableList<Recipe> getFilteredRecipeList();
 
     /**
      * Returns an unmodifiable view of the filtered ingredient list.
      */
-    ObservableList<Ingredient> getFilteredIngredientList();
+    ListenableList<Ingredient> getFilteredIngredientList();
 
     /**
      * Returns the user prefs' recipe book file path.
@@ -73,24 +140,31 @@ public interface Logic {
     GuiSettings getGuiSettings();
 
     /**
-     * Returns the input history.
+     * Returns the distinct inputs in the history, most recently entered first.
      */
     List<String> getInputHistory();
 
     /**
-     * Returns the input history filtered by a prefix.
+     * Returns the distinct inputs in the history that start with the given prefix, most recently entered first.
+     * This may be called from any thread.
      */
     List<String> getInputHistory(String prefix);
 
+    /**
+     * Returns a one-line summary of how much memory the undo history is using. This may be called from any
+     * thread, but may be slightly out of date while a command is being executed.
+     */
+    String getHistoryMemoryReport();
+
     /**
      * Returns an unmodifiable view of the recommended recipe list.
      */
-    ObservableList<Recipe> getRecommendedRecipeList();
+    ListenableList<Recipe> getRecommendedRecipeList();
 
     /**
      * Returns an unmodifiable view of the recommended recipe list that have ingredients that expire soon.
      */
-    ObservableList<Recipe> getExpiringRecipeList();
+    ListenableList<Recipe> getExpiringRecipeList();
 
     /**
      * Set the user prefs' GUI settings.
@@ -1,24 +1,46 @@
 package chopchop.logic;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import chopchop.commons.core.GuiSettings;
 import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.ListenableList;
+import chopchop.commons.util.StringUtil;
 import chopchop.logic.autocomplete.AutoCompleter;
+import chopchop.logic.autocomplete.CompletionIndex;
+import chopchop.logic.commands.Cancellable;
+import chopchop.logic.commands.Command;
 import chopchop.logic.commands.CommandResult;
+import chopchop.logic.commands.ReadOnly;
+import chopchop.logic.commands.RequiresArchive;
+import chopchop.logic.commands.RequiresBackups;
+import chopchop.logic.commands.RequiresDatabase;
+import chopchop.logic.commands.RequiresWorkspaces;
 import chopchop.logic.commands.Undoable;
 import chopchop.logic.history.HistoryManager;
 import chopchop.logic.parser.CommandParser;
+import chopchop.logic.recommendation.RecommendationIndex;
 import chopchop.logic.recommendation.RecommendationManager;
+import chopchop.model.ListFilters;
 import chopchop.model.Model;
+import chopchop.model.ModelChange;
+import chopchop.model.ModelSnapshot;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.recipe.Recipe;
+import chopchop.storage.InputHistoryLog;
+import chopchop.storage.JsonRecommendationCache;
 import chopchop.storage.Storage;
-import javafx.collections.ObservableList;
+import chopchop.storage.UndoHistoryLog;
 
 /**
  * The main LogicManager governing the logic in the app.
@@ -32,17 +54,70 @@ public class LogicManager implements Logic {
     private final RecommendationManager recommendationManager;
     private final CommandParser parser;
     private final AutoCompleter completer;
+    private final DataFileSync sync;
+    private final BackupManager backups;
+    private final WorkspaceManager workspaces;
+    private final DatabaseMigration migration;
+    private final RecipeArchive archive;
+
+    // whether the data files hold exactly what is in the model, as of the last command.
+    private boolean isSaved = true;
+    private boolean didRestoreRecommendations = false;
+
+    // the state that read-only commands run against; null until the first one is published.
+    private volatile ModelSnapshot snapshot = null;
+    private long snapshotVersion = 0;
+
+    // the command being executed right now, so that it can be cancelled from another thread.
+    private volatile Command running = null;
 
     /**
      * Constructs a {@code LogicManager} with the given {@code Model} and {@code Storage}.
      */
     public LogicManager(Model model, Storage storage) {
+        this(model, storage, null, null, null);
+    }
+
+    /**
+     * Constructs a {@code LogicManager} with the given {@code Model} and {@code Storage}, which merges external
+     * changes to the data files using {@code sync} (if it is not null) before executing and saving each command,
+     * backs them up with {@code backups}, and switches between workspaces with {@code workspaces} (if those are
+     * not null).
+     */
+    public LogicManager(Model model, Storage storage, DataFileSync sync, BackupManager backups,
+        WorkspaceManager workspaces) {
+
+        this(model, storage, sync, backups, workspaces, null);
+    }
+
+    /**
+     * Constructs a {@code LogicManager} like the one above, which also migrates the data files into the database
+     * with {@code migration} (if it is not null), when the data is stored in a database.
+     */
+    public LogicManager(Model model, Storage storage, DataFileSync sync, BackupManager backups,
+        WorkspaceManager workspaces, DatabaseMigration migration) {
+
         this.model = model;
         this.storage = storage;
-        this.historyManager = new HistoryManager();
+        this.sync = sync;
+        this.backups = backups;
+        this.workspaces = workspaces;
+        this.migration = migration;
+        this.archive = new RecipeArchive(storage::getRecipeBookFilePath,
+            model.getUserPrefs().isCompressingDataFiles());
+        this.historyManager = new HistoryManager(model.getUserPrefs().getUndoHistoryMegabytes() * 1024L * 1024L,
+            new InputHistoryLog(InputHistoryLog.getLogPath(storage.getUserPrefsFilePath()),
+                HistoryManager.INPUT_HISTORY_SIZE),
+            new UndoHistoryLog(UndoHistoryLog.getLogPath(storage.getUserPrefsFilePath())));
         this.recommendationManager = new RecommendationManager(model);
         this.parser = new CommandParser();
-        this.completer = new AutoCompleter();
+        this.completer = new AutoCompleter(CompletionIndex.following(model));
+
+        // like switching workspaces, merging external changes can remove or replace the entries that the
+        // commands in the history refer to.
+        if (sync != null) {
+            sync.addMergeListener(this.historyManager::clearCommands);
+        }
     }
 
     /**
@@ -60,19 +135,66 @@ public class LogicManager implements Logic {
             return CommandResult.error(res.getError());
         }
 
+        // the data files are being replaced, so anything we saved now would be overwritten.
+        if (this.backups != null && this.backups.isRestoring()) {
+            return CommandResult.error("A backup is being restored; please wait for it to finish");
+        }
+
+        if (this.sync != null) {
+            this.sync.reconcile();
+        }
+
         var cmd = res.getValue();
-        var result = cmd.execute(this.model, this.historyManager);
+        CommandResult result;
+        ModelChange change = null;
+
+        this.running = cmd;
+        try {
+            if (cmd instanceof Undoable) {
+                // the change is saved along with the command, so that it can still be undone after a restart.
+                var recorded = ModelChange.record(this.model, commandText, () -> this.run(cmd));
+                result = recorded.fst();
+                change = recorded.snd();
+            } else {
+                result = this.run(cmd);
+            }
+        } finally {
+            this.running = null;
+        }
 
         if (cmd instanceof Undoable && result.didSucceed()) {
-            this.historyManager.addCommand((Undoable) cmd);
+            this.historyManager.addCommand((Undoable) cmd, change);
+        }
+
+        if (this.snapshot != null) {
+            this.publishSnapshot();
+        }
+
+        // nothing changed, so there's nothing to save (unless the last save failed).
+        if (cmd instanceof ReadOnly && this.isSaved) {
+            return result;
         }
 
         try {
-            this.storage.saveRecipeUsages(this.model.getRecipeUsageList());
-            this.storage.saveIngredientUsages(this.model.getIngredientUsageList());
-            this.storage.saveIngredientBook(this.model.getIngredientBook());
-            this.storage.saveRecipeBook(this.model.getRecipeBook());
+            // don't overwrite any external changes that came in while the command was running.
+            if (this.sync != null) {
+                this.sync.reconcile();
+            }
+
+            // everything the command changed is saved together, so a crash can't leave only some of it saved.
+            this.storage.runInTransaction(() -> {
+                this.storage.saveRecipeUsages(this.model.getRecipeUsageList());
+                this.storage.saveIngredientUsages(this.model.getIngredientUsageList());
+                this.storage.saveIngredientBook(this.model.getIngredientBook());
+                this.storage.saveRecipeBook(this.model.getRecipeBook());
+            });
+
+            if (this.sync != null) {
+                this.sync.markSaved();
+            }
+            this.isSaved = true;
         } catch (IOException e) {
+            this.isSaved = false;
             return CommandResult.error("Could not save data to file: %s (exception: %s)%s",
                 e.getMessage(), e.getClass().getSimpleName(),
                 Optional.ofNullable(e.getCause())
@@ -83,9 +205,84 @@ public class LogicManager implements Logic {
         return result;
     }
 
+    @Override
+    public CommandResult execute(String commandText, ListFilters filters) {
+        var shared = new ListFilters();
+        shared.copyFrom(this.model);
+
+        filters.applyTo(this.model);
+        try {
+            return this.execute(commandText);
+        } finally {
+            filters.copyFrom(this.model);
+            shared.applyTo(this.model);
+        }
+    }
+
+    private CommandResult run(Command cmd) {
+        if (cmd instanceof RequiresBackups && this.backups != null) {
+            return ((RequiresBackups) cmd).execute(this.model, this.historyManager, this.backups);
+        } else if (cmd instanceof RequiresWorkspaces && this.workspaces != null) {
+            return ((RequiresWorkspaces) cmd).execute(this.model, this.historyManager, this.workspaces);
+        } else if (cmd instanceof RequiresDatabase && this.migration != null) {
+            return ((RequiresDatabase) cmd).execute(this.model, this.historyManager, this.migration);
+        } else if (cmd instanceof RequiresArchive) {
+            return ((RequiresArchive) cmd).execute(this.model, this.historyManager, this.archive);
+        } else {
+            return cmd.execute(this.model, this.historyManager);
+        }
+    }
+
+    @Override
+    public Optional<CommandResult> executeReadOnly(String commandText, ListFilters filters) {
+        // read it once, so the whole command sees the same state.
+        var current = this.snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        var res = this.parser.parse(commandText);
+        if (res.isError() || !(res.getValue() instanceof ReadOnly)) {
+            return Optional.empty();
+        }
+
+        var cmd = res.getValue();
+        var model = current.toModel();
+        filters.applyTo(model);
+
+        var result = cmd instanceof RequiresArchive
+            ? ((RequiresArchive) cmd).execute(model, this.historyManager, this.archive)
+            : cmd.execute(model, this.historyManager);
+
+        // the model is thrown away, so the filters that the command set are kept with the caller instead.
+        filters.copyFrom(model);
+        return Optional.of(result);
+    }
+
+    @Override
+    public boolean cancelRunningCommand() {
+        var cmd = this.running;
+        if (cmd instanceof Cancellable) {
+            var cancellable = (Cancellable) cmd;
+            cancellable.cancel();
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void publishSnapshot() {
+        this.snapshot = this.model.snapshot(++this.snapshotVersion);
+        logger.debug("published snapshot %d", this.snapshotVersion);
+    }
+
     @Override
     public String getCompletionForInput(String commandText) {
-        return this.completer.getCompletionForInput(this.parser, this.model, commandText);
+        // the model might be in the middle of a command on another thread, so use the last snapshot if there is one.
+        var current = this.snapshot;
+        var model = current == null ? this.model : current.toModel();
+        return this.completer.getCompletionForInput(this.parser, model, commandText);
     }
 
     @Override
@@ -93,13 +290,73 @@ public class LogicManager implements Logic {
         this.completer.resetCompletionState();
     }
 
+    @Override
+    public void restoreRecommendations() {
+        var path = JsonRecommendationCache.getCachePath(this.storage.getRecipeBookFilePath());
+        var today = LocalDate.now();
+
+        var cached = JsonRecommendationCache.read(path, this.storage.getRecipeBookFilePath(),
+            this.storage.getIngredientBookFilePath(), today);
+
+        if (cached.isPresent()) {
+            logger.log("Restored recommendations for %d recipes from '%s'", cached.get().size(), path);
+            this.recommendationManager.getIndex().restore(today, cached.get());
+            this.didRestoreRecommendations = true;
+        }
+
+        this.recommendationManager.suspend();
+    }
+
+    @Override
+    public void resumeRecommendations(Executor modelExecutor) {
+        this.recommendationManager.resume(/* rebuild: */ !this.didRestoreRecommendations, modelExecutor);
+    }
+
+    @Override
+    public void saveRecommendations() {
+        // the recommendations must be for the data in the files, or they would be wrong when restored.
+        if (!this.isSaved || (this.sync != null && !this.sync.isInSync())
+            || this.recommendationManager.isSuspended()
+            || !Files.exists(this.storage.getRecipeBookFilePath())
+            || !Files.exists(this.storage.getIngredientBookFilePath())) {
+            return;
+        }
+
+        var index = this.recommendationManager.getIndex();
+        var recipes = new ArrayList<RecommendationIndex.CachedRecipe>();
+        for (var recipe : this.model.getRecipeBook().getEntryList()) {
+            recipes.add(index.get(recipe, this.model::findIngredientWithName));
+        }
+
+        JsonRecommendationCache.write(JsonRecommendationCache.getCachePath(this.storage.getRecipeBookFilePath()),
+            this.storage.getRecipeBookFilePath(), this.storage.getIngredientBookFilePath(), index.getDate(),
+            recipes);
+    }
+
+    @Override
+    public void archiveColdRecipes() {
+        var days = this.model.getUserPrefs().getArchiveAfterDays();
+        if (days <= 0) {
+            return;
+        }
+
+        try {
+            var archived = this.archive.archiveRecipesMadeBefore(this.model, LocalDateTime.now().minusDays(days));
+            if (!archived.isEmpty()) {
+                this.storage.saveRecipeBook(this.model.getRecipeBook());
+            }
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Could not archive recipes: %s", StringUtil.getDetails(e));
+        }
+    }
+
     @Override
     public ReadOnlyEntryBook<Recipe> getRecipeBook() {
         return this.model.getRecipeBook();
     }
 
     @Override
-    public ObservableList<Recipe> getFilteredRecipeList() {
+    public ListenableList<Recipe> getFilteredRecipeList() {
         return this.model.getFilteredRecipeList();
     }
 
@@ -114,7 +371,7 @@ public class LogicManager implements Logic {
     }
 
     @Override
-    public ObservableList<Ingredient> getFilteredIngredientList() {
+    public ListenableList<Ingredient> getFilteredIngredientList() {
         return this.model.getFilteredIngredientList();
     }
 
@@ -134,12 +391,17 @@ public class LogicManager implements Logic {
     }
 
     @Override
-    public ObservableList<Recipe> getRecommendedRecipeList() {
+    public String getHistoryMemoryReport() {
+        return this.historyManager.getMemoryReport();
+    }
+
+    @Override
+    public ListenableList<Recipe> getRecommendedRecipeList() {
         return this.recommendationManager.getRecommendedRecipeList();
     }
 
     @Override
-    public ObservableList<Recipe> getExpiringRecipeList() {
+    public ListenableList<Recipe> getExpiringRecipeList() {
         return this.recommendationManager.getExpiringRecipeList();
     }
 
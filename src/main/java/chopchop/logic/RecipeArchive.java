@@ -0,0 +1,172 @@
+// RecipeArchive.java
+
+package chopchop.logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.model.EntryBook;
+import chopchop.model.Model;
+import chopchop.model.recipe.Recipe;
+import chopchop.storage.DataFileWatcher;
+import chopchop.storage.JsonRecipeBookStorage;
+
+/**
+ * A secondary store for recipes that have not been made for a long time, so that they do not need to be loaded,
+ * indexed, displayed, and saved along with the rest of the recipe book. The archive is kept in a separate data
+ * file next to the recipe book's, which is only read when it is searched (and then cached until it changes).
+ *
+ * Archived recipes can still be found and viewed, and are moved back to the recipe book when they are made.
+ */
+public class RecipeArchive {
+    public static final String FILE_NAME = "recipearchive.json";
+
+    private static final Log logger = new Log(RecipeArchive.class);
+
+    private final Supplier<Path> recipeBookPath;
+    private final boolean compress;
+
+    // the archive as of the last time it was read or saved, and the state of its file at that time.
+    private EntryBook<Recipe> loaded;
+    private Path loadedPath;
+    private DataFileWatcher.Stamp loadedStamp;
+
+    /**
+     * Constructs a {@code RecipeArchive} that keeps the archive next to the recipe book file given by
+     * {@code recipeBookPath}, which may change (eg. when switching workspaces).
+     */
+    public RecipeArchive(Supplier<Path> recipeBookPath, boolean compress) {
+        this.recipeBookPath = recipeBookPath;
+        this.compress = compress;
+    }
+
+    /**
+     * Returns the path of the archive for the recipe book at {@code recipeBookPath}.
+     */
+    public static Path getArchivePath(Path recipeBookPath) {
+        return recipeBookPath.resolveSibling(FILE_NAME);
+    }
+
+    public Path getFilePath() {
+        return getArchivePath(this.recipeBookPath.get());
+    }
+
+    /**
+     * Returns the archived recipes that match the given predicate.
+     */
+    public List<Recipe> search(Predicate<? super Recipe> predicate) throws DataConversionException {
+        return this.load().getEntryList().stream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the (lowercased) words in the names of the archived recipes that are within a few typos of the given
+     * word, closest first (see {@link EntryBook#findSimilarWords(String)}).
+     */
+    public List<String> findSimilarNameWords(String word) throws DataConversionException {
+        return this.load().findSimilarWords(word);
+    }
+
+    /**
+     * Returns the archived recipe with the given name (case insensitive), if there is one.
+     */
+    public Optional<Recipe> find(String name) throws DataConversionException {
+        return this.load().find(name);
+    }
+
+    /**
+     * Moves the recipes in the model that were last made before {@code cutoff} into the archive. Recipes that
+     * were never made are left alone, since they may well have just been added. The archive is saved before the
+     * recipes are removed from the model, so they cannot be lost; the caller must save the recipe book.
+     *
+     * @return the recipes that were archived.
+     */
+    public List<Recipe> archiveRecipesMadeBefore(Model model, LocalDateTime cutoff)
+        throws DataConversionException, IOException {
+
+        var lastMade = new HashMap<String, LocalDateTime>();
+        for (var usage : model.getRecipeUsageList().getUsageList()) {
+            lastMade.merge(usage.getName().toLowerCase(), usage.getDate(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        var cold = new ArrayList<Recipe>();
+        for (var recipe : model.getRecipeBook().getEntryList()) {
+            var made = lastMade.get(recipe.getName().toLowerCase());
+            if (made != null && made.isBefore(cutoff)) {
+                cold.add(recipe);
+            }
+        }
+
+        if (cold.isEmpty()) {
+            return cold;
+        }
+
+        // if a recipe with the same name was archived before, this one is more recent.
+        var archive = new EntryBook<>(this.load());
+        for (var recipe : cold) {
+            archive.find(recipe.getName()).ifPresent(archive::remove);
+            archive.add(recipe);
+        }
+
+        this.save(archive);
+
+        model.deleteRecipes(cold);
+
+        logger.log("Archived %d recipe(s) last made before %s; %d recipe(s) now archived", cold.size(), cutoff,
+            archive.getEntryList().size());
+
+        return cold;
+    }
+
+    /**
+     * Removes a recipe from the archive, after it was moved back to the recipe book.
+     */
+    public void remove(Recipe recipe) throws DataConversionException, IOException {
+        var archive = new EntryBook<>(this.load());
+        archive.remove(recipe);
+        this.save(archive);
+    }
+
+    // read-only commands may search the archive from several threads at once.
+    private synchronized EntryBook<Recipe> load() throws DataConversionException {
+        var path = this.getFilePath();
+        var stamp = DataFileWatcher.getStamp(path);
+
+        if (this.loaded != null && path.equals(this.loadedPath) && stamp.equals(this.loadedStamp)) {
+            return this.loaded;
+        }
+
+        var start = System.nanoTime();
+        var book = new JsonRecipeBookStorage(path).readRecipeBook();
+
+        this.loaded = book.map(EntryBook::new).orElseGet(EntryBook::new);
+        this.loadedPath = path;
+        this.loadedStamp = stamp;
+
+        var millis = (System.nanoTime() - start) / 1.0e6;
+        logger.log("Loaded %d archived recipe(s) from '%s' in %.1f ms", this.loaded.getEntryList().size(), path,
+            millis);
+
+        return this.loaded;
+    }
+
+    private synchronized void save(EntryBook<Recipe> archive) throws IOException {
+        var path = this.getFilePath();
+        new JsonRecipeBookStorage(path, this.compress).saveRecipeBook(archive);
+
+        this.loaded = archive;
+        this.loadedPath = path;
+        this.loadedStamp = DataFileWatcher.getStamp(path);
+    }
+}
@@ -0,0 +1,323 @@
+// WorkspaceManager.java
+
+package chopchop.logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.Result;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.Model;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+import chopchop.model.util.SizeEstimator;
+import chopchop.storage.DataFileWatcher;
+import chopchop.storage.Storage;
+import chopchop.storage.WorkspaceStorage;
+
+/**
+ * Manages named workspaces, each with its own recipes, ingredients, and statistics, which can be switched between
+ * at runtime. The default workspace uses the data files set in the preferences; every other workspace keeps its
+ * data files in a folder of its own.
+ *
+ * Only the active workspace is loaded into the model. When switching away from a workspace, its data is kept in
+ * memory (in least-recently-used order), so that switching back to it is instant, but only up to a memory budget;
+ * beyond that, the least recently used workspaces are dropped, and read from disk again when they are next used.
+ * Cached data is also thrown away if its files were changed since it was cached.
+ */
+public class WorkspaceManager {
+    public static final String DEFAULT_WORKSPACE = "default";
+    public static final String DIRECTORY_NAME = "workspaces";
+
+    private static final String NAME_PATTERN = "[a-z0-9_-]{1,32}";
+    private static final Log logger = new Log(WorkspaceManager.class);
+
+    private final Model model;
+    private final WorkspaceStorage storage;
+    private final Storage defaultStorage;
+    private final Function<Path, Storage> storageFactory;
+    private final Path directory;
+    private final long memoryBudget;
+    private final DataFileSync sync;
+
+    private final Map<String, Storage> storages = new HashMap<>();
+
+    // the inactive workspaces that are kept in memory, least recently used first.
+    private final LinkedHashMap<String, LoadedWorkspace> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private String active;
+
+    /**
+     * Constructs a {@code WorkspaceManager}. This points {@code storage} at the storage of {@code active}, so it
+     * should be called before any data is loaded.
+     *
+     * @param storage        the storage used by the rest of the app, which always points at the active workspace.
+     * @param storageFactory creates the storage for a workspace whose data files are in the given folder.
+     * @param directory      the folder containing the folders of all the workspaces except the default one.
+     * @param memoryBudget   roughly how many bytes the inactive workspaces kept in memory may use in total.
+     * @param sync           the data file sync to point at the active workspace's files, or null if there is none.
+     * @param active         the name of the workspace to start in; the default one is used if it does not exist.
+     */
+    public WorkspaceManager(Model model, WorkspaceStorage storage, Function<Path, Storage> storageFactory,
+        Path directory, long memoryBudget, DataFileSync sync, String active) {
+
+        this.model = model;
+        this.storage = storage;
+        this.defaultStorage = storage.getCurrent();
+        this.storageFactory = storageFactory;
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.sync = sync;
+
+        var name = normaliseName(active);
+        if (!name.matches(NAME_PATTERN) || !this.exists(name)) {
+            name = DEFAULT_WORKSPACE;
+        }
+
+        this.active = name;
+        this.storage.setCurrent(this.getStorage(name));
+    }
+
+    public String getActiveWorkspace() {
+        return this.active;
+    }
+
+    /**
+     * Returns the names of all the workspaces, in alphabetical order.
+     */
+    public List<String> getWorkspaceNames() {
+        var names = new TreeSet<String>();
+        names.add(DEFAULT_WORKSPACE);
+        names.add(this.active);
+
+        if (Files.isDirectory(this.directory)) {
+            try (var stream = Files.list(this.directory)) {
+                stream.filter(Files::isDirectory)
+                    .map(p -> p.getFileName().toString())
+                    .filter(n -> n.matches(NAME_PATTERN))
+                    .forEach(names::add);
+            } catch (IOException e) {
+                logger.warn("Could not list workspaces in '%s': %s", this.directory, StringUtil.getDetails(e));
+            }
+        }
+
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Returns true if the workspace with the given name is inactive, but kept in memory.
+     */
+    public boolean isCached(String name) {
+        return this.cache.containsKey(normaliseName(name));
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the inactive workspaces kept in memory.
+     */
+    public long getCacheSize() {
+        return this.cache.values().stream().mapToLong(w -> w.size).sum();
+    }
+
+    /**
+     * Switches to the workspace with the given name, creating it if it does not exist: the current workspace's
+     * data is replaced in the model with that of the new one, and the storage is pointed at the new one's data
+     * files. The data is taken from memory if the workspace is cached, and read from its files otherwise.
+     * This must be called on the thread that owns the model.
+     *
+     * @return true if the workspace was cached, or an error message if it could not be switched to.
+     */
+    public Result<Boolean> switchTo(String workspace) {
+        var name = normaliseName(workspace);
+        if (!name.matches(NAME_PATTERN)) {
+            return Result.error("Invalid workspace name '%s' (only letters, digits, '-', and '_' are allowed)",
+                workspace);
+        } else if (name.equals(this.active)) {
+            return Result.error("Already using workspace '%s'", name);
+        }
+
+        var start = System.nanoTime();
+        var target = this.getStorage(name);
+
+        // the folder is created up front, so that the new workspace's files can be watched straight away.
+        if (!name.equals(DEFAULT_WORKSPACE)) {
+            try {
+                Files.createDirectories(this.directory.resolve(name));
+            } catch (IOException e) {
+                logger.warn("Could not create workspace '%s': %s", name, StringUtil.getDetails(e));
+                return Result.error("Could not create workspace '%s' (%s)", name, e.getMessage());
+            }
+        }
+
+        var loaded = this.cache.remove(name);
+        var wasCached = loaded != null && loaded.isUpToDate(target);
+
+        if (!wasCached) {
+            try {
+                loaded = LoadedWorkspace.read(target);
+            } catch (DataConversionException e) {
+                logger.warn("Could not load workspace '%s': %s", name, StringUtil.getDetails(e));
+                return Result.error("Could not load workspace '%s' (%s)", name,
+                    e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            }
+        }
+
+        // the books in the model are updated in place, so the cache needs its own copy of them.
+        this.cache.put(this.active, LoadedWorkspace.copyOf(this.model, this.storage.getCurrent()));
+
+        this.storage.setCurrent(target);
+        this.model.setRecipeBook(loaded.recipes);
+        this.model.setIngredientBook(loaded.ingredients);
+        this.model.setRecipeUsageList(loaded.recipeUsages);
+        this.model.setIngredientUsageList(loaded.ingredientUsages);
+
+        var prefs = new UserPrefs(this.model.getUserPrefs());
+        prefs.setActiveWorkspace(name);
+        this.model.setUserPrefs(prefs);
+
+        this.active = name;
+        this.evict();
+
+        if (this.sync != null) {
+            try {
+                this.sync.switchFiles();
+            } catch (IOException e) {
+                logger.warn("Could not watch the data files of workspace '%s': %s", name, StringUtil.getDetails(e));
+            }
+        }
+
+        logger.log("Switched to workspace '%s' (%s) in %.1f ms; %d workspace(s) cached using ~%d bytes", name,
+            wasCached ? "cached" : "loaded", (System.nanoTime() - start) / 1.0e6, this.cache.size(),
+            this.getCacheSize());
+
+        return Result.of(wasCached);
+    }
+
+    /**
+     * Drops the least recently used workspaces from memory until the rest fit in the budget.
+     */
+    private void evict() {
+        var size = this.getCacheSize();
+        var it = this.cache.entrySet().iterator();
+
+        while (size > this.memoryBudget && it.hasNext()) {
+            var entry = it.next();
+            size -= entry.getValue().size;
+            it.remove();
+
+            logger.log("Dropped workspace '%s' from memory (~%d bytes)", entry.getKey(), entry.getValue().size);
+        }
+    }
+
+    private boolean exists(String name) {
+        return name.equals(DEFAULT_WORKSPACE) || Files.isDirectory(this.directory.resolve(name));
+    }
+
+    private Storage getStorage(String name) {
+        if (name.equals(DEFAULT_WORKSPACE)) {
+            return this.defaultStorage;
+        }
+
+        return this.storages.computeIfAbsent(name, n -> this.storageFactory.apply(this.directory.resolve(n)));
+    }
+
+    private static String normaliseName(String name) {
+        return name.strip().toLowerCase();
+    }
+
+    private static List<Path> getDataFilePaths(Storage storage) {
+        return List.of(storage.getRecipeBookFilePath(), storage.getIngredientBookFilePath(),
+            storage.getRecipeUsageFilePath(), storage.getIngredientUsageFilePath());
+    }
+
+    /**
+     * The data of one workspace, along with the state of its data files when it was read (or last saved), and an
+     * estimate of how much memory it uses.
+     */
+    private static class LoadedWorkspace {
+        private final ReadOnlyEntryBook<Recipe> recipes;
+        private final ReadOnlyEntryBook<Ingredient> ingredients;
+        private final UsageList<RecipeUsage> recipeUsages;
+        private final UsageList<IngredientUsage> ingredientUsages;
+        private final List<DataFileWatcher.Stamp> stamps;
+        private final long size;
+
+        LoadedWorkspace(ReadOnlyEntryBook<Recipe> recipes, ReadOnlyEntryBook<Ingredient> ingredients,
+            UsageList<RecipeUsage> recipeUsages, UsageList<IngredientUsage> ingredientUsages,
+            List<DataFileWatcher.Stamp> stamps) {
+
+            this.recipes = recipes;
+            this.ingredients = ingredients;
+            this.recipeUsages = recipeUsages;
+            this.ingredientUsages = ingredientUsages;
+            this.stamps = stamps;
+            this.size = estimateSize(recipes, ingredients, recipeUsages, ingredientUsages);
+        }
+
+        /**
+         * Reads a workspace from its storage. Missing files are treated as empty, so that new workspaces start
+         * off empty.
+         */
+        static LoadedWorkspace read(Storage storage) throws DataConversionException {
+            var stamps = getStamps(storage);
+            return new LoadedWorkspace(
+                storage.readRecipeBook().orElseGet(EntryBook::new),
+                storage.readIngredientBook().orElseGet(EntryBook::new),
+                storage.readRecipeUsages().orElseGet(UsageList::new),
+                storage.readIngredientUsages().orElseGet(UsageList::new),
+                stamps);
+        }
+
+        /**
+         * Copies the data that is currently in the model, which was last saved to {@code storage}.
+         */
+        static LoadedWorkspace copyOf(Model model, Storage storage) {
+            return new LoadedWorkspace(
+                new EntryBook<>(model.getRecipeBook()),
+                new EntryBook<>(model.getIngredientBook()),
+                new UsageList<>(model.getRecipeUsageList().getUsageList()),
+                new UsageList<>(model.getIngredientUsageList().getUsageList()),
+                getStamps(storage));
+        }
+
+        /**
+         * Returns true if the data files have not changed since this was read from (or saved to) them.
+         */
+        boolean isUpToDate(Storage storage) {
+            return this.stamps.equals(getStamps(storage));
+        }
+
+        private static List<DataFileWatcher.Stamp> getStamps(Storage storage) {
+            return getDataFilePaths(storage).stream()
+                .map(DataFileWatcher::getStamp)
+                .collect(Collectors.toList());
+        }
+
+        /**
+         * Estimates the memory used by the given data (see {@code SizeEstimator}).
+         */
+        private static long estimateSize(ReadOnlyEntryBook<Recipe> recipes, ReadOnlyEntryBook<Ingredient> ingredients,
+            UsageList<RecipeUsage> recipeUsages, UsageList<IngredientUsage> ingredientUsages) {
+
+            return SizeEstimator.estimateRecipes(recipes.getEntryList())
+                + SizeEstimator.estimateIngredients(ingredients.getEntryList())
+                + SizeEstimator.estimateUsages(recipeUsages.getUsageList())
+                + SizeEstimator.estimateUsages(ingredientUsages.getUsageList());
+        }
+    }
+}
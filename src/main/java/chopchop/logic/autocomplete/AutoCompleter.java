@@ -9,9 +9,9 @@ import static chopchop.commons.util.Enforce.enforceNotEmpty;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import chopchop.commons.core.Log;
@@ -21,7 +21,6 @@ import chopchop.logic.parser.ArgName;
 import chopchop.logic.parser.CommandArguments;
 import chopchop.logic.parser.CommandParser;
 import chopchop.logic.parser.commands.CommandTarget;
-import chopchop.model.Entry;
 import chopchop.model.Model;
 
 public class AutoCompleter {
@@ -35,9 +34,31 @@ public class AutoCompleter {
         }
     };
 
+    // the names and tags to complete; if this is null, they are taken from the model for each completion.
+    private final CompletionIndex index;
+
     private int lastCompletionIndex = 0;
     private List<String> lastViableCompletions = null;
 
+    // only the best few completions are found at first; this finds the rest, if the user cycles past them.
+    private Supplier<List<String>> remainingCompletions = null;
+
+    /**
+     * Constructs an {@code AutoCompleter} that takes the names and tags to complete from the model it is given
+     * for each completion.
+     */
+    public AutoCompleter() {
+        this(null);
+    }
+
+    /**
+     * Constructs an {@code AutoCompleter} that completes the names and tags in the given index, which should be
+     * following the model (see {@link CompletionIndex#following(Model)}).
+     */
+    public AutoCompleter(CompletionIndex index) {
+        this.index = index;
+    }
+
     /**
      * Resets the internal state of the completer, namely the last-provided completion. When
      * the user types into the text field, we should restart the completion cycling.
@@ -45,6 +66,7 @@ public class AutoCompleter {
     public void resetCompletionState() {
         this.lastCompletionIndex = 0;
         this.lastViableCompletions = null;
+        this.remainingCompletions = null;
     }
 
     /**
@@ -162,17 +184,18 @@ public class AutoCompleter {
             ? args.getFirstWordFromRemaining()
             : args.getCommand();
 
-        var valids = new ArrayList<String>();
-        for (var cmd : Strings.COMMAND_NAMES) {
-            if (cmd.startsWith(partial.toLowerCase())) {
-                valids.add(cmd);
+        if (this.lastViableCompletions == null) {
+            var valids = new ArrayList<String>();
+            for (var cmd : Strings.COMMAND_NAMES) {
+                if (cmd.startsWith(partial.toLowerCase())) {
+                    valids.add(cmd);
+                }
             }
-        }
 
-        valids.sort(lexicographicalComparator);
+            valids.sort(Comparator.comparing((String cmd) -> Strings.RARE_COMMAND_NAMES.contains(cmd))
+                .thenComparing(lexicographicalComparator));
 
-        if (this.lastViableCompletions == null) {
-            this.lastViableCompletions = new ArrayList<String>(valids);
+            this.lastViableCompletions = valids;
         }
 
         if (this.lastViableCompletions.isEmpty()) {
@@ -209,27 +232,22 @@ public class AutoCompleter {
     /**
      * abstracts away the cycled completion thing
      */
-    private Optional<String> tryMultiCompletionUsing(List<String> items, String orig, String partial) {
+    private Optional<String> tryMultiCompletionUsing(CompletionTrie items, String orig, String partial) {
 
         // the entire command string *except* the partial item name.
         var allExceptLast = orig.stripTrailing().substring(0,
             orig.stripTrailing().replace("\\/", "/").length() - partial.length());
 
         // un-escape the user input first
-        partial = partial.replace("\\/", "/").toLowerCase();
-
-        // make a copy of the list, then sort by name length.
-        var valids = new ArrayList<String>();
-        for (var item : items) {
-            if (item.toLowerCase().startsWith(partial)) {
-                valids.add(item);
-            }
-        }
-
-        valids.sort(lexicographicalComparator);
+        var prefix = partial.replace("\\/", "/");
 
+        // the trie has the best few completions ready, which is usually all that's needed; the rest are only
+        // found (and sorted) if the user cycles past them.
         if (this.lastViableCompletions == null) {
-            this.lastViableCompletions = new ArrayList<String>(valids);
+            this.lastViableCompletions = items.complete(prefix, CompletionTrie.CACHED_COMPLETIONS);
+            if (this.lastViableCompletions.size() == CompletionTrie.CACHED_COMPLETIONS) {
+                this.remainingCompletions = () -> items.complete(prefix);
+            }
         }
 
         if (this.lastViableCompletions.isEmpty()) {
@@ -240,7 +258,16 @@ public class AutoCompleter {
             enforceLessThan(this.lastCompletionIndex, this.lastViableCompletions.size());
 
             var completion = this.lastViableCompletions.get(this.lastCompletionIndex);
-            this.lastCompletionIndex = (this.lastCompletionIndex + 1) % this.lastViableCompletions.size();
+            this.lastCompletionIndex++;
+
+            if (this.lastCompletionIndex == this.lastViableCompletions.size() && this.remainingCompletions != null) {
+                this.lastViableCompletions = this.remainingCompletions.get();
+                this.remainingCompletions = null;
+            }
+
+            if (this.lastCompletionIndex >= this.lastViableCompletions.size()) {
+                this.lastCompletionIndex = 0;
+            }
 
             // re-escape the user output.
             completion = completion.replace("/", "\\/");
@@ -271,10 +298,10 @@ public class AutoCompleter {
 
         final String c = cmd;
         return tryMultiCompletionUsing(
-            Arrays.stream(CommandTarget.values())
+            CompletionTrie.of(Arrays.stream(CommandTarget.values())
                 .filter(t -> commandSupportsTarget(c, t))
                 .map(t -> t.toString())
-                .collect(Collectors.toList()),
+                .collect(Collectors.toList())),
             orig,
             partial
         ).orElse(orig);
@@ -288,12 +315,12 @@ public class AutoCompleter {
 
         return CommandTarget.of(args.getFirstWordFromRemaining())
             .flatMap(target -> {
-                List<String> tags = List.of();
+                CompletionTrie tags;
 
                 if (target == CommandTarget.RECIPE) {
-                    tags = getAllRecipeTags(model);
+                    tags = this.getIndex(model).getRecipeTags();
                 } else if (target == CommandTarget.INGREDIENT) {
-                    tags = getAllIngredientTags(model);
+                    tags = this.getIndex(model).getIngredientTags();
                 } else {
                     return Optional.empty();
                 }
@@ -380,6 +407,9 @@ public class AutoCompleter {
                 validArguments.add(Strings.ARG_NAME);
                 validArguments.add(Strings.ARG_EXPIRY);
             }
+        } else if (cmd.equals(Strings.COMMAND_FIND)) {
+            validArguments.add(Strings.ARG_FUZZY);
+
         } else if (cmd.equals(Strings.COMMAND_STATS)) {
             // ugh, this command format is 3head
             var foo = new StringView(args.getRemaining()).words();
@@ -468,8 +498,8 @@ public class AutoCompleter {
 
 
 
-    private <T extends Entry> Optional<String> completeNamedItem(RequiredCompletion req, CommandArguments args,
-        String orig, List<T> entries) {
+    private Optional<String> completeNamedItem(RequiredCompletion req, CommandArguments args, String orig,
+        CompletionTrie names) {
 
         var words = new StringView(orig).words();
         enforceNotEmpty(words);
@@ -498,8 +528,7 @@ public class AutoCompleter {
             }
         }
 
-        return tryMultiCompletionUsing(entries.stream().map(x -> x.getName()).collect(Collectors.toList()),
-            orig, partial);
+        return tryMultiCompletionUsing(names, orig, partial);
     }
 
 
@@ -509,7 +538,7 @@ public class AutoCompleter {
      */
     private String completeRecipe(RequiredCompletion req, Model model, CommandArguments args, String orig) {
 
-        return completeNamedItem(req, args, orig, model.getRecipeBook().getEntryList())
+        return completeNamedItem(req, args, orig, this.getIndex(model).getRecipeNames())
             .orElse(orig);
     }
 
@@ -518,7 +547,7 @@ public class AutoCompleter {
      */
     private String completeIngredient(RequiredCompletion req, Model model, CommandArguments args, String orig) {
 
-        return completeNamedItem(req, args, orig, model.getIngredientBook().getEntryList())
+        return completeNamedItem(req, args, orig, this.getIndex(model).getIngredientNames())
             .orElse(orig);
     }
 
@@ -664,19 +693,10 @@ public class AutoCompleter {
         return tryCompletionUsing(candidates, orig, partial, " ");
     }
 
-    private <T extends Entry> List<String> getAllTags(List<T> entries) {
-        return new ArrayList<>(new HashSet<>(entries.stream()
-            .flatMap(e -> e.getTags().stream())
-            .map(t -> t.toString())
-            .collect(Collectors.toList())));
-    }
-
-    private List<String> getAllIngredientTags(Model model) {
-        return getAllTags(model.getIngredientBook().getEntryList());
-    }
-
-    private List<String> getAllRecipeTags(Model model) {
-        return getAllTags(model.getRecipeBook().getEntryList());
+    private CompletionIndex getIndex(Model model) {
+        return this.index != null
+            ? this.index
+            : CompletionIndex.of(model);
     }
 
 
@@ -0,0 +1,121 @@
+// CompletionIndex.java
+
+package chopchop.logic.autocomplete;
+
+import java.util.List;
+
+import chopchop.commons.util.ListenableList;
+import chopchop.model.Entry;
+import chopchop.model.Model;
+import chopchop.model.usage.Usage;
+
+/**
+ * The names and tags of the recipes and ingredients in a model, in {@link CompletionTrie}s for completing them.
+ * Recipe and ingredient names are ranked by how often they were used (made, or used in a recipe), and tags by
+ * how many entries have them.
+ *
+ * An index made with {@link #following(Model)} is kept up to date as the model changes; this is done on the
+ * thread that changes the model, while completions may be looked up from any other thread.
+ */
+public class CompletionIndex {
+
+    // past this many changes at once (eg. when the data is loaded), the tries are rebuilt instead of updated.
+    private static final int REBUILD_THRESHOLD = 1000;
+
+    private final CompletionTrie recipeNames = new CompletionTrie(/* rankByCount: */ false);
+    private final CompletionTrie ingredientNames = new CompletionTrie(/* rankByCount: */ false);
+    private final CompletionTrie recipeTags = new CompletionTrie(/* rankByCount: */ true);
+    private final CompletionTrie ingredientTags = new CompletionTrie(/* rankByCount: */ true);
+
+    private CompletionIndex(Model model) {
+        rebuild(this.recipeNames, this.recipeTags, model.getRecipeBook().getEntryList());
+        rebuild(this.ingredientNames, this.ingredientTags, model.getIngredientBook().getEntryList());
+    }
+
+    /**
+     * Returns an index of the current names and tags in the given model, which is not updated as it changes.
+     * Its names are not ranked by usage, only by length.
+     */
+    public static CompletionIndex of(Model model) {
+        return new CompletionIndex(model);
+    }
+
+    /**
+     * Returns an index of the names and tags in the given model, which is kept up to date as it changes.
+     */
+    public static CompletionIndex following(Model model) {
+        var index = new CompletionIndex(model);
+
+        var recipeUsages = model.getObservableRecipeUsages();
+        updateFrequencies(index.recipeNames, List.of(), recipeUsages);
+        recipeUsages.addListener((removed, added) ->
+            updateFrequencies(index.recipeNames, removed, added));
+
+        var ingredientUsages = model.getObservableIngredientUsages();
+        updateFrequencies(index.ingredientNames, List.of(), ingredientUsages);
+        ingredientUsages.addListener((removed, added) ->
+            updateFrequencies(index.ingredientNames, removed, added));
+
+        var recipes = model.getRecipeBook().getEntryList();
+        recipes.addListener((removed, added) ->
+            update(index.recipeNames, index.recipeTags, recipes, removed, added));
+
+        var ingredients = model.getIngredientBook().getEntryList();
+        ingredients.addListener((removed, added) ->
+            update(index.ingredientNames, index.ingredientTags, ingredients, removed, added));
+
+        return index;
+    }
+
+    public CompletionTrie getRecipeNames() {
+        return this.recipeNames;
+    }
+
+    public CompletionTrie getIngredientNames() {
+        return this.ingredientNames;
+    }
+
+    public CompletionTrie getRecipeTags() {
+        return this.recipeTags;
+    }
+
+    public CompletionTrie getIngredientTags() {
+        return this.ingredientTags;
+    }
+
+    private static <T extends Entry> void update(CompletionTrie names, CompletionTrie tags,
+        ListenableList<T> entries, List<? extends T> removed, List<? extends T> added) {
+
+        if (removed.size() + added.size() > REBUILD_THRESHOLD) {
+            rebuild(names, tags, entries);
+            return;
+        }
+
+        for (var entry : removed) {
+            names.remove(entry.getName());
+            entry.getTags().forEach(tag -> tags.remove(tag.toString()));
+        }
+
+        for (var entry : added) {
+            names.add(entry.getName());
+            entry.getTags().forEach(tag -> tags.add(tag.toString()));
+        }
+    }
+
+    private static <T extends Entry> void rebuild(CompletionTrie names, CompletionTrie tags, List<T> entries) {
+        names.clear();
+        tags.clear();
+
+        for (var entry : entries) {
+            names.add(entry.getName());
+            entry.getTags().forEach(tag -> tags.add(tag.toString()));
+        }
+    }
+
+    private static void updateFrequencies(CompletionTrie names, List<? extends Usage> removed,
+        List<? extends Usage> added) {
+
+        removed.forEach(usage -> names.addFrequency(usage.getName(), -1));
+        added.forEach(usage -> names.addFrequency(usage.getName(), 1));
+    }
+}
@@ -0,0 +1,368 @@
+// CompletionTrie.java
+
+package chopchop.logic.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A case-insensitive prefix trie of names (eg. of recipes, or of tags) for completing them. Completions are
+ * ranked shortest first, then by weight (most first), then alphabetically; the weight of a name is either the
+ * number of times it was added (eg. for a tag, the number of entries with it), or a separately maintained
+ * frequency (eg. for a recipe, the number of times it was made).
+ *
+ * Each node with more than {@code CACHED_COMPLETIONS} names under it keeps the best of them, so that the best
+ * completions for a prefix are found without looking at the rest of the names under it; nodes with fewer names
+ * are just searched, since that is cheap. The cached completions are updated as names are added and removed, or
+ * their weights change, which only touches the nodes (above the name) whose cached completions it is part of.
+ *
+ * This may be used from any thread.
+ */
+public class CompletionTrie {
+    public static final int CACHED_COMPLETIONS = 16;
+
+    private final boolean rankByCount;
+    private final Node root = new Node(null, '\0');
+
+    // the node of each name, and the frequency of each name (whether or not it is in the trie), by lowercase name.
+    private final Map<String, Node> names = new HashMap<>();
+    private final Map<String, Integer> frequencies = new HashMap<>();
+
+    /**
+     * Constructs an empty {@code CompletionTrie}, which weighs names by the number of times they were added if
+     * {@code rankByCount} is true, and by their frequency otherwise.
+     */
+    public CompletionTrie(boolean rankByCount) {
+        this.rankByCount = rankByCount;
+    }
+
+    /**
+     * Returns a {@code CompletionTrie} of the given names, which weighs them by the number of times they appear.
+     */
+    public static CompletionTrie of(List<String> names) {
+        var trie = new CompletionTrie(/* rankByCount: */ true);
+        names.forEach(trie::add);
+        return trie;
+    }
+
+    /**
+     * Adds the given name. If it was already added (ignoring case), this only increases its count, and the
+     * name is still completed as it was first added.
+     */
+    public synchronized void add(String name) {
+        var key = name.toLowerCase();
+        var node = this.names.get(key);
+        if (node != null) {
+            node.count++;
+            if (this.rankByCount) {
+                this.reposition(node);
+            }
+            return;
+        }
+
+        node = this.root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(key.charAt(i));
+        }
+
+        node.key = key;
+        node.name = name;
+        node.count = 1;
+        this.names.put(key, node);
+
+        // the nodes that now have too many names to search get their completions cached, which includes this one.
+        for (var n = node; n != null; n = n.parent) {
+            n.size++;
+            if (n.size == CACHED_COMPLETIONS + 1) {
+                n.best = this.findBest(n, /* excluded: */ null);
+            }
+        }
+
+        this.attach(node);
+    }
+
+    /**
+     * Removes the given name (ignoring case), once for every time it was added.
+     */
+    public synchronized void remove(String name) {
+        var node = this.names.get(name.toLowerCase());
+        if (node == null) {
+            return;
+        }
+
+        node.count--;
+        if (node.count > 0) {
+            if (this.rankByCount) {
+                this.reposition(node);
+            }
+            return;
+        }
+
+        this.detach(node);
+        this.names.remove(node.key);
+        node.key = null;
+        node.name = null;
+
+        for (var n = node; n != null; n = n.parent) {
+            n.size--;
+            if (n.size == CACHED_COMPLETIONS) {
+                n.best = null;
+            }
+        }
+
+        for (var n = node; n != this.root && n.size == 0; n = n.parent) {
+            n.parent.removeChild(n.letter);
+        }
+    }
+
+    /**
+     * Changes the frequency of the given name (ignoring case) by {@code delta}. The frequency is kept even while
+     * the name is not in the trie, so it is still right when the name is added back.
+     */
+    public synchronized void addFrequency(String name, int delta) {
+        var key = name.toLowerCase();
+        var frequency = this.frequencies.getOrDefault(key, 0) + delta;
+        if (frequency > 0) {
+            this.frequencies.put(key, frequency);
+        } else {
+            this.frequencies.remove(key);
+        }
+
+        var node = this.names.get(key);
+        if (node != null && !this.rankByCount) {
+            this.reposition(node);
+        }
+    }
+
+    /**
+     * Removes all the names, but not their frequencies.
+     */
+    public synchronized void clear() {
+        this.names.clear();
+        this.root.clearChildren();
+        this.root.size = 0;
+        this.root.best = null;
+    }
+
+    /**
+     * Returns the number of distinct names.
+     */
+    public synchronized int size() {
+        return this.names.size();
+    }
+
+    /**
+     * Returns at most {@code limit} of the names that start with {@code prefix} (ignoring case), best first.
+     * This is fastest when {@code limit} is at most {@code CACHED_COMPLETIONS}.
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        var node = this.root;
+        var key = prefix.toLowerCase();
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.getChild(key.charAt(i));
+        }
+
+        if (node == null) {
+            return new ArrayList<>();
+        }
+
+        List<Node> found = node.best;
+        if (found == null || limit > CACHED_COMPLETIONS) {
+            found = new ArrayList<>();
+            collect(node, found, /* excluded: */ null);
+            found.sort(this::compare);
+        }
+
+        return found.stream()
+            .limit(limit)
+            .map(n -> n.name)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all the names that start with {@code prefix} (ignoring case), best first.
+     */
+    public List<String> complete(String prefix) {
+        return this.complete(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds the given name to the cached completions of the nodes above it that it is good enough for. Since each
+     * node's cached completions are at least as good as its children's, this stops at the first one it is not
+     * good enough for.
+     */
+    private void attach(Node node) {
+        for (var n = node; n != null; n = n.parent) {
+            if (n.best == null || n.best.contains(node)) {
+                continue;
+            }
+
+            int i = n.best.size();
+            while (i > 0 && this.compare(node, n.best.get(i - 1)) < 0) {
+                i--;
+            }
+
+            if (i == CACHED_COMPLETIONS) {
+                return;
+            }
+
+            n.best.add(i, node);
+            if (n.best.size() > CACHED_COMPLETIONS) {
+                n.best.remove(n.best.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Removes the given name from the cached completions of the nodes above it, finding the next best names in
+     * its place. As with {@link #attach(Node)}, this stops at the first node that does not have it.
+     */
+    private void detach(Node node) {
+        for (var n = node; n != null; n = n.parent) {
+            if (n.best == null) {
+                continue;
+            }
+
+            if (!n.best.contains(node)) {
+                return;
+            }
+
+            n.best = this.findBest(n, node);
+        }
+    }
+
+    /**
+     * Updates the cached completions for a name whose weight has changed.
+     */
+    private void reposition(Node node) {
+        this.detach(node);
+        this.attach(node);
+    }
+
+    /**
+     * Finds the best names at or under {@code node}, except for {@code excluded}, from the cached completions of
+     * its children (which must be up to date), or by searching the children that do not have any.
+     */
+    private List<Node> findBest(Node node, Node excluded) {
+        var candidates = new ArrayList<Node>();
+        if (node.name != null && node != excluded) {
+            candidates.add(node);
+        }
+
+        for (var child : node.children) {
+            if (child.best == null) {
+                collect(child, candidates, excluded);
+            } else {
+                child.best.stream().filter(n -> n != excluded).forEach(candidates::add);
+            }
+        }
+
+        candidates.sort(this::compare);
+        if (candidates.size() > CACHED_COMPLETIONS) {
+            candidates.subList(CACHED_COMPLETIONS, candidates.size()).clear();
+        }
+
+        return candidates;
+    }
+
+    private static void collect(Node node, List<Node> out, Node excluded) {
+        if (node.name != null && node != excluded) {
+            out.add(node);
+        }
+
+        for (var child : node.children) {
+            collect(child, out, excluded);
+        }
+    }
+
+    private int getWeight(Node node) {
+        return this.rankByCount
+            ? node.count
+            : this.frequencies.getOrDefault(node.key, 0);
+    }
+
+    private int compare(Node a, Node b) {
+        if (a.name.length() != b.name.length()) {
+            return Integer.compare(a.name.length(), b.name.length());
+        }
+
+        var weightA = this.getWeight(a);
+        var weightB = this.getWeight(b);
+        if (weightA != weightB) {
+            return Integer.compare(weightB, weightA);
+        }
+
+        return a.key.compareTo(b.key);
+    }
+
+    private static class Node {
+        private static final char[] NO_LETTERS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final Node parent;
+        final char letter;
+
+        // most nodes only have one child, so these are kept as small as possible.
+        private char[] letters = NO_LETTERS;
+        private Node[] children = NO_CHILDREN;
+
+        // the name that ends here, if any (both lowercased and as it was added), and how many times it was added.
+        private String key = null;
+        private String name = null;
+        private int count = 0;
+
+        // the number of names at or under this node, and the best of them if there are too many to search.
+        private int size = 0;
+        private List<Node> best = null;
+
+        Node(Node parent, char letter) {
+            this.parent = parent;
+            this.letter = letter;
+        }
+
+        Node getChild(char c) {
+            for (int i = 0; i < this.letters.length; i++) {
+                if (this.letters[i] == c) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrAddChild(char c) {
+            var child = this.getChild(c);
+            if (child == null) {
+                child = new Node(this, c);
+                this.letters = Arrays.copyOf(this.letters, this.letters.length + 1);
+                this.children = Arrays.copyOf(this.children, this.children.length + 1);
+                this.letters[this.letters.length - 1] = c;
+                this.children[this.children.length - 1] = child;
+            }
+            return child;
+        }
+
+        void removeChild(char c) {
+            for (int i = 0; i < this.letters.length; i++) {
+                if (this.letters[i] != c) {
+                    continue;
+                }
+
+                var last = this.letters.length - 1;
+                this.letters[i] = this.letters[last];
+                this.children[i] = this.children[last];
+                this.letters = Arrays.copyOf(this.letters, last);
+                this.children = Arrays.copyOf(this.children, last);
+                return;
+            }
+        }
+
+        void clearChildren() {
+            this.letters = NO_LETTERS;
+            this.children = NO_CHILDREN;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import chopchop.model.attributes.Tag;
 import chopchop.model.attributes.units.Count;
 import chopchop.model.exceptions.IncompatibleIngredientsException;
 import chopchop.model.ingredient.Ingredient;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Adds an ingredient to the ingredient book.
@@ -25,6 +26,8 @@ public class AddIngredientCommand extends Command implements Undoable {
     private final Optional<ExpiryDate> expiryDate;
 
     private Ingredient addedIngredient;
+
+    // the ingredient with the same name that was already there, if any; the two are combined in the model.
     private Ingredient existingIngredient;
     private Ingredient combinedIngredient;
 
@@ -55,19 +58,23 @@ public class AddIngredientCommand extends Command implements Undoable {
 
         var existingIngredientOptional = model.findIngredientWithName(this.addedIngredient.getName());
 
+        this.existingIngredient = null;
         if (existingIngredientOptional.isPresent()) {
-            this.existingIngredient = existingIngredientOptional.get();
+            var existingIngredient = existingIngredientOptional.get();
+            Ingredient combinedIngredient;
 
             try {
-                this.combinedIngredient = this.existingIngredient.combine(this.addedIngredient);
-                model.setIngredient(this.existingIngredient, this.combinedIngredient);
+                combinedIngredient = existingIngredient.combine(this.addedIngredient);
+                model.setIngredient(existingIngredient, combinedIngredient);
 
             } catch (IncompatibleIngredientsException e) {
                 return CommandResult.error("Could not add %s of '%s': " + e.getMessage(),
                     this.addedIngredient.getQuantity(), this.addedIngredient.getName());
             }
 
-            return CommandResult.message("Updated ingredient '%s'", this.combinedIngredient.getName())
+            this.existingIngredient = existingIngredient;
+            this.combinedIngredient = combinedIngredient;
+            return CommandResult.message("Updated ingredient '%s'", combinedIngredient.getName())
                 .showingIngredientList();
 
         } else {
@@ -85,7 +92,14 @@ public class AddIngredientCommand extends Command implements Undoable {
         String action = "";
         Ingredient ingr = null;
 
-        if (this.existingIngredient == null && this.combinedIngredient == null) {
+        // the model holds whichever ingredient this put there, unless something else changed it since then.
+        var current = this.existingIngredient == null ? this.addedIngredient : this.combinedIngredient;
+        if (!holdsIngredient(model, current)) {
+            return CommandResult.error("Could not undo; ingredient '%s' was changed or removed since then",
+                current.getName());
+        }
+
+        if (this.existingIngredient == null) {
 
             model.deleteIngredient(this.addedIngredient);
 
@@ -102,6 +116,12 @@ public class AddIngredientCommand extends Command implements Undoable {
             .showingIngredientList();
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + SizeEstimator.estimate(this.addedIngredient)
+            + (this.existingIngredient == null ? 0 : SizeEstimator.estimate(this.existingIngredient));
+    }
+
     @Override
     public String toString() {
         return String.format("AddIngredientCommand: %s (%s)%s", this.name,
@@ -14,6 +14,7 @@ import chopchop.model.attributes.Step;
 import chopchop.model.attributes.Tag;
 import chopchop.model.ingredient.IngredientReference;
 import chopchop.model.recipe.Recipe;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Adds a recipe to the recipe book.
@@ -88,6 +89,12 @@ public class AddRecipeCommand extends Command implements Undoable {
             .showingRecipeList();
     }
 
+    @Override
+    public long estimateSize() {
+        // the parts of the recipe are kept too, but they are shared with the recipe itself.
+        return BASE_SIZE + (this.recipe == null ? 0 : SizeEstimator.estimate(this.recipe));
+    }
+
     @Override
     public String toString() {
         return String.format("AddRecipeCommand(%s, ingr: [%s], steps: [%s])", this.name,
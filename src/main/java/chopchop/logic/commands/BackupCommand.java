@@ -0,0 +1,34 @@
+// BackupCommand.java
+
+package chopchop.logic.commands;
+
+import chopchop.logic.BackupManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class BackupCommand extends Command implements RequiresBackups {
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_BACKUPS);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, BackupManager backups) {
+        backups.backup();
+        return CommandResult.message("Backing up data in the background");
+    }
+
+    @Override
+    public String toString() {
+        return "BackupCommand";
+    }
+
+    public static String getCommandString() {
+        return "backup";
+    }
+
+    public static String getCommandHelp() {
+        return "Backs up the data files; only the parts that changed since the last backup are stored";
+    }
+}
@@ -0,0 +1,51 @@
+// BackupListCommand.java
+
+package chopchop.logic.commands;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+
+import chopchop.logic.BackupManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class BackupListCommand extends Command implements RequiresBackups {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+        .withZone(ZoneId.systemDefault());
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_BACKUPS);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, BackupManager backups) {
+        var generations = backups.getGenerations();
+        if (generations.isEmpty()) {
+            return CommandResult.message("There are no backups yet");
+        }
+
+        var lines = new ArrayList<String>();
+        for (var gen : generations) {
+            lines.add(String.format("%d: %s (%s)", gen.getNumber(),
+                gen.getCreated().map(TIME_FORMAT::format).orElse("unknown time"), BackupManager.describe(gen)));
+        }
+
+        return CommandResult.message("Backups (restore one with 'restore NUMBER'):\n%s", String.join("\n", lines));
+    }
+
+    @Override
+    public String toString() {
+        return "BackupListCommand";
+    }
+
+    public static String getCommandString() {
+        return "backup list";
+    }
+
+    public static String getCommandHelp() {
+        return "Lists the backups of the data files";
+    }
+}
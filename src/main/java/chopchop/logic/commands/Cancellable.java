@@ -0,0 +1,16 @@
+// Cancellable.java
+
+package chopchop.logic.commands;
+
+/**
+ * Marks a command that can take long enough that the user might want to stop it part-way. {@link #cancel()} may
+ * be called from any thread while the command is running; the command should then stop as soon as the model is
+ * in a consistent state, and say in its result that it was cancelled. Whatever it did before stopping is kept
+ * (and saved, and can be undone) as usual.
+ */
+public interface Cancellable {
+    /**
+     * Asks the command to stop.
+     */
+    void cancel();
+}
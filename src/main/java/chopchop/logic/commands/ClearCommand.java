@@ -58,6 +58,11 @@ public class ClearCommand extends Command implements Undoable {
             .showingRecipeList();
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + this.commands.stream().mapToLong(Undoable::estimateSize).sum();
+    }
+
     @Override
     public String toString() {
         return "ClearCommand";
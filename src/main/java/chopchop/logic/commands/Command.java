@@ -2,9 +2,13 @@
 
 package chopchop.logic.commands;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import chopchop.commons.util.Result;
 import chopchop.logic.history.HistoryManager;
 import chopchop.logic.parser.ItemReference;
+import chopchop.model.Entry;
 import chopchop.model.Model;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.recipe.Recipe;
@@ -20,6 +24,9 @@ import chopchop.model.recipe.Recipe;
  */
 public abstract class Command {
 
+    // the most similarly named items suggested when an item is not found by name.
+    private static final int MAX_SUGGESTIONS = 3;
+
     /**
      * Executes the command and returns the result message.
      *
@@ -51,8 +58,13 @@ public abstract class Command {
 
         } else {
 
-            return Result.ofOptional(model.findIngredientWithName(ref.getName()),
-                String.format("No ingredient named '%s'", ref.getName()));
+            var ingredient = model.findIngredientWithName(ref.getName());
+            if (ingredient.isPresent()) {
+                return Result.of(ingredient.get());
+            }
+
+            return Result.error(getNotFoundMessage("ingredient", ref.getName(),
+                model.findIngredientsWithSimilarName(ref.getName(), MAX_SUGGESTIONS)));
         }
     }
 
@@ -78,9 +90,48 @@ public abstract class Command {
 
         } else {
 
-            return Result.ofOptional(model.findRecipeWithName(ref.getName()),
-                String.format("No recipe named '%s'", ref.getName()));
+            var recipe = model.findRecipeWithName(ref.getName());
+            if (recipe.isPresent()) {
+                return Result.of(recipe.get());
+            }
+
+            return Result.error(getNotFoundMessage("recipe", ref.getName(),
+                model.findRecipesWithSimilarName(ref.getName(), MAX_SUGGESTIONS)));
+        }
+    }
+
+    /**
+     * Returns true if the model holds exactly {@code ingredient}, and not just an ingredient with the same name.
+     */
+    protected static boolean holdsIngredient(Model model, Ingredient ingredient) {
+        return model.findIngredientWithName(ingredient.getName()).filter(i -> i == ingredient).isPresent();
+    }
+
+    /**
+     * Returns true if the model holds exactly {@code recipe}, and not just a recipe with the same name.
+     */
+    protected static boolean holdsRecipe(Model model, Recipe recipe) {
+        return model.findRecipeWithName(recipe.getName()).filter(r -> r == recipe).isPresent();
+    }
+
+    /**
+     * Returns the error message for an item that could not be found by name, suggesting the given similarly
+     * named items (eg. when the name was misspelt) if there are any.
+     */
+    private static String getNotFoundMessage(String kind, String name, List<? extends Entry> similar) {
+        var message = String.format("No %s named '%s'", kind, name);
+        if (similar.isEmpty()) {
+            return message;
         }
+
+        var names = similar.stream()
+            .map(entry -> String.format("'%s'", entry.getName()))
+            .collect(Collectors.toList());
+
+        var last = names.remove(names.size() - 1);
+        var suggestions = names.isEmpty() ? last : String.format("%s or %s", String.join(", ", names), last);
+
+        return String.format("%s (did you mean %s?)", message, suggestions);
     }
 
     @Override
@@ -11,6 +11,7 @@ import chopchop.model.Model;
 import chopchop.model.attributes.Quantity;
 import chopchop.model.exceptions.IncompatibleIngredientsException;
 import chopchop.model.ingredient.Ingredient;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Removes a given quantity of an ingredient identified using it's displayed index or name from the ingredient book.
@@ -21,6 +22,8 @@ public class DeleteIngredientCommand extends Command implements Undoable {
     private final ItemReference item;
     private final Optional<Quantity> quantity;
     private Ingredient ingredient;
+
+    // what is left of the ingredient, which the model holds, if only some of it was removed.
     private Ingredient updatedIngredient;
 
     public DeleteIngredientCommand(ItemReference item) {
@@ -46,6 +49,7 @@ public class DeleteIngredientCommand extends Command implements Undoable {
         }
 
         this.ingredient = res.getValue();
+        this.updatedIngredient = null;
 
         if (this.quantity.isPresent()) {
             if (this.quantity.get().isZero()) {
@@ -53,17 +57,17 @@ public class DeleteIngredientCommand extends Command implements Undoable {
             }
 
             try {
-                var splitIngredient = this.ingredient.split(this.quantity.get());
-                this.updatedIngredient = splitIngredient.snd();
+                var updatedIngredient = this.ingredient.split(this.quantity.get()).snd();
 
-                if (this.updatedIngredient.getIngredientSets().isEmpty()) {
+                if (updatedIngredient.getIngredientSets().isEmpty()) {
                     model.deleteIngredient(this.ingredient);
                 } else {
-                    model.setIngredient(this.ingredient, this.updatedIngredient);
+                    model.setIngredient(this.ingredient, updatedIngredient);
+                    this.updatedIngredient = updatedIngredient;
                 }
 
                 return CommandResult.message("Removed %s of ingredient '%s'",
-                    this.quantity.get().toString(), this.updatedIngredient.getName()
+                    this.quantity.get().toString(), updatedIngredient.getName()
                 ).showingIngredientList();
 
             } catch (IncompatibleIngredientsException | IllegalValueException e) {
@@ -82,10 +86,20 @@ public class DeleteIngredientCommand extends Command implements Undoable {
 
         String action = "";
 
-        if (this.quantity.isEmpty() || this.updatedIngredient.getIngredientSets().isEmpty()) {
+        if (this.updatedIngredient == null) {
+            if (model.findIngredientWithName(this.ingredient.getName()).isPresent()) {
+                return CommandResult.error("Could not undo; another ingredient named '%s' was added since then",
+                    this.ingredient.getName());
+            }
+
             model.addIngredient(this.ingredient);
             action = "re-added";
         } else {
+            if (!holdsIngredient(model, this.updatedIngredient)) {
+                return CommandResult.error("Could not undo; ingredient '%s' was changed or removed since then",
+                    this.ingredient.getName());
+            }
+
             model.setIngredient(this.updatedIngredient, this.ingredient);
             action = "updated";
         }
@@ -94,6 +108,11 @@ public class DeleteIngredientCommand extends Command implements Undoable {
             .showingIngredientList();
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + (this.ingredient == null ? 0 : SizeEstimator.estimate(this.ingredient));
+    }
+
     @Override
     public String toString() {
         return String.format("DeleteIngredientCommand(%s%s)", this.item,
@@ -6,6 +6,7 @@ import chopchop.logic.history.HistoryManager;
 import chopchop.logic.parser.ItemReference;
 import chopchop.model.Model;
 import chopchop.model.recipe.Recipe;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Deletes a recipe identified using it's displayed index or name from the recipe book.
@@ -48,6 +49,11 @@ public class DeleteRecipeCommand extends Command implements Undoable {
             .showingRecipe(this.recipe);
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + (this.recipe == null ? 0 : SizeEstimator.estimate(this.recipe));
+    }
+
     @Override
     public String toString() {
         return String.format("DeleteRecipeCommand(%s)", this.item);
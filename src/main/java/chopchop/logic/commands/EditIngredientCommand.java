@@ -16,6 +16,7 @@ import chopchop.logic.parser.ItemReference;
 import chopchop.model.Model;
 import chopchop.model.attributes.Tag;
 import chopchop.model.ingredient.Ingredient;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Edits an ingredient identified using it's displayed index or name from the ingredient book.
@@ -24,6 +25,8 @@ public class EditIngredientCommand extends Command implements Undoable {
     private final ItemReference item;
     private final IngredientEditDescriptor ingredientEditDescriptor;
     private Ingredient ingredient;
+
+    // the edited ingredient, which the model also holds until this is undone (or something else changes it).
     private Ingredient editedIngredient;
 
     /**
@@ -61,11 +64,13 @@ public class EditIngredientCommand extends Command implements Undoable {
             return CommandResult.error(foo.get());
         }
 
-        this.editedIngredient = new Ingredient(this.ingredient.getName(),
+        var editedIngredient = new Ingredient(this.ingredient.getName(),
             this.ingredient.getIngredientSets(),
             newTags.getValue());
 
-        model.setIngredient(this.ingredient, this.editedIngredient);
+        model.setIngredient(this.ingredient, editedIngredient);
+        this.editedIngredient = editedIngredient;
+
         return CommandResult.message("Edited ingredient '%s'", this.ingredient.getName())
             .showingIngredientList();
     }
@@ -108,11 +113,21 @@ public class EditIngredientCommand extends Command implements Undoable {
     public CommandResult undo(Model model) {
         enforceNonNull(model);
 
+        if (!holdsIngredient(model, this.editedIngredient)) {
+            return CommandResult.error("Could not undo edit; ingredient '%s' was changed or removed since then",
+                this.ingredient.getName());
+        }
+
         model.setIngredient(this.editedIngredient, this.ingredient);
         return CommandResult.message("Undo: un-edited ingredient '%s'", this.ingredient.getName())
             .showingIngredientList();
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + (this.ingredient == null ? 0 : SizeEstimator.estimate(this.ingredient));
+    }
+
     @Override
     public String toString() {
         return String.format("EditIngredientCommand(%s)", this.item);
@@ -26,6 +26,7 @@ import chopchop.model.attributes.Tag;
 import chopchop.model.attributes.units.Count;
 import chopchop.model.ingredient.IngredientReference;
 import chopchop.model.recipe.Recipe;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Edits a recipe identified using it's displayed index or name from the recipe book.
@@ -35,6 +36,8 @@ public class EditRecipeCommand extends Command implements Undoable {
     private final ItemReference item;
     private final RecipeEditDescriptor recipeEditDescriptor;
     private Recipe recipe;
+
+    // the edited recipe, which the model also holds until this is undone (or something else changes it).
     private Recipe editedRecipe;
 
     /**
@@ -77,7 +80,7 @@ public class EditRecipeCommand extends Command implements Undoable {
             return CommandResult.error(foo.get());
         }
 
-        this.editedRecipe = new Recipe(newName,
+        var editedRecipe = new Recipe(newName,
             newIngredients.getValue(),
             newSteps.getValue(),
             newTags.getValue());
@@ -89,10 +92,12 @@ public class EditRecipeCommand extends Command implements Undoable {
                 this.recipe.getName(), newName);
         }
 
-        model.setRecipe(this.recipe, this.editedRecipe);
+        model.setRecipe(this.recipe, editedRecipe);
+        this.editedRecipe = editedRecipe;
+
         return CommandResult.message("Edited recipe '%s'%s", this.recipe.getName(),
             editedName ? String.format(" (renamed to '%s')", newName) : ""
-        ).showingRecipe(this.editedRecipe);
+        ).showingRecipe(editedRecipe);
     }
 
 
@@ -257,11 +262,21 @@ public class EditRecipeCommand extends Command implements Undoable {
     public CommandResult undo(Model model) {
         enforceNonNull(model);
 
+        if (!holdsRecipe(model, this.editedRecipe)) {
+            return CommandResult.error("Could not undo edit; recipe '%s' was changed or removed since then",
+                this.editedRecipe.getName());
+        }
+
         model.setRecipe(this.editedRecipe, this.recipe);
         return CommandResult.message("Undo: un-edited recipe '%s'", this.recipe.getName())
             .showingRecipe(this.recipe);
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + (this.recipe == null ? 0 : SizeEstimator.estimate(this.recipe));
+    }
+
     @Override
     public String toString() {
         return String.format("EditRecipeCommand(%s)", this.item);
@@ -17,7 +17,7 @@ import chopchop.model.attributes.TagContainsKeywordsPredicate;
  * Filters and lists all ingredients in ingredient book that match all filtering criteria.
  * Keyword matching is case insensitive.
  */
-public class FilterIngredientCommand extends Command {
+public class FilterIngredientCommand extends Command implements ReadOnly {
 
     private final TagContainsKeywordsPredicate tagPredicates;
     private final NameContainsKeywordsFilterPredicate namePredicates;
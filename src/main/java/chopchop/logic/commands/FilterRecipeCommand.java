@@ -17,7 +17,7 @@ import chopchop.model.attributes.TagContainsKeywordsPredicate;
  * Filters and lists all recipes in recipe book that match all filtering criteria.
  * Keyword matching is case insensitive.
  */
-public class FilterRecipeCommand extends Command {
+public class FilterRecipeCommand extends Command implements ReadOnly {
 
     private final IngredientsContainsKeywordsPredicate ingredientPredicates;
     private final TagContainsKeywordsPredicate tagPredicates;
@@ -10,22 +10,32 @@ import chopchop.model.attributes.NameContainsKeywordsPredicate;
  * Finds and lists all ingredients in ingredient book whose name contains any of the argument keywords.
  * Keyword matching is case insensitive.
  */
-public class FindIngredientCommand extends Command {
+public class FindIngredientCommand extends Command implements ReadOnly {
 
     private final NameContainsKeywordsPredicate predicate;
+    private final boolean fuzzy;
 
     /**
      * Constructs a command that finds the given ingredient item.
      */
     public FindIngredientCommand(NameContainsKeywordsPredicate predicate) {
+        this(predicate, /* fuzzy: */ false);
+    }
+
+    /**
+     * Constructs a command that finds the given ingredient item. If {@code fuzzy} is true, ingredients whose names have
+     * words within a few typos of the keywords are found too.
+     */
+    public FindIngredientCommand(NameContainsKeywordsPredicate predicate, boolean fuzzy) {
         requireNonNull(predicate);
         this.predicate = predicate;
+        this.fuzzy = fuzzy;
     }
 
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
         requireNonNull(model);
-        model.updateFilteredIngredientList(predicate);
+        model.updateFilteredIngredientList(this.getPredicate(model));
 
         var sz = model.getFilteredIngredientList().size();
         return CommandResult.message("Found %d ingredient%s", sz, sz == 1 ? "" : "s")
@@ -34,7 +44,14 @@ public class FindIngredientCommand extends Command {
 
     @Override
     public String toString() {
-        return String.format("FindIngredientCommand(keywords: %s)", this.predicate.getKeywords());
+        return String.format("FindIngredientCommand(keywords: %s%s)", this.predicate.getKeywords(),
+            this.fuzzy ? ", fuzzy" : "");
+    }
+
+    private NameContainsKeywordsPredicate getPredicate(Model model) {
+        return this.fuzzy
+            ? this.predicate.withSimilarWords(model::findSimilarIngredientNameWords)
+            : this.predicate;
     }
 
     public static String getCommandString() {
@@ -2,39 +2,93 @@ package chopchop.logic.commands;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.logic.RecipeArchive;
 import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 import chopchop.model.attributes.NameContainsKeywordsPredicate;
+import chopchop.model.recipe.Recipe;
 
 /**
  * Finds and lists all recipes whose name contains any of the argument keywords.
  * Keyword matching is case insensitive.
  */
-public class FindRecipeCommand extends Command {
+public class FindRecipeCommand extends Command implements RequiresArchive, ReadOnly {
 
     private final NameContainsKeywordsPredicate predicate;
+    private final boolean fuzzy;
 
     /**
      * Constructs a command that finds the given recipe item.
      */
     public FindRecipeCommand(NameContainsKeywordsPredicate predicate) {
+        this(predicate, /* fuzzy: */ false);
+    }
+
+    /**
+     * Constructs a command that finds the given recipe item. If {@code fuzzy} is true, recipes whose names have
+     * words within a few typos of the keywords are found too.
+     */
+    public FindRecipeCommand(NameContainsKeywordsPredicate predicate, boolean fuzzy) {
         requireNonNull(predicate);
         this.predicate = predicate;
+        this.fuzzy = fuzzy;
     }
 
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
         requireNonNull(model);
-        model.updateFilteredRecipeList(predicate);
+        model.updateFilteredRecipeList(this.getPredicate(model));
 
         var sz = model.getFilteredRecipeList().size();
         return CommandResult.message("Found %d recipe%s", sz, sz == 1 ? "" : "s")
             .showingRecipeList();
     }
 
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, RecipeArchive archive) {
+        var result = this.execute(model, historyManager);
+
+        try {
+            // the archived recipes are not in the model, so misspelt keywords are matched against their names.
+            var predicate = this.predicate;
+            if (this.fuzzy) {
+                var similar = new HashMap<String, List<String>>();
+                for (var keyword : this.predicate.getKeywords()) {
+                    similar.put(keyword, archive.findSimilarNameWords(keyword));
+                }
+                predicate = this.predicate.withSimilarWords(similar::get);
+            }
+
+            var archived = archive.search(predicate);
+            if (archived.isEmpty()) {
+                return result;
+            }
+
+            return result.appending(String.format("Also found %d archived recipe%s (view or make them by name): %s",
+                archived.size(), archived.size() == 1 ? "" : "s",
+                archived.stream().map(Recipe::getName).collect(Collectors.joining(", "))), /* newline: */ true);
+
+        } catch (DataConversionException e) {
+            return result.appending(String.format("Could not search archived recipes (%s)", e.getMessage()),
+                /* newline: */ true);
+        }
+    }
+
     @Override
     public String toString() {
-        return String.format("FindRecipeCommand(keywords: %s)", this.predicate.getKeywords());
+        return String.format("FindRecipeCommand(keywords: %s%s)", this.predicate.getKeywords(),
+            this.fuzzy ? ", fuzzy" : "");
+    }
+
+    private NameContainsKeywordsPredicate getPredicate(Model model) {
+        return this.fuzzy
+            ? this.predicate.withSimilarWords(model::findSimilarRecipeNameWords)
+            : this.predicate;
     }
 
     public static String getCommandString() {
@@ -13,7 +13,7 @@ import chopchop.model.Model;
 /**
  * Format full help instructions for every command for display.
  */
-public class HelpCommand extends Command {
+public class HelpCommand extends Command implements ReadOnly {
 
     private static final String METHOD_NAME_GET_CMD = "getCommandString";
     private static final String METHOD_NAME_GET_HELP = "getCommandHelp";
@@ -240,6 +240,15 @@ public class HelpCommand extends Command {
         }
     }
 
+    private static class ImportCommandDummy {
+        public static String getCommandString() {
+            return "import";
+        }
+        public static String getCommandHelp() {
+            return "Imports items from a file; see 'import recipes' or 'import ingredients'";
+        }
+    }
+
     private static class StatsCommandDummy {
         public static String getCommandString() {
             return "stats";
@@ -248,4 +257,13 @@ public class HelpCommand extends Command {
             return "Lists recipe and ingredient statistics; see 'stats recipe made' or 'stats ingredient used'";
         }
     }
+
+    private static class WorkspaceCommandDummy {
+        public static String getCommandString() {
+            return "workspace";
+        }
+        public static String getCommandHelp() {
+            return "Manages workspaces; see 'workspace list' or 'workspace switch'";
+        }
+    }
 }
@@ -0,0 +1,188 @@
+// ImportIngredientCommand.java
+
+package chopchop.logic.commands;
+
+import static chopchop.commons.util.Enforce.enforceNonNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+import chopchop.model.exceptions.IncompatibleIngredientsException;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.util.SizeEstimator;
+import chopchop.storage.ImportFileReader;
+
+/**
+ * Imports ingredients in bulk from a json, json lines, or csv file. The file is streamed in batches, and
+ * nothing is changed unless the entire file could be read. Ingredients with the same name as an existing
+ * ingredient (or an earlier one in the file) are combined with it, as with {@code add ingredient}. The whole
+ * import is undone and redone as one unit.
+ */
+public class ImportIngredientCommand extends Command implements Undoable {
+
+    public static final int BATCH_SIZE = 1000;
+
+    private static final Log logger = new Log(ImportIngredientCommand.class);
+
+    private final Path path;
+
+    // these are keyed by the lowercased name of the ingredient.
+    private Map<String, Ingredient> addedIngredients;
+    private Map<String, Ingredient> existingIngredients;
+    private Map<String, Ingredient> combinedIngredients;
+    private int readCount;
+
+    /**
+     * Constructs a command that imports ingredients from the given file.
+     */
+    public ImportIngredientCommand(Path path) {
+        enforceNonNull(path);
+        this.path = path;
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        enforceNonNull(model, historyManager);
+
+        var existing = new HashMap<String, Ingredient>();
+        model.getIngredientBook().getEntryList().forEach(i -> existing.put(i.getName().toLowerCase(), i));
+
+        this.addedIngredients = new LinkedHashMap<>();
+        this.existingIngredients = new LinkedHashMap<>();
+        this.combinedIngredients = new LinkedHashMap<>();
+        this.readCount = 0;
+
+        var batch = new ArrayList<Ingredient>(BATCH_SIZE);
+        try {
+            ImportFileReader.readIngredients(this.path, ingredient -> {
+                batch.add(ingredient);
+                if (batch.size() == BATCH_SIZE) {
+                    this.acceptBatch(batch, existing);
+                }
+            });
+
+            this.acceptBatch(batch, existing);
+
+        } catch (DataConversionException e) {
+            return CommandResult.error("Could not import ingredients from '%s': %s", this.path,
+                e.getCause().getMessage());
+        } catch (IllegalValueException e) {
+            return CommandResult.error("Could not import ingredients from '%s': %s", this.path, e.getMessage());
+        }
+
+        this.applyImport(model);
+
+        logger.log("Imported %d ingredients from '%s' (%d added, %d combined)", this.readCount, this.path,
+            this.addedIngredients.size(), this.combinedIngredients.size());
+
+        return CommandResult.message("Imported %d ingredient%s from '%s' (%d new, %d updated)", this.readCount,
+            this.readCount == 1 ? "" : "s", this.path.getFileName(), this.addedIngredients.size(),
+            this.combinedIngredients.size())
+            .showingIngredientList();
+    }
+
+    /**
+     * Validates a batch of ingredients that were read, combining ingredients with the same name, then clears it.
+     */
+    private void acceptBatch(List<Ingredient> batch, Map<String, Ingredient> existing) throws IllegalValueException {
+        for (var ingredient : batch) {
+            var key = ingredient.getName().toLowerCase();
+
+            try {
+                if (this.addedIngredients.containsKey(key)) {
+                    this.addedIngredients.put(key, this.addedIngredients.get(key).combine(ingredient));
+                } else if (existing.containsKey(key)) {
+                    this.existingIngredients.putIfAbsent(key, existing.get(key));
+                    this.combinedIngredients.put(key, this.combinedIngredients.getOrDefault(key, existing.get(key))
+                        .combine(ingredient));
+                } else {
+                    this.addedIngredients.put(key, ingredient);
+                }
+
+            } catch (IncompatibleIngredientsException e) {
+                throw new IllegalValueException(String.format("Could not combine '%s': %s", ingredient.getName(),
+                    e.getMessage()));
+            }
+        }
+
+        this.readCount += batch.size();
+        batch.clear();
+        logger.debug("Import from '%s': read %d ingredients", this.path, this.readCount);
+    }
+
+    private void applyImport(Model model) {
+        model.startEditingIngredients();
+        try {
+            this.combinedIngredients.forEach((key, combined) -> {
+                model.setIngredient(this.existingIngredients.get(key), combined);
+            });
+            model.addIngredients(new ArrayList<>(this.addedIngredients.values()));
+        } finally {
+            model.finishEditingIngredients();
+        }
+    }
+
+    @Override
+    public CommandResult undo(Model model) {
+        enforceNonNull(model);
+
+        model.startEditingIngredients();
+        try {
+            model.deleteIngredients(this.addedIngredients.values());
+            this.combinedIngredients.forEach((key, combined) -> {
+                model.setIngredient(combined, this.existingIngredients.get(key));
+            });
+        } finally {
+            model.finishEditingIngredients();
+        }
+
+        return CommandResult.message("Undo: removed %d imported ingredient%s", this.readCount,
+            this.readCount == 1 ? "" : "s")
+            .showingIngredientList();
+    }
+
+    @Override
+    public CommandResult redo(Model model, HistoryManager historyManager) {
+        enforceNonNull(model);
+
+        // don't read the file again, since it might have changed since.
+        this.applyImport(model);
+
+        return CommandResult.message("Redo: imported %d ingredient%s from '%s'", this.readCount,
+            this.readCount == 1 ? "" : "s", this.path.getFileName())
+            .showingIngredientList();
+    }
+
+    @Override
+    public long estimateSize() {
+        if (this.addedIngredients == null) {
+            return BASE_SIZE;
+        }
+
+        return BASE_SIZE + SizeEstimator.estimateIngredients(this.addedIngredients.values())
+            + SizeEstimator.estimateIngredients(this.existingIngredients.values())
+            + SizeEstimator.estimateIngredients(this.combinedIngredients.values());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportIngredientCommand(%s)", this.path);
+    }
+
+    public static String getCommandString() {
+        return "import ingredients";
+    }
+
+    public static String getCommandHelp() {
+        return "Imports ingredients from a json, json lines (.jsonl), or csv file, combining existing ones";
+    }
+}
@@ -0,0 +1,156 @@
+// ImportRecipeCommand.java
+
+package chopchop.logic.commands;
+
+import static chopchop.commons.util.Enforce.enforceNonNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.util.SizeEstimator;
+import chopchop.storage.ImportFileReader;
+
+/**
+ * Imports recipes in bulk from a json, json lines, or csv file. The file is streamed in batches, and nothing
+ * is added to the recipe book unless the entire file could be read. Recipes with the same name as an existing
+ * recipe (or an earlier one in the file) are skipped. The whole import is undone and redone as one unit.
+ */
+public class ImportRecipeCommand extends Command implements Undoable {
+
+    public static final int BATCH_SIZE = 1000;
+
+    private static final Log logger = new Log(ImportRecipeCommand.class);
+
+    private final Path path;
+
+    private List<Recipe> addedRecipes;
+    private int skippedCount;
+
+    /**
+     * Constructs a command that imports recipes from the given file.
+     */
+    public ImportRecipeCommand(Path path) {
+        enforceNonNull(path);
+        this.path = path;
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        enforceNonNull(model, historyManager);
+
+        var names = new HashSet<String>();
+        model.getRecipeBook().getEntryList().forEach(r -> names.add(r.getName().toLowerCase()));
+
+        this.addedRecipes = new ArrayList<>();
+        this.skippedCount = 0;
+
+        var batch = new ArrayList<Recipe>(BATCH_SIZE);
+        try {
+            ImportFileReader.readRecipes(this.path, recipe -> {
+                batch.add(recipe);
+                if (batch.size() == BATCH_SIZE) {
+                    this.acceptBatch(batch, names);
+                }
+            });
+
+            this.acceptBatch(batch, names);
+
+        } catch (DataConversionException e) {
+            return CommandResult.error("Could not import recipes from '%s': %s", this.path,
+                e.getCause().getMessage());
+        }
+
+        this.addRecipes(model);
+
+        logger.log("Imported %d recipes from '%s' (%d skipped)", this.addedRecipes.size(), this.path,
+            this.skippedCount);
+
+        var result = CommandResult.message("Imported %d recipe%s from '%s'", this.addedRecipes.size(),
+            this.addedRecipes.size() == 1 ? "" : "s", this.path.getFileName());
+
+        return (this.skippedCount == 0
+            ? result
+            : result.appending(String.format("(skipped %d with duplicate names)", this.skippedCount),
+                /* newline: */ false))
+            .showingRecipeList();
+    }
+
+    /**
+     * Validates a batch of recipes that were read, then clears it.
+     */
+    private void acceptBatch(List<Recipe> batch, Set<String> names) {
+        for (var recipe : batch) {
+            if (names.add(recipe.getName().toLowerCase())) {
+                this.addedRecipes.add(recipe);
+            } else {
+                this.skippedCount++;
+            }
+        }
+
+        batch.clear();
+        logger.debug("Import from '%s': read %d recipes", this.path, this.addedRecipes.size() + this.skippedCount);
+    }
+
+    private void addRecipes(Model model) {
+        model.startEditingRecipes();
+        try {
+            model.addRecipes(this.addedRecipes);
+        } finally {
+            model.finishEditingRecipes();
+        }
+    }
+
+    @Override
+    public CommandResult undo(Model model) {
+        enforceNonNull(model);
+
+        model.startEditingRecipes();
+        try {
+            model.deleteRecipes(this.addedRecipes);
+        } finally {
+            model.finishEditingRecipes();
+        }
+
+        return CommandResult.message("Undo: removed %d imported recipe%s", this.addedRecipes.size(),
+            this.addedRecipes.size() == 1 ? "" : "s")
+            .showingRecipeList();
+    }
+
+    @Override
+    public CommandResult redo(Model model, HistoryManager historyManager) {
+        enforceNonNull(model);
+
+        // don't read the file again, since it might have changed since.
+        this.addRecipes(model);
+
+        return CommandResult.message("Redo: imported %d recipe%s from '%s'", this.addedRecipes.size(),
+            this.addedRecipes.size() == 1 ? "" : "s", this.path.getFileName())
+            .showingRecipeList();
+    }
+
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + (this.addedRecipes == null ? 0 : SizeEstimator.estimateRecipes(this.addedRecipes));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportRecipeCommand(%s)", this.path);
+    }
+
+    public static String getCommandString() {
+        return "import recipes";
+    }
+
+    public static String getCommandHelp() {
+        return "Imports recipes from a json, json lines (.jsonl), or csv file";
+    }
+}
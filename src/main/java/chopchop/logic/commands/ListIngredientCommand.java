@@ -9,7 +9,7 @@ import chopchop.model.Model;
 /**
  * Lists all ingredients in the ingredient book to the user.
  */
-public class ListIngredientCommand extends Command {
+public class ListIngredientCommand extends Command implements ReadOnly {
 
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
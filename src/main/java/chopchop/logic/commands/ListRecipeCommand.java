@@ -9,7 +9,7 @@ import chopchop.model.Model;
 /**
  * Lists all recipes in the recipe book to the user.
  */
-public class ListRecipeCommand extends Command {
+public class ListRecipeCommand extends Command implements ReadOnly {
 
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
@@ -9,7 +9,7 @@ import chopchop.model.Model;
 /**
  * Lists all recommended recipes in the recipe book to the user.
  */
-public class ListRecommendationCommand extends Command {
+public class ListRecommendationCommand extends Command implements ReadOnly {
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
         requireNonNull(model);
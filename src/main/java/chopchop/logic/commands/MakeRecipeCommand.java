@@ -2,26 +2,40 @@ package chopchop.logic.commands;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
 import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.commons.util.Pair;
+import chopchop.commons.util.StringUtil;
+import chopchop.logic.RecipeArchive;
 import chopchop.logic.history.HistoryManager;
 import chopchop.logic.parser.ItemReference;
 import chopchop.model.Model;
+import chopchop.model.ModelChange;
 import chopchop.model.exceptions.IncompatibleIngredientsException;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.recipe.Recipe;
+import chopchop.model.util.SizeEstimator;
 
 /**
  * Makes a dish according to the recipe identified by the index number or name used in the displayed recipe list,
  * removing the ingredients used.
  */
-public class MakeRecipeCommand extends Command implements Undoable {
+public class MakeRecipeCommand extends Command implements Undoable, RequiresArchive {
+
+    private static final Log logger = new Log(MakeRecipeCommand.class);
 
     private final ItemReference item;
     private Recipe recipe;
+
+    // the ingredients that were used, as they were before the recipe was made, and what is left of them in the
+    // model (null if the recipe used all of it).
     private List<Pair<Ingredient, Ingredient>> ingredients;
 
     /**
@@ -43,7 +57,9 @@ public class MakeRecipeCommand extends Command implements Undoable {
         }
 
         this.recipe = res.getValue();
+        this.ingredients.clear();
 
+        var used = new ArrayList<Pair<Ingredient, Ingredient>>();
         for (var ingredientRef : this.recipe.getIngredients()) {
 
             var find = model.findIngredientWithName(ingredientRef.getName());
@@ -54,8 +70,7 @@ public class MakeRecipeCommand extends Command implements Undoable {
             var ingredient = find.get();
 
             try {
-                this.ingredients.add(new Pair<>(ingredient, ingredient.split(ingredientRef.getQuantity()).snd()));
-
+                used.add(new Pair<>(ingredient, ingredient.split(ingredientRef.getQuantity()).snd()));
 
             } catch (IncompatibleIngredientsException | IllegalValueException e) {
                 return CommandResult.error("Could not make recipe: %s", e.getMessage());
@@ -64,13 +79,14 @@ public class MakeRecipeCommand extends Command implements Undoable {
 
         model.startEditingIngredients();
 
-        for (var ingredient : this.ingredients) {
+        for (var ingredient : used) {
             if (ingredient.snd().getIngredientSets().isEmpty()) {
                 model.deleteIngredient(ingredient.fst());
+                this.ingredients.add(new Pair<>(ingredient.fst(), null));
             } else {
                 model.setIngredient(ingredient.fst(), ingredient.snd());
+                this.ingredients.add(ingredient);
             }
-
         }
 
         model.finishEditingIngredients();
@@ -85,14 +101,65 @@ public class MakeRecipeCommand extends Command implements Undoable {
             .showingRecipe(this.recipe);
     }
 
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, RecipeArchive archive) {
+        if (this.item.isIndexed() || model.findRecipeWithName(this.item.getName()).isPresent()) {
+            return this.execute(model, historyManager);
+        }
+
+        Optional<Recipe> archived;
+        try {
+            archived = archive.find(this.item.getName());
+        } catch (DataConversionException e) {
+            return CommandResult.error("Could not search archived recipes (%s)", e.getMessage());
+        }
+
+        if (archived.isEmpty()) {
+            return this.execute(model, historyManager);
+        }
+
+        // an archived recipe that is made again is moved back into the recipe book, but only if it was
+        // actually made. this is not part of what is undone (the archive can't be undone), so undoing this,
+        // now or after a restart, leaves it in the recipe book; it is archived again later if need be.
+        ModelChange.unrecorded(() -> model.addRecipe(archived.get()));
+
+        var result = this.execute(model, historyManager);
+        if (!result.didSucceed()) {
+            ModelChange.unrecorded(() -> model.deleteRecipe(archived.get()));
+            return result;
+        }
+
+        try {
+            archive.remove(archived.get());
+        } catch (DataConversionException | IOException e) {
+            // the recipe is now in both places, which is harmless; it is replaced when archived again.
+            logger.warn("Could not remove '%s' from the archive: %s", archived.get().getName(),
+                StringUtil.getDetails(e));
+        }
+
+        return result.appending("(moved back from the archive)", /* newline: */ false);
+    }
+
     @Override
     public CommandResult undo(Model model) {
         requireNonNull(model);
 
+        // check everything first, so that nothing is changed if any of it can't be undone.
+        for (var ingredient : this.ingredients) {
+            var isUnchanged = ingredient.snd() == null
+                ? model.findIngredientWithName(ingredient.fst().getName()).isEmpty()
+                : holdsIngredient(model, ingredient.snd());
+
+            if (!isUnchanged) {
+                return CommandResult.error("Could not unmake recipe '%s'; ingredient '%s' was changed since then",
+                    this.recipe.getName(), ingredient.fst().getName());
+            }
+        }
+
         model.startEditingIngredients();
 
         for (var ingredient : this.ingredients) {
-            if (ingredient.snd().getIngredientSets().isEmpty()) {
+            if (ingredient.snd() == null) {
                 model.addIngredient(ingredient.fst());
             } else {
                 model.setIngredient(ingredient.snd(), ingredient.fst());
@@ -110,6 +177,14 @@ public class MakeRecipeCommand extends Command implements Undoable {
         return CommandResult.message("Undo: unmade recipe '%s'", this.recipe.getName());
     }
 
+    @Override
+    public long estimateSize() {
+        // what is left of the ingredients is shared with the model, so only the originals are counted.
+        return BASE_SIZE + SizeEstimator.estimateIngredients(this.ingredients.stream()
+            .map(Pair::fst)
+            .collect(Collectors.toList()));
+    }
+
     @Override
     public String toString() {
         return String.format("MakeRecipeCommand(%s)", this.item);
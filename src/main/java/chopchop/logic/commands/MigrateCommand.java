@@ -0,0 +1,41 @@
+// MigrateCommand.java
+
+package chopchop.logic.commands;
+
+import chopchop.logic.DatabaseMigration;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class MigrateCommand extends Command implements RequiresDatabase {
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_DATABASE);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, DatabaseMigration migration) {
+        var result = migration.migrate(model);
+        if (result.isError()) {
+            return CommandResult.error(result.getError());
+        }
+
+        // the commands refer to entries that were just replaced, so they can't be undone anymore.
+        historyManager.clearCommands();
+
+        return CommandResult.message("Migrated %s to the database", result.getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "MigrateCommand";
+    }
+
+    public static String getCommandString() {
+        return "migrate";
+    }
+
+    public static String getCommandHelp() {
+        return "Replaces the data in the database with that in the data files";
+    }
+}
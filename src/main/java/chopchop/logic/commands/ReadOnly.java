@@ -0,0 +1,12 @@
+// ReadOnly.java
+
+package chopchop.logic.commands;
+
+/**
+ * Marks a command that does not change any data: it may change which entries the lists show, but nothing else.
+ * Such commands do not need the data to be saved after them, and can be run against a snapshot of the model (see
+ * {@code ModelSnapshot}), on any thread, while other commands are running; the lists they filter are then the
+ * caller's own (see {@code ListFilters}).
+ */
+public interface ReadOnly {
+}
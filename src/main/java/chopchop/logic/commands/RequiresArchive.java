@@ -0,0 +1,21 @@
+package chopchop.logic.commands;
+
+import chopchop.logic.RecipeArchive;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+/**
+ * Represents a command that also works on archived recipes, rather than only on those in the model.
+ */
+public interface RequiresArchive {
+
+    /**
+     * Executes the command and returns the result message.
+     *
+     * @param model {@code Model} which the command should operate on.
+     * @param historyManager {@code HistoryManager} which the command should record to.
+     * @param archive {@code RecipeArchive} which the command should search.
+     * @return feedback message of the operation result for display
+     */
+    CommandResult execute(Model model, HistoryManager historyManager, RecipeArchive archive);
+}
@@ -0,0 +1,22 @@
+package chopchop.logic.commands;
+
+import chopchop.logic.DatabaseMigration;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+/**
+ * Represents a command that works on the database that the data is stored in, rather than (only) on the model.
+ */
+public interface RequiresDatabase {
+    String MESSAGE_NO_DATABASE = "Migrating is only available when the data is stored in a database";
+
+    /**
+     * Executes the command and returns the result message.
+     *
+     * @param model {@code Model} which the command should operate on.
+     * @param historyManager {@code HistoryManager} which the command should record to.
+     * @param migration {@code DatabaseMigration} which the command should migrate the data files with.
+     * @return feedback message of the operation result for display
+     */
+    CommandResult execute(Model model, HistoryManager historyManager, DatabaseMigration migration);
+}
@@ -0,0 +1,22 @@
+package chopchop.logic.commands;
+
+import chopchop.logic.WorkspaceManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+/**
+ * Represents a command that works on the workspaces, rather than (only) on the model.
+ */
+public interface RequiresWorkspaces {
+    String MESSAGE_NO_WORKSPACES = "Workspaces are only available when the data is stored in data files";
+
+    /**
+     * Executes the command and returns the result message.
+     *
+     * @param model {@code Model} which the command should operate on.
+     * @param historyManager {@code HistoryManager} which the command should record to.
+     * @param workspaces {@code WorkspaceManager} which the command should operate on.
+     * @return feedback message of the operation result for display
+     */
+    CommandResult execute(Model model, HistoryManager historyManager, WorkspaceManager workspaces);
+}
@@ -0,0 +1,49 @@
+// RestoreCommand.java
+
+package chopchop.logic.commands;
+
+import chopchop.logic.BackupManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class RestoreCommand extends Command implements RequiresBackups {
+
+    private final int number;
+
+    /**
+     * Constructs a command that restores the backup with the given number.
+     */
+    public RestoreCommand(int number) {
+        this.number = number;
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_BACKUPS);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, BackupManager backups) {
+        if (backups.getGenerations().stream().noneMatch(gen -> gen.getNumber() == this.number)) {
+            return CommandResult.error("No backup numbered '%d' (see 'backup list')", this.number);
+        }
+
+        // the restored data replaces everything, so the existing commands can't be undone.
+        backups.restore(this.number, historyManager::clearCommands);
+        return CommandResult.message("Restoring backup %d in the background; the current data will be backed "
+            + "up first", this.number);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RestoreCommand(%d)", this.number);
+    }
+
+    public static String getCommandString() {
+        return "restore";
+    }
+
+    public static String getCommandHelp() {
+        return "Restores the data files from a backup; see 'backup list'";
+    }
+}
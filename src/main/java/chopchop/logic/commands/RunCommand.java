@@ -0,0 +1,218 @@
+// RunCommand.java
+
+package chopchop.logic.commands;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import chopchop.commons.core.Log;
+import chopchop.logic.history.HistoryManager;
+import chopchop.logic.parser.CommandParser;
+import chopchop.model.Model;
+
+/**
+ * Runs the commands in a script file, one per line, as a single batch: the recipes and ingredients are edited in
+ * one bulk edit, so the lists are only updated once; the data is saved once, after the whole script; and the
+ * whole script can be undone at once. Blank lines, and lines starting with '#', are ignored.
+ *
+ * A line that fails does not stop the script; its error is reported along with its line number. The script can be
+ * cancelled between lines, in which case the lines before that are kept.
+ */
+public class RunCommand extends Command implements Undoable, Cancellable {
+
+    private static final Log logger = new Log(RunCommand.class);
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final Path file;
+    private final List<Undoable> executed;
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Constructs a command that runs the script in the given file.
+     */
+    public RunCommand(Path file) {
+        requireNonNull(file);
+        this.file = file;
+        this.executed = new ArrayList<>();
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        requireNonNull(model);
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return CommandResult.error("Could not read script '%s' (%s)", this.file, e.getMessage());
+        }
+
+        var start = System.nanoTime();
+        var parser = new CommandParser();
+        var errors = new ArrayList<String>();
+        int count = 0;
+        int stoppedAt = lines.size();
+
+        this.executed.clear();
+
+        model.startEditingRecipes();
+        model.startEditingIngredients();
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                if (this.cancelled) {
+                    stoppedAt = i;
+                    break;
+                }
+
+                var line = lines.get(i).strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                count++;
+                var error = this.runLine(line, parser, model, historyManager);
+                if (error != null) {
+                    errors.add(String.format("line %d: %s", i + 1, error));
+                }
+            }
+        } finally {
+            model.finishEditingIngredients();
+            model.finishEditingRecipes();
+        }
+
+        var seconds = (System.nanoTime() - start) / 1.0e9;
+        var rate = count / Math.max(seconds, 1.0e-6);
+
+        logger.log("Ran %d command(s) from '%s' in %.1f ms (%.0f commands/s, %d failed)", count, this.file,
+            seconds * 1000, rate, errors.size());
+
+        var summary = String.format("Ran %d command%s from '%s' in %.1f ms (%.0f commands/s); %d succeeded, "
+            + "%d failed", count, count == 1 ? "" : "s", this.file, seconds * 1000, rate, count - errors.size(),
+            errors.size());
+
+        if (stoppedAt < lines.size()) {
+            summary += String.format(" (cancelled before line %d of %d)", stoppedAt + 1, lines.size());
+        }
+
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            var more = errors.size() - MAX_REPORTED_ERRORS;
+            errors.subList(MAX_REPORTED_ERRORS, errors.size()).clear();
+            errors.add(String.format("(and %d more)", more));
+        }
+
+        // the script is only an error if nothing in it worked; otherwise, whatever did work should be undoable.
+        var message = errors.isEmpty() ? summary : summary + "\n" + String.join("\n", errors);
+        return count > 0 && count == errors.size()
+            ? CommandResult.error("%s", message)
+            : CommandResult.message("%s", message);
+    }
+
+    /**
+     * Runs one line of the script, returning its error message, or null if it succeeded.
+     */
+    private String runLine(String line, CommandParser parser, Model model, HistoryManager historyManager) {
+        var parsed = parser.parse(line);
+        if (parsed.isError()) {
+            return parsed.getError();
+        }
+
+        var cmd = parsed.getValue();
+        if (!isAllowedInScript(cmd)) {
+            return String.format("'%s' cannot be used in a script", line);
+        }
+
+        var result = cmd.execute(model, historyManager);
+        if (result.isError()) {
+            return result.getParts().stream().map(CommandResult.Part::getText).collect(Collectors.joining(" "));
+        }
+
+        if (cmd instanceof Undoable) {
+            this.executed.add((Undoable) cmd);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if the command can be run from a script. Commands that act on the command history, or that
+     * need more than the model to work, cannot be.
+     */
+    private static boolean isAllowedInScript(Command cmd) {
+        return !(cmd instanceof RunCommand
+            || cmd instanceof UndoCommand
+            || cmd instanceof RedoCommand
+            || cmd instanceof QuitCommand
+            || cmd instanceof RequiresBackups
+            || cmd instanceof RequiresWorkspaces
+            || cmd instanceof RequiresDatabase);
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    @Override
+    public CommandResult undo(Model model) {
+        requireNonNull(model);
+
+        model.startEditingRecipes();
+        model.startEditingIngredients();
+        try {
+            for (int i = this.executed.size() - 1; i >= 0; i--) {
+                this.executed.get(i).undo(model);
+            }
+        } finally {
+            model.finishEditingIngredients();
+            model.finishEditingRecipes();
+        }
+
+        return CommandResult.message("Undo: undid %d command%s from script '%s'", this.executed.size(),
+            this.executed.size() == 1 ? "" : "s", this.file);
+    }
+
+    @Override
+    public CommandResult redo(Model model, HistoryManager historyManager) {
+        requireNonNull(model);
+
+        model.startEditingRecipes();
+        model.startEditingIngredients();
+        try {
+            for (var cmd : this.executed) {
+                cmd.redo(model, historyManager);
+            }
+        } finally {
+            model.finishEditingIngredients();
+            model.finishEditingRecipes();
+        }
+
+        return CommandResult.message("Redo: redid %d command%s from script '%s'", this.executed.size(),
+            this.executed.size() == 1 ? "" : "s", this.file);
+    }
+
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + this.executed.stream().mapToLong(Undoable::estimateSize).sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RunCommand(%s)", this.file);
+    }
+
+    public static String getCommandString() {
+        return "run";
+    }
+
+    public static String getCommandHelp() {
+        return "Runs the commands in a script file, saving once at the end";
+    }
+}
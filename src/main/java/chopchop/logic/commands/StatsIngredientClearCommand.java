@@ -7,6 +7,7 @@ import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 import chopchop.model.UsageList;
 import chopchop.model.usage.IngredientUsage;
+import chopchop.model.util.SizeEstimator;
 
 public class StatsIngredientClearCommand extends Command implements Undoable {
 
@@ -44,6 +45,11 @@ public class StatsIngredientClearCommand extends Command implements Undoable {
         return CommandResult.message("Undo: restored history of ingredients used");
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + SizeEstimator.estimateUsages(this.usages.getUsageList());
+    }
+
     @Override
     public String toString() {
         return "StatsIngredientClearCommand";
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 
-public class StatsIngredientUsedCommand extends Command {
+public class StatsIngredientUsedCommand extends Command implements ReadOnly {
 
     private final LocalDateTime before;
     private final LocalDateTime after;
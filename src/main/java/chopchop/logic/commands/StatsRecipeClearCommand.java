@@ -7,6 +7,7 @@ import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 import chopchop.model.UsageList;
 import chopchop.model.usage.RecipeUsage;
+import chopchop.model.util.SizeEstimator;
 
 public class StatsRecipeClearCommand extends Command implements Undoable {
 
@@ -45,6 +46,11 @@ public class StatsRecipeClearCommand extends Command implements Undoable {
         return CommandResult.message("Undo: restored history of cooked recipes");
     }
 
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + SizeEstimator.estimateUsages(this.usages.getUsageList());
+    }
+
     @Override
     public String toString() {
         return String.format("StatsRecipeClearCommand");
@@ -8,7 +8,7 @@ import java.time.format.DateTimeFormatter;
 import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 
-public class StatsRecipeMadeCommand extends Command {
+public class StatsRecipeMadeCommand extends Command implements ReadOnly {
 
     private final LocalDateTime before;
     private final LocalDateTime after;
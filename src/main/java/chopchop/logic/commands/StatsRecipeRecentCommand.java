@@ -5,7 +5,7 @@ import static chopchop.commons.util.Enforce.enforceNonNull;
 import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 
-public class StatsRecipeRecentCommand extends Command {
+public class StatsRecipeRecentCommand extends Command implements ReadOnly {
 
     private static final int N_MOST_RECENT = 10;
 
@@ -5,7 +5,7 @@ import static chopchop.commons.util.Enforce.enforceNonNull;
 import chopchop.logic.history.HistoryManager;
 import chopchop.model.Model;
 
-public class StatsRecipeTopCommand extends Command {
+public class StatsRecipeTopCommand extends Command implements ReadOnly {
 
     @Override
     public CommandResult execute(Model model, HistoryManager historyManager) {
@@ -5,8 +5,19 @@ import chopchop.model.Model;
 
 /**
  * Represents an undoable command with the ability to be undone and redone.
+ *
+ * Undoable commands are kept in the history, so they should keep as little as they need to be undone: the state
+ * of the model from before they ran, and the entries they put into the model, which cost nothing to keep while
+ * the model holds them too. Before undoing, a command must check that the model still holds exactly those
+ * entries (not just ones with the same names), since something else (eg. a merge of the data files) may have
+ * changed or removed them; if so, the command should fail rather than change some other entry.
  */
 public interface Undoable {
+    /**
+     * The estimated number of bytes used by a command that keeps no entries.
+     */
+    long BASE_SIZE = 64;
+
     /**
      * Executes the command and returns the result message.
      *
@@ -34,4 +45,12 @@ public interface Undoable {
     default CommandResult redo(Model model, HistoryManager historyManager) {
         return this.execute(model, historyManager);
     }
+
+    /**
+     * Returns roughly how many bytes this command keeps in memory so that it can be undone (see
+     * {@code SizeEstimator}), which decides how many commands the history can keep.
+     */
+    default long estimateSize() {
+        return BASE_SIZE;
+    }
 }
@@ -2,6 +2,8 @@ package chopchop.logic.commands;
 
 import static java.util.Objects.requireNonNull;
 
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.logic.RecipeArchive;
 import chopchop.logic.history.HistoryManager;
 import chopchop.logic.parser.ItemReference;
 import chopchop.model.Model;
@@ -9,7 +11,7 @@ import chopchop.model.Model;
 /**
  * Displays a recipe identified by the index number or its name from the recipe book.
  */
-public class ViewRecipeCommand extends Command {
+public class ViewRecipeCommand extends Command implements RequiresArchive, ReadOnly {
 
     private final ItemReference item;
 
@@ -34,6 +36,26 @@ public class ViewRecipeCommand extends Command {
             .showingRecipe(recipe.getValue());
     }
 
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, RecipeArchive archive) {
+        if (this.item.isIndexed() || model.findRecipeWithName(this.item.getName()).isPresent()) {
+            return this.execute(model, historyManager);
+        }
+
+        try {
+            // archived recipes are only shown, not moved back to the recipe book.
+            var archived = archive.find(this.item.getName());
+            if (archived.isPresent()) {
+                return CommandResult.message("Displaying archived recipe '%s'", archived.get().getName())
+                    .showingRecipe(archived.get());
+            }
+        } catch (DataConversionException e) {
+            return CommandResult.error("Could not search archived recipes (%s)", e.getMessage());
+        }
+
+        return this.execute(model, historyManager);
+    }
+
     @Override
     public String toString() {
         return String.format("ViewRecipeCommand(%s)", this.item);
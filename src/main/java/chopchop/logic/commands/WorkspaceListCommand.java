@@ -0,0 +1,45 @@
+// WorkspaceListCommand.java
+
+package chopchop.logic.commands;
+
+import java.util.ArrayList;
+
+import chopchop.logic.WorkspaceManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class WorkspaceListCommand extends Command implements RequiresWorkspaces {
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_WORKSPACES);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, WorkspaceManager workspaces) {
+        var lines = new ArrayList<String>();
+        for (var name : workspaces.getWorkspaceNames()) {
+            if (name.equals(workspaces.getActiveWorkspace())) {
+                lines.add(String.format("%s (active)", name));
+            } else {
+                lines.add(String.format("%s%s", name, workspaces.isCached(name) ? " (in memory)" : ""));
+            }
+        }
+
+        return CommandResult.message("Workspaces (switch with 'workspace switch NAME'):\n%s",
+            String.join("\n", lines));
+    }
+
+    @Override
+    public String toString() {
+        return "WorkspaceListCommand";
+    }
+
+    public static String getCommandString() {
+        return "workspace list";
+    }
+
+    public static String getCommandHelp() {
+        return "Lists the workspaces";
+    }
+}
@@ -0,0 +1,53 @@
+// WorkspaceSwitchCommand.java
+
+package chopchop.logic.commands;
+
+import chopchop.logic.WorkspaceManager;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.Model;
+
+public class WorkspaceSwitchCommand extends Command implements RequiresWorkspaces {
+
+    private final String name;
+
+    /**
+     * Constructs a command that switches to the workspace with the given name, creating it if needed.
+     */
+    public WorkspaceSwitchCommand(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        return CommandResult.error(MESSAGE_NO_WORKSPACES);
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager, WorkspaceManager workspaces) {
+        var isNew = !workspaces.getWorkspaceNames().contains(this.name.strip().toLowerCase());
+
+        var result = workspaces.switchTo(this.name);
+        if (result.isError()) {
+            return CommandResult.error(result.getError());
+        }
+
+        // the commands refer to entries in the previous workspace, so they can't be undone here.
+        historyManager.clearCommands();
+
+        return CommandResult.message("%s workspace '%s'", isNew ? "Created and switched to" : "Switched to",
+            workspaces.getActiveWorkspace());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorkspaceSwitchCommand(%s)", this.name);
+    }
+
+    public static String getCommandString() {
+        return "workspace switch";
+    }
+
+    public static String getCommandHelp() {
+        return "Switches to another workspace, creating it if it does not exist";
+    }
+}
@@ -1,31 +1,111 @@
 package chopchop.logic.history;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import chopchop.commons.core.Log;
 import chopchop.logic.commands.CommandResult;
 import chopchop.logic.commands.Undoable;
 import chopchop.model.Model;
+import chopchop.model.ModelChange;
+import chopchop.storage.InputHistoryLog;
+import chopchop.storage.UndoHistoryLog;
 
 /**
  * The HistoryManager of the main LogicManager.
+ *
+ * The undoable commands are kept within a memory budget, going by their own estimates of their size (see
+ * {@link Undoable#estimateSize()}); once the budget is exceeded, the oldest commands are dropped, and can no
+ * longer be undone. The latest command is always kept, however large it is.
+ *
+ * The last {@code INPUT_HISTORY_SIZE} distinct inputs are kept (see {@link InputHistoryTrie}), and are saved to
+ * an {@code InputHistoryLog} (if there is one) so that they can be recalled after a restart. The undoable commands
+ * themselves refer to the entries in the model, so they cannot be saved; instead, the change that each one made
+ * (see {@link ModelChange}) is saved to an {@code UndoHistoryLog} (if there is one), and after a restart, the
+ * commands are replaced by those changes, which can be undone and redone in the same way.
  */
 public class HistoryManager {
     public static final String MESSAGE_CANNOT_UNDO = "No commands to undo";
     public static final String MESSAGE_CANNOT_REDO = "No commands to redo";
+    public static final long DEFAULT_MEMORY_BUDGET = 16 * 1024 * 1024;
+    public static final int INPUT_HISTORY_SIZE = 1000;
+
+    // how many more events than there are commands the undo log can have before it is compacted.
+    private static final int UNDO_LOG_SLACK = 64;
+
+    private static final Log logger = new Log(HistoryManager.class);
+
     private final List<Undoable> commandHistory;
-    private final List<String> inputHistory;
+    // the estimated size of each command in commandHistory, and the change it made, at the same index.
+    private final List<Long> commandSizes;
+    private final List<ModelChange> commandChanges;
+    // the UI reads this while commands are being executed on another thread.
+    private final InputHistoryTrie inputHistory;
+    private final InputHistoryLog inputLog;
+    private final UndoHistoryLog undoLog;
+    private final long memoryBudget;
     private int currentIndex;
+    private long memoryUsed;
+    private int droppedCount;
+
+    // false once a command was added without its change, so that the log no longer matches the history.
+    private boolean isSavingCommands;
 
     /**
-     * Constructs a {@code HistoryManager}.
+     * Constructs a {@code HistoryManager} with the default memory budget.
      */
     public HistoryManager() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructs a {@code HistoryManager} that keeps the undoable commands within {@code memoryBudget} bytes.
+     */
+    public HistoryManager(long memoryBudget) {
+        this(memoryBudget, null);
+    }
+
+    /**
+     * Constructs a {@code HistoryManager} that keeps the undoable commands within {@code memoryBudget} bytes, and
+     * saves the inputs to {@code inputLog} (if it is not null). The inputs already in the log are read first.
+     */
+    public HistoryManager(long memoryBudget, InputHistoryLog inputLog) {
+        this(memoryBudget, inputLog, null);
+    }
+
+    /**
+     * Constructs a {@code HistoryManager} that keeps the undoable commands within {@code memoryBudget} bytes, and
+     * saves the inputs to {@code inputLog} and the changes made by the commands to {@code undoLog} (if they are
+     * not null). The logs are read first, so the commands saved in {@code undoLog} can be undone (or redone).
+     */
+    public HistoryManager(long memoryBudget, InputHistoryLog inputLog, UndoHistoryLog undoLog) {
         this.commandHistory = new ArrayList<>();
-        this.inputHistory = new ArrayList<>();
+        this.commandSizes = new ArrayList<>();
+        this.commandChanges = new ArrayList<>();
+        this.inputLog = inputLog;
+        this.undoLog = undoLog;
+        this.isSavingCommands = true;
+        this.inputHistory = new InputHistoryTrie(INPUT_HISTORY_SIZE);
+        if (inputLog != null) {
+            inputLog.read().forEach(this.inputHistory::add);
+        }
+
+        this.memoryBudget = memoryBudget;
         this.currentIndex = 0;
+        this.memoryUsed = 0;
+        this.droppedCount = 0;
+
+        if (undoLog != null) {
+            var saved = undoLog.read();
+            for (var change : saved.fst()) {
+                this.pushCommand(new RestoredCommand(change), change);
+            }
+
+            // the oldest commands might not fit in the budget any more, and those are always done ones.
+            var evicted = saved.fst().size() - this.commandHistory.size();
+            this.currentIndex = Math.max(saved.snd() - evicted, 0);
+            this.droppedCount = 0;
+        }
     }
 
     /**
@@ -33,15 +113,105 @@ public class HistoryManager {
      */
     public void addInput(String input) {
         this.inputHistory.add(input);
+
+        if (this.inputLog != null) {
+            this.inputLog.append(input);
+        }
     }
 
     /**
-     * Adds an undoable command to the history.
+     * Adds an undoable command to the history. Since the change it made is not known, it is not saved, and neither
+     * are any of the commands after it, until the history is cleared.
      */
     public void addCommand(Undoable command) {
-        this.commandHistory.subList(this.currentIndex, this.commandHistory.size()).clear();
+        this.addCommand(command, null);
+    }
+
+    /**
+     * Adds an undoable command to the history, along with the change it made to the model (see
+     * {@link ModelChange#record(Model, String, java.util.function.Supplier)}), which is saved to the undo log.
+     */
+    public void addCommand(Undoable command, ModelChange change) {
+        this.removeCommands(this.currentIndex, this.commandHistory.size());
+        this.pushCommand(command, change);
+
+        if (this.undoLog != null && this.isSavingCommands) {
+            if (change == null) {
+                logger.warn("Not saving the undo history any more, since a command was added without its change");
+                this.isSavingCommands = false;
+                this.undoLog.rewrite(List.of(), 0);
+            } else {
+                this.undoLog.add(change);
+                this.compactUndoLog();
+            }
+        }
+    }
+
+    /**
+     * Adds a command to the end of the history, dropping the oldest ones if they no longer fit in the budget.
+     */
+    private void pushCommand(Undoable command, ModelChange change) {
+        var size = command.estimateSize();
         this.commandHistory.add(command);
+        this.commandSizes.add(size);
+        this.commandChanges.add(change);
+        this.memoryUsed += size;
+
+        int evicted = 0;
+        while (this.memoryUsed > this.memoryBudget && this.commandHistory.size() > 1) {
+            this.removeCommands(0, 1);
+            evicted++;
+        }
+
         this.currentIndex = this.commandHistory.size();
+
+        if (evicted > 0) {
+            this.droppedCount += evicted;
+            logger.log("Dropped %d oldest command(s) from the undo history; %s", evicted, this.getMemoryReport());
+        }
+    }
+
+    /**
+     * Removes all the commands from the history, so they can no longer be undone or redone. This is needed
+     * when the model is replaced wholesale, since the commands refer to entries that might no longer exist.
+     */
+    public void clearCommands() {
+        this.commandHistory.clear();
+        this.commandSizes.clear();
+        this.commandChanges.clear();
+        this.currentIndex = 0;
+        this.memoryUsed = 0;
+        this.droppedCount = 0;
+
+        if (this.undoLog != null) {
+            this.isSavingCommands = true;
+            this.undoLog.rewrite(List.of(), 0);
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the undoable commands in the history.
+     */
+    public long getEstimatedSize() {
+        return this.memoryUsed;
+    }
+
+    /**
+     * Returns the number of commands that were dropped from the history to keep it within its budget.
+     */
+    public int getDroppedCount() {
+        return this.droppedCount;
+    }
+
+    /**
+     * Returns a one-line summary of how much memory the undo history is using.
+     */
+    public String getMemoryReport() {
+        var count = this.commandHistory.size();
+        var kilobytesUsed = (this.memoryUsed + 1023) / 1024;
+
+        return String.format("%d undoable command%s using ~%d KB of %d KB; %d dropped", count,
+            count == 1 ? "" : "s", kilobytesUsed, this.memoryBudget / 1024, this.droppedCount);
     }
 
     /**
@@ -52,11 +222,26 @@ public class HistoryManager {
      */
     public CommandResult undo(Model model) {
         if (this.currentIndex == 0) {
-            return CommandResult.error("No commands to undo");
+            return this.droppedCount == 0
+                ? CommandResult.error(MESSAGE_CANNOT_UNDO)
+                : CommandResult.error("%s (older commands were dropped from the history to save memory)",
+                    MESSAGE_CANNOT_UNDO);
         }
 
         this.currentIndex--;
-        return this.commandHistory.get(this.currentIndex).undo(model);
+        var result = this.commandHistory.get(this.currentIndex).undo(model);
+        if (result.isError()) {
+            // the command was not undone (eg. a restored one, if the data was changed some other way since).
+            this.currentIndex++;
+            return result;
+        }
+
+        if (this.undoLog != null && this.isSavingCommands) {
+            this.undoLog.undo();
+            this.compactUndoLog();
+        }
+
+        return result;
     }
 
     /**
@@ -67,26 +252,62 @@ public class HistoryManager {
      */
     public CommandResult redo(Model model) {
         if (this.currentIndex == this.commandHistory.size()) {
-            return CommandResult.error("No commands to redo");
+            return CommandResult.error(MESSAGE_CANNOT_REDO);
         }
 
-        var result = this.commandHistory.get(this.currentIndex).redo(model, this);
+        var command = this.commandHistory.get(this.currentIndex);
+        var change = this.commandChanges.get(this.currentIndex);
+        if (this.undoLog == null || !this.isSavingCommands || change == null) {
+            var result = command.redo(model, this);
+            this.currentIndex++;
+            return result;
+        }
+
+        // redoing a command might not make exactly the same change as before (eg. the time a recipe was made),
+        // so the change is recorded again.
+        var recorded = ModelChange.record(model, change.getDescription(), () -> command.redo(model, this));
+        if (recorded.fst().isError()) {
+            return recorded.fst();
+        }
+
+        this.commandChanges.set(this.currentIndex, recorded.snd());
+        this.undoLog.redo(this.commandChanges.get(this.currentIndex));
         this.currentIndex++;
-        return result;
+        this.compactUndoLog();
+
+        return recorded.fst();
     }
 
     /**
-     * Returns the input history.
+     * Returns the distinct inputs, most recently entered first.
      */
     public List<String> getInputHistory() {
-        return Collections.unmodifiableList(this.inputHistory);
+        return this.inputHistory.search("");
     }
 
     /**
-     * Returns the input history filtered by a prefix.
+     * Returns the distinct inputs that start with the given prefix, most recently entered first.
      */
     public List<String> getInputHistory(String prefix) {
-        return this.inputHistory.stream().filter(input -> input.startsWith(prefix))
-                .collect(Collectors.toUnmodifiableList());
+        return this.inputHistory.search(prefix);
+    }
+
+    private void removeCommands(int from, int to) {
+        var sizes = this.commandSizes.subList(from, to);
+        this.memoryUsed -= sizes.stream().mapToLong(Long::longValue).sum();
+
+        sizes.clear();
+        this.commandHistory.subList(from, to).clear();
+        this.commandChanges.subList(from, to).clear();
+    }
+
+    /**
+     * Rewrites the undo log with only the commands in the history, once it has grown to many more events than that
+     * (from undoing and redoing, and from commands that were dropped).
+     */
+    private void compactUndoLog() {
+        if (this.undoLog.getEventCount() > 2 * this.commandChanges.size() + UNDO_LOG_SLACK) {
+            this.undoLog.rewrite(this.commandChanges, this.currentIndex);
+        }
     }
 }
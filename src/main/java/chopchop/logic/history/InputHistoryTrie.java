@@ -0,0 +1,179 @@
+// InputHistoryTrie.java
+
+package chopchop.logic.history;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The distinct inputs entered by the user, indexed by a prefix trie so that the inputs starting with some prefix
+ * can be found, most recently entered first, without looking at any of the others. Entering an input again only
+ * moves it to the front, so each input is kept once; once there are more than {@code capacity} of them, the
+ * least recently entered one is removed.
+ *
+ * Each node records the most recent time any input under it was entered, so a search visits the nodes under the
+ * prefix in that order, and finds the inputs in order of recency as it goes.
+ *
+ * This may be used from any thread.
+ */
+public class InputHistoryTrie {
+
+    private final int capacity;
+    private final Node root = new Node(null, '\0');
+
+    // the node of each input, least recently entered first.
+    private final Map<String, Node> inputs = new LinkedHashMap<>();
+    private long clock = 0;
+
+    /**
+     * Constructs an empty {@code InputHistoryTrie} that keeps at most {@code capacity} inputs.
+     */
+    public InputHistoryTrie(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the given input as the most recently entered one.
+     */
+    public synchronized void add(String input) {
+        var node = this.inputs.remove(input);
+        if (node == null) {
+            node = this.root;
+            for (int i = 0; i < input.length(); i++) {
+                node = node.getOrAddChild(input.charAt(i));
+            }
+        }
+
+        var time = ++this.clock;
+        node.input = input;
+        node.time = time;
+        for (var n = node; n != null; n = n.parent) {
+            n.latest = time;
+        }
+
+        this.inputs.put(input, node);
+
+        if (this.inputs.size() > this.capacity) {
+            var eldest = this.inputs.keySet().iterator().next();
+            this.remove(this.inputs.remove(eldest));
+        }
+    }
+
+    /**
+     * Returns the inputs that start with {@code prefix}, most recently entered first.
+     */
+    public List<String> search(String prefix) {
+        return this.search(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns at most {@code limit} inputs that start with {@code prefix}, most recently entered first.
+     */
+    public synchronized List<String> search(String prefix, int limit) {
+        var results = new ArrayList<String>();
+
+        var node = this.root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+
+        if (node == null) {
+            return results;
+        }
+
+        // nodes are queued by the latest time of any input under them, and inputs by their own time.
+        var queue = new PriorityQueue<Candidate>(Comparator.comparingLong((Candidate c) -> c.time).reversed());
+        queue.add(new Candidate(node.latest, node, /* isInput: */ false));
+
+        while (!queue.isEmpty() && results.size() < limit) {
+            var candidate = queue.poll();
+            if (candidate.isInput) {
+                results.add(candidate.node.input);
+                continue;
+            }
+
+            var n = candidate.node;
+            if (n.input != null) {
+                queue.add(new Candidate(n.time, n, /* isInput: */ true));
+            }
+
+            for (var child : n.children.values()) {
+                queue.add(new Candidate(child.latest, child, /* isInput: */ false));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the number of distinct inputs.
+     */
+    public synchronized int size() {
+        return this.inputs.size();
+    }
+
+    /**
+     * Removes the input at the given node, along with the nodes that no longer lead to any input, and updates the
+     * latest times of the nodes above it.
+     */
+    private void remove(Node node) {
+        node.input = null;
+        node.time = 0;
+
+        for (var n = node; n != null; n = n.parent) {
+            if (n != this.root && n.input == null && n.children.isEmpty()) {
+                n.parent.children.remove(n.key);
+                continue;
+            }
+
+            n.latest = n.time;
+            for (var child : n.children.values()) {
+                n.latest = Math.max(n.latest, child.latest);
+            }
+        }
+    }
+
+    private static class Node {
+        final Node parent;
+        final char key;
+        final Map<Character, Node> children = new HashMap<>();
+
+        // the input that ends here (if any), and when it was last entered.
+        private String input = null;
+        private long time = 0;
+
+        // the latest time of any input at or under this node.
+        private long latest = 0;
+
+        Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        Node getOrAddChild(char c) {
+            var child = this.children.get(c);
+            if (child == null) {
+                child = new Node(this, c);
+                this.children.put(c, child);
+            }
+            return child;
+        }
+    }
+
+    private static class Candidate {
+        final long time;
+        final Node node;
+        final boolean isInput;
+
+        Candidate(long time, Node node, boolean isInput) {
+            this.time = time;
+            this.node = node;
+            this.isInput = isInput;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// RestoredCommand.java
+
+package chopchop.logic.history;
+
+import static java.util.Objects.requireNonNull;
+
+import chopchop.logic.commands.CommandResult;
+import chopchop.logic.commands.Undoable;
+import chopchop.model.Model;
+import chopchop.model.ModelChange;
+
+/**
+ * A command from before a restart, which can be undone and redone by applying the change it made to the model
+ * (see {@code UndoHistoryLog}), since the command itself was not saved.
+ */
+class RestoredCommand implements Undoable {
+    private final ModelChange change;
+
+    RestoredCommand(ModelChange change) {
+        this.change = change;
+    }
+
+    @Override
+    public CommandResult execute(Model model, HistoryManager historyManager) {
+        requireNonNull(model);
+
+        if (!this.change.canRedo(model)) {
+            return CommandResult.error("Cannot redo '%s', since the data was changed some other way after it "
+                + "was undone", this.change.getDescription());
+        }
+
+        this.change.redo(model);
+        return CommandResult.message("Redo: '%s'", this.change.getDescription());
+    }
+
+    @Override
+    public CommandResult undo(Model model) {
+        requireNonNull(model);
+
+        if (!this.change.canUndo(model)) {
+            return CommandResult.error("Cannot undo '%s', since the data was changed some other way after it "
+                + "was done", this.change.getDescription());
+        }
+
+        this.change.undo(model);
+        return CommandResult.message("Undo: '%s'", this.change.getDescription());
+    }
+
+    @Override
+    public long estimateSize() {
+        return BASE_SIZE + this.change.estimateSize();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RestoredCommand(%s)", this.change.getDescription());
+    }
+}
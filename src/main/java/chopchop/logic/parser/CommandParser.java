@@ -11,19 +11,25 @@ import chopchop.commons.util.Strings;
 import chopchop.commons.util.StringView;
 import chopchop.logic.commands.Command;
 import chopchop.logic.commands.ClearCommand;
+import chopchop.logic.commands.MigrateCommand;
 import chopchop.logic.commands.QuitCommand;
 import chopchop.logic.commands.RedoCommand;
 import chopchop.logic.commands.UndoCommand;
 
 import static chopchop.logic.parser.commands.AddCommandParser.parseAddCommand;
+import static chopchop.logic.parser.commands.BackupCommandParser.parseBackupCommand;
+import static chopchop.logic.parser.commands.BackupCommandParser.parseRestoreCommand;
 import static chopchop.logic.parser.commands.DeleteCommandParser.parseDeleteCommand;
 import static chopchop.logic.parser.commands.EditCommandParser.parseEditCommand;
 import static chopchop.logic.parser.commands.FilterCommandParser.parseFilterCommand;
 import static chopchop.logic.parser.commands.FindCommandParser.parseFindCommand;
 import static chopchop.logic.parser.commands.HelpCommandParser.parseHelpCommand;
+import static chopchop.logic.parser.commands.ImportCommandParser.parseImportCommand;
 import static chopchop.logic.parser.commands.ListCommandParser.parseListCommand;
 import static chopchop.logic.parser.commands.MakeCommandParser.parseMakeCommand;
+import static chopchop.logic.parser.commands.RunCommandParser.parseRunCommand;
 import static chopchop.logic.parser.commands.StatsCommandParser.parseStatsCommand;
+import static chopchop.logic.parser.commands.WorkspaceCommandParser.parseWorkspaceCommand;
 import static chopchop.logic.parser.commands.ViewCommandParser.parseViewCommand;
 
 public class CommandParser {
@@ -110,10 +116,16 @@ public class CommandParser {
                 case Strings.COMMAND_STATS:     return parseStatsCommand(args);
                 case Strings.COMMAND_DELETE:    return parseDeleteCommand(args);
                 case Strings.COMMAND_FILTER:    return parseFilterCommand(args);
+                case Strings.COMMAND_IMPORT:    return parseImportCommand(args);
+                case Strings.COMMAND_BACKUP:    return parseBackupCommand(args);
+                case Strings.COMMAND_RESTORE:   return parseRestoreCommand(args);
+                case Strings.COMMAND_WORKSPACE: return parseWorkspaceCommand(args);
+                case Strings.COMMAND_RUN:       return parseRunCommand(args);
                 case Strings.COMMAND_UNDO:      return ensureNoArgs(args, new UndoCommand());
                 case Strings.COMMAND_REDO:      return ensureNoArgs(args, new RedoCommand());
                 case Strings.COMMAND_QUIT:      return ensureNoArgs(args, new QuitCommand());
                 case Strings.COMMAND_CLEAR:     return ensureNoArgs(args, new ClearCommand());
+                case Strings.COMMAND_MIGRATE:   return ensureNoArgs(args, new MigrateCommand());
 
                 default:
                     return Result.error("Unknown command '%s'", args.getCommand());
@@ -0,0 +1,80 @@
+// BackupCommandParser.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.Optional;
+
+import chopchop.commons.util.Result;
+import chopchop.logic.commands.BackupCommand;
+import chopchop.logic.commands.BackupListCommand;
+import chopchop.logic.commands.Command;
+import chopchop.logic.commands.RestoreCommand;
+import chopchop.logic.parser.CommandArguments;
+
+import static chopchop.commons.util.Strings.COMMAND_BACKUP;
+import static chopchop.commons.util.Strings.COMMAND_RESTORE;
+import static chopchop.logic.parser.commands.CommonParser.checkArguments;
+import static chopchop.logic.parser.commands.CommonParser.ensureCommandName;
+
+public class BackupCommandParser {
+
+    /**
+     * Parses a 'backup' command. Syntax(es):
+     * {@code backup}
+     * {@code backup list}
+     *
+     * @param args the parsed command arguments from the {@code CommandParser}.
+     * @return     a BackupCommand or BackupListCommand, if the input was valid.
+     */
+    public static Result<? extends Command> parseBackupCommand(CommandArguments args) {
+        ensureCommandName(args, COMMAND_BACKUP);
+
+        // we expect no named arguments
+        Optional<String> err;
+        if ((err = checkArguments(args, "backup")).isPresent()) {
+            return Result.error(err.get());
+        }
+
+        var rest = args.getRemaining().strip();
+        if (rest.isEmpty()) {
+            return Result.of(new BackupCommand());
+        } else if (rest.equals("list")) {
+            return Result.of(new BackupListCommand());
+        } else {
+            return Result.error("Unknown 'backup' subcommand '%s' (expected nothing, or 'list')", rest);
+        }
+    }
+
+    /**
+     * Parses a 'restore' command. Syntax:
+     * {@code restore NUMBER}
+     *
+     * @param args the parsed command arguments from the {@code CommandParser}.
+     * @return     a RestoreCommand, if the input was valid.
+     */
+    public static Result<? extends Command> parseRestoreCommand(CommandArguments args) {
+        ensureCommandName(args, COMMAND_RESTORE);
+
+        // we expect no named arguments
+        Optional<String> err;
+        if ((err = checkArguments(args, "restore")).isPresent()) {
+            return Result.error(err.get());
+        }
+
+        var rest = args.getRemaining().strip();
+        if (rest.isEmpty()) {
+            return Result.error("'restore' command requires the number of a backup (see 'backup list')");
+        }
+
+        try {
+            var number = Integer.parseInt(rest);
+            if (number > 0) {
+                return Result.of(new RestoreCommand(number));
+            }
+        } catch (NumberFormatException e) {
+            // fallthrough
+        }
+
+        return Result.error("Invalid backup number '%s'", rest);
+    }
+}
@@ -2,6 +2,8 @@
 
 package chopchop.logic.parser.commands;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import chopchop.commons.util.Result;
@@ -12,6 +14,7 @@ import chopchop.logic.commands.FindRecipeCommand;
 import chopchop.logic.commands.FindIngredientCommand;
 import chopchop.model.attributes.NameContainsKeywordsPredicate;
 
+import static chopchop.commons.util.Strings.ARG_FUZZY;
 import static chopchop.commons.util.Strings.COMMAND_FIND;
 import static chopchop.logic.parser.commands.CommonParser.ensureCommandName;
 import static chopchop.logic.parser.commands.CommonParser.getCommandTarget;
@@ -21,8 +24,11 @@ public class FindCommandParser {
 
     /**
      * Parses a 'find' command. Syntax(es):
-     * {@code find recipe (keywords)+}
-     * {@code find ingredient (keywords)+}
+     * {@code find recipe (keywords)+ [/fuzzy]}
+     * {@code find ingredient (keywords)+ [/fuzzy]}
+     *
+     * With {@code /fuzzy}, names with words within a few typos of the keywords are found too. Since any words
+     * after it are taken as its value, those are also treated as keywords.
      *
      * @param args the parsed command arguments from the {@code CommandParser}.
      * @return     a FindCommand, if the input was valid.
@@ -30,15 +36,18 @@ public class FindCommandParser {
     public static Result<? extends Command> parseFindCommand(CommandArguments args) {
         ensureCommandName(args, COMMAND_FIND);
 
-        // we expect no named arguments. note we don't need to check for augments.
+        // we only expect /fuzzy. note we don't need to check for augments.
         Optional<String> err;
-        if ((err = checkArguments(args, "find")).isPresent()) {
+        if ((err = checkArguments(args, "find", List.of(ARG_FUZZY))).isPresent()) {
             return Result.error(err.get());
         }
 
+        var fuzzy = args.getArgument(ARG_FUZZY);
+
         return getCommandTarget(args, /* acceptsPlural: */ true)
             .then(target -> {
-                var words = new StringView(target.snd()).words();
+                var words = new ArrayList<>(new StringView(target.snd()).words());
+                fuzzy.forEach(value -> words.addAll(new StringView(value).words()));
 
                 if (words.isEmpty()) {
                     return Result.error("'find' command requires at least one search term");
@@ -46,10 +55,12 @@ public class FindCommandParser {
 
                 switch (target.fst()) {
                 case RECIPE:
-                    return Result.of(new FindRecipeCommand(new NameContainsKeywordsPredicate(words)));
+                    return Result.of(new FindRecipeCommand(new NameContainsKeywordsPredicate(words),
+                        !fuzzy.isEmpty()));
 
                 case INGREDIENT:
-                    return Result.of(new FindIngredientCommand(new NameContainsKeywordsPredicate(words)));
+                    return Result.of(new FindIngredientCommand(new NameContainsKeywordsPredicate(words),
+                        !fuzzy.isEmpty()));
 
                 default:
                     return Result.error("Can only find recipes or ingredients ('%s' invalid)", target.fst());
@@ -0,0 +1,71 @@
+// ImportCommandParser.java
+
+package chopchop.logic.parser.commands;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.Result;
+import chopchop.logic.commands.Command;
+import chopchop.logic.commands.ImportIngredientCommand;
+import chopchop.logic.commands.ImportRecipeCommand;
+import chopchop.logic.parser.CommandArguments;
+import chopchop.storage.ImportFileReader;
+
+import static chopchop.commons.util.Strings.COMMAND_IMPORT;
+import static chopchop.logic.parser.commands.CommonParser.checkArguments;
+import static chopchop.logic.parser.commands.CommonParser.ensureCommandName;
+import static chopchop.logic.parser.commands.CommonParser.getCommandTarget;
+
+public class ImportCommandParser {
+
+    /**
+     * Parses an 'import' command. Syntax(es):
+     * {@code import recipes FILE}
+     * {@code import ingredients FILE}
+     *
+     * The singular forms ({@code import recipe FILE}) are accepted too.
+     *
+     * Since '/' starts a named argument, any slashes in the path must be escaped as '\/'.
+     *
+     * @param args the parsed command arguments from the {@code CommandParser}.
+     * @return     an ImportRecipeCommand or ImportIngredientCommand, if the input was valid.
+     */
+    public static Result<? extends Command> parseImportCommand(CommandArguments args) {
+        ensureCommandName(args, COMMAND_IMPORT);
+
+        // we expect no named arguments
+        Optional<String> err;
+        if ((err = checkArguments(args, "import")).isPresent()) {
+            return Result.error(err.get());
+        }
+
+        return getCommandTarget(args, /* acceptsPlural: */ true)
+            .then(target -> {
+                var file = target.snd();
+
+                if (file.isEmpty()) {
+                    return Result.error("'import' command requires a file to import from");
+                } else if (!FileUtil.isValidPath(file)) {
+                    return Result.error("Invalid file path '%s'", file);
+                }
+
+                var path = Paths.get(file);
+                if (ImportFileReader.Format.of(path).isEmpty()) {
+                    return Result.error("Unknown file type '%s' (expected .json, .jsonl, or .csv)", file);
+                }
+
+                switch (target.fst()) {
+                case RECIPE:
+                    return Result.of(new ImportRecipeCommand(path));
+
+                case INGREDIENT:
+                    return Result.of(new ImportIngredientCommand(path));
+
+                default:
+                    return Result.error("Can only import recipes or ingredients ('%s' invalid)", target.fst());
+                }
+            });
+    }
+}
@@ -0,0 +1,47 @@
+// RunCommandParser.java
+
+package chopchop.logic.parser.commands;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.Result;
+import chopchop.logic.commands.Command;
+import chopchop.logic.commands.RunCommand;
+import chopchop.logic.parser.CommandArguments;
+
+import static chopchop.commons.util.Strings.COMMAND_RUN;
+import static chopchop.logic.parser.commands.CommonParser.checkArguments;
+import static chopchop.logic.parser.commands.CommonParser.ensureCommandName;
+
+public class RunCommandParser {
+
+    /**
+     * Parses a 'run' command. Syntax:
+     * {@code run FILE}
+     *
+     * Since '/' starts a named argument, any slashes in the path must be escaped as '\/'.
+     *
+     * @param args the parsed command arguments from the {@code CommandParser}.
+     * @return     a RunCommand, if the input was valid.
+     */
+    public static Result<? extends Command> parseRunCommand(CommandArguments args) {
+        ensureCommandName(args, COMMAND_RUN);
+
+        // we expect no named arguments
+        Optional<String> err;
+        if ((err = checkArguments(args, "run")).isPresent()) {
+            return Result.error(err.get());
+        }
+
+        var file = args.getRemaining().strip();
+        if (file.isEmpty()) {
+            return Result.error("'run' command requires a script file to run");
+        } else if (!FileUtil.isValidPath(file)) {
+            return Result.error("Invalid file path '%s'", file);
+        }
+
+        return Result.of(new RunCommand(Paths.get(file)));
+    }
+}
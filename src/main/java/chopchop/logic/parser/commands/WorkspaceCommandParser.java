@@ -0,0 +1,59 @@
+// WorkspaceCommandParser.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.Optional;
+
+import chopchop.commons.util.Result;
+import chopchop.commons.util.StringView;
+import chopchop.logic.commands.Command;
+import chopchop.logic.commands.WorkspaceListCommand;
+import chopchop.logic.commands.WorkspaceSwitchCommand;
+import chopchop.logic.parser.CommandArguments;
+
+import static chopchop.commons.util.Strings.COMMAND_WORKSPACE;
+import static chopchop.logic.parser.commands.CommonParser.checkArguments;
+import static chopchop.logic.parser.commands.CommonParser.ensureCommandName;
+
+public class WorkspaceCommandParser {
+
+    /**
+     * Parses a 'workspace' command. Syntax(es):
+     * {@code workspace list}
+     * {@code workspace switch NAME}
+     *
+     * @param args the parsed command arguments from the {@code CommandParser}.
+     * @return     a WorkspaceListCommand or WorkspaceSwitchCommand, if the input was valid.
+     */
+    public static Result<? extends Command> parseWorkspaceCommand(CommandArguments args) {
+        ensureCommandName(args, COMMAND_WORKSPACE);
+
+        // we expect no named arguments
+        Optional<String> err;
+        if ((err = checkArguments(args, "workspace")).isPresent()) {
+            return Result.error(err.get());
+        }
+
+        var words = new StringView(args.getRemaining()).words();
+        if (words.isEmpty()) {
+            return Result.error("'workspace' command requires a subcommand ('list' or 'switch')");
+        }
+
+        switch (words.get(0)) {
+        case "list":
+            if (words.size() > 1) {
+                return Result.error("'workspace list' command does not take any arguments");
+            }
+            return Result.of(new WorkspaceListCommand());
+
+        case "switch":
+            if (words.size() != 2) {
+                return Result.error("'workspace switch' command requires exactly one workspace name");
+            }
+            return Result.of(new WorkspaceSwitchCommand(words.get(1)));
+
+        default:
+            return Result.error("Unknown 'workspace' subcommand '%s' (expected 'list' or 'switch')", words.get(0));
+        }
+    }
+}
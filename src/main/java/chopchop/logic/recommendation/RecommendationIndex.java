@@ -0,0 +1,232 @@
+// RecommendationIndex.java
+
+package chopchop.logic.recommendation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.exceptions.IncompatibleIngredientsException;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * Caches, for each recipe, whether it can be made with the ingredients in stock (ie. whether it is recommended),
+ * and the earliest expiry date of its ingredients. Working these out needs every ingredient of every recipe to be
+ * looked up, so they are only recomputed for recipes that were edited, or whose ingredients were. To find those,
+ * this also keeps an index from each ingredient name to the recipes using it.
+ *
+ * Since expired ingredients don't count, the cache is only valid for the day it was computed on.
+ */
+public class RecommendationIndex {
+
+    // these are keyed by lowercased recipe and ingredient names respectively.
+    private final Map<String, CachedRecipe> recipes = new HashMap<>();
+    private final Map<String, Set<String>> recipesByIngredient = new HashMap<>();
+
+    private LocalDate date = LocalDate.now();
+
+    /**
+     * Returns the cached recommendation for {@code recipe}, if there is an up-to-date one.
+     */
+    public Optional<CachedRecipe> getCached(Recipe recipe) {
+        this.checkDate();
+
+        var cached = this.recipes.get(recipe.getName().toLowerCase());
+        if (cached == null || (cached.recipe != null && cached.recipe != recipe)) {
+            return Optional.empty();
+        }
+
+        // entries restored from disk are only matched by name; from now on, match the actual recipe.
+        if (cached.recipe == null) {
+            cached = new CachedRecipe(recipe, cached.recommended, cached.earliestExpiry);
+            this.put(cached);
+        }
+
+        return Optional.of(cached);
+    }
+
+    /**
+     * Returns the recommendation for {@code recipe}, computing (and caching) it if there is no up-to-date one,
+     * using {@code ingredients} to look up ingredients by name.
+     */
+    public CachedRecipe get(Recipe recipe, Function<String, Optional<Ingredient>> ingredients) {
+        return this.getCached(recipe).orElseGet(() -> {
+            var cached = compute(recipe, ingredients);
+            this.put(cached);
+            return cached;
+        });
+    }
+
+    /**
+     * Computes the recommendation for {@code recipe} without caching it. This does not touch the index, so it
+     * can be called on any thread, as long as {@code ingredients} can be.
+     */
+    public static CachedRecipe compute(Recipe recipe, Function<String, Optional<Ingredient>> ingredients) {
+        var recommended = true;
+        var earliestExpiry = Optional.<ExpiryDate>empty();
+
+        for (var ref : recipe.getIngredients()) {
+            var ingredient = ingredients.apply(ref.getName());
+            if (ingredient.isEmpty()) {
+                recommended = false;
+                continue;
+            }
+
+            try {
+                recommended &= ref.getQuantity().compareTo(ingredient.get().getUnexpiredQuantity()) <= 0;
+            } catch (IncompatibleIngredientsException e) {
+                recommended = false;
+            }
+
+            var expiry = ingredient.get().getExpiryDate();
+            if (Ingredient.SET_COMPARATOR.compare(expiry, earliestExpiry) < 0) {
+                earliestExpiry = expiry;
+            }
+        }
+
+        return new CachedRecipe(recipe, recommended, earliestExpiry);
+    }
+
+    /**
+     * Caches the given recommendation, replacing any existing one for a recipe with the same name.
+     */
+    public void put(CachedRecipe cached) {
+        var name = cached.getName().toLowerCase();
+        this.removeFromIngredientIndex(name, this.recipes.put(name, cached));
+
+        if (cached.recipe != null) {
+            for (var ref : cached.recipe.getIngredients()) {
+                this.recipesByIngredient.computeIfAbsent(ref.getName().toLowerCase(), k -> new HashSet<>())
+                    .add(name);
+            }
+        }
+    }
+
+    private void removeFromIngredientIndex(String name, CachedRecipe old) {
+        if (old == null || old.recipe == null) {
+            return;
+        }
+
+        for (var ref : old.recipe.getIngredients()) {
+            var users = this.recipesByIngredient.get(ref.getName().toLowerCase());
+            if (users != null) {
+                users.remove(name);
+                if (users.isEmpty()) {
+                    this.recipesByIngredient.remove(ref.getName().toLowerCase());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the cached recommendations of all recipes that use any of the ingredients with the given names.
+     */
+    public void invalidateIngredients(Collection<String> ingredientNames) {
+        for (var ingredient : ingredientNames) {
+            var users = this.recipesByIngredient.get(ingredient.toLowerCase());
+            if (users == null) {
+                continue;
+            }
+
+            for (var name : new ArrayList<>(users)) {
+                this.removeFromIngredientIndex(name, this.recipes.remove(name));
+            }
+        }
+
+        // recipes restored from disk are not in the ingredient index yet, so they can't be invalidated
+        // selectively; drop all of them instead.
+        if (!ingredientNames.isEmpty()) {
+            this.recipes.values().removeIf(x -> x.recipe == null);
+        }
+    }
+
+    /**
+     * Removes all cached recommendations.
+     */
+    public void clear() {
+        this.recipes.clear();
+        this.recipesByIngredient.clear();
+    }
+
+    /**
+     * Returns the day that the cached recommendations are valid for.
+     */
+    public LocalDate getDate() {
+        return this.date;
+    }
+
+    /**
+     * Replaces the cached recommendations with the given ones, which are valid for {@code date}.
+     */
+    public void restore(LocalDate date, List<CachedRecipe> cached) {
+        this.clear();
+        this.date = date;
+        cached.forEach(this::put);
+    }
+
+    private void checkDate() {
+        var today = LocalDate.now();
+        if (!today.equals(this.date)) {
+            this.clear();
+            this.date = today;
+        }
+    }
+
+    /**
+     * The cached recommendation for one recipe.
+     */
+    public static class CachedRecipe {
+        private final Recipe recipe;
+        private final String name;
+        private final boolean recommended;
+        private final Optional<ExpiryDate> earliestExpiry;
+
+        CachedRecipe(Recipe recipe, boolean recommended, Optional<ExpiryDate> earliestExpiry) {
+            this.recipe = recipe;
+            this.name = recipe.getName();
+            this.recommended = recommended;
+            this.earliestExpiry = earliestExpiry;
+        }
+
+        /**
+         * Constructs a recommendation (restored from disk) for the recipe with the given name.
+         */
+        public CachedRecipe(String name, boolean recommended, Optional<ExpiryDate> earliestExpiry) {
+            this.recipe = null;
+            this.name = name;
+            this.recommended = recommended;
+            this.earliestExpiry = earliestExpiry;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public boolean isRecommended() {
+            return this.recommended;
+        }
+
+        /**
+         * Returns true if the recipe is recommended, and one of its ingredients expires within a week of
+         * {@code today}.
+         */
+        public boolean isExpiringSoon(LocalDate today) {
+            return this.recommended && this.earliestExpiry
+                .map(expiry -> today.plusDays(7).isAfter(expiry.getDate()))
+                .orElse(false);
+        }
+
+        public Optional<ExpiryDate> getEarliestExpiry() {
+            return this.earliestExpiry;
+        }
+    }
+}
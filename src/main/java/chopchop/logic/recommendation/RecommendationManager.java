@@ -1,86 +1,185 @@
 package chopchop.logic.recommendation;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+import chopchop.commons.core.Log;
+import chopchop.commons.util.FilteredListView;
+import chopchop.commons.util.ListenableList;
+import chopchop.logic.recommendation.RecommendationIndex.CachedRecipe;
 import chopchop.model.Model;
-import chopchop.model.exceptions.IncompatibleIngredientsException;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.recipe.Recipe;
-import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 
 public class RecommendationManager {
-    private final FilteredList<Recipe> recommendedRecipes;
-    private final FilteredList<Recipe> expiringRecipes;
-    private final FilteredList<Recipe> oldRecipes;
+    private static final Log logger = new Log(RecommendationManager.class);
+
+    private final Model model;
+    private final RecommendationIndex index;
+
+    private final FilteredListView<Recipe> recommendedRecipes;
+    private final FilteredListView<Recipe> expiringRecipes;
+
+    // while the data is being loaded, or the index is being rebuilt in the background, recommendations are
+    // only taken from the index, and never computed on the model's thread.
+    private boolean suspended = false;
+
+    // the ingredients that changed while the index was being rebuilt, or null if it is not being rebuilt.
+    private Set<String> changedWhileRebuilding = null;
 
     /**
      * Recommendation Manager for recommendations.
      */
     public RecommendationManager(Model model) {
-        this.recommendedRecipes = new FilteredList<>(model.getRecipeBook().getEntryList(),
-                this.getRecommendedRecipesPredicate(model));
-        this.expiringRecipes = new FilteredList<>(
-                new SortedList<>(
-                        model.getRecipeBook().getEntryList(),
-                        this.getExpiringRecipesComparator(model)),
-                this.getExpiringRecipesPredicate(model));
-        this.oldRecipes = new FilteredList<>(model.getRecipeBook().getEntryList());
-
-        model.getIngredientBook().getEntryList().addListener((ListChangeListener<Ingredient>) c -> {
-            this.recommendedRecipes.setPredicate(this.getRecommendedRecipesPredicate(model));
-            this.expiringRecipes.setPredicate(this.getExpiringRecipesPredicate(model));
+        this.model = model;
+        this.index = new RecommendationIndex();
+
+        this.recommendedRecipes = new FilteredListView<>(model.getRecipeBook().getEntryList(),
+                this.getRecommendedRecipesPredicate());
+        this.expiringRecipes = new FilteredListView<>(model.getRecipeBook().getEntryList(),
+                this.getExpiringRecipesPredicate());
+        this.expiringRecipes.setComparator(this.getExpiringRecipesComparator());
+
+        model.getIngredientBook().getEntryList().addListener((removed, added) -> {
+            var changed = new HashSet<String>();
+            removed.forEach(x -> changed.add(x.getName()));
+            added.forEach(x -> changed.add(x.getName()));
+
+            if (this.changedWhileRebuilding != null) {
+                this.changedWhileRebuilding.addAll(changed);
+            }
+
+            // while loading, the index is already known to match the ingredients being loaded.
+            if (!this.suspended || this.changedWhileRebuilding != null) {
+                this.index.invalidateIngredients(changed);
+                this.refresh();
+            }
         });
     }
 
-    public ObservableList<Recipe> getRecommendedRecipeList() {
+    public ListenableList<Recipe> getRecommendedRecipeList() {
         return this.recommendedRecipes;
     }
 
-    public ObservableList<Recipe> getExpiringRecipeList() {
+    public ListenableList<Recipe> getExpiringRecipeList() {
         return this.expiringRecipes;
     }
 
-    private Predicate<Recipe> getRecommendedRecipesPredicate(Model model) {
-        return recipe -> recipe.getIngredients().stream()
-                .allMatch(ingredientRef -> model.findIngredientWithName(ingredientRef.getName())
-                        .map(ingredient -> {
-                            try {
-                                return ingredientRef.getQuantity().compareTo(ingredient.getUnexpiredQuantity()) <= 0;
-                            } catch (IncompatibleIngredientsException e) {
-                                return false;
-                            }
-                        }).orElse(false));
+    public RecommendationIndex getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Stops computing recommendations until {@link #resume} is called. This should be called before the data is
+     * loaded, once the index has been restored from disk (if it could be).
+     */
+    public void suspend() {
+        this.suspended = true;
+    }
+
+    /**
+     * Resumes computing recommendations. If {@code rebuild} is true, the recommendations for all the recipes are
+     * computed in the background, and put in the index on the model's thread using {@code modelExecutor}; the
+     * recommended recipes are updated once that is done. Otherwise, the index is assumed to be up to date.
+     */
+    public void resume(boolean rebuild, Executor modelExecutor) {
+        if (!rebuild) {
+            this.suspended = false;
+            this.refresh();
+            return;
+        }
+
+        // entries are immutable, so the background thread can work on copies of the lists.
+        var recipes = new ArrayList<>(this.model.getRecipeBook().getEntryList());
+        var ingredients = new HashMap<String, Ingredient>();
+        this.model.getIngredientBook().getEntryList().forEach(x -> ingredients.put(x.getName().toLowerCase(), x));
+
+        this.changedWhileRebuilding = new HashSet<>();
+        this.index.clear();
+
+        var thread = new Thread(() -> {
+            var start = System.nanoTime();
+            Function<String, Optional<Ingredient>> lookup = name -> Optional.ofNullable(
+                ingredients.get(name.toLowerCase()));
+
+            var results = new ArrayList<CachedRecipe>(recipes.size());
+            for (var recipe : recipes) {
+                results.add(RecommendationIndex.compute(recipe, lookup));
+            }
+
+            var millis = (System.nanoTime() - start) / 1.0e6;
+            logger.log("Rebuilt recommendations for %d recipes in %.1f ms", recipes.size(), millis);
+
+            modelExecutor.execute(() -> this.finishRebuild(results));
+        }, "recommendation-index");
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void finishRebuild(List<CachedRecipe> results) {
+        results.forEach(this.index::put);
+
+        // throw away anything that was computed from stale ingredients; recipes that were edited are
+        // recomputed anyway, since they are no longer the same recipe.
+        this.index.invalidateIngredients(this.changedWhileRebuilding);
+
+        this.changedWhileRebuilding = null;
+        this.suspended = false;
+        this.refresh();
+    }
+
+    /**
+     * Returns true if the recommendations are being computed or restored, so the recommended recipes might not
+     * be up to date.
+     */
+    public boolean isSuspended() {
+        return this.suspended;
+    }
+
+    private Optional<CachedRecipe> getRecommendation(Recipe recipe) {
+        if (this.suspended) {
+            return this.index.getCached(recipe);
+        }
+
+        return Optional.of(this.index.get(recipe, this.model::findIngredientWithName));
+    }
+
+    /**
+     * Re-filters the recommended recipes after the index was changed.
+     */
+    private void refresh() {
+        this.recommendedRecipes.setPredicate(this.getRecommendedRecipesPredicate());
+        this.expiringRecipes.setPredicate(this.getExpiringRecipesPredicate());
+        this.expiringRecipes.setComparator(this.getExpiringRecipesComparator());
+    }
+
+    private Predicate<Recipe> getRecommendedRecipesPredicate() {
+        return recipe -> this.getRecommendation(recipe)
+                .map(CachedRecipe::isRecommended)
+                .orElse(false);
     }
 
-    private Predicate<Recipe> getExpiringRecipesPredicate(Model model) {
-        return this.getRecommendedRecipesPredicate(model).and(recipe -> recipe.getIngredients().stream()
-                .anyMatch(ingredientRef -> model.findIngredientWithName(ingredientRef.getName())
-                        .flatMap(ingredient -> ingredient.getExpiryDate()
-                                .map(expiryDate -> LocalDate.now().plusDays(7).isAfter(expiryDate.getDate())))
-                        .orElse(false)));
+    private Predicate<Recipe> getExpiringRecipesPredicate() {
+        var today = LocalDate.now();
+        return recipe -> this.getRecommendation(recipe)
+                .map(x -> x.isExpiringSoon(today))
+                .orElse(false);
     }
 
-    private Comparator<Recipe> getExpiringRecipesComparator(Model model) {
+    private Comparator<Recipe> getExpiringRecipesComparator() {
         return (a, b) -> {
-            var expiryA = a.getIngredients().stream()
-                    // map all IngredientReferences to Ingredients
-                    .map(ingredientRef -> model.findIngredientWithName(ingredientRef.getName())
-                            // get the expiry date if present
-                            .flatMap(Ingredient::getExpiryDate))
-                    // Compare all the expiry dates and get the earliest
-                    .reduce(Optional.empty(), (result, ingredient) ->
-                            Ingredient.SET_COMPARATOR.compare(ingredient, result) < 0 ? ingredient : result);
-            var expiryB = b.getIngredients().stream()
-                    .map(ingredientRef -> model.findIngredientWithName(ingredientRef.getName())
-                            .flatMap(Ingredient::getExpiryDate))
-                    .reduce(Optional.empty(), (result, ingredient) ->
-                            Ingredient.SET_COMPARATOR.compare(ingredient, result) < 0 ? ingredient : result);
+            var expiryA = this.getRecommendation(a).flatMap(CachedRecipe::getEarliestExpiry);
+            var expiryB = this.getRecommendation(b).flatMap(CachedRecipe::getEarliestExpiry);
 
             return Ingredient.SET_COMPARATOR.compare(expiryA, expiryB);
         };
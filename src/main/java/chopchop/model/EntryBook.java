@@ -2,9 +2,11 @@ package chopchop.model;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-import javafx.collections.ObservableList;
+import chopchop.commons.util.ListenableList;
 
 /**
  * Wraps all data at the entry book level
@@ -49,6 +51,29 @@ public class EntryBook<T extends Entry> implements ReadOnlyEntryBook<T> {
         return this.entries.contains(entry);
     }
 
+    /**
+     * Returns the entry with the given name (case-insensitively), if there is one in the entry book.
+     */
+    public Optional<T> find(String name) {
+        return this.entries.find(name);
+    }
+
+    /**
+     * Returns at most {@code limit} entries whose names are within a few typos of the given name (ignoring case),
+     * closest first.
+     */
+    public List<T> findSimilar(String name, int limit) {
+        return this.entries.findSimilar(name, limit);
+    }
+
+    /**
+     * Returns the (lowercased) words in the names of the entries that are within a few typos of the given word
+     * (ignoring case), closest first.
+     */
+    public List<String> findSimilarWords(String word) {
+        return this.entries.findSimilarWords(word);
+    }
+
     /**
      * Adds an entry to the entry book.
      * The entry must not already exist in the entry book.
@@ -57,6 +82,14 @@ public class EntryBook<T extends Entry> implements ReadOnlyEntryBook<T> {
         this.entries.add(entry);
     }
 
+    /**
+     * Adds all of the given entries to the entry book, in order.
+     * None of the entries may already exist in the entry book, nor may any two of them be the same.
+     */
+    public void addAll(List<T> entries) {
+        this.entries.addAll(entries);
+    }
+
     /**
      * Replaces the given entry {@code target} in the list with {@code replacement}.
      * {@code target} must exist in the entry book.
@@ -75,6 +108,14 @@ public class EntryBook<T extends Entry> implements ReadOnlyEntryBook<T> {
         this.entries.remove(entry);
     }
 
+    /**
+     * Removes all of the given entries from this {@code EntryBook}.
+     * Every entry must exist in the entry book.
+     */
+    public void removeAll(Collection<T> entries) {
+        this.entries.removeAll(entries);
+    }
+
     /**
      * Starts a bulk edit operation on the entry list. Each call to {@code startEditing} must be paired
      * with a corresponding call to {@code finishEditing}. These pairs can be nested.
@@ -93,13 +134,13 @@ public class EntryBook<T extends Entry> implements ReadOnlyEntryBook<T> {
 
     @Override
     public String toString() {
-        return this.entries.asUnmodifiableObservableList().size() + " entries";
+        return this.entries.asUnmodifiableList().size() + " entries";
         // TODO: refine later
     }
 
     @Override
-    public ObservableList<T> getEntryList() {
-        return this.entries.asUnmodifiableObservableList();
+    public ListenableList<T> getEntryList() {
+        return this.entries.asUnmodifiableList();
     }
 
     @Override
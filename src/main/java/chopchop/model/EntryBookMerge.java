@@ -0,0 +1,130 @@
+// EntryBookMerge.java
+
+package chopchop.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import chopchop.commons.util.Pair;
+
+/**
+ * A three-way merge of the entries in an entry book. Given the entries as they were when the book was last in sync
+ * with its data file (the base), the entries currently in the book (local), and the entries now in the data file
+ * (remote), this works out which remote changes can be applied to the book. Entries are matched by name, as with
+ * {@link Entry#isSame}.
+ *
+ * An entry that was changed (including being added or removed) both locally and remotely, in different ways, is a
+ * conflict; the local version is kept for these.
+ */
+public class EntryBookMerge<T extends Entry> {
+
+    private final List<T> added = new ArrayList<>();
+    private final List<T> removed = new ArrayList<>();
+    private final List<Pair<T, T>> updated = new ArrayList<>();
+    private final List<String> conflicts = new ArrayList<>();
+
+    private EntryBookMerge() {
+    }
+
+    /**
+     * Computes the merge of the {@code remote} entries into the {@code local} entries, where both were derived
+     * from the {@code base} entries.
+     */
+    public static <T extends Entry> EntryBookMerge<T> compute(List<? extends T> base, List<? extends T> local,
+        List<? extends T> remote) {
+
+        var baseMap = toMap(base);
+        var localMap = toMap(local);
+        var remoteMap = toMap(remote);
+
+        var merge = new EntryBookMerge<T>();
+
+        // go through the remote entries first, so that added entries keep the order they have in the file.
+        for (var entry : remoteMap.entrySet()) {
+            var name = entry.getKey();
+            var remoteEntry = entry.getValue();
+            var baseEntry = baseMap.get(name);
+            var localEntry = localMap.get(name);
+
+            if (Objects.equals(baseEntry, remoteEntry) || Objects.equals(localEntry, remoteEntry)) {
+                // unchanged remotely, or the same change was made on both sides.
+                continue;
+            } else if (!Objects.equals(baseEntry, localEntry)) {
+                merge.conflicts.add(remoteEntry.getName());
+            } else if (localEntry == null) {
+                merge.added.add(remoteEntry);
+            } else {
+                merge.updated.add(Pair.of(localEntry, remoteEntry));
+            }
+        }
+
+        for (var entry : baseMap.entrySet()) {
+            var name = entry.getKey();
+            if (remoteMap.containsKey(name) || !localMap.containsKey(name)) {
+                continue;
+            }
+
+            var localEntry = localMap.get(name);
+            if (localEntry.equals(entry.getValue())) {
+                merge.removed.add(localEntry);
+            } else {
+                merge.conflicts.add(localEntry.getName());
+            }
+        }
+
+        return merge;
+    }
+
+    private static <T extends Entry> Map<String, T> toMap(List<? extends T> entries) {
+        var map = new LinkedHashMap<String, T>();
+        for (var entry : entries) {
+            map.put(entry.getName().toLowerCase(), entry);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the remote entries that should be added to the book.
+     */
+    public List<T> getAdded() {
+        return Collections.unmodifiableList(this.added);
+    }
+
+    /**
+     * Returns the local entries that should be removed from the book.
+     */
+    public List<T> getRemoved() {
+        return Collections.unmodifiableList(this.removed);
+    }
+
+    /**
+     * Returns the local entries that should be replaced, paired with the remote entries that replace them.
+     */
+    public List<Pair<T, T>> getUpdated() {
+        return Collections.unmodifiableList(this.updated);
+    }
+
+    /**
+     * Returns the names of the entries that were changed both locally and remotely; these are left as they are.
+     */
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(this.conflicts);
+    }
+
+    /**
+     * Returns true if there are no remote changes to apply to the book.
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.removed.isEmpty() && this.updated.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d added, %d updated, %d removed", this.added.size(), this.updated.size(),
+            this.removed.size());
+    }
+}
@@ -0,0 +1,36 @@
+// ListFilters.java
+
+package chopchop.model;
+
+import static chopchop.model.Model.PREDICATE_SHOW_ALL_ENTRIES;
+
+import java.util.function.Predicate;
+
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * The filters on the recipe and ingredient lists, kept apart from any model. Each client of the command server
+ * keeps its own, so that what one client finds or filters does not change the lists (and so the indices) that
+ * the others see. These are changed by the thread that handles the client, and must not be shared.
+ */
+public class ListFilters {
+    private Predicate<? super Recipe> recipeFilter = PREDICATE_SHOW_ALL_ENTRIES;
+    private Predicate<? super Ingredient> ingredientFilter = PREDICATE_SHOW_ALL_ENTRIES;
+
+    /**
+     * Filters the lists of {@code model} with these filters.
+     */
+    public void applyTo(Model model) {
+        model.updateFilteredRecipeList(this.recipeFilter);
+        model.updateFilteredIngredientList(this.ingredientFilter);
+    }
+
+    /**
+     * Changes these filters to the ones that the lists of {@code model} have now.
+     */
+    public void copyFrom(Model model) {
+        this.recipeFilter = model.getRecipeFilter();
+        this.ingredientFilter = model.getIngredientFilter();
+    }
+}
@@ -2,18 +2,19 @@ package chopchop.model;
 
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
 import chopchop.commons.core.GuiSettings;
+import chopchop.commons.util.ListenableList;
 import chopchop.commons.util.Pair;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.ingredient.IngredientReference;
 import chopchop.model.recipe.Recipe;
 import chopchop.model.usage.IngredientUsage;
 import chopchop.model.usage.RecipeUsage;
-import javafx.collections.ObservableList;
 
 /**
  * The API of the Model component.
@@ -70,6 +71,16 @@ public interface Model {
      */
     Optional<Recipe> findRecipeWithName(String name);
 
+    /**
+     * Finds at most {@code limit} recipes whose names are within a few typos of the given name, closest first.
+     */
+    List<Recipe> findRecipesWithSimilarName(String name, int limit);
+
+    /**
+     * Finds the words in recipe names that are within a few typos of the given word, closest first.
+     */
+    List<String> findSimilarRecipeNameWords(String word);
+
     /**
      * Deletes the given recipe.
      * The recipe must exist in the recipe book.
@@ -82,6 +93,18 @@ public interface Model {
      */
     void addRecipe(Recipe recipe);
 
+    /**
+     * Adds all of the given recipes, in order.
+     * None of the {@code recipes} may already exist in the recipe book, nor may any two of them be the same.
+     */
+    void addRecipes(List<Recipe> recipes);
+
+    /**
+     * Deletes all of the given recipes.
+     * The recipes must exist in the recipe book.
+     */
+    void deleteRecipes(Collection<Recipe> recipes);
+
     /**
      * Replaces the given recipe {@code target} with {@code editedRecipe}.
      * {@code target} must exist in the recipe book.
@@ -90,7 +113,7 @@ public interface Model {
     void setRecipe(Recipe target, Recipe editedRecipe);
 
     /** Returns an unmodifiable view of the filtered recipe list */
-    ObservableList<Recipe> getFilteredRecipeList();
+    ListenableList<Recipe> getFilteredRecipeList();
 
     /**
      * Updates the filter of the filtered recipe list to filter by the given {@code predicate}.
@@ -98,6 +121,23 @@ public interface Model {
      */
     void updateFilteredRecipeList(Predicate<? super Recipe> predicate);
 
+    /**
+     * Returns the filter of the filtered recipe list, or {@code PREDICATE_SHOW_ALL_ENTRIES} if it is not filtered.
+     */
+    Predicate<? super Recipe> getRecipeFilter();
+
+    /**
+     * Starts a bulk edit operation for recipes. Every call to {@code startEditingRecipes} *MUST*
+     * be paired with a corresponding call to {@code finishEditingRecipes}. These pairs can be nested.
+     */
+    void startEditingRecipes();
+
+    /**
+     * Finishes a bulk edit operation for recipes. Every call to {@code finishEditingRecipes} *MUST*
+     * be paired with a corresponding call to {@code startEditingRecipes}. These pairs can be nested.
+     */
+    void finishEditingRecipes();
+
     /**
      * Returns the user prefs' ingredient book file path.
      */
@@ -132,12 +172,34 @@ public interface Model {
      */
     Optional<Ingredient> findIngredientWithName(String name);
 
+    /**
+     * Finds at most {@code limit} ingredients whose names are within a few typos of the given name, closest first.
+     */
+    List<Ingredient> findIngredientsWithSimilarName(String name, int limit);
+
+    /**
+     * Finds the words in ingredient names that are within a few typos of the given word, closest first.
+     */
+    List<String> findSimilarIngredientNameWords(String word);
+
     /**
      * Adds the given ingredient.
      * {@code ingredient} must not already exist in the ingredient book.
      */
     void addIngredient(Ingredient ingredient);
 
+    /**
+     * Adds all of the given ingredients, in order. None of the {@code ingredients} may already exist
+     * in the ingredient book, nor may any two of them be the same.
+     */
+    void addIngredients(List<Ingredient> ingredients);
+
+    /**
+     * Deletes all of the given ingredients.
+     * The ingredients must exist in the ingredient book.
+     */
+    void deleteIngredients(Collection<Ingredient> ingredients);
+
     /**
      * Replaces the given ingredient {@code target} with {@code editedIngredient}.
      * {@code target} must exist in the ingredient book.
@@ -147,7 +209,7 @@ public interface Model {
     void setIngredient(Ingredient target, Ingredient editedIngredient);
 
     /** Returns an unmodifiable view of the filtered ingredient list */
-    ObservableList<Ingredient> getFilteredIngredientList();
+    ListenableList<Ingredient> getFilteredIngredientList();
 
     /**
      * Updates the filter of the filtered ingredient list to filter by the given {@code predicate}.
@@ -155,6 +217,17 @@ public interface Model {
      */
     void updateFilteredIngredientList(Predicate<? super Ingredient> predicate);
 
+    /**
+     * Returns the filter of the filtered ingredient list, or {@code PREDICATE_SHOW_ALL_ENTRIES} if it is not
+     * filtered.
+     */
+    Predicate<? super Ingredient> getIngredientFilter();
+
+    /**
+     * Returns an immutable copy of the current state of the model, numbered {@code version}.
+     */
+    ModelSnapshot snapshot(long version);
+
     /**
      * Starts a bulk edit operation for ingredients. Every call to {@code startEditingIngredients} *MUST*
      * be paired with a corresponding call to {@code finishEditingIngredients}. These pairs can be nested.
@@ -176,11 +249,11 @@ public interface Model {
     /** Returns the UsageList of ingredient */
     UsageList<IngredientUsage> getIngredientUsageList();
 
-    /** Returns the 'actual' {@code ObservableList<>} backing the RecipeUsageList */
-    ObservableList<RecipeUsage> getObservableRecipeUsages();
+    /** Returns the 'actual' {@code ListenableList<>} backing the RecipeUsageList */
+    ListenableList<RecipeUsage> getObservableRecipeUsages();
 
-    /** Returns the 'actual' {@code ObservableList<>} backing the IngredientUsageList */
-    ObservableList<IngredientUsage> getObservableIngredientUsages();
+    /** Returns the 'actual' {@code ListenableList<>} backing the IngredientUsageList */
+    ListenableList<IngredientUsage> getObservableIngredientUsages();
 
     void addRecipeUsage(Recipe recipe);
 
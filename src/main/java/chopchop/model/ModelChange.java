@@ -0,0 +1,331 @@
+// ModelChange.java
+
+package chopchop.model;
+
+import static chopchop.commons.util.CollectionUtil.requireAllNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import chopchop.commons.util.ListListener;
+import chopchop.commons.util.Pair;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+import chopchop.model.util.SizeEstimator;
+
+/**
+ * What one command changed in the model: the entries (and usages) it removed, and those it added, where an edited
+ * entry counts as removing the old version and adding the new one. This is enough to undo and redo the command
+ * without the command itself, so it is what is saved of the undo history (see {@code UndoHistoryLog}).
+ *
+ * A change can only be undone while the model still contains everything it added (and redone while it still
+ * contains everything it removed); otherwise the data was changed in some other way since then (eg. by hand,
+ * while ChopChop was closed), and applying the change would lose that.
+ */
+public class ModelChange {
+    // set while a command makes changes that are not part of what it does (see unrecorded(Runnable)).
+    private static final ThreadLocal<Boolean> isPaused = ThreadLocal.withInitial(() -> false);
+
+    private final String description;
+    private final Part<Recipe> recipes;
+    private final Part<Ingredient> ingredients;
+    private final Part<RecipeUsage> recipeUsages;
+    private final Part<IngredientUsage> ingredientUsages;
+
+    /**
+     * Constructs a {@code ModelChange} with the given parts; {@code description} is the command that made it.
+     */
+    public ModelChange(String description, Part<Recipe> recipes, Part<Ingredient> ingredients,
+        Part<RecipeUsage> recipeUsages, Part<IngredientUsage> ingredientUsages) {
+
+        requireAllNonNull(description, recipes, ingredients, recipeUsages, ingredientUsages);
+        this.description = description;
+        this.recipes = recipes;
+        this.ingredients = ingredients;
+        this.recipeUsages = recipeUsages;
+        this.ingredientUsages = ingredientUsages;
+    }
+
+    /**
+     * Runs {@code action}, and returns its result along with what it changed in {@code model}.
+     */
+    public static <T> Pair<T, ModelChange> record(Model model, String description, Supplier<T> action) {
+        var recipes = new Recorder<Recipe>();
+        var ingredients = new Recorder<Ingredient>();
+        var recipeUsages = new Recorder<RecipeUsage>();
+        var ingredientUsages = new Recorder<IngredientUsage>();
+
+        // the lists only keep track of their changes while someone is listening, so only listen while recording.
+        model.getRecipeBook().getEntryList().addListener(recipes);
+        model.getIngredientBook().getEntryList().addListener(ingredients);
+        model.getObservableRecipeUsages().addListener(recipeUsages);
+        model.getObservableIngredientUsages().addListener(ingredientUsages);
+
+        try {
+            var result = action.get();
+            return Pair.of(result, new ModelChange(description, recipes.toPart(), ingredients.toPart(),
+                recipeUsages.toPart(), ingredientUsages.toPart()));
+        } finally {
+            model.getRecipeBook().getEntryList().removeListener(recipes);
+            model.getIngredientBook().getEntryList().removeListener(ingredients);
+            model.getObservableRecipeUsages().removeListener(recipeUsages);
+            model.getObservableIngredientUsages().removeListener(ingredientUsages);
+        }
+    }
+
+    /**
+     * Runs {@code action} without recording what it changes in the change being recorded on this thread, if any.
+     * This is for changes that a command makes on the side, which should not be undone along with it; since they
+     * are left out of the recorded change, they are not undone after a restart either.
+     */
+    public static void unrecorded(Runnable action) {
+        var wasPaused = isPaused.get();
+        isPaused.set(true);
+        try {
+            action.run();
+        } finally {
+            isPaused.set(wasPaused);
+        }
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+
+    public Part<Recipe> getRecipes() {
+        return this.recipes;
+    }
+
+    public Part<Ingredient> getIngredients() {
+        return this.ingredients;
+    }
+
+    public Part<RecipeUsage> getRecipeUsages() {
+        return this.recipeUsages;
+    }
+
+    public Part<IngredientUsage> getIngredientUsages() {
+        return this.ingredientUsages;
+    }
+
+    /**
+     * Returns true if nothing was changed.
+     */
+    public boolean isEmpty() {
+        return this.recipes.isEmpty() && this.ingredients.isEmpty() && this.recipeUsages.isEmpty()
+            && this.ingredientUsages.isEmpty();
+    }
+
+    /**
+     * Returns roughly how many bytes this change keeps in memory (see {@code SizeEstimator}).
+     */
+    public long estimateSize() {
+        return SizeEstimator.estimateRecipes(this.recipes.removed) + SizeEstimator.estimateRecipes(this.recipes.added)
+            + SizeEstimator.estimateIngredients(this.ingredients.removed)
+            + SizeEstimator.estimateIngredients(this.ingredients.added)
+            + SizeEstimator.estimateUsages(this.recipeUsages.removed)
+            + SizeEstimator.estimateUsages(this.recipeUsages.added)
+            + SizeEstimator.estimateUsages(this.ingredientUsages.removed)
+            + SizeEstimator.estimateUsages(this.ingredientUsages.added);
+    }
+
+    /**
+     * Returns true if the model still contains everything that this change added, so it can be undone.
+     */
+    public boolean canUndo(Model model) {
+        return this.canApply(model, /* undo: */ true);
+    }
+
+    /**
+     * Returns true if the model still contains everything that this change removed, so it can be redone.
+     */
+    public boolean canRedo(Model model) {
+        return this.canApply(model, /* undo: */ false);
+    }
+
+    /**
+     * Undoes this change, by removing what it added and adding back what it removed. This must only be done if
+     * {@link #canUndo(Model)}.
+     */
+    public void undo(Model model) {
+        this.apply(model, /* undo: */ true);
+    }
+
+    /**
+     * Redoes this change, by removing what it removed and adding back what it added. This must only be done if
+     * {@link #canRedo(Model)}.
+     */
+    public void redo(Model model) {
+        this.apply(model, /* undo: */ false);
+    }
+
+    private boolean canApply(Model model, boolean undo) {
+        return canReplace(this.recipes.from(undo), this.recipes.to(undo), model::findRecipeWithName)
+            && canReplace(this.ingredients.from(undo), this.ingredients.to(undo), model::findIngredientWithName)
+            && containsAll(model.getObservableRecipeUsages(), this.recipeUsages.from(undo))
+            && containsAll(model.getObservableIngredientUsages(), this.ingredientUsages.from(undo));
+    }
+
+    private void apply(Model model, boolean undo) {
+        model.startEditingRecipes();
+        try {
+            model.deleteRecipes(this.recipes.from(undo));
+            model.addRecipes(this.recipes.to(undo));
+        } finally {
+            model.finishEditingRecipes();
+        }
+
+        model.startEditingIngredients();
+        try {
+            model.deleteIngredients(this.ingredients.from(undo));
+            model.addIngredients(this.ingredients.to(undo));
+        } finally {
+            model.finishEditingIngredients();
+        }
+
+        this.recipeUsages.from(undo).forEach(model.getRecipeUsageList().getUsages()::remove);
+        this.recipeUsages.to(undo).forEach(model.getRecipeUsageList()::add);
+        this.ingredientUsages.from(undo).forEach(model.getIngredientUsageList().getUsages()::remove);
+        this.ingredientUsages.to(undo).forEach(model.getIngredientUsageList()::add);
+    }
+
+    /**
+     * Returns true if every entry in {@code from} is in the book, and every entry in {@code to} can be added once
+     * they are removed, ie. no other entry has the same name.
+     */
+    private static <T extends Entry> boolean canReplace(List<T> from, List<T> to,
+        Function<String, Optional<T>> find) {
+
+        return from.stream().allMatch(e -> find.apply(e.getName()).equals(Optional.of(e)))
+            && to.stream().allMatch(e -> find.apply(e.getName()).map(from::contains).orElse(true));
+    }
+
+    private static <T> boolean containsAll(List<T> list, List<T> items) {
+        // usages can repeat, so each one that is found can only be counted once.
+        var remaining = new ArrayList<>(list);
+        return items.stream().allMatch(remaining::remove);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (!(obj instanceof ModelChange)) {
+            return false;
+        }
+
+        var other = (ModelChange) obj;
+        return this.description.equals(other.description)
+            && this.recipes.equals(other.recipes)
+            && this.ingredients.equals(other.ingredients)
+            && this.recipeUsages.equals(other.recipeUsages)
+            && this.ingredientUsages.equals(other.ingredientUsages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.description, this.recipes, this.ingredients, this.recipeUsages,
+            this.ingredientUsages);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModelChange('%s')", this.description);
+    }
+
+    /**
+     * What a change removed from, and added to, one list of the model.
+     */
+    public static class Part<T> {
+        private final List<T> removed;
+        private final List<T> added;
+
+        /**
+         * Constructs a {@code Part} with the given removed and added items.
+         */
+        public Part(List<T> removed, List<T> added) {
+            requireAllNonNull(removed, added);
+            this.removed = Collections.unmodifiableList(new ArrayList<>(removed));
+            this.added = Collections.unmodifiableList(new ArrayList<>(added));
+        }
+
+        /**
+         * Returns a {@code Part} that changes nothing.
+         */
+        public static <T> Part<T> empty() {
+            return new Part<>(List.of(), List.of());
+        }
+
+        public List<T> getRemoved() {
+            return this.removed;
+        }
+
+        public List<T> getAdded() {
+            return this.added;
+        }
+
+        public boolean isEmpty() {
+            return this.removed.isEmpty() && this.added.isEmpty();
+        }
+
+        // what has to be taken out of the list to undo (or redo) the change, and what has to be put back.
+        List<T> from(boolean undo) {
+            return undo ? this.added : this.removed;
+        }
+
+        List<T> to(boolean undo) {
+            return undo ? this.removed : this.added;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || (obj instanceof Part<?>
+                && this.removed.equals(((Part<?>) obj).removed)
+                && this.added.equals(((Part<?>) obj).added));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.removed, this.added);
+        }
+    }
+
+    /**
+     * Collects the changes to a list, cancelling out items that were added and then removed again (or the other
+     * way around), so that only the net change is kept.
+     */
+    private static class Recorder<T> implements ListListener<T> {
+        private final List<T> removed = new ArrayList<>();
+        private final List<T> added = new ArrayList<>();
+
+        @Override
+        public void onChanged(List<? extends T> removed, List<? extends T> added) {
+            if (isPaused.get()) {
+                return;
+            }
+
+            for (var item : removed) {
+                if (!this.added.remove(item)) {
+                    this.removed.add(item);
+                }
+            }
+
+            for (var item : added) {
+                if (!this.removed.remove(item)) {
+                    this.added.add(item);
+                }
+            }
+        }
+
+        Part<T> toPart() {
+            return new Part<>(this.removed, this.added);
+        }
+    }
+}
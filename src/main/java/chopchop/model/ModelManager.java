@@ -5,20 +5,21 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
 import chopchop.commons.core.GuiSettings;
 import chopchop.commons.core.Log;
+import chopchop.commons.util.FilteredListView;
+import chopchop.commons.util.ListenableList;
 import chopchop.commons.util.Pair;
 import chopchop.model.ingredient.Ingredient;
 import chopchop.model.ingredient.IngredientReference;
 import chopchop.model.recipe.Recipe;
 import chopchop.model.usage.IngredientUsage;
 import chopchop.model.usage.RecipeUsage;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 
 /**
  * Represents the in-memory model of the recipe and ingredient book data.
@@ -29,11 +30,18 @@ public class ModelManager implements Model {
     private final UserPrefs userPrefs;
     private final EntryBook<Recipe> recipeBook;
     private final EntryBook<Ingredient> ingredientBook;
-    private final FilteredList<Recipe> filteredRecipes;
-    private final FilteredList<Ingredient> filteredIngredients;
+    private final FilteredListView<Recipe> filteredRecipes;
+    private final FilteredListView<Ingredient> filteredIngredients;
     private final UsageList<RecipeUsage> recipeUsageList;
     private final UsageList<IngredientUsage> ingredientUsageList;
 
+    // the last snapshot, and which of its lists are out of date; see snapshot(long).
+    private ModelSnapshot lastSnapshot = null;
+    private boolean recipesChanged = false;
+    private boolean ingredientsChanged = false;
+    private boolean recipeUsagesChanged = false;
+    private boolean ingredientUsagesChanged = false;
+
     /**
      * Initializes a ModelManager with the given RecipeBook, IngredientBook and userPrefs.
      */
@@ -50,13 +58,28 @@ public class ModelManager implements Model {
         this.userPrefs = new UserPrefs(userPrefs);
         this.recipeBook = new EntryBook<>(recipeBook);
         this.ingredientBook = new EntryBook<>(ingredientBook);
-        this.filteredRecipes = new FilteredList<>(this.recipeBook.getEntryList());
-        this.filteredIngredients = new FilteredList<>(this.ingredientBook.getEntryList());
+        this.filteredRecipes = new FilteredListView<>(this.recipeBook.getEntryList());
+        this.filteredIngredients = new FilteredListView<>(this.ingredientBook.getEntryList());
 
         this.recipeUsageList = recipeUsageList;
         this.ingredientUsageList = ingredientUsageList;
     }
 
+    /**
+     * Initializes a ModelManager that shares the data of the given snapshot (see {@link ModelSnapshot#toModel()}).
+     */
+    ModelManager(ModelSnapshot snapshot) {
+        this.userPrefs = snapshot.userPrefs;
+        this.recipeBook = snapshot.recipeBook;
+        this.ingredientBook = snapshot.ingredientBook;
+        this.filteredRecipes = FilteredListView.detached(this.recipeBook.getEntryList(), snapshot.recipeFilter);
+        this.filteredIngredients = FilteredListView.detached(this.ingredientBook.getEntryList(),
+            snapshot.ingredientFilter);
+
+        this.recipeUsageList = snapshot.recipeUsages;
+        this.ingredientUsageList = snapshot.ingredientUsages;
+    }
+
     /**
      * Constructs an empty {@code ModelManger}.
      */
@@ -125,6 +148,17 @@ public class ModelManager implements Model {
         this.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES);
     }
 
+    @Override
+    public void addRecipes(List<Recipe> recipes) {
+        this.recipeBook.addAll(recipes);
+        this.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES);
+    }
+
+    @Override
+    public void deleteRecipes(Collection<Recipe> recipes) {
+        this.recipeBook.removeAll(recipes);
+    }
+
     @Override
     public void setRecipe(Recipe target, Recipe editedRecipe) {
         requireAllNonNull(target, editedRecipe);
@@ -134,10 +168,17 @@ public class ModelManager implements Model {
 
     @Override
     public Optional<Recipe> findRecipeWithName(String name) {
-        return this.recipeBook.getEntryList()
-            .stream()
-            .filter(recipe -> recipe.getName().equalsIgnoreCase(name))
-            .findFirst();
+        return this.recipeBook.find(name);
+    }
+
+    @Override
+    public List<Recipe> findRecipesWithSimilarName(String name, int limit) {
+        return this.recipeBook.findSimilar(name, limit);
+    }
+
+    @Override
+    public List<String> findSimilarRecipeNameWords(String word) {
+        return this.recipeBook.findSimilarWords(word);
     }
 
     /**
@@ -145,14 +186,20 @@ public class ModelManager implements Model {
      * {@code versionedEntryBook<Recipe>}
      */
     @Override
-    public ObservableList<Recipe> getFilteredRecipeList() {
+    public ListenableList<Recipe> getFilteredRecipeList() {
         return this.filteredRecipes;
     }
 
     @Override
     public void updateFilteredRecipeList(Predicate<? super Recipe> predicate) {
         requireNonNull(predicate);
-        this.filteredRecipes.setPredicate(predicate);
+        this.filteredRecipes.setPredicate(predicate == PREDICATE_SHOW_ALL_ENTRIES ? null : predicate);
+    }
+
+    @Override
+    public Predicate<? super Recipe> getRecipeFilter() {
+        var predicate = this.filteredRecipes.getPredicate();
+        return predicate == null ? PREDICATE_SHOW_ALL_ENTRIES : predicate;
     }
 
     /**
@@ -198,6 +245,17 @@ public class ModelManager implements Model {
         this.updateFilteredIngredientList(PREDICATE_SHOW_ALL_ENTRIES);
     }
 
+    @Override
+    public void addIngredients(List<Ingredient> ingredients) {
+        this.ingredientBook.addAll(ingredients);
+        this.updateFilteredIngredientList(PREDICATE_SHOW_ALL_ENTRIES);
+    }
+
+    @Override
+    public void deleteIngredients(Collection<Ingredient> ingredients) {
+        this.ingredientBook.removeAll(ingredients);
+    }
+
     @Override
     public void setIngredient(Ingredient target, Ingredient editedIngredient) {
         requireAllNonNull(target, editedIngredient);
@@ -207,25 +265,86 @@ public class ModelManager implements Model {
 
     @Override
     public Optional<Ingredient> findIngredientWithName(String name) {
-        return this.ingredientBook.getEntryList()
-            .stream()
-            .filter(ingredient -> ingredient.getName().equalsIgnoreCase(name))
-            .findFirst();
+        return this.ingredientBook.find(name);
+    }
+
+    @Override
+    public List<Ingredient> findIngredientsWithSimilarName(String name, int limit) {
+        return this.ingredientBook.findSimilar(name, limit);
+    }
+
+    @Override
+    public List<String> findSimilarIngredientNameWords(String word) {
+        return this.ingredientBook.findSimilarWords(word);
     }
 
     /**
      * Returns an unmodifiable view of the list of {@code Ingredient} backed by the internal list of
-     * {@code FilteredList}
+     * {@code FilteredListView}
      */
     @Override
-    public ObservableList<Ingredient> getFilteredIngredientList() {
+    public ListenableList<Ingredient> getFilteredIngredientList() {
         return this.filteredIngredients;
     }
 
     @Override
     public void updateFilteredIngredientList(Predicate<? super Ingredient> predicate) {
         requireNonNull(predicate);
-        this.filteredIngredients.setPredicate(predicate);
+        this.filteredIngredients.setPredicate(predicate == PREDICATE_SHOW_ALL_ENTRIES ? null : predicate);
+    }
+
+    @Override
+    public Predicate<? super Ingredient> getIngredientFilter() {
+        var predicate = this.filteredIngredients.getPredicate();
+        return predicate == null ? PREDICATE_SHOW_ALL_ENTRIES : predicate;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the lists that changed since the last snapshot are copied; the rest are shared with it, so a snapshot
+     * after a command that only changed (say) the recipes, or only a filter, costs no more than that change.
+     */
+    @Override
+    public ModelSnapshot snapshot(long version) {
+        var last = this.lastSnapshot;
+        if (last == null) {
+            // only start tracking changes once snapshots are used, since the lists record their changes while
+            // anyone is listening.
+            this.recipeBook.getEntryList().addListener((removed, added) -> this.recipesChanged = true);
+            this.ingredientBook.getEntryList().addListener((removed, added) -> this.ingredientsChanged = true);
+            this.recipeUsageList.getUsages().addListener((removed, added) -> this.recipeUsagesChanged = true);
+            this.ingredientUsageList.getUsages().addListener((removed, added) -> this.ingredientUsagesChanged = true);
+        }
+
+        this.lastSnapshot = new ModelSnapshot(version,
+            last == null || this.recipesChanged ? new EntryBook<>(this.recipeBook) : last.recipeBook,
+            last == null || this.ingredientsChanged ? new EntryBook<>(this.ingredientBook) : last.ingredientBook,
+            last == null || this.recipeUsagesChanged
+                ? new UsageList<>(this.recipeUsageList.getUsageList())
+                : last.recipeUsages,
+            last == null || this.ingredientUsagesChanged
+                ? new UsageList<>(this.ingredientUsageList.getUsageList())
+                : last.ingredientUsages,
+            new UserPrefs(this.userPrefs), this.filteredRecipes.getPredicate(),
+            this.filteredIngredients.getPredicate());
+
+        this.recipesChanged = false;
+        this.ingredientsChanged = false;
+        this.recipeUsagesChanged = false;
+        this.ingredientUsagesChanged = false;
+
+        return this.lastSnapshot;
+    }
+
+    @Override
+    public void startEditingRecipes() {
+        this.recipeBook.startEditing();
+    }
+
+    @Override
+    public void finishEditingRecipes() {
+        this.recipeBook.finishEditing();
     }
 
     @Override
@@ -264,12 +383,12 @@ public class ModelManager implements Model {
     }
 
     @Override
-    public ObservableList<RecipeUsage> getObservableRecipeUsages() {
+    public ListenableList<RecipeUsage> getObservableRecipeUsages() {
         return this.recipeUsageList.getUsages();
     }
 
     @Override
-    public ObservableList<IngredientUsage> getObservableIngredientUsages() {
+    public ListenableList<IngredientUsage> getObservableIngredientUsages() {
         return this.ingredientUsageList.getUsages();
     }
 
@@ -0,0 +1,63 @@
+// ModelSnapshot.java
+
+package chopchop.model;
+
+import java.util.function.Predicate;
+
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * An immutable copy of the state of a model at some point, so that read-only commands can run against a consistent
+ * state on other threads, without waiting for (or seeing half of) the commands that change the model. Snapshots
+ * are numbered by whoever publishes them, so that it is possible to tell which state a command saw.
+ *
+ * Entries are immutable, so a snapshot only copies the lists that hold them, not the entries themselves; and
+ * lists that did not change since the previous snapshot are not copied at all, but shared with it (see
+ * {@link ModelManager#snapshot(long)}).
+ */
+public class ModelSnapshot {
+    // none of these are ever changed once the snapshot is made.
+    final EntryBook<Recipe> recipeBook;
+    final EntryBook<Ingredient> ingredientBook;
+    final UsageList<RecipeUsage> recipeUsages;
+    final UsageList<IngredientUsage> ingredientUsages;
+    final UserPrefs userPrefs;
+    final Predicate<? super Recipe> recipeFilter;
+    final Predicate<? super Ingredient> ingredientFilter;
+
+    private final long version;
+
+    /**
+     * Constructs a {@code ModelSnapshot} of the given data, which must already be copies that nobody will change.
+     */
+    ModelSnapshot(long version, EntryBook<Recipe> recipeBook, EntryBook<Ingredient> ingredientBook,
+        UsageList<RecipeUsage> recipeUsages, UsageList<IngredientUsage> ingredientUsages,
+        UserPrefs userPrefs, Predicate<? super Recipe> recipeFilter,
+        Predicate<? super Ingredient> ingredientFilter) {
+
+        this.version = version;
+        this.recipeBook = recipeBook;
+        this.ingredientBook = ingredientBook;
+        this.recipeUsages = recipeUsages;
+        this.ingredientUsages = ingredientUsages;
+        this.userPrefs = userPrefs;
+        this.recipeFilter = recipeFilter;
+        this.ingredientFilter = ingredientFilter;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns a model of this snapshot, for a read-only command to run against. The model's lists can be filtered
+     * without affecting the snapshot (or any other model of it), but its data must not be changed. Making one
+     * does not copy the data, so this can be done for every command.
+     */
+    public Model toModel() {
+        return new ModelManager(this);
+    }
+}
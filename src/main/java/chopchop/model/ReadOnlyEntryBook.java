@@ -1,6 +1,6 @@
 package chopchop.model;
 
-import javafx.collections.ObservableList;
+import chopchop.commons.util.ListenableList;
 
 /**
  * Unmodifiable view of an entry book
@@ -10,5 +10,5 @@ public interface ReadOnlyEntryBook<T extends Entry> {
      * Returns an unmodifiable view of the entries list.
      * This list will not contain any duplicate entries.
      */
-    ObservableList<T> getEntryList();
+    ListenableList<T> getEntryList();
 }
@@ -17,4 +17,24 @@ public interface ReadOnlyUserPrefs {
     Path getRecipeUsageFilePath();
 
     Path getIngredientUsageFilePath();
+
+    boolean isUsingBinarySnapshots();
+
+    boolean isCompressingDataFiles();
+
+    int getRecipeBookSegmentCount();
+
+    boolean isWatchingDataFiles();
+
+    int getBackupIntervalMinutes();
+
+    int getBackupRetention();
+
+    String getActiveWorkspace();
+
+    int getWorkspaceCacheMegabytes();
+
+    int getArchiveAfterDays();
+
+    int getUndoHistoryMegabytes();
 }
@@ -3,14 +3,26 @@ package chopchop.model;
 import static chopchop.commons.util.CollectionUtil.requireAllNonNull;
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-import chopchop.commons.util.BulkEditableObservableList;
+import chopchop.commons.util.BkTree;
+import chopchop.commons.util.BulkEditableList;
+import chopchop.commons.util.ListenableList;
+import chopchop.commons.util.Pair;
+import chopchop.commons.util.StringUtil;
 import chopchop.model.exceptions.DuplicateEntryException;
 import chopchop.model.exceptions.EntryNotFoundException;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 
 /**
  * A list of entries that enforces uniqueness between its elements and does not allow nulls.
@@ -19,20 +31,139 @@ import javafx.collections.ObservableList;
  * unique in terms of identity in the UniqueEntryList. However, the removal of an entry uses Entry#equals(Object) so
  * as to ensure that the entry with exactly the same fields will be removed.
  *
+ * Since entries are the same iff their (case-insensitive) names are, the list also keeps an index of the entries
+ * by name, so that checking for and finding entries does not need to search the whole list. Entries can also be
+ * found by a misspelt name, through a BK-tree of the words in their names.
+ *
  * Supports a minimal set of list operations.
  *
  * @see Entry#isSame(Entry)
  */
 public class UniqueEntryList<T extends Entry> implements Iterable<T> {
-    private final BulkEditableObservableList<T> internalList = new BulkEditableObservableList<>();
-    private final ObservableList<T> immutList = FXCollections.unmodifiableObservableList(internalList);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final BulkEditableList<T> internalList = new BulkEditableList<>();
+    private final ListenableList<T> immutList = internalList.asUnmodifiableList();
+
+    // this is keyed by the lowercased name of each entry.
+    private final Map<String, T> nameIndex = new HashMap<>();
+
+    // the (lowercased) words in the names of the entries, and the entries (by key) with each of them, for finding
+    // entries by a misspelt name. these are only built when first needed, and are kept up to date from then on.
+    private BkTree similarWords = null;
+    private Map<String, List<String>> wordIndex = null;
 
     /**
      * Returns true if the list contains an equivalent entry as the given argument.
      */
     public boolean contains(T toCheck) {
         requireNonNull(toCheck);
-        return this.internalList.stream().anyMatch(toCheck::isSame);
+        return this.nameIndex.containsKey(key(toCheck));
+    }
+
+    /**
+     * Returns the entry in the list with the given name (case-insensitively), if there is one.
+     */
+    public Optional<T> find(String name) {
+        requireNonNull(name);
+        return Optional.ofNullable(this.nameIndex.get(name.toLowerCase()));
+    }
+
+    /**
+     * Returns at most {@code limit} entries whose names are similar to the given name (ignoring case), closest
+     * (by edit distance) first. These are found through their words: an entry is similar if it has a word within
+     * a few typos of each of the given words, or if it has one for any of them and its whole name is within a few
+     * typos of the given name. An entry with exactly the given name is included.
+     */
+    public synchronized List<T> findSimilar(String name, int limit) {
+        requireNonNull(name);
+        this.buildSimilarIndex();
+
+        var key = name.toLowerCase();
+        var words = words(key);
+
+        // the number of the given words that each entry has a similar word for.
+        var matches = new HashMap<String, Integer>();
+        for (var word : words) {
+            var found = new HashSet<String>();
+            for (var similar : this.similarWords.search(word, StringUtil.getTypoTolerance(word))) {
+                found.addAll(this.wordIndex.get(similar.fst()));
+            }
+            found.forEach(k -> matches.merge(k, 1, Integer::sum));
+        }
+
+        var tolerance = StringUtil.getTypoTolerance(key);
+        return matches.entrySet().stream()
+            .map(match -> Pair.of(match, StringUtil.getEditDistance(key, match.getKey())))
+            .filter(p -> p.snd() <= tolerance || p.fst().getValue() == words.size())
+            .sorted(Comparator.comparing((Pair<Map.Entry<String, Integer>, Integer> p) -> p.snd())
+                .thenComparing(p -> p.fst().getKey()))
+            .limit(limit)
+            .map(p -> this.nameIndex.get(p.fst().getKey()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the (lowercased) words in the names of the entries that are within a few typos of the given word
+     * (ignoring case), closest first. The word itself is included if it is in any name.
+     */
+    public synchronized List<String> findSimilarWords(String word) {
+        requireNonNull(word);
+        this.buildSimilarIndex();
+
+        var key = word.toLowerCase();
+        return this.similarWords.search(key, StringUtil.getTypoTolerance(key)).stream()
+            .map(Pair::fst)
+            .collect(Collectors.toList());
+    }
+
+    private static String key(Entry entry) {
+        return entry.getName().toLowerCase();
+    }
+
+    private static List<String> words(String name) {
+        return Arrays.stream(WHITESPACE.split(name))
+            .filter(w -> !w.isEmpty())
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    private void buildSimilarIndex() {
+        if (this.similarWords != null) {
+            return;
+        }
+
+        this.similarWords = new BkTree();
+        this.wordIndex = new HashMap<>();
+        this.nameIndex.keySet().forEach(this::addSimilar);
+    }
+
+    private synchronized void updateSimilarIndex(Collection<T> removed, Collection<T> added) {
+        if (this.similarWords == null) {
+            return;
+        }
+
+        for (var entry : removed) {
+            var key = key(entry);
+            for (var word : words(key)) {
+                this.similarWords.remove(word);
+                this.wordIndex.computeIfPresent(word, (w, keys) -> keys.remove(key) && keys.isEmpty() ? null : keys);
+            }
+        }
+
+        added.forEach(entry -> this.addSimilar(key(entry)));
+    }
+
+    private void addSimilar(String key) {
+        for (var word : words(key)) {
+            this.similarWords.add(word);
+            this.wordIndex.computeIfAbsent(word, w -> new ArrayList<>(1)).add(key);
+        }
+    }
+
+    private synchronized void clearSimilarIndex() {
+        this.similarWords = null;
+        this.wordIndex = null;
     }
 
     /**
@@ -45,6 +176,27 @@ public class UniqueEntryList<T extends Entry> implements Iterable<T> {
             throw new DuplicateEntryException();
         }
         this.internalList.add(toAdd);
+        this.nameIndex.put(key(toAdd), toAdd);
+        this.updateSimilarIndex(List.of(), List.of(toAdd));
+    }
+
+    /**
+     * Adds all of the given entries to the end of the list, in order.
+     * None of the entries may already exist in the list, nor may any two of them be the same.
+     */
+    public void addAll(List<T> toAdd) {
+        requireAllNonNull(toAdd);
+
+        var names = new HashSet<String>();
+        for (var entry : toAdd) {
+            if (this.nameIndex.containsKey(key(entry)) || !names.add(key(entry))) {
+                throw new DuplicateEntryException();
+            }
+        }
+
+        this.internalList.addAll(toAdd);
+        toAdd.forEach(x -> this.nameIndex.put(key(x), x));
+        this.updateSimilarIndex(List.of(), toAdd);
     }
 
     /**
@@ -65,6 +217,9 @@ public class UniqueEntryList<T extends Entry> implements Iterable<T> {
         }
 
         this.internalList.set(index, replacement);
+        this.nameIndex.remove(key(target));
+        this.nameIndex.put(key(replacement), replacement);
+        this.updateSimilarIndex(List.of(target), List.of(replacement));
     }
 
     /**
@@ -76,11 +231,36 @@ public class UniqueEntryList<T extends Entry> implements Iterable<T> {
         if (!this.internalList.remove(toRemove)) {
             throw new EntryNotFoundException();
         }
+        this.nameIndex.remove(key(toRemove));
+        this.updateSimilarIndex(List.of(toRemove), List.of());
+    }
+
+    /**
+     * Removes all of the given entries from the list. Every entry must exist in the list; if any does not, the
+     * list is left unchanged.
+     */
+    public void removeAll(Collection<T> toRemove) {
+        requireAllNonNull(toRemove);
+
+        // entries are unique by name, so the only entry that could be equal to each one is the indexed one.
+        var entries = new HashSet<>(toRemove);
+        for (var entry : entries) {
+            if (!entry.equals(this.nameIndex.get(key(entry)))) {
+                throw new EntryNotFoundException();
+            }
+        }
+
+        this.internalList.removeAll(entries);
+        entries.forEach(x -> this.nameIndex.remove(key(x), x));
+        this.updateSimilarIndex(entries, List.of());
     }
 
     public void setAll(UniqueEntryList<T> replacement) {
         requireNonNull(replacement);
         this.internalList.setAll(replacement.internalList);
+        this.nameIndex.clear();
+        this.nameIndex.putAll(replacement.nameIndex);
+        this.clearSimilarIndex();
     }
 
     /**
@@ -94,12 +274,15 @@ public class UniqueEntryList<T extends Entry> implements Iterable<T> {
         }
 
         this.internalList.setAll(entries);
+        this.nameIndex.clear();
+        entries.forEach(x -> this.nameIndex.put(key(x), x));
+        this.clearSimilarIndex();
     }
 
     /**
-     * Returns the backing list as an unmodifiable {@code ObservableList}.
+     * Returns the backing list as an unmodifiable {@code ListenableList}.
      */
-    public ObservableList<T> asUnmodifiableObservableList() {
+    public ListenableList<T> asUnmodifiableList() {
         return this.immutList;
     }
 
@@ -140,13 +323,7 @@ public class UniqueEntryList<T extends Entry> implements Iterable<T> {
      * Returns true if {@code entries} contains only unique entries.
      */
     private boolean entriesAreUnique(List<T> entries) {
-        for (int i = 0; i < entries.size() - 1; i++) {
-            for (int j = i + 1; j < entries.size(); j++) {
-                if (entries.get(i).isSame(entries.get(j))) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        var names = new HashSet<String>();
+        return entries.stream().allMatch(x -> names.add(key(x)));
     }
 }
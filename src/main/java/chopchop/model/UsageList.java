@@ -9,14 +9,14 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import chopchop.commons.util.BulkEditableList;
+import chopchop.commons.util.ListenableList;
 import chopchop.commons.util.Pair;
 import chopchop.model.exceptions.EntryNotFoundException;
 import chopchop.model.usage.Usage;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 
 public class UsageList<T extends Usage> {
-    private final ObservableList<T> usages = FXCollections.observableArrayList();
+    private final BulkEditableList<T> usages = new BulkEditableList<>();
     private final Comparator<T> comparator = new Comparator<T>() {
         @Override
         public int compare(final T o1, final T o2) {
@@ -40,7 +40,7 @@ public class UsageList<T extends Usage> {
         this.usages.setAll(usages);
     }
 
-    public ObservableList<T> getUsages() {
+    public ListenableList<T> getUsages() {
         return this.usages;
     }
 
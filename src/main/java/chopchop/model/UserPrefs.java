@@ -46,6 +46,31 @@ public class UserPrefs implements ReadOnlyUserPrefs {
     private PathWithFallback ingredientUsageFilePath = new PathWithFallback(
         Paths.get("data" , "ingredientusage.json"));
 
+    // if set, the data files are stored as binary snapshots (next to the json paths above) instead of json.
+    private boolean useBinarySnapshots = false;
+
+    // if set, the json data files are saved with gzip compression. either kind of file can always be read.
+    private boolean compressDataFiles = false;
+
+    // if positive, the recipe book is split into this many segment files (see ShardedRecipeBookStorage).
+    private int recipeBookSegmentCount = 0;
+
+    // if set, the data files are watched for changes made outside the app, which are merged into the model.
+    private boolean watchDataFiles = true;
+
+    // how often the data directory is backed up automatically (0 to disable), and how many backups are kept.
+    private int backupIntervalMinutes = 60;
+    private int backupRetention = 20;
+
+    // the workspace that was last used, and roughly how much memory inactive workspaces may be cached in.
+    private String activeWorkspace = "default";
+    private int workspaceCacheMegabytes = 64;
+
+    // recipes that were last made more than this many days ago are moved to the archive (0 to disable).
+    private int archiveAfterDays = 365;
+
+    // roughly how much memory the undo history may use; the oldest commands are dropped past this.
+    private int undoHistoryMegabytes = 16;
 
     /**
      * Creates a {@code UserPrefs} with default values.
@@ -70,6 +95,16 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         this.setRecipeUsageFilePath(newUserPrefs.getRecipeUsageFilePath());
         this.setIngredientBookFilePath(newUserPrefs.getIngredientBookFilePath());
         this.setIngredientUsageFilePath(newUserPrefs.getIngredientUsageFilePath());
+        this.setUsingBinarySnapshots(newUserPrefs.isUsingBinarySnapshots());
+        this.setCompressingDataFiles(newUserPrefs.isCompressingDataFiles());
+        this.setRecipeBookSegmentCount(newUserPrefs.getRecipeBookSegmentCount());
+        this.setWatchingDataFiles(newUserPrefs.isWatchingDataFiles());
+        this.setBackupIntervalMinutes(newUserPrefs.getBackupIntervalMinutes());
+        this.setBackupRetention(newUserPrefs.getBackupRetention());
+        this.setActiveWorkspace(newUserPrefs.getActiveWorkspace());
+        this.setWorkspaceCacheMegabytes(newUserPrefs.getWorkspaceCacheMegabytes());
+        this.setArchiveAfterDays(newUserPrefs.getArchiveAfterDays());
+        this.setUndoHistoryMegabytes(newUserPrefs.getUndoHistoryMegabytes());
     }
 
     @Override
@@ -102,6 +137,97 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         return this.ingredientUsageFilePath.get();
     }
 
+    @Override
+    public boolean isUsingBinarySnapshots() {
+        return this.useBinarySnapshots;
+    }
+
+    public void setUsingBinarySnapshots(boolean useBinarySnapshots) {
+        this.useBinarySnapshots = useBinarySnapshots;
+    }
+
+    @Override
+    public boolean isCompressingDataFiles() {
+        return this.compressDataFiles;
+    }
+
+    public void setCompressingDataFiles(boolean compressDataFiles) {
+        this.compressDataFiles = compressDataFiles;
+    }
+
+    @Override
+    public int getRecipeBookSegmentCount() {
+        return this.recipeBookSegmentCount;
+    }
+
+    public void setRecipeBookSegmentCount(int recipeBookSegmentCount) {
+        this.recipeBookSegmentCount = recipeBookSegmentCount;
+    }
+
+    @Override
+    public boolean isWatchingDataFiles() {
+        return this.watchDataFiles;
+    }
+
+    public void setWatchingDataFiles(boolean watchDataFiles) {
+        this.watchDataFiles = watchDataFiles;
+    }
+
+    @Override
+    public int getBackupIntervalMinutes() {
+        return this.backupIntervalMinutes;
+    }
+
+    public void setBackupIntervalMinutes(int backupIntervalMinutes) {
+        this.backupIntervalMinutes = backupIntervalMinutes;
+    }
+
+    @Override
+    public int getBackupRetention() {
+        return this.backupRetention;
+    }
+
+    public void setBackupRetention(int backupRetention) {
+        this.backupRetention = backupRetention;
+    }
+
+    @Override
+    public String getActiveWorkspace() {
+        return this.activeWorkspace;
+    }
+
+    public void setActiveWorkspace(String activeWorkspace) {
+        requireNonNull(activeWorkspace);
+        this.activeWorkspace = activeWorkspace;
+    }
+
+    @Override
+    public int getWorkspaceCacheMegabytes() {
+        return this.workspaceCacheMegabytes;
+    }
+
+    public void setWorkspaceCacheMegabytes(int workspaceCacheMegabytes) {
+        this.workspaceCacheMegabytes = workspaceCacheMegabytes;
+    }
+
+    @Override
+    public int getArchiveAfterDays() {
+        return this.archiveAfterDays;
+    }
+
+    public void setArchiveAfterDays(int archiveAfterDays) {
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    @Override
+    public int getUndoHistoryMegabytes() {
+        return this.undoHistoryMegabytes;
+    }
+
+    public void setUndoHistoryMegabytes(int undoHistoryMegabytes) {
+        this.undoHistoryMegabytes = undoHistoryMegabytes;
+    }
+
     public void setIngredientBookFilePath(Path path) {
         requireNonNull(path);
         this.ingredientBookFilePath = validateOrRectifyPath(path);
@@ -211,12 +337,25 @@ public class UserPrefs implements ReadOnlyUserPrefs {
 
         return this.guiSettings.equals(o.guiSettings)
             && this.ingredientBookFilePath.equals(o.ingredientBookFilePath)
-            && this.recipeBookFilePath.equals(o.recipeBookFilePath);
+            && this.recipeBookFilePath.equals(o.recipeBookFilePath)
+            && this.useBinarySnapshots == o.useBinarySnapshots
+            && this.compressDataFiles == o.compressDataFiles
+            && this.recipeBookSegmentCount == o.recipeBookSegmentCount
+            && this.watchDataFiles == o.watchDataFiles
+            && this.backupIntervalMinutes == o.backupIntervalMinutes
+            && this.backupRetention == o.backupRetention
+            && this.activeWorkspace.equals(o.activeWorkspace)
+            && this.workspaceCacheMegabytes == o.workspaceCacheMegabytes
+            && this.archiveAfterDays == o.archiveAfterDays
+            && this.undoHistoryMegabytes == o.undoHistoryMegabytes;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.guiSettings, this.ingredientBookFilePath, this.recipeBookFilePath);
+        return Objects.hash(this.guiSettings, this.ingredientBookFilePath, this.recipeBookFilePath,
+            this.useBinarySnapshots, this.compressDataFiles, this.recipeBookSegmentCount, this.watchDataFiles,
+            this.backupIntervalMinutes, this.backupRetention, this.activeWorkspace, this.workspaceCacheMegabytes,
+            this.archiveAfterDays, this.undoHistoryMegabytes);
     }
 
     @Override
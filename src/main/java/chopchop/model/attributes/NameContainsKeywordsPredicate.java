@@ -1,7 +1,9 @@
 package chopchop.model.attributes;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import chopchop.commons.util.StringUtil;
@@ -21,6 +23,20 @@ public class NameContainsKeywordsPredicate implements Predicate<Entry> {
         return new ArrayList<>(this.keywords);
     }
 
+    /**
+     * Returns a predicate that also matches the similar words of each keyword, as given by {@code findSimilar}
+     * (eg. the words in entry names that are within a few typos of it), for a search that tolerates misspellings.
+     */
+    public NameContainsKeywordsPredicate withSimilarWords(Function<String, List<String>> findSimilar) {
+        var words = new LinkedHashSet<String>();
+        for (var keyword : this.keywords) {
+            words.add(keyword);
+            words.addAll(findSimilar.apply(keyword));
+        }
+
+        return new NameContainsKeywordsPredicate(new ArrayList<>(words));
+    }
+
     @Override
     public boolean test(Entry entry) {
         return this.keywords.stream()
@@ -11,6 +11,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -22,7 +23,7 @@ import chopchop.model.ingredient.IngredientReference;
 
 public class Recipe extends Entry {
     private final List<IngredientReference> ingredients;
-    private final List<Step> steps;
+    private final Supplier<List<Step>> steps;
     private final Set<Tag> tags;
 
     /**
@@ -32,7 +33,21 @@ public class Recipe extends Entry {
         super(name);
         requireAllNonNull(name, ingredients, steps, tags);
         this.ingredients = new ArrayList<>(ingredients);
-        this.steps = new ArrayList<>(steps);
+        this.tags = new HashSet<>(tags);
+
+        var stepList = Collections.unmodifiableList(new ArrayList<>(steps));
+        this.steps = () -> stepList;
+    }
+
+    /**
+     * Constructs a recipe whose steps are only loaded when they are first needed, ie. when {@code getSteps()}
+     * is called. The supplier may be called any number of times, and must always return the same steps.
+     */
+    public Recipe(String name, List<IngredientReference> ingredients, Supplier<List<Step>> steps, Set<Tag> tags) {
+        super(name);
+        requireAllNonNull(name, ingredients, steps, tags);
+        this.ingredients = new ArrayList<>(ingredients);
+        this.steps = steps;
         this.tags = new HashSet<>(tags);
     }
 
@@ -49,7 +64,15 @@ public class Recipe extends Entry {
      * if modification is attempted.
      */
     public List<Step> getSteps() {
-        return Collections.unmodifiableList(this.steps);
+        return Collections.unmodifiableList(this.steps.get());
+    }
+
+    /**
+     * Returns the supplier of this recipe's steps; this is used by storage to tell whether the steps were
+     * lazily loaded, and from where.
+     */
+    public Supplier<List<Step>> getStepSource() {
+        return this.steps;
     }
 
     public Set<Tag> getTags() {
@@ -74,13 +97,20 @@ public class Recipe extends Entry {
             || (other instanceof Recipe
             && this.name.equals(((Recipe) other).name)
             && this.ingredients.equals(((Recipe) other).ingredients)
-            && this.steps.equals(((Recipe) other).steps))
-            && this.tags.equals(((Recipe) other).tags);
+            && this.tags.equals(((Recipe) other).tags)
+            && this.stepsEqual((Recipe) other));
+    }
+
+    private boolean stepsEqual(Recipe other) {
+        // avoid loading the steps if both recipes share the same source.
+        return this.steps == other.steps
+            || this.getSteps().equals(other.getSteps());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, ingredients, steps, tags);
+        // the steps are left out so that hashing a recipe does not force them to be loaded.
+        return Objects.hash(name, ingredients, tags);
     }
 
     @Override
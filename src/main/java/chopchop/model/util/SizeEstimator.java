@@ -0,0 +1,66 @@
+// SizeEstimator.java
+
+package chopchop.model.util;
+
+import java.util.Collection;
+
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.Usage;
+
+/**
+ * Estimates how much memory entries use, for the caches and histories that keep them within a budget. The
+ * estimates do not need to be accurate, only proportional to the real sizes, so that a budget means roughly the
+ * same thing for data of different shapes. Recipe steps may not be loaded yet, so they are not looked at.
+ */
+public final class SizeEstimator {
+
+    private SizeEstimator() {
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the given recipe.
+     */
+    public static long estimate(Recipe recipe) {
+        return 768 + 2 * recipe.getName().length()
+            + recipe.getIngredients().stream().mapToLong(x -> 96 + 2 * x.getName().length()).sum()
+            + recipe.getTags().stream().mapToLong(x -> 64 + 2 * x.toString().length()).sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the given ingredient.
+     */
+    public static long estimate(Ingredient ingredient) {
+        return 192 + 2 * ingredient.getName().length()
+            + 96 * ingredient.getIngredientSets().size()
+            + ingredient.getTags().stream().mapToLong(x -> 64 + 2 * x.toString().length()).sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the given usage.
+     */
+    public static long estimate(Usage usage) {
+        return 128 + 2 * usage.getName().length();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by all of the given recipes.
+     */
+    public static long estimateRecipes(Collection<? extends Recipe> recipes) {
+        return recipes.stream().mapToLong(SizeEstimator::estimate).sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by all of the given ingredients.
+     */
+    public static long estimateIngredients(Collection<? extends Ingredient> ingredients) {
+        return ingredients.stream().mapToLong(SizeEstimator::estimate).sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by all of the given usages.
+     */
+    public static long estimateUsages(Collection<? extends Usage> usages) {
+        return usages.stream().mapToLong(SizeEstimator::estimate).sum();
+    }
+}
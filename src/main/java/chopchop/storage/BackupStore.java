@@ -0,0 +1,571 @@
+// BackupStore.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.commons.util.Pair;
+
+/**
+ * Stores incremental, deduplicated backups of a directory. Each file is split into chunks at content-defined
+ * boundaries (so that an edit in the middle of a file only changes the chunks around it), and each chunk is
+ * stored once, named by its SHA-256 hash, no matter how many files or backups contain it. A backup (a
+ * "generation") is then just a manifest listing the chunks of each file, so backing up a directory where little
+ * has changed only writes the new chunks and the manifest.
+ *
+ * The store is laid out as follows:
+ * {@code generations/N.json} -- the manifest of generation N
+ * {@code chunks/ab/abcd...}  -- the (gzipped) chunk with the hash abcd...
+ *
+ * Only the files that belong in a backup are backed up: the store itself, temporary files, and any directories it
+ * was told to exclude (such as the logs, which change on every run) are left out. Restoring only overwrites the
+ * files in the generation, and never deletes any others.
+ *
+ * Chunks are written before the manifest that refers to them, and unreferenced chunks are only removed by
+ * {@link #prune(int)}, so an interrupted backup never leaves a generation that can't be restored. This class is
+ * not thread-safe; all operations on one store should happen on the same thread.
+ */
+public class BackupStore {
+    public static final String DIRECTORY_NAME = "backups";
+    public static final int SCHEMA_VERSION = 1;
+
+    // chunks are at least MIN_CHUNK_SIZE bytes, at most MAX_CHUNK_SIZE, and average around 8 kb (+ the minimum).
+    static final int MIN_CHUNK_SIZE = 2 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final long BOUNDARY_MASK = 0x1fffL << 51;
+
+    private static final String GENERATIONS_DIRECTORY = "generations";
+    private static final String CHUNKS_DIRECTORY = "chunks";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    // the table for the gear hash. it needs to be random-looking, but also the same on every run, or files
+    // would be split differently each time, and nothing would be deduplicated.
+    private static final long[] GEAR = new SplittableRandom(0x43686f7043686f70L).longs(256).toArray();
+
+    private static final Log logger = new Log(BackupStore.class);
+
+    private final Path root;
+    private final List<Path> excluded;
+
+    /**
+     * Constructs a {@code BackupStore} in the directory {@code root}, which is created when it is first needed.
+     */
+    public BackupStore(Path root) {
+        this(root, List.of());
+    }
+
+    /**
+     * Constructs a {@code BackupStore} in the directory {@code root}, which never backs up the files in the
+     * {@code excluded} directories.
+     */
+    public BackupStore(Path root, List<Path> excluded) {
+        this.root = root;
+        this.excluded = excluded.stream()
+            .map(p -> p.toAbsolutePath().normalize())
+            .collect(Collectors.toList());
+    }
+
+    public Path getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns all the generations in the store, oldest first. Generations whose manifests can't be read are
+     * skipped.
+     */
+    public List<Generation> getGenerations() throws IOException {
+        var generations = new ArrayList<Generation>();
+        for (var number : this.getGenerationNumbers()) {
+            try {
+                generations.add(this.readManifest(number).toGeneration(number));
+            } catch (DataConversionException e) {
+                logger.warn("Skipping unreadable backup manifest %d: %s", number, e);
+            }
+        }
+
+        return generations;
+    }
+
+    /**
+     * Backs up every file in {@code sourceDirectory} (except for this store and the excluded directories, if
+     * they are inside, and temporary files) as a new generation. If nothing has changed since the latest
+     * generation, no new one is made.
+     *
+     * @return the new generation (or the latest one, if nothing changed), and whether it is new.
+     */
+    public Pair<Generation, Boolean> backup(Path sourceDirectory) throws IOException {
+        var numbers = this.getGenerationNumbers();
+        var files = new ArrayList<JsonBackupFile>();
+        long addedSize = 0;
+
+        for (var file : this.listFiles(sourceDirectory)) {
+            byte[] contents;
+            try {
+                contents = Files.readAllBytes(file);
+            } catch (NoSuchFileException e) {
+                // deleted while we were looking at the directory; it's not part of this backup then.
+                continue;
+            }
+
+            var chunks = new ArrayList<String>();
+            int start = 0;
+            for (var end : findChunkEnds(contents)) {
+                var hash = hash(contents, start, end);
+                if (this.writeChunk(hash, contents, start, end)) {
+                    addedSize += end - start;
+                }
+
+                chunks.add(hash);
+                start = end;
+            }
+
+            files.add(new JsonBackupFile(toRelativeName(sourceDirectory, file), (long) contents.length, chunks));
+        }
+
+        if (!numbers.isEmpty()) {
+            var latest = numbers.get(numbers.size() - 1);
+            try {
+                var manifest = this.readManifest(latest);
+                if (files.equals(manifest.files)) {
+                    return Pair.of(manifest.toGeneration(latest), false);
+                }
+            } catch (DataConversionException e) {
+                logger.warn("Could not read backup manifest %d; making a new backup: %s", latest, e);
+            }
+        }
+
+        var number = numbers.isEmpty() ? 1 : numbers.get(numbers.size() - 1) + 1;
+        var manifest = new JsonBackupManifest(SCHEMA_VERSION, Instant.now().toString(), addedSize, files);
+
+        var path = this.getManifestPath(number);
+        var temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        FileUtil.createParentDirsOfFile(path);
+        JsonUtil.saveJsonFile(manifest, temp);
+        FileUtil.replaceFile(temp, path);
+
+        return Pair.of(manifest.toGeneration(number), true);
+    }
+
+    /**
+     * Restores generation {@code number} into {@code targetDirectory}, replacing the files in the generation.
+     * Files that are not in the generation are left alone, since they may not be ChopChop's (and the data files
+     * never refer to them). Every file is reassembled and checked before any existing file is replaced, so a
+     * missing or corrupted chunk leaves the directory untouched.
+     *
+     * @return the restored generation.
+     * @throws IOException if the generation does not exist, or could not be restored.
+     */
+    public Generation restore(int number, Path targetDirectory) throws IOException {
+        if (!Files.exists(this.getManifestPath(number))) {
+            throw new IOException(String.format("Backup %d does not exist", number));
+        }
+
+        JsonBackupManifest manifest;
+        try {
+            manifest = this.readManifest(number);
+        } catch (DataConversionException e) {
+            throw new IOException(String.format("Backup %d is corrupted", number), e);
+        }
+
+        var staged = new HashMap<Path, Path>();
+        try {
+            for (var file : manifest.files) {
+                var target = resolveRelativeName(targetDirectory, file.path);
+                var temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+                FileUtil.createParentDirsOfFile(temp);
+
+                staged.put(target, temp);
+                this.assemble(file, temp);
+            }
+
+            for (var entry : staged.entrySet()) {
+                FileUtil.replaceFile(entry.getValue(), entry.getKey());
+            }
+        } finally {
+            for (var temp : staged.values()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        return manifest.toGeneration(number);
+    }
+
+    /**
+     * Removes all but the latest {@code keep} generations, and then any chunks that are no longer used by any
+     * generation.
+     *
+     * @return the number of generations removed.
+     */
+    public int prune(int keep) throws IOException {
+        var numbers = this.getGenerationNumbers();
+        var removed = 0;
+
+        for (int i = 0; i < numbers.size() - Math.max(keep, 0); i++) {
+            Files.deleteIfExists(this.getManifestPath(numbers.get(i)));
+            removed += 1;
+        }
+
+        var used = new HashSet<String>();
+        for (var number : this.getGenerationNumbers()) {
+            try {
+                this.readManifest(number).files.forEach(f -> used.addAll(f.chunks));
+            } catch (DataConversionException e) {
+                // we can't tell which chunks it needs, so keep all of them.
+                logger.warn("Not removing unused backup chunks, since manifest %d is unreadable: %s", number, e);
+                return removed;
+            }
+        }
+
+        var chunksDirectory = this.root.resolve(CHUNKS_DIRECTORY);
+        if (Files.isDirectory(chunksDirectory)) {
+            try (var stream = Files.walk(chunksDirectory)) {
+                for (var chunk : stream.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    if (!used.contains(chunk.getFileName().toString())) {
+                        Files.deleteIfExists(chunk);
+                    }
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Returns the end offsets of the chunks that {@code data} is split into. The boundaries are found with a
+     * gear hash (a rolling hash over roughly the last 64 bytes), so they only depend on the nearby contents,
+     * and the same data is split the same way regardless of where it is in the file.
+     */
+    static List<Integer> findChunkEnds(byte[] data) {
+        var ends = new ArrayList<Integer>();
+
+        int start = 0;
+        long hash = 0;
+        for (int i = 0; i < data.length; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xff];
+
+            var length = i + 1 - start;
+            if ((length >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0) || length >= MAX_CHUNK_SIZE) {
+                ends.add(i + 1);
+                start = i + 1;
+                hash = 0;
+            }
+        }
+
+        if (start < data.length) {
+            ends.add(data.length);
+        }
+
+        return ends;
+    }
+
+    /**
+     * Writes the chunk with the given hash, if it is not already in the store. Returns true if it was written.
+     */
+    private boolean writeChunk(String hash, byte[] data, int start, int end) throws IOException {
+        var path = this.getChunkPath(hash);
+        if (Files.exists(path)) {
+            return false;
+        }
+
+        var temp = path.resolveSibling(hash + TEMP_SUFFIX);
+        FileUtil.createParentDirsOfFile(path);
+
+        try (var out = FileUtil.openOutputStream(temp, /* compress: */ true, STREAM_BUFFER_SIZE)) {
+            out.write(data, start, end - start);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        FileUtil.replaceFile(temp, path);
+        return true;
+    }
+
+    /**
+     * Writes the contents of {@code file} to {@code target}, checking each chunk against its hash.
+     */
+    private void assemble(JsonBackupFile file, Path target) throws IOException {
+        long size = 0;
+        try (var out = Files.newOutputStream(target)) {
+            for (var hash : file.chunks) {
+                var path = this.getChunkPath(hash);
+                if (!Files.exists(path)) {
+                    throw new IOException(String.format("Backup of '%s' is missing chunk %s", file.path, hash));
+                }
+
+                byte[] data;
+                try (var in = FileUtil.openInputStream(path, STREAM_BUFFER_SIZE)) {
+                    data = in.readAllBytes();
+                }
+
+                if (!hash.equals(hash(data, 0, data.length))) {
+                    throw new IOException(String.format("Backup of '%s' has corrupted chunk %s", file.path, hash));
+                }
+
+                out.write(data);
+                size += data.length;
+            }
+        }
+
+        if (file.size != null && size != file.size) {
+            throw new IOException(String.format("Backup of '%s' has the wrong size (expected %d bytes, found %d)",
+                file.path, file.size, size));
+        }
+    }
+
+    /**
+     * Returns the files in {@code directory} that should be backed up, sorted by path.
+     */
+    private List<Path> listFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+
+        var root = this.root.toAbsolutePath().normalize();
+        try (var stream = Files.walk(directory)) {
+            return stream
+                .filter(Files::isRegularFile)
+                .filter(p -> !p.toAbsolutePath().normalize().startsWith(root))
+                .filter(p -> this.excluded.stream().noneMatch(p.toAbsolutePath().normalize()::startsWith))
+                .filter(p -> !p.getFileName().toString().endsWith(TEMP_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private List<Integer> getGenerationNumbers() throws IOException {
+        var directory = this.root.resolve(GENERATIONS_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+
+        try (var stream = Files.list(directory)) {
+            return stream
+                .map(p -> p.getFileName().toString())
+                .filter(name -> name.matches("[0-9]{1,9}\\.json"))
+                .map(name -> Integer.parseInt(name.substring(0, name.length() - ".json".length())))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private JsonBackupManifest readManifest(int number) throws DataConversionException {
+        var manifest = JsonUtil.readJsonFile(this.getManifestPath(number), JsonBackupManifest.class);
+        if (manifest.isEmpty()) {
+            return new JsonBackupManifest(SCHEMA_VERSION, null, 0L, new ArrayList<>());
+        }
+
+        manifest.get().validate();
+        return manifest.get();
+    }
+
+    private Path getManifestPath(int number) {
+        return this.root.resolve(GENERATIONS_DIRECTORY).resolve(number + ".json");
+    }
+
+    private Path getChunkPath(String hash) {
+        return this.root.resolve(CHUNKS_DIRECTORY).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String toRelativeName(Path directory, Path file) {
+        var relative = directory.relativize(file);
+
+        var parts = new ArrayList<String>();
+        relative.forEach(p -> parts.add(p.toString()));
+        return String.join("/", parts);
+    }
+
+    private static Path resolveRelativeName(Path directory, String name) throws IOException {
+        var path = directory;
+        for (var part : name.split("/")) {
+            path = path.resolve(part);
+        }
+
+        if (name.isEmpty() || !path.normalize().startsWith(directory.normalize())
+            || Arrays.asList(name.split("/")).contains("..")) {
+            throw new IOException(String.format("Invalid file name '%s' in backup", name));
+        }
+
+        return path;
+    }
+
+    private static String hash(byte[] data, int start, int end) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform is required to support sha-256.
+            throw new IllegalStateException(e);
+        }
+
+        digest.update(data, start, end - start);
+
+        var sb = new StringBuilder();
+        for (var b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * A summary of one generation of backups.
+     */
+    public static class Generation {
+        private final int number;
+        private final Optional<Instant> created;
+        private final int fileCount;
+        private final long size;
+        private final long addedSize;
+
+        Generation(int number, Optional<Instant> created, int fileCount, long size, long addedSize) {
+            this.number = number;
+            this.created = created;
+            this.fileCount = fileCount;
+            this.size = size;
+            this.addedSize = addedSize;
+        }
+
+        public int getNumber() {
+            return this.number;
+        }
+
+        public Optional<Instant> getCreated() {
+            return this.created;
+        }
+
+        public int getFileCount() {
+            return this.fileCount;
+        }
+
+        /**
+         * Returns the total size of the files in the generation.
+         */
+        public long getSize() {
+            return this.size;
+        }
+
+        /**
+         * Returns the total size of the chunks that were added to the store by this generation, ie. those that
+         * were not already in it.
+         */
+        public long getAddedSize() {
+            return this.addedSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Generation(%d, %d files, %d bytes)", this.number, this.fileCount, this.size);
+        }
+    }
+
+    /**
+     * The manifest of one generation.
+     */
+    static class JsonBackupManifest {
+        private final Integer version;
+        private final String created;
+        private final Long addedSize;
+        private final List<JsonBackupFile> files;
+
+        /**
+         * Constructs a {@code JsonBackupManifest} with the given details.
+         */
+        @JsonCreator
+        public JsonBackupManifest(@JsonProperty("version") Integer version,
+                                  @JsonProperty("created") String created,
+                                  @JsonProperty("addedSize") Long addedSize,
+                                  @JsonProperty("files") List<JsonBackupFile> files) {
+            this.version = version;
+            this.created = created;
+            this.addedSize = addedSize;
+            this.files = files;
+        }
+
+        void validate() throws DataConversionException {
+            if (this.version == null || this.version != SCHEMA_VERSION) {
+                throw new DataConversionException(new IOException(
+                    String.format("Unsupported backup manifest version '%s'", this.version)));
+            } else if (this.files == null || this.files.stream().anyMatch(f -> f.path == null || f.chunks == null)) {
+                throw new DataConversionException(new IOException("Backup manifest is missing files"));
+            }
+        }
+
+        Generation toGeneration(int number) {
+            Optional<Instant> time;
+            try {
+                time = Optional.ofNullable(this.created).map(Instant::parse);
+            } catch (DateTimeParseException e) {
+                time = Optional.empty();
+            }
+
+            var size = this.files.stream().map(f -> f.size).filter(Objects::nonNull).mapToLong(x -> x).sum();
+            return new Generation(number, time, this.files.size(), size,
+                this.addedSize == null ? 0 : this.addedSize);
+        }
+    }
+
+    /**
+     * One file in a manifest, with the hashes of its chunks in order.
+     */
+    static class JsonBackupFile {
+        private final String path;
+        private final Long size;
+        private final List<String> chunks;
+
+        /**
+         * Constructs a {@code JsonBackupFile} with the given details.
+         */
+        @JsonCreator
+        public JsonBackupFile(@JsonProperty("path") String path,
+                              @JsonProperty("size") Long size,
+                              @JsonProperty("chunks") List<String> chunks) {
+            this.path = path;
+            this.size = size;
+            this.chunks = chunks;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (!(obj instanceof JsonBackupFile)) {
+                return false;
+            }
+
+            var other = (JsonBackupFile) obj;
+            return Objects.equals(this.path, other.path)
+                && Objects.equals(this.size, other.size)
+                && Objects.equals(this.chunks, other.chunks);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.path, this.size, this.chunks);
+        }
+    }
+}
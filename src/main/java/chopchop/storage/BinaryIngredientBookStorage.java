@@ -0,0 +1,67 @@
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.EntryBook;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.ingredient.Ingredient;
+
+/**
+ * Stores the ingredient book as a binary snapshot; see {@link BinarySnapshot}.
+ */
+public class BinaryIngredientBookStorage implements IngredientBookStorage {
+    private final Path filePath;
+
+    public BinaryIngredientBookStorage(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Path getIngredientBookFilePath() {
+        return this.filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook() throws DataConversionException {
+        return this.readIngredientBook(this.filePath);
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+
+        var ingredientBook = new EntryBook<Ingredient>();
+        ingredientBook.startEditing();
+
+        var found = BinarySnapshot.read(filePath, BinarySnapshot.Kind.INGREDIENTS,
+            BinarySnapshot::decodeIngredient, ingredient -> {
+                if (ingredientBook.has(ingredient)) {
+                    throw new IllegalValueException(JsonSerializableIngredientBook.MESSAGE_DUPLICATE_INGREDIENT);
+                }
+                ingredientBook.add(ingredient);
+            });
+
+        ingredientBook.finishEditing();
+        return found ? Optional.of(ingredientBook) : Optional.empty();
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook) throws IOException {
+        this.saveIngredientBook(ingredientBook, this.filePath);
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook, Path filePath) throws IOException {
+        requireNonNull(ingredientBook);
+        requireNonNull(filePath);
+
+        BinarySnapshot.write(filePath, BinarySnapshot.Kind.INGREDIENTS, ingredientBook.getEntryList(),
+            BinarySnapshot::encodeIngredient);
+    }
+}
@@ -0,0 +1,58 @@
+package chopchop.storage;
+
+import static chopchop.commons.util.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.model.UsageList;
+import chopchop.model.usage.IngredientUsage;
+
+/**
+ * Stores the ingredient usages as a binary snapshot; see {@link BinarySnapshot}.
+ */
+public class BinaryIngredientUsageStorage implements UsageStorage<IngredientUsage> {
+    private final Path filePath;
+
+    public BinaryIngredientUsageStorage(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Path getUsageFilePath() {
+        return this.filePath;
+    }
+
+    @Override
+    public Optional<UsageList<IngredientUsage>> readUsages() throws DataConversionException {
+        return this.readUsages(this.filePath);
+    }
+
+    @Override
+    public Optional<UsageList<IngredientUsage>> readUsages(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+
+        var usages = new ArrayList<IngredientUsage>();
+        var found = BinarySnapshot.read(filePath, BinarySnapshot.Kind.INGREDIENT_USAGES,
+            BinarySnapshot::decodeIngredientUsage, usages::add);
+
+        return found ? Optional.of(new UsageList<>(usages)) : Optional.empty();
+    }
+
+    @Override
+    public void saveUsages(UsageList<IngredientUsage> usages) throws IOException {
+        this.saveUsages(usages, this.filePath);
+    }
+
+    @Override
+    public void saveUsages(UsageList<IngredientUsage> usages, Path filePath) throws IOException {
+        requireAllNonNull(usages, filePath);
+
+        BinarySnapshot.write(filePath, BinarySnapshot.Kind.INGREDIENT_USAGES, usages.getUsages(),
+            BinarySnapshot::encodeIngredientUsage);
+    }
+}
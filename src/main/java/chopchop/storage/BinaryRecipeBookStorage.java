@@ -0,0 +1,169 @@
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.EntryBook;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * Stores the recipe book as a binary snapshot; see {@link BinarySnapshot}. The steps of each recipe are
+ * kept in a separate {@link RecipeBodyStore} next to the snapshot, and are only loaded when needed.
+ *
+ * Since the bodies file is append-only, it accumulates the steps of deleted and edited recipes over time;
+ * when a save leaves more than half of it as garbage, the live bodies are copied into a new file and the
+ * snapshot is saved again to refer to it. Recipes that were loaded earlier (including those kept for undo)
+ * may still refer to the old file, so it is only deleted when the app exits. Reading never writes anything.
+ */
+public class BinaryRecipeBookStorage implements RecipeBookStorage {
+    private static final long COMPACTION_SLACK = 64 * 1024;
+
+    private static final Log logger = new Log(BinaryRecipeBookStorage.class);
+
+    private final Path filePath;
+    private final int cacheSize;
+
+    // all the body stores that we know about, by path.
+    private final Map<Path, RecipeBodyStore> stores = new HashMap<>();
+
+    // the body store that new bodies should be appended to, by snapshot path.
+    private final Map<Path, RecipeBodyStore> currentStores = new HashMap<>();
+
+    public BinaryRecipeBookStorage(Path filePath) {
+        this(filePath, RecipeBodyStore.DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a storage that keeps at most {@code cacheSize} recipe bodies in memory.
+     */
+    public BinaryRecipeBookStorage(Path filePath, int cacheSize) {
+        this.filePath = filePath;
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public Path getRecipeBookFilePath() {
+        return this.filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook() throws DataConversionException {
+        return this.readRecipeBook(this.filePath);
+    }
+
+    @Override
+    public synchronized Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook(Path filePath)
+            throws DataConversionException {
+        requireNonNull(filePath);
+
+        var recipeBook = new EntryBook<Recipe>();
+        recipeBook.startEditing();
+
+        var found = BinarySnapshot.read(filePath, BinarySnapshot.Kind.RECIPES,
+            in -> BinarySnapshot.decodeRecipe(in, name -> this.getStore(filePath.resolveSibling(name))),
+            recipe -> {
+                if (recipeBook.has(recipe)) {
+                    throw new IllegalValueException(JsonSerializableRecipeBook.MESSAGE_DUPLICATE_RECIPE);
+                }
+
+                var source = recipe.getStepSource();
+                if (source instanceof RecipeBodyStore.Body) {
+                    this.currentStores.put(filePath, ((RecipeBodyStore.Body) source).getStore());
+                }
+
+                recipeBook.add(recipe);
+            });
+
+        recipeBook.finishEditing();
+        return found ? Optional.of(recipeBook) : Optional.empty();
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook) throws IOException {
+        this.saveRecipeBook(recipeBook, this.filePath);
+    }
+
+    @Override
+    public synchronized void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath) throws IOException {
+        requireNonNull(recipeBook);
+        requireNonNull(filePath);
+
+        var store = this.currentStores.computeIfAbsent(filePath,
+            p -> this.getStore(BinarySnapshot.getBodiesPath(p)));
+
+        var liveBytes = this.write(recipeBook, filePath, store);
+        if (this.needsCompaction(store, liveBytes)) {
+            this.compact(recipeBook, filePath, store);
+        }
+    }
+
+    /**
+     * Writes the snapshot, adding the bodies to the given store, and returns the number of bytes of that
+     * store which the snapshot refers to.
+     */
+    private long write(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath, RecipeBodyStore store)
+            throws IOException {
+
+        // the bodies must be on disk before the snapshot that refers to them.
+        try (var bodies = store.openAppender()) {
+            BinarySnapshot.Encoder<Recipe> encoder = (out, recipe) -> BinarySnapshot.encodeRecipe(out, recipe, bodies);
+            BinarySnapshot.write(filePath, BinarySnapshot.Kind.RECIPES, recipeBook.getEntryList(), encoder,
+                bodies::force);
+            return bodies.getLiveBytes();
+        }
+    }
+
+    private RecipeBodyStore getStore(Path bodiesPath) {
+        return this.stores.computeIfAbsent(bodiesPath.toAbsolutePath().normalize(),
+            p -> new RecipeBodyStore(bodiesPath, this.cacheSize));
+    }
+
+    private boolean needsCompaction(RecipeBodyStore store, long liveBytes) {
+        try {
+            return store.getFileSize() > 2 * liveBytes + COMPACTION_SLACK;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies the live bodies into a fresh bodies file and saves the snapshot again to refer to it. The old
+     * file is deleted when the app exits; if anything fails, the snapshot is left referring to it.
+     */
+    private void compact(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath, RecipeBodyStore oldStore) {
+        var base = BinarySnapshot.getBodiesPath(filePath).getFileName().toString();
+        var name = base.substring(0, base.length() - BinarySnapshot.BODIES_EXTENSION.length());
+        var newStore = this.getStore(filePath.resolveSibling(name + "." + System.currentTimeMillis()
+            + BinarySnapshot.BODIES_EXTENSION));
+
+        try {
+            this.write(recipeBook, filePath, newStore);
+
+        } catch (IOException e) {
+            logger.warn("Failed to compact recipe bodies in '%s': %s", oldStore.getPath(), e);
+            this.stores.values().remove(newStore);
+            try {
+                Files.deleteIfExists(newStore.getPath());
+            } catch (IOException e2) {
+                logger.warn("Failed to delete partially compacted recipe bodies file '%s': %s",
+                    newStore.getPath(), e2);
+            }
+            return;
+        }
+
+        this.currentStores.put(filePath, newStore);
+        oldStore.getPath().toFile().deleteOnExit();
+
+        logger.log("Compacted recipe bodies from '%s' into '%s'", oldStore.getPath(), newStore.getPath());
+    }
+}
@@ -0,0 +1,58 @@
+package chopchop.storage;
+
+import static chopchop.commons.util.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.model.UsageList;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Stores the recipe usages as a binary snapshot; see {@link BinarySnapshot}.
+ */
+public class BinaryRecipeUsageStorage implements UsageStorage<RecipeUsage> {
+    private final Path filePath;
+
+    public BinaryRecipeUsageStorage(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Path getUsageFilePath() {
+        return this.filePath;
+    }
+
+    @Override
+    public Optional<UsageList<RecipeUsage>> readUsages() throws DataConversionException {
+        return this.readUsages(this.filePath);
+    }
+
+    @Override
+    public Optional<UsageList<RecipeUsage>> readUsages(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+
+        var usages = new ArrayList<RecipeUsage>();
+        var found = BinarySnapshot.read(filePath, BinarySnapshot.Kind.RECIPE_USAGES,
+            BinarySnapshot::decodeRecipeUsage, usages::add);
+
+        return found ? Optional.of(new UsageList<>(usages)) : Optional.empty();
+    }
+
+    @Override
+    public void saveUsages(UsageList<RecipeUsage> usages) throws IOException {
+        this.saveUsages(usages, this.filePath);
+    }
+
+    @Override
+    public void saveUsages(UsageList<RecipeUsage> usages, Path filePath) throws IOException {
+        requireAllNonNull(usages, filePath);
+
+        BinarySnapshot.write(filePath, BinarySnapshot.Kind.RECIPE_USAGES, usages.getUsages(),
+            BinarySnapshot::encodeRecipeUsage);
+    }
+}
@@ -0,0 +1,687 @@
+// BinarySnapshot.java
+
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil.ElementConsumer;
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.attributes.Name;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Reads and writes the compact binary snapshot format, which is an alternative to the json data files that
+ * is much faster to load. Every string in the file (names, steps, tags, quantities) is stored exactly once
+ * in a string table, and referred to by index everywhere else; dates are stored as numbers. Since the same
+ * quantity strings tend to appear over and over again, each one is also only parsed once.
+ *
+ * Since version 2, the steps of each recipe are not stored in the snapshot itself, but in a separate
+ * {@link RecipeBodyStore}; the snapshot only stores the name of the bodies file, and the offset and length
+ * of the steps within it. This lets the steps be loaded only when they are needed.
+ *
+ * Since version 3, the header records the modification time of the json file that the snapshot was converted
+ * from, so that a json file changed since then (eg. edited by hand, or saved while snapshots were turned off)
+ * can be detected and converted again instead of being ignored; see {@link #isUpToDateWith(Path, Path)}.
+ *
+ * The layout of a snapshot file is as follows; all integers are big-endian, and a 'varint' is an unsigned
+ * LEB128-encoded integer:
+ * <pre>
+ *   u32     magic ("CHOP")
+ *   u16     format version
+ *   u8      kind of snapshot (see {@link Kind})
+ *   i64     modification time (in epoch milliseconds) of the source json file, or -1 (version 3 onwards)
+ *   varint  number of strings, followed by each string as (varint length, utf-8 bytes)
+ *   varint  number of entries, followed by each entry
+ * </pre>
+ */
+public final class BinarySnapshot {
+    public static final String FILE_EXTENSION = ".snapshot";
+    public static final String BODIES_EXTENSION = ".bodies";
+    public static final int VERSION = 3;
+
+    public static final String MESSAGE_NOT_A_SNAPSHOT = "'%s' is not a snapshot file";
+    public static final String MESSAGE_UNSUPPORTED_VERSION = "Snapshot version %d is not supported (expected %d)";
+    public static final String MESSAGE_WRONG_KIND = "Expected a snapshot of %s, found one of %s";
+    public static final String MESSAGE_CORRUPTED = "Snapshot is corrupted: %s";
+
+    private static final Log logger = new Log(BinarySnapshot.class);
+
+    private static final int MAGIC = 0x43484f50;
+    private static final int MIN_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // the source stamp comes right after the magic, version, and kind.
+    private static final int SOURCE_STAMP_OFFSET = 4 + 2 + 1;
+    private static final int MIN_SOURCE_STAMP_VERSION = 3;
+    private static final long NO_SOURCE_STAMP = -1;
+
+    /**
+     * The kind of data contained in a snapshot; its ordinal is written to the file, so new kinds must
+     * only ever be added at the end.
+     */
+    public enum Kind {
+        RECIPES,
+        INGREDIENTS,
+        RECIPE_USAGES,
+        INGREDIENT_USAGES;
+
+        /**
+         * Returns the kind named by {@code name}, eg. 'recipes' or 'ingredient-usages'.
+         */
+        public static Optional<Kind> parse(String name) {
+            for (var kind : Kind.values()) {
+                if (kind.toString().equals(name)) {
+                    return Optional.of(kind);
+                }
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Returns the path of the snapshot that corresponds to the given json data file; this is a file in
+     * the same folder, with the '.json' extension (if any) replaced by {@link #FILE_EXTENSION}.
+     */
+    public static Path getSnapshotPath(Path jsonPath) {
+        var name = jsonPath.getFileName().toString();
+        if (name.endsWith(".json")) {
+            name = name.substring(0, name.length() - ".json".length());
+        }
+
+        return jsonPath.resolveSibling(name + FILE_EXTENSION);
+    }
+
+    /**
+     * Writes a snapshot of the given kind containing {@code items} to {@code path}. As with the json files,
+     * the snapshot is written to a temporary file first, then moved over the original. The source stamp of
+     * the existing snapshot (if any) is kept, since the snapshot is still derived from the same json file.
+     */
+    public static <T> void write(Path path, Kind kind, Iterable<? extends T> items, Encoder<? super T> encoder)
+            throws IOException {
+        write(path, kind, items, encoder, () -> { });
+    }
+
+    /**
+     * Writes a snapshot like {@link #write(Path, Kind, Iterable, Encoder)}, but calls {@code beforeReplace} just
+     * before the snapshot is moved into place (eg. to make sure that what the entries refer to is on disk).
+     */
+    public static <T> void write(Path path, Kind kind, Iterable<? extends T> items, Encoder<? super T> encoder,
+            Flusher beforeReplace) throws IOException {
+        requireNonNull(path);
+        requireNonNull(items);
+        requireNonNull(beforeReplace);
+
+        // the string table must come first in the file, but we only know its contents after going through
+        // all the entries -- so encode the entries into memory first.
+        var output = new Output();
+        int count = 0;
+        for (var item : items) {
+            encoder.encode(output, item);
+            count++;
+        }
+
+        var sourceStamp = readSourceStamp(path).orElse(NO_SOURCE_STAMP);
+
+        FileUtil.createParentDirsOfFile(path);
+        var temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(kind.ordinal());
+            out.writeLong(sourceStamp);
+
+            writeVarInt(out, output.table.size());
+            for (var str : output.table) {
+                var bytes = str.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+
+            writeVarInt(out, count);
+            output.body.writeTo(out);
+
+            beforeReplace.flush();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        FileUtil.replaceFile(temp, path);
+    }
+
+    /**
+     * Reads a snapshot of the given kind from {@code path}, handing each decoded entry to {@code consumer}
+     * in file order.
+     *
+     * @return false if the file was not found, true otherwise.
+     * @throws DataConversionException if the file is not a valid snapshot of the expected kind, or if any
+     *                                 of its entries are invalid.
+     */
+    public static <T> boolean read(Path path, Kind kind, Decoder<? extends T> decoder,
+            ElementConsumer<? super T> consumer) throws DataConversionException {
+        requireNonNull(path);
+
+        if (!Files.exists(path)) {
+            logger.warn("Snapshot file '%s' not found", path);
+            return false;
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            var input = readHeader(in, path, kind);
+
+            var count = readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(decoder.decode(input));
+            }
+
+            if (in.read() != -1) {
+                throw new IllegalValueException(String.format(MESSAGE_CORRUPTED, "trailing data"));
+            }
+
+        } catch (IOException e) {
+            logger.warn("Error reading from snapshot file '%s': %s", path, e);
+            throw new DataConversionException(e);
+        } catch (IllegalValueException e) {
+            logger.warn("snapshot error ('%s'): %s", path, e.getMessage());
+            throw new DataConversionException(e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns true if the snapshot at {@code snapshotPath} was converted from the json file at {@code jsonPath}
+     * as it is now, ie. the json file has not been changed since; this is also true if there is no json file.
+     * For snapshots that do not record this (older than version 3, or not converted from a json file), the
+     * json file must not be newer than the snapshot.
+     */
+    public static boolean isUpToDateWith(Path snapshotPath, Path jsonPath) throws IOException {
+        if (!Files.exists(jsonPath)) {
+            return true;
+        }
+
+        var jsonTime = Files.getLastModifiedTime(jsonPath).toMillis();
+        var stamp = readSourceStamp(snapshotPath);
+
+        return stamp.isPresent() && stamp.get() != NO_SOURCE_STAMP
+            ? stamp.get() == jsonTime
+            : jsonTime <= Files.getLastModifiedTime(snapshotPath).toMillis();
+    }
+
+    /**
+     * Records in the snapshot at {@code snapshotPath} that it is up to date with the json file at
+     * {@code jsonPath}, as it is now. This only changes the header of the snapshot, in place.
+     */
+    public static void markUpToDateWith(Path snapshotPath, Path jsonPath) throws IOException {
+        if (readSourceStamp(snapshotPath).isEmpty()) {
+            throw new IOException(String.format(MESSAGE_CORRUPTED, "no source stamp in " + snapshotPath));
+        }
+
+        var stamp = Files.exists(jsonPath) ? Files.getLastModifiedTime(jsonPath).toMillis() : NO_SOURCE_STAMP;
+        try (var channel = FileChannel.open(snapshotPath, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, stamp), SOURCE_STAMP_OFFSET);
+        }
+    }
+
+    /**
+     * Returns the source stamp of the snapshot at {@code path}, or nothing if the file does not exist, is not
+     * a snapshot, or is too old to have one.
+     */
+    private static Optional<Long> readSourceStamp(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() < MIN_SOURCE_STAMP_VERSION) {
+                return Optional.empty();
+            }
+
+            in.readUnsignedByte();
+            return Optional.of(in.readLong());
+
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Input readHeader(DataInputStream in, Path path, Kind expected)
+            throws IOException, IllegalValueException {
+
+        if (in.readInt() != MAGIC) {
+            throw new IllegalValueException(String.format(MESSAGE_NOT_A_SNAPSHOT, path));
+        }
+
+        var version = in.readUnsignedShort();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IllegalValueException(String.format(MESSAGE_UNSUPPORTED_VERSION, version, VERSION));
+        }
+
+        var kind = in.readUnsignedByte();
+        if (kind != expected.ordinal()) {
+            throw new IllegalValueException(String.format(MESSAGE_WRONG_KIND, expected,
+                kind < Kind.values().length ? Kind.values()[kind] : "unknown kind " + kind));
+        }
+
+        if (version >= MIN_SOURCE_STAMP_VERSION) {
+            in.readLong();
+        }
+
+        var strings = new String[readVarInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            var bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return new Input(in, version, strings);
+    }
+
+    /**
+     * Returns the path of the default bodies file for the given recipe snapshot.
+     */
+    public static Path getBodiesPath(Path snapshotPath) {
+        var name = snapshotPath.getFileName().toString();
+        if (name.endsWith(FILE_EXTENSION)) {
+            name = name.substring(0, name.length() - FILE_EXTENSION.length());
+        }
+
+        return snapshotPath.resolveSibling(name + BODIES_EXTENSION);
+    }
+
+    /**
+     * Encodes the given recipe. Its steps are added to the body store of {@code bodies}; see
+     * {@link RecipeBodyStore.Appender#add}.
+     */
+    public static void encodeRecipe(Output out, Recipe recipe, RecipeBodyStore.Appender bodies)
+            throws IOException {
+        out.writeString(recipe.getName());
+
+        out.writeVarInt(recipe.getIngredients().size());
+        for (var ingredient : recipe.getIngredients()) {
+            out.writeString(ingredient.getName());
+            out.writeString(ingredient.getQuantity().toString());
+        }
+
+        var body = bodies.add(recipe.getStepSource());
+        out.writeString(bodies.getStore().getPath().getFileName().toString());
+        out.writeLong(body.getOffset());
+        out.writeVarInt(body.getLength());
+
+        writeTags(out, recipe.getTags());
+    }
+
+    /**
+     * Decodes a recipe, validating it the same way as {@link JsonAdaptedRecipe#toModelType()}. For
+     * version 1 snapshots, the steps are stored inline; otherwise, the steps are loaded lazily from the
+     * body store returned by {@code bodies} for the stored file name.
+     */
+    public static Recipe decodeRecipe(Input in, BodyStoreResolver bodies) throws IOException, IllegalValueException {
+        var name = readName(in);
+
+        var ingredients = new ArrayList<IngredientReference>();
+        for (int i = 0, n = in.readVarInt(); i < n; i++) {
+            var ingredientName = in.readString();
+            ingredients.add(new IngredientReference(ingredientName, in.readQuantity()));
+        }
+
+        if (in.getVersion() == 1) {
+            var steps = new ArrayList<Step>();
+            for (int i = 0, n = in.readVarInt(); i < n; i++) {
+                var step = in.readString();
+                if (!Step.isValidStep(step)) {
+                    throw new IllegalValueException(Step.MESSAGE_CONSTRAINTS);
+                }
+                steps.add(new Step(step));
+            }
+
+            return new Recipe(name, ingredients, steps, readTags(in));
+        }
+
+        var store = bodies.resolve(in.readString());
+        var offset = in.readLong();
+        var length = in.readVarInt();
+        if (offset < 0) {
+            throw new IOException(String.format(MESSAGE_CORRUPTED, "invalid body offset " + offset));
+        }
+
+        // this checks that the body is within the bodies file.
+        return new Recipe(name, ingredients, store.getBody(offset, length), readTags(in));
+    }
+
+    /**
+     * Encodes the given ingredient.
+     */
+    public static void encodeIngredient(Output out, Ingredient ingredient) throws IOException {
+        out.writeString(ingredient.getName());
+
+        var sets = ingredient.getIngredientSets();
+        out.writeVarInt(sets.size());
+        for (var set : sets.entrySet()) {
+            if (set.getKey().isPresent()) {
+                out.writeBoolean(true);
+                out.writeLong(set.getKey().get().getDate().toEpochDay());
+            } else {
+                out.writeBoolean(false);
+            }
+            out.writeString(set.getValue().toString());
+        }
+
+        writeTags(out, ingredient.getTags());
+    }
+
+    /**
+     * Decodes an ingredient, validating it the same way as {@link JsonAdaptedIngredient#toModelType()}.
+     */
+    public static Ingredient decodeIngredient(Input in) throws IOException, IllegalValueException {
+        var name = readName(in);
+
+        var sets = new TreeMap<Optional<ExpiryDate>, Quantity>(Ingredient.SET_COMPARATOR);
+        for (int i = 0, n = in.readVarInt(); i < n; i++) {
+            var expiry = in.readBoolean()
+                ? Optional.of(new ExpiryDate(readDate(in)))
+                : Optional.<ExpiryDate>empty();
+
+            sets.put(expiry, in.readQuantity());
+        }
+
+        return new Ingredient(name, sets, readTags(in));
+    }
+
+    /**
+     * Encodes the given recipe usage.
+     */
+    public static void encodeRecipeUsage(Output out, RecipeUsage usage) throws IOException {
+        out.writeString(usage.getName());
+        writeDateTime(out, usage.getDate());
+    }
+
+    /**
+     * Decodes a recipe usage.
+     */
+    public static RecipeUsage decodeRecipeUsage(Input in) throws IOException {
+        var name = in.readString();
+        return new RecipeUsage(name, readDateTime(in));
+    }
+
+    /**
+     * Encodes the given ingredient usage.
+     */
+    public static void encodeIngredientUsage(Output out, IngredientUsage usage) throws IOException {
+        out.writeString(usage.getName());
+        writeDateTime(out, usage.getDate());
+        out.writeString(usage.getQty().toString());
+    }
+
+    /**
+     * Decodes an ingredient usage.
+     */
+    public static IngredientUsage decodeIngredientUsage(Input in) throws IOException, IllegalValueException {
+        var name = in.readString();
+        var date = readDateTime(in);
+        return new IngredientUsage(name, date, in.readQuantity());
+    }
+
+    private static String readName(Input in) throws IOException, IllegalValueException {
+        var name = in.readString();
+        if (!Name.isValidName(name)) {
+            throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+        }
+        return name;
+    }
+
+    private static void writeTags(Output out, Set<Tag> tags) throws IOException {
+        out.writeVarInt(tags.size());
+        for (var tag : tags) {
+            out.writeString(tag.toString());
+        }
+    }
+
+    private static Set<Tag> readTags(Input in) throws IOException, IllegalValueException {
+        var tags = new HashSet<Tag>();
+        for (int i = 0, n = in.readVarInt(); i < n; i++) {
+            var tag = in.readString();
+            if (!Tag.isValidTag(tag)) {
+                throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+            }
+            tags.add(new Tag(tag));
+        }
+        return tags;
+    }
+
+    private static void writeDateTime(Output out, LocalDateTime date) throws IOException {
+        out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+        out.writeVarInt(date.getNano());
+    }
+
+    private static LocalDateTime readDateTime(Input in) throws IOException {
+        var seconds = in.readLong();
+        var nanos = in.readVarInt();
+        try {
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            // like any other corruption, this must fail the read rather than escape as an unchecked exception.
+            throw new IOException(String.format(MESSAGE_CORRUPTED, "invalid date"), e);
+        }
+    }
+
+    private static LocalDate readDate(Input in) throws IOException {
+        var days = in.readLong();
+        try {
+            return LocalDate.ofEpochDay(days);
+        } catch (DateTimeException e) {
+            throw new IOException(String.format(MESSAGE_CORRUPTED, "invalid date"), e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            var b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+
+        throw new IOException(String.format(MESSAGE_CORRUPTED, "malformed varint"));
+    }
+
+    /**
+     * The output side of a snapshot, which entries are encoded into.
+     */
+    public static class Output {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final List<String> table = new ArrayList<>();
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(this.body);
+
+        private Output() {
+        }
+
+        /**
+         * Writes a reference to the given string, adding it to the string table if necessary.
+         */
+        public void writeString(String str) throws IOException {
+            var index = this.strings.get(str);
+            if (index == null) {
+                index = this.table.size();
+                this.strings.put(str, index);
+                this.table.add(str);
+            }
+
+            this.writeVarInt(index);
+        }
+
+        public void writeVarInt(int value) throws IOException {
+            BinarySnapshot.writeVarInt(this.out, value);
+        }
+
+        public void writeLong(long value) throws IOException {
+            this.out.writeLong(value);
+        }
+
+        public void writeBoolean(boolean value) throws IOException {
+            this.out.writeBoolean(value);
+        }
+    }
+
+    /**
+     * The input side of a snapshot, which entries are decoded from.
+     */
+    public static class Input {
+        private final DataInputStream in;
+        private final int version;
+        private final String[] strings;
+        private final Quantity[] quantities;
+
+        private Input(DataInputStream in, int version, String[] strings) {
+            this.in = in;
+            this.version = version;
+            this.strings = strings;
+            this.quantities = new Quantity[strings.length];
+        }
+
+        /**
+         * Returns the format version of the snapshot being read.
+         */
+        public int getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Reads a reference to a string in the string table.
+         */
+        public String readString() throws IOException {
+            return this.strings[this.readStringIndex()];
+        }
+
+        /**
+         * Reads a reference to a quantity string in the string table, and parses it. Quantities are
+         * immutable, so each distinct string only needs to be parsed once.
+         */
+        public Quantity readQuantity() throws IOException, IllegalValueException {
+            var index = this.readStringIndex();
+            if (this.quantities[index] == null) {
+                var qty = Quantity.parse(this.strings[index]);
+                if (qty.isError()) {
+                    throw new IllegalValueException(qty.getError());
+                }
+                this.quantities[index] = qty.getValue();
+            }
+
+            return this.quantities[index];
+        }
+
+        public int readVarInt() throws IOException {
+            return BinarySnapshot.readVarInt(this.in);
+        }
+
+        public long readLong() throws IOException {
+            return this.in.readLong();
+        }
+
+        public boolean readBoolean() throws IOException {
+            return this.in.readBoolean();
+        }
+
+        private int readStringIndex() throws IOException {
+            var index = this.readVarInt();
+            if (index < 0 || index >= this.strings.length) {
+                throw new IOException(String.format(MESSAGE_CORRUPTED, "invalid string index " + index));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Encodes an item into a snapshot.
+     */
+    @FunctionalInterface
+    public interface Encoder<T> {
+        void encode(Output out, T item) throws IOException;
+    }
+
+    /**
+     * Flushes something that a snapshot depends on, before the snapshot is moved into place.
+     */
+    @FunctionalInterface
+    public interface Flusher {
+        void flush() throws IOException;
+    }
+
+    /**
+     * Finds the body store with the given file name, which is relative to the snapshot.
+     */
+    @FunctionalInterface
+    public interface BodyStoreResolver {
+        RecipeBodyStore resolve(String fileName) throws IOException;
+    }
+
+    /**
+     * Decodes an item from a snapshot.
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T decode(Input in) throws IOException, IllegalValueException;
+    }
+}
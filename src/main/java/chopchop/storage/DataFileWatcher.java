@@ -0,0 +1,216 @@
+// DataFileWatcher.java
+
+package chopchop.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.util.StringUtil;
+
+/**
+ * Watches data files for modifications made outside of the app, using a {@link WatchService} on the directories
+ * containing them. For each file, this keeps the {@link Stamp} (size and modification time) of the file as it was
+ * when it was last read or written by us; files whose stamp still matches are not reported, so our own saves are
+ * not mistaken for external edits.
+ *
+ * Changes are reported on the watcher's own thread, once a file has not been modified for {@code SETTLE_MILLIS},
+ * since editors and scripts often write a file in several steps.
+ */
+public class DataFileWatcher implements Closeable {
+
+    public static final long SETTLE_MILLIS = 200;
+
+    private static final Log logger = new Log(DataFileWatcher.class);
+
+    private final WatchService service;
+
+    // these are keyed by the absolute path of each file.
+    private final Map<Path, Runnable> listeners = new ConcurrentHashMap<>();
+    private final Map<Path, Stamp> syncedStamps = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    private Thread thread;
+
+    /**
+     * Constructs a watcher that is not watching any files yet.
+     */
+    public DataFileWatcher() throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Starts watching the file at {@code file}, running {@code onChange} whenever it is modified externally. The
+     * file does not need to exist yet, but its directory is created if it does not.
+     */
+    public synchronized void watch(Path file, Runnable onChange) throws IOException {
+        var abs = file.toAbsolutePath().normalize();
+        var dir = abs.getParent();
+
+        Files.createDirectories(dir);
+        if (!this.directories.containsValue(dir)) {
+            this.directories.put(dir.register(this.service, ENTRY_CREATE, ENTRY_MODIFY), dir);
+        }
+
+        this.listeners.put(abs, onChange);
+        this.markSynced(file);
+    }
+
+    /**
+     * Starts the watcher thread. This does nothing if it was already started.
+     */
+    public synchronized void start() {
+        if (this.thread != null) {
+            return;
+        }
+
+        this.thread = new Thread(this::run, "data-file-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Records the current state of the file at {@code file} as the one that was last read or written by us.
+     */
+    public void markSynced(Path file) {
+        this.markSynced(file, getStamp(file));
+    }
+
+    /**
+     * Records {@code stamp} as the state of the file at {@code file} that was last read or written by us.
+     */
+    public void markSynced(Path file, Stamp stamp) {
+        this.syncedStamps.put(file.toAbsolutePath().normalize(), stamp);
+    }
+
+    /**
+     * Returns true if the file at {@code file} has been modified since it was last read or written by us.
+     */
+    public boolean isModified(Path file) {
+        return !getStamp(file).equals(this.syncedStamps.get(file.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Returns the current stamp of the file at {@code file}, or {@code Stamp.MISSING} if it does not exist or
+     * could not be read.
+     */
+    public static Stamp getStamp(Path file) {
+        try {
+            var attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attrs.size(), attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), attrs.fileKey());
+        } catch (IOException e) {
+            return Stamp.MISSING;
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                var changed = new LinkedHashSet<Path>();
+                this.collectChanges(this.service.take(), changed);
+
+                // wait for the files to settle, collecting any further changes.
+                WatchKey key;
+                while ((key = this.service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    this.collectChanges(key, changed);
+                }
+
+                for (var file : changed) {
+                    var listener = this.listeners.get(file);
+                    if (listener != null && this.isModified(file)) {
+                        logger.log("Data file '%s' was modified externally", file);
+                        try {
+                            listener.run();
+                        } catch (RuntimeException e) {
+                            logger.error("Failed to handle change to '%s': %s", file, StringUtil.getDetails(e));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("Data file watcher stopped");
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changed) {
+        Path dir;
+        synchronized (this) {
+            dir = this.directories.get(key);
+        }
+
+        for (var event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // events were lost, so check every file.
+                changed.addAll(this.listeners.keySet());
+            } else if (dir != null) {
+                changed.add(dir.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.service.close();
+        synchronized (this) {
+            if (this.thread != null) {
+                this.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * The size, modification time, and identity of a file at some point in time. This is much cheaper to
+     * compare than the contents of the file, and changes whenever the file is written or replaced.
+     */
+    public static class Stamp {
+        public static final Stamp MISSING = new Stamp(-1, 0, null);
+
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+
+        private Stamp(long size, long lastModified, Object fileKey) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this
+                || (obj instanceof Stamp
+                && this.size == ((Stamp) obj).size
+                && this.lastModified == ((Stamp) obj).lastModified
+                && Objects.equals(this.fileKey, ((Stamp) obj).fileKey));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.size, this.lastModified, this.fileKey);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stamp(size: %d, modified: %d)", this.size, this.lastModified);
+        }
+    }
+}
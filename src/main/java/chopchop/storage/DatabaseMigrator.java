@@ -0,0 +1,129 @@
+// DatabaseMigrator.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Copies the data from the json files (or any other storage) into a {@link SqlDatabase}. This is used by the
+ * app itself when the database backend is first enabled (the {@code migrate} command migrates the data files
+ * again while the app is running), and can also be run from the command line:
+ * <pre>
+ *   java -cp chopchop.jar chopchop.storage.DatabaseMigrator DATABASE RECIPES INGREDIENTS RECIPE_USAGES
+ *       INGREDIENT_USAGES
+ * </pre>
+ * where DATABASE is the path of the database (without the .mv.db extension), and the rest are json files.
+ */
+public class DatabaseMigrator {
+    public static final String MESSAGE_USAGE = "usage: DatabaseMigrator <database> <recipebook.json> "
+        + "<ingredientbook.json> <recipeusage.json> <ingredientusage.json>";
+
+    private static final String TEMP_SUFFIX = "-migrating";
+
+    /**
+     * Copies the contents of the given storages into the database, replacing whatever is in it. Storages
+     * whose files do not exist are skipped.
+     *
+     * Each storage is saved in its own transaction, so if saving fails part-way, the database is left with
+     * only some of the data; use {@link #migrateToNewDatabase} to avoid that.
+     *
+     * @return a summary of what was migrated.
+     * @throws DataConversionException if any of the files are invalid; nothing is migrated in that case.
+     * @throws IOException if the database could not be written.
+     */
+    public static String migrate(RecipeBookStorage recipes, IngredientBookStorage ingredients,
+            UsageStorage<RecipeUsage> recipeUsages, UsageStorage<IngredientUsage> ingredientUsages,
+            SqlDatabase database) throws DataConversionException, IOException {
+
+        // read everything first, so that an invalid file doesn't leave a half-migrated database.
+        var recipeBook = recipes.readRecipeBook();
+        var ingredientBook = ingredients.readIngredientBook();
+        var recipeUsageList = recipeUsages.readUsages();
+        var ingredientUsageList = ingredientUsages.readUsages();
+
+        var sb = new StringBuilder();
+        if (recipeBook.isPresent()) {
+            new SqlRecipeBookStorage(database).saveRecipeBook(recipeBook.get());
+            sb.append(String.format("%d recipe(s); ", recipeBook.get().getEntryList().size()));
+        }
+
+        if (ingredientBook.isPresent()) {
+            new SqlIngredientBookStorage(database).saveIngredientBook(ingredientBook.get());
+            sb.append(String.format("%d ingredient(s); ", ingredientBook.get().getEntryList().size()));
+        }
+
+        if (recipeUsageList.isPresent()) {
+            new SqlRecipeUsageStorage(database).saveUsages(recipeUsageList.get());
+            sb.append(String.format("%d recipe usage(s); ", recipeUsageList.get().getUsageCount()));
+        }
+
+        if (ingredientUsageList.isPresent()) {
+            new SqlIngredientUsageStorage(database).saveUsages(ingredientUsageList.get());
+            sb.append(String.format("%d ingredient usage(s); ", ingredientUsageList.get().getUsageCount()));
+        }
+
+        return sb.length() == 0 ? "nothing to migrate" : sb.substring(0, sb.length() - 2);
+    }
+
+    /**
+     * Migrates the given storages like {@link #migrate}, but into a temporary database next to
+     * {@code database}, which is only moved into its place (replacing it, if it exists) once everything has
+     * been written. So if the migration fails, or the app stops part-way through it, {@code database} is left
+     * as it was. {@code database} must not be open.
+     */
+    public static String migrateToNewDatabase(RecipeBookStorage recipes, IngredientBookStorage ingredients,
+            UsageStorage<RecipeUsage> recipeUsages, UsageStorage<IngredientUsage> ingredientUsages,
+            SqlDatabase database) throws DataConversionException, IOException {
+
+        var temp = new SqlDatabase(database.getPath().resolveSibling(database.getPath().getFileName() + TEMP_SUFFIX));
+
+        // this would be left over from a migration that did not finish.
+        Files.deleteIfExists(temp.getFilePath());
+
+        try {
+            String summary;
+            try (temp) {
+                summary = migrate(recipes, ingredients, recipeUsages, ingredientUsages, temp);
+            }
+
+            FileUtil.replaceFile(temp.getFilePath(), database.getFilePath());
+            return summary;
+
+        } catch (DataConversionException | IOException | RuntimeException e) {
+            Files.deleteIfExists(temp.getFilePath());
+            throw e;
+        }
+    }
+
+    /**
+     * Entry point for the command-line migration tool.
+     */
+    public static void main(String[] args) {
+        if (args.length != 5) {
+            System.err.println(MESSAGE_USAGE);
+            System.exit(1);
+        }
+
+        try (var database = new SqlDatabase(Paths.get(args[0]))) {
+            var summary = migrateToNewDatabase(new JsonRecipeBookStorage(Paths.get(args[1])),
+                new JsonIngredientBookStorage(Paths.get(args[2])),
+                new JsonRecipeUsageStorage(Paths.get(args[3])),
+                new JsonIngredientUsageStorage(Paths.get(args[4])),
+                database);
+
+            System.err.printf("migrated %s to '%s'\n", summary, database.getFilePath());
+
+        } catch (DataConversionException | IOException e) {
+            System.err.printf("error: %s\n", StringUtil.getDetails(e));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+// ImportFileReader.java
+
+package chopchop.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.commons.util.Result;
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.attributes.Name;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * Streams recipes or ingredients out of a file to be imported, one at a time, so that the file never needs to
+ * be held in memory in its entirety. Three formats are understood, and are chosen by the file's extension:
+ *
+ * <ul>
+ *   <li>{@code .json}: the same format as the data files, eg. {@code { "recipes": [ ... ] }}</li>
+ *   <li>{@code .jsonl} or {@code .ndjson}: one recipe or ingredient json object per line</li>
+ *   <li>{@code .csv}: one recipe or ingredient per row, with a header row naming the columns</li>
+ * </ul>
+ *
+ * Any of these may additionally be gzip-compressed (eg. {@code recipes.jsonl.gz}).
+ *
+ * For ingredients, the csv columns are {@code name}, {@code quantity}, {@code expiry} and {@code tags}. For
+ * recipes, they are {@code name}, {@code ingredients}, {@code steps} and {@code tags}. Only {@code name} is
+ * required; lists are separated by {@code ;}, and each of a recipe's ingredients is written as either
+ * {@code name} or {@code name: quantity}.
+ */
+public class ImportFileReader {
+
+    public static final String CSV_LIST_SEPARATOR = ";";
+    public static final String CSV_QUANTITY_SEPARATOR = ":";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Log logger = new Log(ImportFileReader.class);
+
+    /**
+     * The formats of files that can be imported.
+     */
+    public enum Format {
+        JSON, JSON_LINES, CSV;
+
+        /**
+         * Returns the format of the given file, based on its extension.
+         */
+        public static Optional<Format> of(Path path) {
+            if (path.getFileName() == null) {
+                return Optional.empty();
+            }
+
+            var name = path.getFileName().toString().toLowerCase();
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+
+            if (name.endsWith(".json")) {
+                return Optional.of(JSON);
+            } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return Optional.of(JSON_LINES);
+            } else if (name.endsWith(".csv")) {
+                return Optional.of(CSV);
+            } else {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Reads the recipes in the given file, handing each one to {@code consumer} in file order.
+     *
+     * @throws DataConversionException if the file could not be read, if it contained an invalid recipe, or if
+     *                                 the consumer rejected a recipe.
+     */
+    public static void readRecipes(Path path, JsonUtil.ElementConsumer<? super Recipe> consumer)
+            throws DataConversionException {
+        read(path, JsonSerializableRecipeBook.FIELD_RECIPES, Recipe.class, ImportFileReader::parseRecipe, consumer);
+    }
+
+    /**
+     * Reads the ingredients in the given file, handing each one to {@code consumer} in file order.
+     *
+     * @throws DataConversionException if the file could not be read, if it contained an invalid ingredient, or
+     *                                 if the consumer rejected an ingredient.
+     */
+    public static void readIngredients(Path path, JsonUtil.ElementConsumer<? super Ingredient> consumer)
+            throws DataConversionException {
+        read(path, JsonSerializableIngredientBook.FIELD_INGREDIENTS, Ingredient.class,
+            ImportFileReader::parseIngredient, consumer);
+    }
+
+    private static <T> void read(Path path, String fieldName, Class<T> cls, CsvRowParser<T> rowParser,
+            JsonUtil.ElementConsumer<? super T> consumer) throws DataConversionException {
+
+        if (!Files.exists(path)) {
+            throw new DataConversionException(new NoSuchFileException(path.toString()));
+        }
+
+        var format = Format.of(path);
+        if (format.isEmpty()) {
+            throw new DataConversionException(new IllegalValueException(String.format(
+                "Unknown file type '%s' (expected .json, .jsonl, or .csv)", path.getFileName())));
+        }
+
+        logger.log("Importing %s from '%s' (%s)", fieldName, path, format.get());
+
+        switch (format.get()) {
+        case JSON:
+            JsonUtil.readJsonArrayFile(path, fieldName, JsonModelModule.readerFor(cls, /* trusted: */ false),
+                consumer);
+            break;
+
+        case JSON_LINES:
+            readJsonLines(path, cls, consumer);
+            break;
+
+        case CSV: // fallthrough
+        default:
+            readCsv(path, rowParser, consumer);
+            break;
+        }
+    }
+
+    private static <T> void readJsonLines(Path path, Class<T> cls, JsonUtil.ElementConsumer<? super T> consumer)
+            throws DataConversionException {
+
+        int lineNumber = 0;
+        try (var reader = openReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                T element;
+                try {
+                    element = JsonUtil.fromJsonString(line, cls, JsonModelModule.getObjectMapper());
+                } catch (IOException e) {
+                    // validation errors from the model deserialisers come wrapped in the jackson exception.
+                    var msg = e.getCause() instanceof IllegalValueException
+                        ? e.getCause().getMessage()
+                        : "invalid json";
+                    throw new IllegalValueException(String.format("Line %d: %s", lineNumber, msg));
+                }
+
+                consumer.accept(element);
+            }
+
+        } catch (IOException | IllegalValueException e) {
+            logger.warn("Error reading '%s' (line %d): %s", path, lineNumber, e);
+            throw new DataConversionException(e);
+        }
+    }
+
+    private static <T> void readCsv(Path path, CsvRowParser<T> rowParser, JsonUtil.ElementConsumer<? super T> consumer)
+            throws DataConversionException {
+
+        CsvReader csv = null;
+        try (var reader = openReader(path)) {
+            csv = new CsvReader(reader);
+
+            var header = csv.readRecord();
+            if (header.isEmpty()) {
+                throw new IllegalValueException("Missing header row");
+            }
+
+            var columns = new HashMap<String, Integer>();
+            for (int i = 0; i < header.get().size(); i++) {
+                columns.put(header.get().get(i).strip().toLowerCase(), i);
+            }
+
+            if (!columns.containsKey("name")) {
+                throw new IllegalValueException("Missing 'name' column");
+            }
+
+            Optional<List<String>> record;
+            while ((record = csv.readRecord()).isPresent()) {
+                if (record.get().size() == 1 && record.get().get(0).isBlank()) {
+                    continue;
+                }
+
+                var row = new Row(columns, record.get());
+                var element = rowParser.parse(row);
+                if (element.isError()) {
+                    throw new IllegalValueException(String.format("Line %d: %s", csv.getRecordLine(),
+                        element.getError()));
+                }
+
+                consumer.accept(element.getValue());
+            }
+
+        } catch (IOException | IllegalValueException e) {
+            logger.warn("Error reading '%s' (line %d): %s", path, csv == null ? 0 : csv.getRecordLine(), e);
+            throw new DataConversionException(e);
+        }
+    }
+
+    private static BufferedReader openReader(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(FileUtil.openInputStream(path, BUFFER_SIZE),
+            StandardCharsets.UTF_8));
+    }
+
+    private static Result<Ingredient> parseIngredient(Row row) {
+        var name = row.get("name");
+        if (!Name.isValidName(name)) {
+            return Result.error(Name.MESSAGE_CONSTRAINTS);
+        }
+
+        var tags = parseTags(row);
+        if (tags.isError()) {
+            return Result.error(tags.getError());
+        }
+
+        var qty = row.get("quantity");
+        var exp = row.get("expiry");
+
+        return parseQuantity(qty).then(q -> parseExpiry(exp).map(e -> {
+            return new Ingredient(name, q, e, tags.getValue());
+        }));
+    }
+
+    private static Result<Recipe> parseRecipe(Row row) {
+        var name = row.get("name");
+        if (!Name.isValidName(name)) {
+            return Result.error(Name.MESSAGE_CONSTRAINTS);
+        }
+
+        var tags = parseTags(row);
+        if (tags.isError()) {
+            return Result.error(tags.getError());
+        }
+
+        var ingredients = new ArrayList<IngredientReference>();
+        for (var item : splitList(row.get("ingredients"))) {
+            var idx = item.lastIndexOf(CSV_QUANTITY_SEPARATOR);
+            var ingr = (idx < 0 ? item : item.substring(0, idx)).strip();
+            var qty = parseQuantity(idx < 0 ? "" : item.substring(idx + 1).strip());
+
+            if (!Name.isValidName(ingr)) {
+                return Result.error("Ingredient names should not be blank");
+            } else if (qty.isError()) {
+                return Result.error(qty.getError());
+            }
+            ingredients.add(new IngredientReference(ingr, qty.getValue()));
+        }
+
+        var steps = splitList(row.get("steps")).stream()
+            .map(Step::new)
+            .collect(Collectors.toList());
+
+        return Result.of(new Recipe(name, ingredients, steps, tags.getValue()));
+    }
+
+    private static Result<Set<Tag>> parseTags(Row row) {
+        var tags = new LinkedHashSet<Tag>();
+        for (var tag : splitList(row.get("tags"))) {
+            if (!Tag.isValidTag(tag)) {
+                return Result.error(Tag.MESSAGE_CONSTRAINTS);
+            }
+            tags.add(new Tag(tag));
+        }
+
+        return Result.of(tags);
+    }
+
+    private static Result<Optional<Quantity>> parseQuantity(String qty) {
+        if (qty.isEmpty()) {
+            return Result.of(Optional.empty());
+        }
+
+        return Quantity.parse(qty).then(q -> {
+            return q.isNegative() || q.isZero()
+                ? Result.error("Quantity should be positive (found '%s')", q)
+                : Result.of(Optional.of(q));
+        });
+    }
+
+    private static Result<Optional<ExpiryDate>> parseExpiry(String exp) {
+        return exp.isEmpty()
+            ? Result.of(Optional.empty())
+            : ExpiryDate.of(exp).map(Optional::of);
+    }
+
+    private static List<String> splitList(String cell) {
+        var items = new ArrayList<String>();
+        for (var item : cell.split(CSV_LIST_SEPARATOR)) {
+            if (!item.isBlank()) {
+                items.add(item.strip());
+            }
+        }
+        return items;
+    }
+
+    @FunctionalInterface
+    private interface CsvRowParser<T> {
+        Result<T> parse(Row row);
+    }
+
+    /**
+     * One row of a csv file, with cells looked up by their column name.
+     */
+    private static class Row {
+        private final Map<String, Integer> columns;
+        private final List<String> cells;
+
+        Row(Map<String, Integer> columns, List<String> cells) {
+            this.columns = columns;
+            this.cells = cells;
+        }
+
+        /**
+         * Returns the (stripped) cell in the given column, or an empty string if there is no such column.
+         */
+        String get(String column) {
+            var idx = this.columns.get(column);
+            return idx == null || idx >= this.cells.size()
+                ? ""
+                : this.cells.get(idx).strip();
+        }
+    }
+
+    /**
+     * A minimal streaming reader for RFC 4180 csv: fields are separated by commas, and may be quoted with
+     * double quotes, in which case they can contain commas, newlines, and doubled quotes.
+     */
+    private static class CsvReader {
+        private final BufferedReader reader;
+        private int line = 1;
+        private int recordLine = 0;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Returns the line number on which the last record read started.
+         */
+        int getRecordLine() {
+            return this.recordLine;
+        }
+
+        /**
+         * Reads the next record, or returns an empty optional at the end of the file.
+         */
+        Optional<List<String>> readRecord() throws IOException, IllegalValueException {
+            int ch = this.reader.read();
+            if (ch < 0) {
+                return Optional.empty();
+            }
+
+            this.recordLine = this.line;
+
+            var fields = new ArrayList<String>();
+            var sb = new StringBuilder();
+            var quoted = false;
+
+            for (; ch >= 0; ch = this.reader.read()) {
+                if (quoted) {
+                    if (ch != '"') {
+                        this.line += (ch == '\n' ? 1 : 0);
+                        sb.append((char) ch);
+                        continue;
+                    }
+
+                    this.reader.mark(1);
+                    if (this.reader.read() == '"') {
+                        sb.append('"');
+                    } else {
+                        this.reader.reset();
+                        quoted = false;
+                    }
+
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(sb.toString());
+                    sb.setLength(0);
+                } else if (ch == '\n') {
+                    this.line++;
+                    break;
+                } else if (ch != '\r') {
+                    sb.append((char) ch);
+                }
+            }
+
+            if (quoted) {
+                throw new IllegalValueException(String.format("Line %d: unterminated quoted field",
+                    this.recordLine));
+            }
+
+            fields.add(sb.toString());
+            return Optional.of(fields);
+        }
+    }
+}
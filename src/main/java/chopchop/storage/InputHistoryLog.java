@@ -0,0 +1,248 @@
+// InputHistoryLog.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.StringUtil;
+
+/**
+ * The commands entered by the user, saved as an append-only log (one command per line) so that they can be
+ * recalled after a restart. As in the {@code InputHistoryTrie}, a command that is entered more than once only
+ * counts at the last time it was entered, and only the last {@code capacity} distinct commands are kept. The log
+ * is a bounded ring: it holds at least those commands, and once it grows to twice {@code capacity} lines, it is
+ * rewritten with only them (oldest first, without repeats). Reading it only reads the end of the file, so a large
+ * log does not slow down startup.
+ *
+ * Failing to read or write the log is not an error, since the commands themselves are unaffected; it is logged,
+ * and the history is just not saved.
+ */
+public class InputHistoryLog {
+    public static final String FILE_NAME = "history.log";
+
+    private static final Log logger = new Log(InputHistoryLog.class);
+    private static final int READ_BLOCK_SIZE = 8192;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final int capacity;
+
+    // the number of lines in the file, as far as we know; it is only ever over-estimated.
+    private int lineCount;
+
+    /**
+     * Constructs an {@code InputHistoryLog} for the log at {@code path}, which keeps at least the last
+     * {@code capacity} commands.
+     */
+    public InputHistoryLog(Path path, int capacity) {
+        this.path = path;
+        this.capacity = capacity;
+        this.lineCount = 2 * capacity;
+    }
+
+    /**
+     * Returns the path of the input history log for the preferences file at {@code userPrefsPath}. The log is kept
+     * next to the preferences rather than the data files, since it belongs to the user and not to any workspace,
+     * and should not be backed up or restored with the data.
+     */
+    public static Path getLogPath(Path userPrefsPath) {
+        return userPrefsPath.resolveSibling(FILE_NAME);
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Reads the last {@code capacity} distinct commands from the log, oldest first. Only the end of the file is
+     * read; if there is more before it (or the last line was not completely written), the log is compacted so that
+     * it holds only what was read.
+     */
+    public List<String> read() {
+        if (!Files.exists(this.path)) {
+            this.lineCount = 0;
+            return new ArrayList<>();
+        }
+
+        try {
+            var tail = this.readTail();
+            if (tail.isTruncated) {
+                this.rewrite(tail.lines);
+            } else {
+                this.lineCount = tail.lineCount;
+            }
+
+            logger.debug("Read %d commands from '%s'", tail.lines.size(), this.path);
+            return tail.lines;
+
+        } catch (IOException e) {
+            logger.warn("Failed to read input history from '%s': %s", this.path, StringUtil.getDetails(e));
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Appends the given command to the log, compacting it first if it has grown to twice its capacity.
+     */
+    public void append(String input) {
+        try {
+            if (this.lineCount >= 2 * this.capacity && Files.exists(this.path)) {
+                this.rewrite(this.readTail().lines);
+            }
+
+            FileUtil.createParentDirsOfFile(this.path);
+            Files.writeString(this.path, escape(input) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+            this.lineCount++;
+
+        } catch (IOException e) {
+            logger.warn("Failed to save input history to '%s': %s", this.path, StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * Reads the last {@code capacity} distinct commands in the log (each at the last time it was entered, oldest
+     * first), going backwards from the end of the file one block at a time, so that only those lines are read.
+     */
+    private Tail readTail() throws IOException {
+        try (var file = new RandomAccessFile(this.path.toFile(), "r")) {
+            var block = new byte[READ_BLOCK_SIZE];
+            var position = file.length();
+
+            // the newest commands are found first, so they are put at the front.
+            var lines = new ArrayDeque<String>();
+            var seen = new HashSet<String>();
+            var lineCount = 0;
+            var isTruncated = false;
+            var isTorn = false;
+
+            // the part of the current line that is in the blocks already read, and whether it is a complete line;
+            // the text after the last newline is not, since it was being written when the app stopped.
+            var rest = new byte[0];
+            var isComplete = false;
+
+            while (position > 0 && !isTruncated) {
+                var length = (int) Math.min(READ_BLOCK_SIZE, position);
+                position -= length;
+
+                file.seek(position);
+                file.readFully(block, 0, length);
+
+                var lineEnd = length;
+                for (int i = length - 1; i >= 0 && !isTruncated; i--) {
+                    if (block[i] != '\n') {
+                        continue;
+                    }
+
+                    if (isComplete) {
+                        addLine(lines, seen, concat(block, i + 1, lineEnd, rest));
+                        lineCount++;
+                    } else if (lineEnd > i + 1 || rest.length > 0) {
+                        isTorn = true;
+                    }
+
+                    rest = new byte[0];
+                    isComplete = true;
+                    lineEnd = i;
+
+                    // anything before this is older than the commands that were read, so it is dropped.
+                    if (seen.size() == this.capacity && (position > 0 || i > 0)) {
+                        isTruncated = true;
+                    }
+                }
+
+                rest = concat(block, 0, lineEnd, rest);
+            }
+
+            if (!isTruncated && rest.length > 0) {
+                if (isComplete) {
+                    addLine(lines, seen, rest);
+                    lineCount++;
+                } else {
+                    isTorn = true;
+                }
+            }
+
+            return new Tail(new ArrayList<>(lines), lineCount, isTruncated || isTorn);
+        }
+    }
+
+    /**
+     * Adds an older line to the front of {@code lines}, unless the same command was entered again later.
+     */
+    private static void addLine(ArrayDeque<String> lines, Set<String> seen, byte[] line) {
+        var input = unescape(new String(line, StandardCharsets.UTF_8));
+        if (seen.add(input)) {
+            lines.addFirst(input);
+        }
+    }
+
+    private static byte[] concat(byte[] block, int from, int to, byte[] rest) {
+        var bytes = Arrays.copyOfRange(block, from, to + rest.length);
+        System.arraycopy(rest, 0, bytes, to - from, rest.length);
+        return bytes;
+    }
+
+    private void rewrite(List<String> lines) throws IOException {
+        var sb = new StringBuilder();
+        for (var line : lines) {
+            sb.append(escape(line)).append('\n');
+        }
+
+        var temp = this.path.resolveSibling(this.path.getFileName() + TEMP_SUFFIX);
+        Files.writeString(temp, sb.toString(), StandardCharsets.UTF_8);
+        FileUtil.replaceFile(temp, this.path);
+
+        this.lineCount = lines.size();
+        logger.debug("Compacted '%s' to %d commands", this.path, lines.size());
+    }
+
+    /**
+     * Escapes backslashes and line breaks, so that every command takes exactly one line.
+     */
+    private static String escape(String input) {
+        return input.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String line) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (c != '\\' || i + 1 == line.length()) {
+                sb.append(c);
+                continue;
+            }
+
+            var next = line.charAt(++i);
+            sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+        }
+
+        return sb.toString();
+    }
+
+    private static class Tail {
+        final List<String> lines;
+        final int lineCount;
+        final boolean isTruncated;
+
+        Tail(List<String> lines, int lineCount, boolean isTruncated) {
+            this.lines = lines;
+            this.lineCount = lineCount;
+            this.isTruncated = isTruncated;
+        }
+    }
+}
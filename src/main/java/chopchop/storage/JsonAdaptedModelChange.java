@@ -0,0 +1,126 @@
+// JsonAdaptedModelChange.java
+
+package chopchop.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.ModelChange;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Jackson-friendly version of {@link ModelChange}. The recipes and ingredients are written directly, so this must
+ * be read and written with the mapper from {@link JsonModelModule#getObjectMapper()}.
+ */
+class JsonAdaptedModelChange {
+    public static final String MISSING_FIELD_MESSAGE_FORMAT = "Change's %s field is missing!";
+
+    private final String description;
+    private final List<Recipe> removedRecipes;
+    private final List<Recipe> addedRecipes;
+    private final List<Ingredient> removedIngredients;
+    private final List<Ingredient> addedIngredients;
+    private final List<JsonAdaptedRecipeUsage> removedRecipeUsages;
+    private final List<JsonAdaptedRecipeUsage> addedRecipeUsages;
+    private final List<JsonAdaptedIngredientUsage> removedIngredientUsages;
+    private final List<JsonAdaptedIngredientUsage> addedIngredientUsages;
+
+    /**
+     * Constructs a {@code JsonAdaptedModelChange} with the given details.
+     */
+    @JsonCreator
+    public JsonAdaptedModelChange(@JsonProperty("description") String description,
+                                  @JsonProperty("removedRecipes") List<Recipe> removedRecipes,
+                                  @JsonProperty("addedRecipes") List<Recipe> addedRecipes,
+                                  @JsonProperty("removedIngredients") List<Ingredient> removedIngredients,
+                                  @JsonProperty("addedIngredients") List<Ingredient> addedIngredients,
+                                  @JsonProperty("removedRecipeUsages") List<JsonAdaptedRecipeUsage> removedRecipeUsages,
+                                  @JsonProperty("addedRecipeUsages") List<JsonAdaptedRecipeUsage> addedRecipeUsages,
+                                  @JsonProperty("removedIngredientUsages")
+                                      List<JsonAdaptedIngredientUsage> removedIngredientUsages,
+                                  @JsonProperty("addedIngredientUsages")
+                                      List<JsonAdaptedIngredientUsage> addedIngredientUsages) {
+        this.description = description;
+        this.removedRecipes = removedRecipes;
+        this.addedRecipes = addedRecipes;
+        this.removedIngredients = removedIngredients;
+        this.addedIngredients = addedIngredients;
+        this.removedRecipeUsages = removedRecipeUsages;
+        this.addedRecipeUsages = addedRecipeUsages;
+        this.removedIngredientUsages = removedIngredientUsages;
+        this.addedIngredientUsages = addedIngredientUsages;
+    }
+
+    /**
+     * Converts a given {@code ModelChange} into this class for Jackson use.
+     */
+    public JsonAdaptedModelChange(ModelChange source) {
+        this.description = source.getDescription();
+        this.removedRecipes = source.getRecipes().getRemoved();
+        this.addedRecipes = source.getRecipes().getAdded();
+        this.removedIngredients = source.getIngredients().getRemoved();
+        this.addedIngredients = source.getIngredients().getAdded();
+        this.removedRecipeUsages = source.getRecipeUsages().getRemoved().stream()
+            .map(JsonAdaptedRecipeUsage::new)
+            .collect(Collectors.toList());
+        this.addedRecipeUsages = source.getRecipeUsages().getAdded().stream()
+            .map(JsonAdaptedRecipeUsage::new)
+            .collect(Collectors.toList());
+        this.removedIngredientUsages = source.getIngredientUsages().getRemoved().stream()
+            .map(JsonAdaptedIngredientUsage::new)
+            .collect(Collectors.toList());
+        this.addedIngredientUsages = source.getIngredientUsages().getAdded().stream()
+            .map(JsonAdaptedIngredientUsage::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts this Jackson-friendly adapted change into the model's {@code ModelChange} object.
+     *
+     * @throws IllegalValueException if there were any data constraints violated.
+     */
+    public ModelChange toModelType() throws IllegalValueException {
+        if (this.description == null) {
+            throw new IllegalValueException(String.format(MISSING_FIELD_MESSAGE_FORMAT, "description"));
+        }
+
+        var removedRecipeUsages = new ArrayList<RecipeUsage>();
+        for (var usage : orEmpty(this.removedRecipeUsages)) {
+            removedRecipeUsages.add(usage.toModelType());
+        }
+
+        var addedRecipeUsages = new ArrayList<RecipeUsage>();
+        for (var usage : orEmpty(this.addedRecipeUsages)) {
+            addedRecipeUsages.add(usage.toModelType());
+        }
+
+        var removedIngredientUsages = new ArrayList<IngredientUsage>();
+        for (var usage : orEmpty(this.removedIngredientUsages)) {
+            removedIngredientUsages.add(usage.toModelType());
+        }
+
+        var addedIngredientUsages = new ArrayList<IngredientUsage>();
+        for (var usage : orEmpty(this.addedIngredientUsages)) {
+            addedIngredientUsages.add(usage.toModelType());
+        }
+
+        return new ModelChange(this.description,
+            new ModelChange.Part<>(orEmpty(this.removedRecipes), orEmpty(this.addedRecipes)),
+            new ModelChange.Part<>(orEmpty(this.removedIngredients), orEmpty(this.addedIngredients)),
+            new ModelChange.Part<>(removedRecipeUsages, addedRecipeUsages),
+            new ModelChange.Part<>(removedIngredientUsages, addedIngredientUsages));
+    }
+
+    // lists that are missing (eg. from a log that was edited by hand) are taken to be empty.
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
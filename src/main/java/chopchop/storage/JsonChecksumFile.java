@@ -0,0 +1,168 @@
+// JsonChecksumFile.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+
+/**
+ * A small file kept next to each json data file (eg. {@code recipebook.json.checksum}), recording the schema
+ * version and checksum of the data file as it was last written by us. When a data file is read, and its
+ * checksum still matches, the file cannot have been edited or corrupted since, so it is read in trusted mode
+ * (see {@link JsonModelModule}), skipping validation that is redundant for such files. Otherwise, it is
+ * validated in full as usual.
+ *
+ * The checksum is computed while the file is being parsed, so the file is only read once, and the elements are
+ * handed on as they are read, as with any other json data file. If the checksum turns out not to match (or the
+ * trusted read fails), whatever was handed on is discarded, and the file is read again with full validation;
+ * this only happens for files that were changed outside of the app.
+ */
+public class JsonChecksumFile {
+    public static final int SCHEMA_VERSION = 1;
+    public static final String EXTENSION = ".checksum";
+
+    private static final Log logger = new Log(JsonChecksumFile.class);
+
+    private final Integer version;
+    private final String checksum;
+    private final Long size;
+
+    /**
+     * Constructs a {@code JsonChecksumFile} with the given schema version, checksum, and file size.
+     */
+    @JsonCreator
+    public JsonChecksumFile(@JsonProperty("version") Integer version,
+                            @JsonProperty("checksum") String checksum,
+                            @JsonProperty("size") Long size) {
+        this.version = version;
+        this.checksum = checksum;
+        this.size = size;
+    }
+
+    public int getVersion() {
+        return this.version == null ? 0 : this.version;
+    }
+
+    public String getChecksum() {
+        return this.checksum;
+    }
+
+    /**
+     * Returns the path of the checksum file for the data file at {@code dataFile}.
+     */
+    public static Path getChecksumPath(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Returns the checksum file of the data file at {@code dataFile}, if it exists, has the current schema
+     * version, and records the data file's current size; only then can the checksum match.
+     */
+    private static Optional<JsonChecksumFile> readExpected(Path dataFile) {
+        var path = getChecksumPath(dataFile);
+        if (!Files.exists(path) || !Files.exists(dataFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            var expected = JsonUtil.readJsonFile(path, JsonChecksumFile.class);
+            if (expected.isEmpty() || expected.get().checksum == null || expected.get().size == null) {
+                return Optional.empty();
+            } else if (expected.get().getVersion() != SCHEMA_VERSION) {
+                logger.log("Data file '%s' has schema version %d (expected %d); validating it", dataFile,
+                    expected.get().getVersion(), SCHEMA_VERSION);
+                return Optional.empty();
+            }
+
+            // the size is much cheaper to check than the checksum, and catches most edits.
+            if (Files.size(dataFile) != expected.get().size) {
+                logger.warn("Data file '%s' was modified outside of the app; validating it", dataFile);
+                return Optional.empty();
+            }
+
+            return expected;
+
+        } catch (DataConversionException | IOException e) {
+            logger.warn("Could not read checksum file '%s': %s", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the json array file at {@code dataFile} like {@link JsonUtil#readJsonArrayFile}, in trusted mode
+     * if its checksum matches. The elements are handed to {@code consumer} as they are read; if the checksum
+     * only turns out not to match at the end, {@code reset} is called to discard them, and the file is read
+     * again with full validation.
+     */
+    public static <T> boolean readJsonArrayFile(Path dataFile, String fieldName, Class<T> elementClass,
+            JsonUtil.ElementConsumer<? super T> consumer, Runnable reset) throws DataConversionException {
+
+        var expected = readExpected(dataFile);
+        if (expected.isPresent()) {
+            var checksum = new CRC32();
+
+            try {
+                var found = JsonUtil.<T>readJsonArrayFile(dataFile, fieldName,
+                    JsonModelModule.readerFor(elementClass, /* trusted: */ true), checksum, consumer);
+
+                if (found && FileUtil.formatChecksum(checksum).equals(expected.get().checksum)) {
+                    return true;
+                }
+
+                logger.warn("Data file '%s' was modified outside of the app; validating it", dataFile);
+
+            } catch (DataConversionException | RuntimeException e) {
+                // whatever went wrong, reading the file with full validation will report it properly.
+                logger.warn("Could not read data file '%s' in trusted mode; validating it: %s", dataFile, e);
+            }
+
+            reset.run();
+        }
+
+        return JsonUtil.readJsonArrayFile(dataFile, fieldName,
+            JsonModelModule.readerFor(elementClass, /* trusted: */ false), consumer);
+    }
+
+    /**
+     * Saves the json array file at {@code dataFile} like {@link JsonUtil#saveJsonArrayFile}, then writes its
+     * checksum file.
+     */
+    public static <S> void saveJsonArrayFile(Path dataFile, String fieldName, Iterable<? extends S> items,
+            Function<? super S, ?> adapter, boolean compress) throws IOException {
+
+        var checksum = JsonUtil.saveJsonArrayFile(dataFile, fieldName, items, adapter, compress,
+            JsonModelModule.getObjectMapper());
+        write(dataFile, checksum);
+    }
+
+    /**
+     * Writes the checksum file for the data file at {@code dataFile}, which has the given checksum. Since
+     * the checksum file is only an optimisation, failing to write it is not an error; the stale checksum file
+     * is deleted instead, so the data file will simply be validated in full the next time it is read.
+     */
+    public static void write(Path dataFile, String checksum) {
+        var path = getChecksumPath(dataFile);
+        try {
+            JsonUtil.saveJsonFile(new JsonChecksumFile(SCHEMA_VERSION, checksum, Files.size(dataFile)), path);
+        } catch (IOException e) {
+            logger.warn("Could not write checksum file '%s': %s", path, e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e1) {
+                logger.warn("Could not delete stale checksum file '%s': %s", path, e1);
+            }
+        }
+    }
+}
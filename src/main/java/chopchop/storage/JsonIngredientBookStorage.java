@@ -4,23 +4,33 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.function.Function;
 
-import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
 import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.commons.util.FileUtil;
-import chopchop.commons.util.JsonUtil;
+import chopchop.model.EntryBook;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.ingredient.Ingredient;
 
 public class JsonIngredientBookStorage implements IngredientBookStorage {
-    private static final Log logger = new Log(JsonIngredientBookStorage.class);
-
     private final Path filePath;
+    private final boolean compress;
 
     public JsonIngredientBookStorage(Path filePath) {
+        this(filePath, /* compress: */ false);
+    }
+
+    /**
+     * Constructs a storage that saves to {@code filePath}, compressing the file with gzip if
+     * {@code compress} is true.
+     */
+    public JsonIngredientBookStorage(Path filePath, boolean compress) {
         this.filePath = filePath;
+        this.compress = compress;
     }
 
     /**
@@ -50,18 +60,25 @@ public class JsonIngredientBookStorage implements IngredientBookStorage {
     public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook(Path filePath) throws DataConversionException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableIngredientBook> jsonIngredientBook = JsonUtil.readJsonFile(
-            filePath, JsonSerializableIngredientBook.class);
-        if (jsonIngredientBook.isEmpty()) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(jsonIngredientBook.get().toModelType());
-        } catch (IllegalValueException ive) {
-            logger.warn("json error ('%s'): %s", filePath, ive.getMessage());
-            throw new DataConversionException(ive);
-        }
+        var ingredients = new ArrayList<Ingredient>();
+        var names = new HashSet<String>();
+
+        var found = JsonChecksumFile.readJsonArrayFile(filePath, JsonSerializableIngredientBook.FIELD_INGREDIENTS,
+            Ingredient.class, ingredient -> {
+                // entries are the same iff their names are, so this avoids comparing every pair of entries.
+                if (!names.add(ingredient.getName().toLowerCase())) {
+                    throw new IllegalValueException(JsonSerializableIngredientBook.MESSAGE_DUPLICATE_INGREDIENT);
+                }
+                ingredients.add(ingredient);
+            }, () -> {
+                ingredients.clear();
+                names.clear();
+            });
+
+        var ingredientBook = new EntryBook<Ingredient>();
+        ingredientBook.addAll(ingredients);
+
+        return found ? Optional.of(ingredientBook) : Optional.empty();
     }
 
     /**
@@ -88,6 +105,7 @@ public class JsonIngredientBookStorage implements IngredientBookStorage {
         requireNonNull(filePath);
 
         FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableIngredientBook(ingredientBook), filePath);
+        JsonChecksumFile.saveJsonArrayFile(filePath, JsonSerializableIngredientBook.FIELD_INGREDIENTS,
+            ingredientBook.getEntryList(), Function.identity(), this.compress);
     }
 }
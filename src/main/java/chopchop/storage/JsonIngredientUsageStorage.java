@@ -5,23 +5,30 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.function.Function;
 
-import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
-import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.commons.util.FileUtil;
-import chopchop.commons.util.JsonUtil;
 import chopchop.model.UsageList;
 import chopchop.model.usage.IngredientUsage;
 
 public class JsonIngredientUsageStorage implements UsageStorage<IngredientUsage> {
-    private static final Log logger = new Log(JsonIngredientUsageStorage.class);
-
     private final Path filePath;
+    private final boolean compress;
 
     public JsonIngredientUsageStorage(Path filePath) {
+        this(filePath, /* compress: */ false);
+    }
+
+    /**
+     * Constructs a storage that saves to {@code filePath}, compressing the file with gzip if
+     * {@code compress} is true.
+     */
+    public JsonIngredientUsageStorage(Path filePath, boolean compress) {
         this.filePath = filePath;
+        this.compress = compress;
     }
 
     /**
@@ -41,18 +48,11 @@ public class JsonIngredientUsageStorage implements UsageStorage<IngredientUsage>
     public Optional<UsageList<IngredientUsage>> readUsages(Path filePath) throws DataConversionException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableIngredientUsageList> jsonUsageList = JsonUtil.readJsonFile(
-            filePath, JsonSerializableIngredientUsageList.class);
-        if (jsonUsageList.isEmpty()) {
-            return Optional.empty();
-        }
+        var usages = new ArrayList<IngredientUsage>();
+        var found = JsonChecksumFile.readJsonArrayFile(filePath, JsonSerializableIngredientUsageList.FIELD_USAGES,
+            IngredientUsage.class, usages::add, usages::clear);
 
-        try {
-            return Optional.of(jsonUsageList.get().toModelType());
-        } catch (IllegalValueException e) {
-            logger.warn("json error ('%s'): %s", filePath, e.getMessage());
-            throw new DataConversionException(e);
-        }
+        return found ? Optional.of(new UsageList<>(usages)) : Optional.empty();
     }
 
     @Override
@@ -65,6 +65,7 @@ public class JsonIngredientUsageStorage implements UsageStorage<IngredientUsage>
         requireAllNonNull(usages, filePath);
 
         FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableIngredientUsageList(usages), filePath);
+        JsonChecksumFile.saveJsonArrayFile(filePath, JsonSerializableIngredientUsageList.FIELD_USAGES,
+            usages.getUsages(), Function.identity(), this.compress);
     }
 }
@@ -0,0 +1,719 @@
+// JsonModelModule.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.JsonUtil;
+import chopchop.commons.util.Pair;
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.attributes.Name;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Jackson serialisers and deserialisers that read and write the model classes directly, without going
+ * through the {@code JsonAdapted*} classes. The json produced is identical to that of the adapted classes,
+ * and the same validation is performed (with the same error messages) when reading.
+ *
+ * Validation errors are reported as a {@link JsonMappingException} whose cause is the
+ * {@link IllegalValueException}; {@code JsonUtil} unwraps these so that callers see the original error.
+ *
+ * Files that are known to have been written by us (because their checksum matched) can be read in trusted
+ * mode (see {@link #withReadOptions(ObjectReader, boolean)}), which skips the checks that the model classes
+ * repeat in their constructors anyway, and parses each expiry date once instead of twice. Missing fields
+ * are still detected, and the constructors still reject invalid values.
+ *
+ * {@code JsonUtil} itself does not know about this module; storage classes pass it the mapper from
+ * {@link #getObjectMapper()} (or a reader from {@link #readerFor(Class, boolean)}) instead.
+ */
+public class JsonModelModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    private static final String ATTR_TRUSTED = "chopchop.trusted";
+    private static final String ATTR_QUANTITY_CACHE = "chopchop.quantityCache";
+
+    // most data files only use a handful of distinct quantities, so they are parsed once each per read.
+    private static final int QUANTITY_CACHE_SIZE = 1024;
+
+    private static final ObjectMapper objectMapper = JsonUtil.copyObjectMapper().registerModule(new JsonModelModule());
+
+    /**
+     * Creates the module containing the model serialisers and deserialisers.
+     */
+    public JsonModelModule() {
+        super("ModelModule");
+
+        this.addSerializer(Recipe.class, new RecipeSerialiser());
+        this.addDeserializer(Recipe.class, new RecipeDeserialiser());
+
+        this.addSerializer(Ingredient.class, new IngredientSerialiser());
+        this.addDeserializer(Ingredient.class, new IngredientDeserialiser());
+
+        this.addSerializer(RecipeUsage.class, new RecipeUsageSerialiser());
+        this.addDeserializer(RecipeUsage.class, new RecipeUsageDeserialiser());
+
+        this.addSerializer(IngredientUsage.class, new IngredientUsageSerialiser());
+        this.addDeserializer(IngredientUsage.class, new IngredientUsageDeserialiser());
+    }
+
+    /**
+     * Returns the mapper used by {@code JsonUtil}, with this module registered. It is shared, so it must not be
+     * configured any further.
+     */
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Returns a reader for values of the given class, with the read options of
+     * {@link #withReadOptions(ObjectReader, boolean)}.
+     */
+    public static ObjectReader readerFor(Class<?> valueClass, boolean trusted) {
+        return withReadOptions(objectMapper.readerFor(valueClass), trusted);
+    }
+
+    /**
+     * Returns a reader that reads the model classes in trusted mode if {@code trusted} is true, and which
+     * caches parsed quantities across all the values it reads. A new reader should be used for each file.
+     */
+    public static ObjectReader withReadOptions(ObjectReader reader, boolean trusted) {
+        return reader
+            .withAttribute(ATTR_TRUSTED, trusted)
+            .withAttribute(ATTR_QUANTITY_CACHE, new LinkedHashMap<String, Quantity>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Quantity> eldest) {
+                    return this.size() > QUANTITY_CACHE_SIZE;
+                }
+            });
+    }
+
+
+
+
+    private static class RecipeSerialiser extends StdSerializer<Recipe> {
+        private static final long serialVersionUID = 1L;
+
+        RecipeSerialiser() {
+            super(Recipe.class);
+        }
+
+        @Override
+        public void serialize(Recipe recipe, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("name", recipe.getName());
+
+            gen.writeArrayFieldStart("ingredients");
+            for (var ingredient : recipe.getIngredients()) {
+                gen.writeStartObject();
+                gen.writeStringField("name", ingredient.getName());
+                gen.writeStringField("quantity", ingredient.getQuantity().toString());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("steps");
+            for (var step : recipe.getSteps()) {
+                gen.writeString(step.toString());
+            }
+            gen.writeEndArray();
+
+            writeTags(gen, recipe.getTags());
+            gen.writeEndObject();
+        }
+    }
+
+    private static class RecipeDeserialiser extends StdDeserializer<Recipe> {
+        private static final long serialVersionUID = 1L;
+
+        RecipeDeserialiser() {
+            super(Recipe.class);
+        }
+
+        @Override
+        public Recipe deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p);
+
+            String name = null;
+            List<Pair<String, String>> ingredients = null;
+            List<String> steps = null;
+            List<String> tags = null;
+
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "name":
+                    name = readString(p);
+                    break;
+
+                case "ingredients":
+                    ingredients = readList(p, () -> readIngredientReference(p));
+                    break;
+
+                case "steps":
+                    steps = readStringList(p);
+                    break;
+
+                case "tags":
+                    tags = readStringList(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            // this follows the same order of checks as JsonAdaptedRecipe, so the errors are the same.
+            try {
+                var trusted = isTrusted(ctxt);
+                var missingMsg = JsonAdaptedRecipe.RECIPE_MISSING_FIELD_MESSAGE_FORMAT;
+                checkName(name, missingMsg, trusted);
+
+                if (ingredients == null) {
+                    throw new IllegalValueException(String.format(missingMsg,
+                        IngredientReference.class.getSimpleName()));
+                }
+
+                var modelIngredients = new ArrayList<IngredientReference>(ingredients.size());
+                for (var ingredient : ingredients) {
+                    modelIngredients.add(toIngredientReference(ingredient, ctxt));
+                }
+
+                if (steps == null) {
+                    throw new IllegalValueException(String.format(missingMsg, Step.class.getSimpleName()));
+                }
+
+                var modelSteps = new ArrayList<Step>(steps.size());
+                for (var step : steps) {
+                    if (step == null || (!trusted && !Step.isValidStep(step))) {
+                        throw new IllegalValueException(Step.MESSAGE_CONSTRAINTS);
+                    }
+                    modelSteps.add(new Step(step));
+                }
+
+                return new Recipe(name, modelIngredients, modelSteps, toTags(tags, missingMsg, trusted));
+
+            } catch (IllegalValueException e) {
+                throw invalid(p, e);
+            } catch (IllegalArgumentException e) {
+                throw invalid(p, new IllegalValueException(e.getMessage()));
+            }
+        }
+
+        private static Pair<String, String> readIngredientReference(JsonParser p) throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return Pair.of(null, null);
+            }
+
+            String name = null;
+            String quantity = null;
+
+            expectObject(p);
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "name":
+                    name = readString(p);
+                    break;
+
+                case "quantity":
+                    quantity = readString(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            return Pair.of(name, quantity);
+        }
+
+        private static IngredientReference toIngredientReference(Pair<String, String> ref,
+                DeserializationContext ctxt) throws IllegalValueException {
+
+            var missingMsg = JsonAdaptedIngredientReference.INGREDIENT_REFERENCE_MISSING_FIELD_MESSAGE_FORMAT;
+            if (ref.fst() == null) {
+                throw new IllegalValueException(String.format(missingMsg, "name"));
+            }
+
+            if (ref.snd() == null) {
+                throw new IllegalValueException(String.format(missingMsg, "quantity"));
+            }
+
+            return new IngredientReference(ref.fst(), parseQuantity(ref.snd(), ctxt));
+        }
+    }
+
+    private static class IngredientSerialiser extends StdSerializer<Ingredient> {
+        private static final long serialVersionUID = 1L;
+
+        IngredientSerialiser() {
+            super(Ingredient.class);
+        }
+
+        @Override
+        public void serialize(Ingredient ingredient, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+
+            gen.writeStartObject();
+            gen.writeStringField("name", ingredient.getName());
+
+            // the extra level of nesting is an artifact of JsonAdaptedIngredientSet.
+            gen.writeObjectFieldStart("sets");
+            gen.writeArrayFieldStart("sets");
+            for (var set : ingredient.getIngredientSets().entrySet()) {
+                gen.writeStartObject();
+                gen.writeStringField("quantity", set.getValue().toString());
+                gen.writeStringField("expiryDate", set.getKey().map(ExpiryDate::toString).orElse(""));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+
+            writeTags(gen, ingredient.getTags());
+            gen.writeEndObject();
+        }
+    }
+
+    private static class IngredientDeserialiser extends StdDeserializer<Ingredient> {
+        private static final long serialVersionUID = 1L;
+
+        IngredientDeserialiser() {
+            super(Ingredient.class);
+        }
+
+        @Override
+        public Ingredient deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p);
+
+            String name = null;
+            Optional<List<Pair<String, String>>> sets = null;
+            List<String> tags = null;
+
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "name":
+                    name = readString(p);
+                    break;
+
+                case "sets":
+                    sets = readSets(p);
+                    break;
+
+                case "tags":
+                    tags = readStringList(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            // this follows the same order of checks as JsonAdaptedIngredient, so the errors are the same.
+            try {
+                var trusted = isTrusted(ctxt);
+                var missingMsg = JsonAdaptedIngredient.INGREDIENT_MISSING_FIELD_MESSAGE_FORMAT;
+                checkName(name, missingMsg, trusted);
+
+                if (sets == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "sets"));
+                }
+
+                var modelTags = toTags(tags, missingMsg, trusted);
+
+                if (sets.isEmpty()) {
+                    throw new IllegalValueException(String.format(missingMsg, "sets"));
+                }
+
+                var modelSets = new TreeMap<Optional<ExpiryDate>, Quantity>(Ingredient.SET_COMPARATOR);
+                for (var set : sets.get()) {
+                    if (set.fst() == null) {
+                        throw new IllegalValueException(String.format(missingMsg, Quantity.class.getSimpleName()));
+                    }
+
+                    if (set.snd() == null) {
+                        throw new IllegalValueException(String.format(missingMsg,
+                            ExpiryDate.class.getSimpleName()));
+                    }
+
+                    var qty = parseQuantity(set.fst(), ctxt);
+                    if (set.snd().isBlank()) {
+                        modelSets.put(Optional.empty(), qty);
+                    } else if (trusted) {
+                        modelSets.put(Optional.of(new ExpiryDate(LocalDate.parse(set.snd(), ExpiryDate.FORMAT))), qty);
+                    } else if (!ExpiryDate.isValidDate(set.snd())) {
+                        throw new IllegalValueException(ExpiryDate.MESSAGE_CONSTRAINTS);
+                    } else {
+                        modelSets.put(Optional.of(new ExpiryDate(set.snd())), qty);
+                    }
+                }
+
+                return new Ingredient(name, modelSets, modelTags);
+
+            } catch (IllegalValueException e) {
+                throw invalid(p, e);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw invalid(p, new IllegalValueException(e.getMessage()));
+            }
+        }
+
+        /**
+         * Reads the outer "sets" object; returns null if the object itself is null, and an empty optional
+         * if the inner "sets" list is missing or null.
+         */
+        private static Optional<List<Pair<String, String>>> readSets(JsonParser p) throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+
+            List<Pair<String, String>> sets = null;
+
+            expectObject(p);
+            while (nextField(p)) {
+                if (p.getCurrentName().equals("sets")) {
+                    sets = readList(p, () -> readSetPair(p));
+                } else {
+                    p.skipChildren();
+                }
+            }
+
+            return Optional.ofNullable(sets);
+        }
+
+        private static Pair<String, String> readSetPair(JsonParser p) throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return Pair.of(null, null);
+            }
+
+            String quantity = null;
+            String expiryDate = null;
+
+            expectObject(p);
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "quantity":
+                    quantity = readString(p);
+                    break;
+
+                case "expiryDate":
+                    expiryDate = readString(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            return Pair.of(quantity, expiryDate);
+        }
+    }
+
+    private static class RecipeUsageSerialiser extends StdSerializer<RecipeUsage> {
+        private static final long serialVersionUID = 1L;
+
+        RecipeUsageSerialiser() {
+            super(RecipeUsage.class);
+        }
+
+        @Override
+        public void serialize(RecipeUsage usage, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("name", usage.getName());
+            gen.writeStringField("date", usage.getDate().toString());
+            gen.writeEndObject();
+        }
+    }
+
+    private static class RecipeUsageDeserialiser extends StdDeserializer<RecipeUsage> {
+        private static final long serialVersionUID = 1L;
+
+        RecipeUsageDeserialiser() {
+            super(RecipeUsage.class);
+        }
+
+        @Override
+        public RecipeUsage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p);
+
+            String name = null;
+            String date = null;
+
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "name":
+                    name = readString(p);
+                    break;
+
+                case "date":
+                    date = readString(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            try {
+                var missingMsg = JsonAdaptedRecipeUsage.USAGE_MISSING_FIELD_MESSAGE_FORMAT;
+                if (name == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "name"));
+                }
+                if (date == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "date"));
+                }
+
+                return new RecipeUsage(name, parseDate(date));
+
+            } catch (IllegalValueException e) {
+                throw invalid(p, e);
+            }
+        }
+    }
+
+    private static class IngredientUsageSerialiser extends StdSerializer<IngredientUsage> {
+        private static final long serialVersionUID = 1L;
+
+        IngredientUsageSerialiser() {
+            super(IngredientUsage.class);
+        }
+
+        @Override
+        public void serialize(IngredientUsage usage, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+
+            // note that the quantity is written as "qty", but read as either "qty" or "quantity"; this
+            // mirrors the behaviour of JsonAdaptedIngredientUsage.
+            gen.writeStartObject();
+            gen.writeStringField("name", usage.getName());
+            gen.writeStringField("date", usage.getDate().toString());
+            gen.writeStringField("qty", usage.getQty().toString());
+            gen.writeEndObject();
+        }
+    }
+
+    private static class IngredientUsageDeserialiser extends StdDeserializer<IngredientUsage> {
+        private static final long serialVersionUID = 1L;
+
+        IngredientUsageDeserialiser() {
+            super(IngredientUsage.class);
+        }
+
+        @Override
+        public IngredientUsage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p);
+
+            String name = null;
+            String date = null;
+            String qty = null;
+
+            while (nextField(p)) {
+                switch (p.getCurrentName()) {
+                case "name":
+                    name = readString(p);
+                    break;
+
+                case "date":
+                    date = readString(p);
+                    break;
+
+                case "qty":
+                case "quantity":
+                    qty = readString(p);
+                    break;
+
+                default:
+                    p.skipChildren();
+                    break;
+                }
+            }
+
+            try {
+                var missingMsg = JsonAdaptedIngredientUsage.USAGE_MISSING_FIELD_MESSAGE_FORMAT;
+                if (name == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "name"));
+                }
+                if (date == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "date"));
+                }
+                if (qty == null) {
+                    throw new IllegalValueException(String.format(missingMsg, "quantity"));
+                }
+
+                var quantity = parseQuantity(qty, ctxt);
+                return new IngredientUsage(name, parseDate(date), quantity);
+
+            } catch (IllegalValueException e) {
+                throw invalid(p, e);
+            }
+        }
+    }
+
+
+
+
+    private static void writeTags(JsonGenerator gen, Set<Tag> tags) throws IOException {
+        gen.writeArrayFieldStart("tags");
+        for (var tag : tags) {
+            gen.writeString(tag.toString());
+        }
+        gen.writeEndArray();
+    }
+
+    private static boolean isTrusted(DeserializationContext ctxt) {
+        return Boolean.TRUE.equals(ctxt.getAttribute(ATTR_TRUSTED));
+    }
+
+    private static void checkName(String name, String missingMsg, boolean trusted) throws IllegalValueException {
+        if (name == null) {
+            throw new IllegalValueException(String.format(missingMsg, Name.class.getSimpleName()));
+        }
+
+        if (!trusted && !Name.isValidName(name)) {
+            throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+    private static Set<Tag> toTags(List<String> tags, String missingMsg, boolean trusted)
+            throws IllegalValueException {
+        if (tags == null) {
+            throw new IllegalValueException(String.format(missingMsg, Tag.class.getSimpleName()));
+        }
+
+        var modelTags = new HashSet<Tag>();
+        for (var tag : tags) {
+            if (tag == null || (!trusted && !Tag.isValidTag(tag))) {
+                throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+            }
+            modelTags.add(new Tag(tag));
+        }
+
+        return modelTags;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Quantity parseQuantity(String qty, DeserializationContext ctxt) throws IllegalValueException {
+        var cache = (Map<String, Quantity>) ctxt.getAttribute(ATTR_QUANTITY_CACHE);
+        if (cache != null && cache.containsKey(qty)) {
+            return cache.get(qty);
+        }
+
+        var result = Quantity.parse(qty);
+        if (result.isError()) {
+            throw new IllegalValueException(result.getError());
+        }
+
+        if (cache != null) {
+            cache.put(qty, result.getValue());
+        }
+        return result.getValue();
+    }
+
+    private static LocalDateTime parseDate(String date) throws IllegalValueException {
+        try {
+            return LocalDateTime.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalValueException(e.getMessage());
+        }
+    }
+
+    private static JsonMappingException invalid(JsonParser p, IllegalValueException e) {
+        return JsonMappingException.from(p, e.getMessage(), e);
+    }
+
+    private static void expectObject(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(p, "Expected a json object");
+        }
+    }
+
+    /**
+     * Moves to the value of the next field in the current object, returning false if there are no more
+     * fields. The field name is available from {@code getCurrentName()}.
+     */
+    private static boolean nextField(JsonParser p) throws IOException {
+        var token = p.nextToken();
+        if (token == JsonToken.END_OBJECT) {
+            return false;
+        } else if (token != JsonToken.FIELD_NAME) {
+            throw JsonMappingException.from(p, "Expected a field name");
+        }
+
+        p.nextToken();
+        return true;
+    }
+
+    /**
+     * Reads a scalar value as a string (as Jackson would for a {@code String} field), or null if the value
+     * is null.
+     */
+    private static String readString(JsonParser p) throws IOException {
+        var token = p.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (!token.isScalarValue()) {
+            throw JsonMappingException.from(p, "Expected a string");
+        }
+
+        return p.getValueAsString();
+    }
+
+    private static List<String> readStringList(JsonParser p) throws IOException {
+        return readList(p, () -> readString(p));
+    }
+
+    /**
+     * Reads an array using {@code reader} for each element, or returns null if the value is null.
+     */
+    private static <T> List<T> readList(JsonParser p, ElementReader<T> reader) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (p.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw JsonMappingException.from(p, "Expected an array");
+        }
+
+        var list = new ArrayList<T>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            list.add(reader.read());
+        }
+
+        return list;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read() throws IOException;
+    }
+}
@@ -4,26 +4,36 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.function.Function;
 
-import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
 import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.commons.util.FileUtil;
-import chopchop.commons.util.JsonUtil;
+import chopchop.model.EntryBook;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.recipe.Recipe;
 
 public class JsonRecipeBookStorage implements RecipeBookStorage {
-    private static final Log logger = new Log(JsonRecipeBookStorage.class);
-
     private final Path filePath;
+    private final boolean compress;
 
     /**
      * Constucts a {@code JsonRecipeBookStorage} based on filePath.
      */
     public JsonRecipeBookStorage(Path filePath) {
+        this(filePath, /* compress: */ false);
+    }
+
+    /**
+     * Constructs a storage that saves to {@code filePath}, compressing the file with gzip if
+     * {@code compress} is true.
+     */
+    public JsonRecipeBookStorage(Path filePath, boolean compress) {
         this.filePath = filePath;
+        this.compress = compress;
     }
 
     /**
@@ -55,18 +65,25 @@ public class JsonRecipeBookStorage implements RecipeBookStorage {
     public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook(Path filePath) throws DataConversionException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableRecipeBook> jsonRecipeBook = JsonUtil.readJsonFile(
-            filePath, JsonSerializableRecipeBook.class);
-        if (jsonRecipeBook.isEmpty()) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(jsonRecipeBook.get().toModelType());
-        } catch (IllegalValueException ive) {
-            logger.warn("json error ('%s'): %s", filePath, ive.getMessage());
-            throw new DataConversionException(ive);
-        }
+        var recipes = new ArrayList<Recipe>();
+        var names = new HashSet<String>();
+
+        var found = JsonChecksumFile.readJsonArrayFile(filePath, JsonSerializableRecipeBook.FIELD_RECIPES,
+            Recipe.class, recipe -> {
+                // entries are the same iff their names are, so this avoids comparing every pair of entries.
+                if (!names.add(recipe.getName().toLowerCase())) {
+                    throw new IllegalValueException(JsonSerializableRecipeBook.MESSAGE_DUPLICATE_RECIPE);
+                }
+                recipes.add(recipe);
+            }, () -> {
+                recipes.clear();
+                names.clear();
+            });
+
+        var recipeBook = new EntryBook<Recipe>();
+        recipeBook.addAll(recipes);
+
+        return found ? Optional.of(recipeBook) : Optional.empty();
     }
 
     /**
@@ -93,6 +110,7 @@ public class JsonRecipeBookStorage implements RecipeBookStorage {
         requireNonNull(filePath);
 
         FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableRecipeBook(recipeBook), filePath);
+        JsonChecksumFile.saveJsonArrayFile(filePath, JsonSerializableRecipeBook.FIELD_RECIPES,
+            recipeBook.getEntryList(), Function.identity(), this.compress);
     }
 }
@@ -5,23 +5,30 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.function.Function;
 
-import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
-import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.commons.util.FileUtil;
-import chopchop.commons.util.JsonUtil;
 import chopchop.model.UsageList;
 import chopchop.model.usage.RecipeUsage;
 
 public class JsonRecipeUsageStorage implements UsageStorage<RecipeUsage> {
-    private static final Log logger = new Log(JsonRecipeUsageStorage.class);
-
     private final Path filePath;
+    private final boolean compress;
 
     public JsonRecipeUsageStorage(Path filePath) {
+        this(filePath, /* compress: */ false);
+    }
+
+    /**
+     * Constructs a storage that saves to {@code filePath}, compressing the file with gzip if
+     * {@code compress} is true.
+     */
+    public JsonRecipeUsageStorage(Path filePath, boolean compress) {
         this.filePath = filePath;
+        this.compress = compress;
     }
 
     /**
@@ -41,18 +48,11 @@ public class JsonRecipeUsageStorage implements UsageStorage<RecipeUsage> {
     public Optional<UsageList<RecipeUsage>> readUsages(Path filePath) throws DataConversionException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableRecipeUsageList> jsonUsageList = JsonUtil.readJsonFile(
-            filePath, JsonSerializableRecipeUsageList.class);
-        if (jsonUsageList.isEmpty()) {
-            return Optional.empty();
-        }
+        var usages = new ArrayList<RecipeUsage>();
+        var found = JsonChecksumFile.readJsonArrayFile(filePath, JsonSerializableRecipeUsageList.FIELD_USAGES,
+            RecipeUsage.class, usages::add, usages::clear);
 
-        try {
-            return Optional.of(jsonUsageList.get().toModelType());
-        } catch (IllegalValueException e) {
-            logger.warn("json error ('%s'): %s", filePath, e.getMessage());
-            throw new DataConversionException(e);
-        }
+        return found ? Optional.of(new UsageList<>(usages)) : Optional.empty();
     }
 
     @Override
@@ -65,6 +65,7 @@ public class JsonRecipeUsageStorage implements UsageStorage<RecipeUsage> {
         requireAllNonNull(usages, filePath);
 
         FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableRecipeUsageList(usages), filePath);
+        JsonChecksumFile.saveJsonArrayFile(filePath, JsonSerializableRecipeUsageList.FIELD_USAGES,
+            usages.getUsages(), Function.identity(), this.compress);
     }
 }
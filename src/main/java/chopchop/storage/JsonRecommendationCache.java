@@ -0,0 +1,171 @@
+// JsonRecommendationCache.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.logic.recommendation.RecommendationIndex.CachedRecipe;
+import chopchop.model.attributes.ExpiryDate;
+
+/**
+ * The recommendation cache (see {@code RecommendationIndex}) as saved next to the data files, so that it does not
+ * need to be recomputed at startup. It records the checksums of the recipe and ingredient data files it was
+ * computed from, and the day it was computed on; it is only used if all of these still match.
+ */
+public class JsonRecommendationCache {
+    public static final int SCHEMA_VERSION = 1;
+    public static final String FILE_NAME = "recommendations.json";
+
+    private static final Log logger = new Log(JsonRecommendationCache.class);
+
+    private final Integer version;
+    private final String recipeChecksum;
+    private final String ingredientChecksum;
+    private final String date;
+    private final List<JsonAdaptedRecommendation> recipes;
+
+    /**
+     * Constructs a {@code JsonRecommendationCache} with the given details.
+     */
+    @JsonCreator
+    public JsonRecommendationCache(@JsonProperty("version") Integer version,
+                                   @JsonProperty("recipeChecksum") String recipeChecksum,
+                                   @JsonProperty("ingredientChecksum") String ingredientChecksum,
+                                   @JsonProperty("date") String date,
+                                   @JsonProperty("recipes") List<JsonAdaptedRecommendation> recipes) {
+        this.version = version;
+        this.recipeChecksum = recipeChecksum;
+        this.ingredientChecksum = ingredientChecksum;
+        this.date = date;
+        this.recipes = recipes;
+    }
+
+    public int getVersion() {
+        return this.version == null ? 0 : this.version;
+    }
+
+    /**
+     * Returns the path of the recommendation cache for the recipe book at {@code recipeBookPath}.
+     */
+    public static Path getCachePath(Path recipeBookPath) {
+        return recipeBookPath.resolveSibling(FILE_NAME);
+    }
+
+    /**
+     * Reads the recommendation cache at {@code path}, returning the cached recommendations if it is valid for
+     * the given data files on {@code today}, and empty otherwise.
+     */
+    public static Optional<List<CachedRecipe>> read(Path path, Path recipeBookPath, Path ingredientBookPath,
+        LocalDate today) {
+
+        if (!Files.exists(path) || !Files.exists(recipeBookPath) || !Files.exists(ingredientBookPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            var cache = JsonUtil.readJsonFile(path, JsonRecommendationCache.class);
+            if (cache.isEmpty() || cache.get().getVersion() != SCHEMA_VERSION || cache.get().recipes == null) {
+                return Optional.empty();
+            } else if (!today.toString().equals(cache.get().date)) {
+                logger.log("Recommendation cache '%s' is from %s; rebuilding it", path, cache.get().date);
+                return Optional.empty();
+            } else if (!FileUtil.checksum(recipeBookPath).equals(cache.get().recipeChecksum)
+                || !FileUtil.checksum(ingredientBookPath).equals(cache.get().ingredientChecksum)) {
+                logger.log("Recommendation cache '%s' does not match the data files; rebuilding it", path);
+                return Optional.empty();
+            }
+
+            var recipes = new ArrayList<CachedRecipe>(cache.get().recipes.size());
+            for (var recipe : cache.get().recipes) {
+                recipes.add(recipe.toModelType());
+            }
+
+            return Optional.of(recipes);
+
+        } catch (DataConversionException | IOException | IllegalArgumentException | DateTimeParseException e) {
+            logger.warn("Could not read recommendation cache '%s': %s", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the given recommendations, which were computed on {@code today} from the given data files, to
+     * the recommendation cache at {@code path}. Since the cache is only an optimisation, failing to write it is
+     * not an error; the stale cache is deleted instead.
+     */
+    public static void write(Path path, Path recipeBookPath, Path ingredientBookPath, LocalDate today,
+        List<CachedRecipe> recipes) {
+
+        try {
+            var adapted = new ArrayList<JsonAdaptedRecommendation>(recipes.size());
+            recipes.forEach(x -> adapted.add(new JsonAdaptedRecommendation(x)));
+
+            JsonUtil.saveJsonFile(new JsonRecommendationCache(SCHEMA_VERSION, FileUtil.checksum(recipeBookPath),
+                FileUtil.checksum(ingredientBookPath), today.toString(), adapted), path);
+
+        } catch (IOException e) {
+            logger.warn("Could not write recommendation cache '%s': %s", path, e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e1) {
+                logger.warn("Could not delete stale recommendation cache '%s': %s", path, e1);
+            }
+        }
+    }
+
+    /**
+     * The cached recommendation for one recipe.
+     */
+    public static class JsonAdaptedRecommendation {
+        private final String name;
+        private final boolean recommended;
+        private final String earliestExpiry;
+
+        /**
+         * Constructs a {@code JsonAdaptedRecommendation} with the given details.
+         */
+        @JsonCreator
+        public JsonAdaptedRecommendation(@JsonProperty("name") String name,
+                                         @JsonProperty("recommended") boolean recommended,
+                                         @JsonProperty("earliestExpiry") String earliestExpiry) {
+            this.name = name;
+            this.recommended = recommended;
+            this.earliestExpiry = earliestExpiry;
+        }
+
+        /**
+         * Converts the given recommendation into this class for Jackson use.
+         */
+        public JsonAdaptedRecommendation(CachedRecipe source) {
+            this.name = source.getName();
+            this.recommended = source.isRecommended();
+            this.earliestExpiry = source.getEarliestExpiry().map(ExpiryDate::toString).orElse(null);
+        }
+
+        /**
+         * Converts this into a {@code CachedRecipe}.
+         */
+        public CachedRecipe toModelType() {
+            if (this.name == null) {
+                throw new IllegalArgumentException("Recommendation is missing a name");
+            }
+
+            return new CachedRecipe(this.name, this.recommended, Optional.ofNullable(this.earliestExpiry)
+                .map(x -> new ExpiryDate(LocalDate.parse(x, ExpiryDate.FORMAT))));
+        }
+    }
+}
@@ -13,6 +13,7 @@ import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.ingredient.Ingredient;
 
 public class JsonSerializableIngredientBook {
+    public static final String FIELD_INGREDIENTS = "ingredients";
     public static final String MESSAGE_DUPLICATE_INGREDIENT = "Ingredient list contains duplicate ingredient(s).";
 
     private final List<JsonAdaptedIngredient> ingredients;
@@ -21,7 +22,7 @@ public class JsonSerializableIngredientBook {
      * Constructs a {@code JsonSerializableIngredientBook} with the given inds.
      */
     @JsonCreator
-    public JsonSerializableIngredientBook(@JsonProperty("ingredients") List<JsonAdaptedIngredient> ingredients) {
+    public JsonSerializableIngredientBook(@JsonProperty(FIELD_INGREDIENTS) List<JsonAdaptedIngredient> ingredients) {
         this.ingredients = new ArrayList<>(ingredients);
     }
 
@@ -12,13 +12,15 @@ import chopchop.model.UsageList;
 import chopchop.model.usage.IngredientUsage;
 
 public class JsonSerializableIngredientUsageList {
+    public static final String FIELD_USAGES = "usages";
+
     private final List<JsonAdaptedIngredientUsage> usages;
 
     /**
      * Constructs a {@code JsonSerializableIngredientUsageList} with the given ingredients.
      */
     @JsonCreator
-    public JsonSerializableIngredientUsageList(@JsonProperty("usages") List<JsonAdaptedIngredientUsage> u) {
+    public JsonSerializableIngredientUsageList(@JsonProperty(FIELD_USAGES) List<JsonAdaptedIngredientUsage> u) {
         this.usages = new ArrayList<>(u);
     }
 
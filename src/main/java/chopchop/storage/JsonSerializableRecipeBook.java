@@ -13,6 +13,7 @@ import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.recipe.Recipe;
 
 public class JsonSerializableRecipeBook {
+    public static final String FIELD_RECIPES = "recipes";
     public static final String MESSAGE_DUPLICATE_RECIPE = "Recipe list contains duplicate recipe(s).";
 
     private final List<JsonAdaptedRecipe> recipes;
@@ -21,7 +22,7 @@ public class JsonSerializableRecipeBook {
      * Constructs a {@code JsonSerializableRecipeBook} with the given recipes.
      */
     @JsonCreator
-    public JsonSerializableRecipeBook(@JsonProperty("recipes") List<JsonAdaptedRecipe> recipes) {
+    public JsonSerializableRecipeBook(@JsonProperty(FIELD_RECIPES) List<JsonAdaptedRecipe> recipes) {
         this.recipes = new ArrayList<>(recipes);
     }
 
@@ -12,13 +12,15 @@ import chopchop.model.UsageList;
 import chopchop.model.usage.RecipeUsage;
 
 public class JsonSerializableRecipeUsageList {
+    public static final String FIELD_USAGES = "usages";
+
     private final List<JsonAdaptedRecipeUsage> usages;
 
     /**
      * Constructs a {@code JsonSerializableRecipeUsageList} with the given recipes.
      */
     @JsonCreator
-    public JsonSerializableRecipeUsageList(@JsonProperty("usages") List<JsonAdaptedRecipeUsage> records) {
+    public JsonSerializableRecipeUsageList(@JsonProperty(FIELD_USAGES) List<JsonAdaptedRecipeUsage> records) {
         this.usages = new ArrayList<>(records);
     }
 
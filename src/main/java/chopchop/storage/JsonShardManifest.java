@@ -0,0 +1,111 @@
+// JsonShardManifest.java
+
+package chopchop.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.exceptions.IllegalValueException;
+
+/**
+ * The manifest of a {@link ShardedRecipeBookStorage}, listing its segment files and their checksums. Since
+ * the recipes are spread across the segments, the manifest also records which segment each recipe (in
+ * book order) lives in, so that the original order of the book can be restored when it is loaded.
+ */
+public class JsonShardManifest {
+    public static final String MESSAGE_MISSING_FIELD = "Shard manifest is missing the '%s' field.";
+    public static final String MESSAGE_INVALID_ORDER = "Shard manifest refers to segment '%c', which does not exist.";
+    public static final String MESSAGE_ORDER_MISMATCH = "Shard manifest order does not match segment '%s'.";
+    public static final String MESSAGE_COUNT_MISMATCH = "Shard manifest expects %d recipe(s) in '%s', but found %d.";
+    public static final String MESSAGE_CHECKSUM_MISMATCH =
+        "Checksum of segment '%s' (%s) does not match the shard manifest (%s).";
+
+    private final List<JsonAdaptedSegment> segments;
+    private final String order;
+
+    /**
+     * Constructs a {@code JsonShardManifest} with the given segments and recipe order.
+     */
+    @JsonCreator
+    public JsonShardManifest(@JsonProperty("segments") List<JsonAdaptedSegment> segments,
+                             @JsonProperty("order") String order) {
+        this.segments = segments;
+        this.order = order;
+    }
+
+    public List<JsonAdaptedSegment> getSegments() {
+        return new ArrayList<>(this.segments);
+    }
+
+    public String getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Checks that all the fields are present, and that the order only refers to segments that exist.
+     *
+     * @throws IllegalValueException if the manifest is invalid.
+     */
+    public void validate() throws IllegalValueException {
+        if (this.segments == null) {
+            throw new IllegalValueException(String.format(MESSAGE_MISSING_FIELD, "segments"));
+        } else if (this.order == null) {
+            throw new IllegalValueException(String.format(MESSAGE_MISSING_FIELD, "order"));
+        }
+
+        for (var segment : this.segments) {
+            segment.validate();
+        }
+
+        for (int i = 0; i < this.order.length(); i++) {
+            var index = Character.digit(this.order.charAt(i), Character.MAX_RADIX);
+            if (index < 0 || index >= this.segments.size()) {
+                throw new IllegalValueException(String.format(MESSAGE_INVALID_ORDER, this.order.charAt(i)));
+            }
+        }
+    }
+
+    static class JsonAdaptedSegment {
+
+        private final String file;
+        private final String checksum;
+        private final Integer count;
+
+        /**
+         * Constructs a {@code JsonAdaptedSegment} with the given details.
+         */
+        @JsonCreator
+        public JsonAdaptedSegment(@JsonProperty("file") String file,
+                                  @JsonProperty("checksum") String checksum,
+                                  @JsonProperty("count") Integer count) {
+            this.file = file;
+            this.checksum = checksum;
+            this.count = count;
+        }
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public String getChecksum() {
+            return this.checksum;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        private void validate() throws IllegalValueException {
+            if (this.file == null) {
+                throw new IllegalValueException(String.format(MESSAGE_MISSING_FIELD, "file"));
+            } else if (this.checksum == null) {
+                throw new IllegalValueException(String.format(MESSAGE_MISSING_FIELD, "checksum"));
+            } else if (this.count == null) {
+                throw new IllegalValueException(String.format(MESSAGE_MISSING_FIELD, "count"));
+            }
+        }
+    }
+}
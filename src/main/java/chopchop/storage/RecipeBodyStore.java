@@ -0,0 +1,340 @@
+// RecipeBodyStore.java
+
+package chopchop.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.model.attributes.Step;
+
+/**
+ * An append-only file holding the steps ("bodies") of recipes, which are loaded only when they are needed.
+ * The recipe snapshot refers to each body by its offset and length in this file; since bodies are never
+ * overwritten, those references stay valid for as long as the file exists, even as new bodies are appended.
+ *
+ * Loaded bodies are kept in a bounded LRU cache, so the memory used scales with the number of recipes
+ * actually viewed, rather than with the size of the recipe book.
+ *
+ * References are checked against the size of the file when they are made (see {@link #getBody(long, int)}),
+ * so a snapshot that does not match its bodies file fails to load, rather than losing the steps later.
+ */
+public class RecipeBodyStore {
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    private final Path path;
+    private final Map<Long, List<Step>> cache;
+
+    // the bodies of other stores that were copied into this one, by their store and offset there.
+    private final Map<RecipeBodyStore, Map<Long, Body>> copies = new HashMap<>();
+
+    // the size of the file when it was last checked; since it only grows, offsets below this are valid.
+    private long knownSize = 0;
+
+    /**
+     * Constructs a store for the bodies file at {@code path}, caching at most {@code cacheSize} bodies.
+     */
+    public RecipeBodyStore(Path path, int cacheSize) {
+        this.path = path;
+        this.cache = new LinkedHashMap<>(16, 0.75f, /* accessOrder: */ true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Step>> eldest) {
+                return this.size() > cacheSize;
+            }
+        };
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns the size of the bodies file, or 0 if it does not exist yet.
+     */
+    public long getFileSize() throws IOException {
+        return Files.exists(this.path) ? Files.size(this.path) : 0;
+    }
+
+    /**
+     * Returns a lazily-loaded reference to the body at the given offset and length, which must lie within
+     * the bodies file.
+     *
+     * @throws IOException if the body is not within the file, or the file could not be read.
+     */
+    public synchronized Body getBody(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IOException(String.format("Invalid body (offset %d, length %d) in '%s'",
+                offset, length, this.path));
+        }
+
+        if (offset + length > this.knownSize) {
+            this.knownSize = this.getFileSize();
+            if (offset + length > this.knownSize) {
+                throw new IOException(String.format("Body (offset %d, length %d) is past the end of '%s' (%d bytes)",
+                    offset, length, this.path, this.knownSize));
+            }
+        }
+
+        return new Body(offset, length);
+    }
+
+    /**
+     * Opens the store for appending new bodies.
+     */
+    public Appender openAppender() throws IOException {
+        FileUtil.createParentDirsOfFile(this.path);
+        return new Appender(FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Returns the number of bodies currently in the cache.
+     */
+    public synchronized int getCachedCount() {
+        return this.cache.size();
+    }
+
+    private synchronized List<Step> load(long offset, int length) {
+        var steps = this.cache.get(offset);
+        if (steps != null) {
+            return steps;
+        }
+
+        try {
+            steps = decode(this.readBytes(offset, length));
+            this.cache.put(offset, steps);
+            return steps;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to load recipe steps from '%s' (offset %d)",
+                this.path, offset), e);
+
+        } catch (DataConversionException e) {
+            throw new UncheckedIOException(String.format("Failed to load recipe steps from '%s' (offset %d)",
+                this.path, offset), new IOException(e.getMessage(), e));
+        }
+    }
+
+    private byte[] readBytes(long offset, int length) throws IOException {
+        try (var channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException(String.format("Body at offset %d is truncated", offset));
+                }
+            }
+
+            return buffer.array();
+        }
+    }
+
+    private static byte[] encode(List<Step> steps) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+
+        out.writeInt(steps.size());
+        for (var step : steps) {
+            var str = step.toString().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(str.length);
+            out.write(str);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the steps in one body.
+     *
+     * @throws DataConversionException if the body is corrupted, or any of its steps are invalid.
+     */
+    private static List<Step> decode(byte[] bytes) throws DataConversionException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        try {
+            var count = in.readInt();
+            var steps = new ArrayList<Step>(Math.max(0, Math.min(count, bytes.length)));
+            for (int i = 0; i < count; i++) {
+                // the length is checked first, so that a corrupted one cannot make us allocate a huge array.
+                var length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    throw new IllegalValueException(String.format("Invalid step length %d (%d bytes left in body)",
+                        length, in.available()));
+                }
+
+                var str = new byte[length];
+                in.readFully(str);
+
+                var step = new String(str, StandardCharsets.UTF_8);
+                if (!Step.isValidStep(step)) {
+                    throw new IllegalValueException(Step.MESSAGE_CONSTRAINTS);
+                }
+                steps.add(new Step(step));
+            }
+
+            return Collections.unmodifiableList(steps);
+
+        } catch (IOException | IllegalValueException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    /**
+     * A reference to one recipe's steps in this store, which loads them when called.
+     */
+    public class Body implements Supplier<List<Step>> {
+        private final long offset;
+        private final int length;
+
+        private Body(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public RecipeBodyStore getStore() {
+            return RecipeBodyStore.this;
+        }
+
+        public long getOffset() {
+            return this.offset;
+        }
+
+        public int getLength() {
+            return this.length;
+        }
+
+        /**
+         * Loads the steps, or returns them from the cache.
+         *
+         * @throws UncheckedIOException if the steps could not be read; this does not happen unless the bodies
+         *     file was changed after the snapshot was loaded, since references are checked when they are made.
+         */
+        @Override
+        public List<Step> get() {
+            return RecipeBodyStore.this.load(this.offset, this.length);
+        }
+    }
+
+    /**
+     * Appends bodies to the end of the store.
+     */
+    public class Appender implements Closeable {
+        private final FileChannel channel;
+        private long liveBytes = 0;
+
+        // whether anything was appended since the file was last forced to disk.
+        private boolean isDirty = false;
+
+        private Appender(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public RecipeBodyStore getStore() {
+            return RecipeBodyStore.this;
+        }
+
+        /**
+         * Returns a reference to the given steps in this store. They are only written if they were not
+         * loaded from this store in the first place, and only copied once from any other store.
+         */
+        public Body add(Supplier<List<Step>> steps) throws IOException {
+            Body body;
+            if (steps instanceof Body && ((Body) steps).getStore() == RecipeBodyStore.this) {
+                body = (Body) steps;
+            } else if (steps instanceof Body) {
+                body = this.copy((Body) steps);
+            } else {
+                body = this.append(steps.get());
+            }
+
+            this.liveBytes += body.length;
+            return body;
+        }
+
+        /**
+         * Returns the total length of the bodies returned by {@link #add(Supplier)}, ie. the number of bytes
+         * in the file that are still in use if those are the only bodies that are referred to.
+         */
+        public long getLiveBytes() {
+            return this.liveBytes;
+        }
+
+        /**
+         * Appends the given steps, returning a reference to them.
+         */
+        public Body append(List<Step> steps) throws IOException {
+            var body = this.appendBytes(encode(steps));
+            synchronized (RecipeBodyStore.this) {
+                RecipeBodyStore.this.cache.put(body.offset, Collections.unmodifiableList(new ArrayList<>(steps)));
+            }
+            return body;
+        }
+
+        /**
+         * Copies a body (usually from another store) into this store without decoding it.
+         */
+        public Body copy(Body body) throws IOException {
+            synchronized (RecipeBodyStore.this) {
+                var copies = RecipeBodyStore.this.copies.computeIfAbsent(body.getStore(), s -> new HashMap<>());
+                var copy = copies.get(body.offset);
+                if (copy == null) {
+                    copy = this.appendBytes(body.getStore().readBytes(body.offset, body.length));
+                    copies.put(body.offset, copy);
+                }
+                return copy;
+            }
+        }
+
+        private Body appendBytes(byte[] bytes) throws IOException {
+            var offset = this.channel.size();
+
+            var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+
+            synchronized (RecipeBodyStore.this) {
+                RecipeBodyStore.this.knownSize = Math.max(RecipeBodyStore.this.knownSize, offset + bytes.length);
+            }
+
+            this.isDirty = true;
+            return new Body(offset, bytes.length);
+        }
+
+        /**
+         * Makes sure that the bodies appended so far are on disk, so that a snapshot that refers to them can be
+         * moved into place; otherwise, after a crash, the snapshot could point past the end of the file.
+         */
+        public void force() throws IOException {
+            if (this.isDirty) {
+                this.channel.force(true);
+                this.isDirty = false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,420 @@
+// ShardedRecipeBookStorage.java
+
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * Stores the recipe book as a number of segment files, each of which is an ordinary json recipe book, plus
+ * a manifest ({@link JsonShardManifest}) listing the segments and their checksums. Each recipe is placed in
+ * a segment by hashing its (case-folded) name, so editing a recipe only changes one segment; when saving,
+ * segments whose recipes have not changed since they were last saved or loaded are not rewritten.
+ *
+ * Segments are never overwritten: changed segments are written to new files (named after the time of the
+ * save), then the manifest is atomically replaced to refer to them, and only then are the files that it
+ * no longer refers to deleted. So if the app stops part-way through a save, the manifest on disk still
+ * refers to a complete set of segments. A segment whose checksum does not match the manifest fails the load.
+ *
+ * The segments are independent, so they are loaded in parallel.
+ */
+public class ShardedRecipeBookStorage implements RecipeBookStorage {
+    public static final int DEFAULT_SEGMENT_COUNT = 16;
+    public static final int MAX_SEGMENT_COUNT = Character.MAX_RADIX;
+    public static final String MANIFEST_FILE_NAME = "manifest.json";
+
+    public static final String MESSAGE_INVALID_SEGMENT_FILE = "Invalid segment file name '%s'";
+
+    // matches the names of the segment files written by this class (and by older versions of it), as well as
+    // the temporary files that they are written to.
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-\\d+(\\.\\d+)?\\.json(\\.tmp)?");
+
+    private static final int LOADER_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private static final Log logger = new Log(ShardedRecipeBookStorage.class);
+
+    private final Path filePath;
+    private final int segmentCount;
+    private final boolean compress;
+
+    // the recipes that were last saved to (or loaded from) each segment, by manifest path. since recipes
+    // are immutable, a segment is unchanged if it holds the very same recipe objects, in the same order.
+    private final Map<Path, SegmentState[]> states = new HashMap<>();
+
+    /**
+     * Constructs a {@code ShardedRecipeBookStorage} with the default number of segments.
+     *
+     * @param filePath the path of the manifest; the segments are placed in the same folder.
+     */
+    public ShardedRecipeBookStorage(Path filePath) {
+        this(filePath, DEFAULT_SEGMENT_COUNT, /* compress: */ false);
+    }
+
+    /**
+     * Constructs a {@code ShardedRecipeBookStorage} with {@code segmentCount} segments, which are compressed
+     * with gzip if {@code compress} is true. The segment count only affects saving; a book saved with a
+     * different number of segments can still be read, and is re-sharded the next time it is saved.
+     *
+     * @param filePath the path of the manifest; the segments are placed in the same folder.
+     */
+    public ShardedRecipeBookStorage(Path filePath, int segmentCount, boolean compress) {
+        if (segmentCount < 1 || segmentCount > MAX_SEGMENT_COUNT) {
+            throw new IllegalArgumentException(String.format("segment count must be between 1 and %d",
+                MAX_SEGMENT_COUNT));
+        }
+
+        this.filePath = filePath;
+        this.segmentCount = segmentCount;
+        this.compress = compress;
+    }
+
+    /**
+     * Returns the path of the manifest for a sharded recipe book that replaces the json file at
+     * {@code jsonPath}; eg. {@code data/recipebook.json} becomes {@code data/recipebook/manifest.json}.
+     */
+    public static Path getManifestPath(Path jsonPath) {
+        var name = jsonPath.getFileName().toString();
+        if (name.endsWith(".json")) {
+            name = name.substring(0, name.length() - ".json".length());
+        }
+
+        return jsonPath.resolveSibling(name).resolve(MANIFEST_FILE_NAME);
+    }
+
+    /**
+     * Returns the segment that the given recipe belongs to, out of {@code segmentCount} segments.
+     */
+    public static int getSegment(Recipe recipe, int segmentCount) {
+        // String::hashCode is fully specified, so this is stable across runs and JVMs.
+        var name = recipe.getName().strip().toLowerCase(Locale.ROOT);
+        return Math.floorMod(name.hashCode(), segmentCount);
+    }
+
+    @Override
+    public Path getRecipeBookFilePath() {
+        return this.filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook() throws DataConversionException {
+        return this.readRecipeBook(this.filePath);
+    }
+
+    @Override
+    public synchronized Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook(Path filePath)
+            throws DataConversionException {
+        requireNonNull(filePath);
+
+        var manifestOpt = JsonUtil.readJsonFile(filePath, JsonShardManifest.class);
+        if (manifestOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var manifest = manifestOpt.get();
+        try {
+            manifest.validate();
+        } catch (IllegalValueException e) {
+            throw new DataConversionException(e);
+        }
+
+        var segments = this.loadSegments(filePath, manifest.getSegments());
+        var order = manifest.getOrder();
+
+        var total = segments.stream().mapToInt(List::size).sum();
+        if (total != order.length()) {
+            throw new DataConversionException(new IllegalValueException(String.format(
+                JsonShardManifest.MESSAGE_COUNT_MISMATCH, order.length(), filePath, total)));
+        }
+
+        var recipes = new ArrayList<Recipe>(order.length());
+        var names = new HashSet<String>();
+
+        // interleave the segments according to the order in the manifest, to restore the book order.
+        var positions = new int[segments.size()];
+        for (int i = 0; i < order.length(); i++) {
+            var segment = Character.digit(order.charAt(i), Character.MAX_RADIX);
+            if (positions[segment] >= segments.get(segment).size()) {
+                throw new DataConversionException(new IllegalValueException(String.format(
+                    JsonShardManifest.MESSAGE_ORDER_MISMATCH, manifest.getSegments().get(segment).getFile())));
+            }
+
+            var recipe = segments.get(segment).get(positions[segment]++);
+            if (!names.add(recipe.getName().toLowerCase(Locale.ROOT))) {
+                throw new DataConversionException(
+                    new IllegalValueException(JsonSerializableRecipeBook.MESSAGE_DUPLICATE_RECIPE));
+            }
+            recipes.add(recipe);
+        }
+
+        var recipeBook = new EntryBook<Recipe>();
+        recipeBook.addAll(recipes);
+
+        // the segments on disk are now known to hold exactly these recipes.
+        if (segments.size() == this.segmentCount) {
+            var state = new SegmentState[segments.size()];
+            var files = manifest.getSegments();
+            for (int i = 0; i < state.length; i++) {
+                state[i] = new SegmentState(files.get(i).getFile(), files.get(i).getChecksum(), segments.get(i));
+            }
+            this.states.put(filePath, state);
+        } else {
+            this.states.remove(filePath);
+        }
+
+        return Optional.of(recipeBook);
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook) throws IOException {
+        this.saveRecipeBook(recipeBook, this.filePath);
+    }
+
+    @Override
+    public synchronized void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath)
+            throws IOException {
+        requireNonNull(recipeBook);
+        requireNonNull(filePath);
+
+        var segments = new ArrayList<List<Recipe>>();
+        for (int i = 0; i < this.segmentCount; i++) {
+            segments.add(new ArrayList<>());
+        }
+
+        var order = new StringBuilder();
+        for (var recipe : recipeBook.getEntryList()) {
+            var segment = getSegment(recipe, this.segmentCount);
+            segments.get(segment).add(recipe);
+            order.append(Character.forDigit(segment, Character.MAX_RADIX));
+        }
+
+        FileUtil.createParentDirsOfFile(filePath);
+
+        var oldState = this.states.get(filePath);
+        var newState = new SegmentState[this.segmentCount];
+        var written = 0;
+
+        var generation = System.currentTimeMillis();
+        while (this.isGenerationUsed(filePath, generation)) {
+            generation++;
+        }
+
+        for (int i = 0; i < this.segmentCount; i++) {
+            var recipes = segments.get(i);
+            if (oldState != null && oldState[i].holds(recipes)
+                && Files.exists(filePath.resolveSibling(oldState[i].file))) {
+                newState[i] = oldState[i];
+                continue;
+            }
+
+            var file = getSegmentFileName(i, generation);
+            var path = filePath.resolveSibling(file);
+            var checksum = JsonUtil.saveJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES, recipes,
+                Function.identity(), this.compress, JsonModelModule.getObjectMapper());
+
+            newState[i] = new SegmentState(file, checksum, recipes);
+            written++;
+        }
+
+        var manifestSegments = new ArrayList<JsonShardManifest.JsonAdaptedSegment>();
+        for (var state : newState) {
+            manifestSegments.add(new JsonShardManifest.JsonAdaptedSegment(state.file, state.checksum,
+                state.recipes.size()));
+        }
+
+        // the segments are written first, so the manifest never refers to a segment that doesn't exist yet.
+        // the manifest itself is replaced atomically, so it refers either to the old segments or the new ones.
+        JsonUtil.saveJsonFile(new JsonShardManifest(manifestSegments, order.toString()), filePath);
+        this.states.put(filePath, newState);
+
+        this.deleteUnusedSegments(filePath, newState);
+
+        logger.log("Saved recipe book to '%s' (%d of %d segments rewritten)", filePath, written,
+            this.segmentCount);
+    }
+
+    private static String getSegmentFileName(int segment, long generation) {
+        return String.format("segment-%02d.%d.json", segment, generation);
+    }
+
+    private boolean isGenerationUsed(Path manifestPath, long generation) {
+        for (int i = 0; i < this.segmentCount; i++) {
+            if (Files.exists(manifestPath.resolveSibling(getSegmentFileName(i, generation)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the segment files next to the manifest that it does not refer to, ie. those replaced by this
+     * save, those left behind by a save that did not finish, and those of segments that no longer exist.
+     * These are never read again, so failing to delete them is not an error.
+     */
+    private void deleteUnusedSegments(Path manifestPath, SegmentState[] state) {
+        var used = new HashSet<String>();
+        for (var segment : state) {
+            used.add(segment.file);
+        }
+
+        var folder = manifestPath.toAbsolutePath().getParent();
+        try (var files = Files.list(folder)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var name = file.getFileName().toString();
+                if (SEGMENT_FILE_NAME.matcher(name).matches() && !used.contains(name)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete unused segments in '%s': %s", folder, e);
+        }
+    }
+
+    /**
+     * Reads all the segments listed in the manifest, in parallel. Since each segment must match its checksum
+     * in the manifest, they are read in trusted mode.
+     */
+    private List<List<Recipe>> loadSegments(Path manifestPath, List<JsonShardManifest.JsonAdaptedSegment> files)
+            throws DataConversionException {
+
+        var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(LOADER_THREADS, files.size())), r -> {
+            var thread = new Thread(r, "recipe-segment-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            var futures = new ArrayList<Future<List<Recipe>>>();
+            for (var file : files) {
+                var path = resolveSegment(manifestPath, file.getFile());
+                futures.add(executor.submit(() -> loadSegment(path, file)));
+            }
+
+            var segments = new ArrayList<List<Recipe>>();
+            for (var future : futures) {
+                segments.add(awaitSegment(future));
+            }
+
+            return segments;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Recipe> loadSegment(Path path, JsonShardManifest.JsonAdaptedSegment file)
+            throws DataConversionException {
+
+        if (!Files.exists(path)) {
+            throw new DataConversionException(new NoSuchFileException(path.toString()));
+        }
+
+        // the checksum is computed from the same bytes that are parsed, so the file cannot change in between;
+        // the recipes are only returned once it is known to match.
+        var crc = new CRC32();
+        var recipes = new ArrayList<Recipe>(file.getCount());
+        JsonUtil.<Recipe>readJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES,
+            JsonModelModule.readerFor(Recipe.class, /* trusted: */ true), crc, recipes::add);
+
+        // segments are never changed once the manifest refers to them, so a mismatch means the segment is not
+        // the one that was saved (eg. it was edited, or a save was interrupted by a crash).
+        var checksum = FileUtil.formatChecksum(crc);
+        if (!checksum.equals(file.getChecksum())) {
+            throw new DataConversionException(new IllegalValueException(String.format(
+                JsonShardManifest.MESSAGE_CHECKSUM_MISMATCH, path, checksum, file.getChecksum())));
+        }
+
+        if (recipes.size() != file.getCount()) {
+            throw new DataConversionException(new IllegalValueException(String.format(
+                JsonShardManifest.MESSAGE_COUNT_MISMATCH, file.getCount(), path, recipes.size())));
+        }
+
+        return recipes;
+    }
+
+    private static Path resolveSegment(Path manifestPath, String file) throws DataConversionException {
+        // segments must be next to the manifest; don't follow paths out of the folder.
+        var name = Paths.get(file).getFileName();
+        if (name == null || !name.toString().equals(file)) {
+            throw new DataConversionException(new IllegalValueException(
+                String.format(MESSAGE_INVALID_SEGMENT_FILE, file)));
+        }
+
+        return manifestPath.resolveSibling(file);
+    }
+
+    private static List<Recipe> awaitSegment(Future<List<Recipe>> future) throws DataConversionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataConversionException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof DataConversionException) {
+                throw (DataConversionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new DataConversionException((Exception) cause);
+            }
+        }
+    }
+
+    /**
+     * The file, checksum, and recipes of a segment as it was last saved or loaded.
+     */
+    private static class SegmentState {
+        private final String file;
+        private final String checksum;
+        private final List<Recipe> recipes;
+
+        SegmentState(String file, String checksum, List<Recipe> recipes) {
+            this.file = file;
+            this.checksum = checksum;
+            this.recipes = recipes;
+        }
+
+        boolean holds(List<Recipe> recipes) {
+            if (recipes.size() != this.recipes.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < recipes.size(); i++) {
+                if (recipes.get(i) != this.recipes.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// SnapshotConverter.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.StringUtil;
+
+/**
+ * Converts data files between the json format and the binary snapshot format. This is used by the app itself
+ * to migrate existing json files when snapshots are first enabled, and can also be run from the command line:
+ * <pre>
+ *   java -cp chopchop.jar chopchop.storage.SnapshotConverter (to-snapshot|to-json) KIND INPUT OUTPUT
+ * </pre>
+ * where KIND is one of 'recipes', 'ingredients', 'recipe-usages', or 'ingredient-usages'.
+ */
+public class SnapshotConverter {
+    public static final String MESSAGE_USAGE = "usage: SnapshotConverter (to-snapshot|to-json) "
+        + "(recipes|ingredients|recipe-usages|ingredient-usages) <input> <output>";
+
+    /**
+     * Converts the json file at {@code jsonPath} into a snapshot at {@code snapshotPath}, recording that
+     * the snapshot is up to date with the json file as it is now.
+     *
+     * @throws DataConversionException if the json file does not exist, or is invalid.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public static void toSnapshot(BinarySnapshot.Kind kind, Path jsonPath, Path snapshotPath)
+            throws DataConversionException, IOException {
+        convert(kind, jsonPath, snapshotPath, /* toSnapshot: */ true);
+        BinarySnapshot.markUpToDateWith(snapshotPath, jsonPath);
+    }
+
+    /**
+     * Converts the snapshot at {@code snapshotPath} into a json file at {@code jsonPath}.
+     *
+     * @throws DataConversionException if the snapshot does not exist, or is invalid.
+     * @throws IOException if the json file could not be written.
+     */
+    public static void toJson(BinarySnapshot.Kind kind, Path snapshotPath, Path jsonPath)
+            throws DataConversionException, IOException {
+        convert(kind, snapshotPath, jsonPath, /* toSnapshot: */ false);
+    }
+
+    private static void convert(BinarySnapshot.Kind kind, Path from, Path to, boolean toSnapshot)
+            throws DataConversionException, IOException {
+
+        switch (kind) {
+        case RECIPES: {
+            var src = toSnapshot ? new JsonRecipeBookStorage(from) : new BinaryRecipeBookStorage(from);
+            var dst = toSnapshot ? new BinaryRecipeBookStorage(to) : new JsonRecipeBookStorage(to);
+            dst.saveRecipeBook(src.readRecipeBook().orElseThrow(() -> missingFile(from)));
+            break;
+        }
+
+        case INGREDIENTS: {
+            var src = toSnapshot ? new JsonIngredientBookStorage(from) : new BinaryIngredientBookStorage(from);
+            var dst = toSnapshot ? new BinaryIngredientBookStorage(to) : new JsonIngredientBookStorage(to);
+            dst.saveIngredientBook(src.readIngredientBook().orElseThrow(() -> missingFile(from)));
+            break;
+        }
+
+        case RECIPE_USAGES: {
+            var src = toSnapshot ? new JsonRecipeUsageStorage(from) : new BinaryRecipeUsageStorage(from);
+            var dst = toSnapshot ? new BinaryRecipeUsageStorage(to) : new JsonRecipeUsageStorage(to);
+            dst.saveUsages(src.readUsages().orElseThrow(() -> missingFile(from)));
+            break;
+        }
+
+        case INGREDIENT_USAGES: {
+            var src = toSnapshot ? new JsonIngredientUsageStorage(from) : new BinaryIngredientUsageStorage(from);
+            var dst = toSnapshot ? new BinaryIngredientUsageStorage(to) : new JsonIngredientUsageStorage(to);
+            dst.saveUsages(src.readUsages().orElseThrow(() -> missingFile(from)));
+            break;
+        }
+
+        default:
+            throw new IllegalArgumentException("unknown snapshot kind");
+        }
+    }
+
+    private static DataConversionException missingFile(Path path) {
+        return new DataConversionException(new NoSuchFileException(path.toString()));
+    }
+
+    /**
+     * Entry point for the command-line conversion tool.
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println(MESSAGE_USAGE);
+            System.exit(1);
+        }
+
+        var kind = BinarySnapshot.Kind.parse(args[1]);
+        if (kind.isEmpty() || !(args[0].equals("to-snapshot") || args[0].equals("to-json"))) {
+            System.err.println(MESSAGE_USAGE);
+            System.exit(1);
+        }
+
+        try {
+            var from = Paths.get(args[2]);
+            var to = Paths.get(args[3]);
+
+            if (args[0].equals("to-snapshot")) {
+                toSnapshot(kind.get(), from, to);
+            } else {
+                toJson(kind.get(), from, to);
+            }
+
+            System.err.printf("converted '%s' to '%s'\n", from, to);
+
+        } catch (DataConversionException | IOException e) {
+            System.err.printf("error: %s\n", StringUtil.getDetails(e));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+// SqlDatabase.java
+
+package chopchop.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+
+/**
+ * An embedded H2 database holding the recipe book, ingredient book, and usage lists in ordinary tables,
+ * as an alternative to the json files. The storages that use it ({@link SqlRecipeBookStorage} and friends)
+ * only write the rows that changed since the last save. Each save runs in a transaction, but the saves after a
+ * command are all run inside one enclosing transaction (see {@link StorageManager#runInTransaction}), so the
+ * books and usage lists are committed together, and a crash cannot leave them out of step.
+ *
+ * All access goes through a single connection, so the methods here are synchronised.
+ */
+public class SqlDatabase implements Closeable {
+    public static final int SCHEMA_VERSION = 1;
+    public static final String FILE_EXTENSION = ".mv.db";
+
+    public static final String MESSAGE_NEWER_SCHEMA = "Database schema version %d is newer than supported "
+        + "(%d); please update ChopChop";
+
+    private static final Log logger = new Log(SqlDatabase.class);
+
+    // the entries of each book are ordered by 'position', which is only required to be increasing (not
+    // contiguous), so that removing an entry doesn't require renumbering all the entries after it.
+    private static final List<String> SCHEMA = List.of(
+        "CREATE TABLE IF NOT EXISTS meta (key VARCHAR PRIMARY KEY, value VARCHAR NOT NULL)",
+
+        "CREATE TABLE IF NOT EXISTS recipes (id BIGINT PRIMARY KEY, name VARCHAR NOT NULL, "
+            + "position BIGINT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS recipes_name ON recipes (name)",
+        "CREATE INDEX IF NOT EXISTS recipes_position ON recipes (position)",
+        "CREATE TABLE IF NOT EXISTS recipe_ingredients (recipe_id BIGINT NOT NULL REFERENCES recipes (id) "
+            + "ON DELETE CASCADE, idx INT NOT NULL, name VARCHAR NOT NULL, quantity VARCHAR NOT NULL, "
+            + "PRIMARY KEY (recipe_id, idx))",
+        "CREATE INDEX IF NOT EXISTS recipe_ingredients_name ON recipe_ingredients (name)",
+        "CREATE TABLE IF NOT EXISTS recipe_steps (recipe_id BIGINT NOT NULL REFERENCES recipes (id) "
+            + "ON DELETE CASCADE, idx INT NOT NULL, step VARCHAR NOT NULL, PRIMARY KEY (recipe_id, idx))",
+        "CREATE TABLE IF NOT EXISTS recipe_tags (recipe_id BIGINT NOT NULL REFERENCES recipes (id) "
+            + "ON DELETE CASCADE, tag VARCHAR NOT NULL, PRIMARY KEY (recipe_id, tag))",
+        "CREATE INDEX IF NOT EXISTS recipe_tags_tag ON recipe_tags (tag)",
+
+        "CREATE TABLE IF NOT EXISTS ingredients (id BIGINT PRIMARY KEY, name VARCHAR NOT NULL, "
+            + "position BIGINT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS ingredients_name ON ingredients (name)",
+        "CREATE INDEX IF NOT EXISTS ingredients_position ON ingredients (position)",
+        "CREATE TABLE IF NOT EXISTS ingredient_sets (ingredient_id BIGINT NOT NULL REFERENCES ingredients (id) "
+            + "ON DELETE CASCADE, idx INT NOT NULL, quantity VARCHAR NOT NULL, expiry DATE, "
+            + "PRIMARY KEY (ingredient_id, idx))",
+        "CREATE INDEX IF NOT EXISTS ingredient_sets_expiry ON ingredient_sets (expiry)",
+        "CREATE TABLE IF NOT EXISTS ingredient_tags (ingredient_id BIGINT NOT NULL REFERENCES ingredients (id) "
+            + "ON DELETE CASCADE, tag VARCHAR NOT NULL, PRIMARY KEY (ingredient_id, tag))",
+        "CREATE INDEX IF NOT EXISTS ingredient_tags_tag ON ingredient_tags (tag)",
+
+        "CREATE TABLE IF NOT EXISTS recipe_usages (position BIGINT PRIMARY KEY, name VARCHAR NOT NULL, "
+            + "date TIMESTAMP NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS recipe_usages_name ON recipe_usages (name)",
+        "CREATE TABLE IF NOT EXISTS ingredient_usages (position BIGINT PRIMARY KEY, name VARCHAR NOT NULL, "
+            + "date TIMESTAMP NOT NULL, quantity VARCHAR NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS ingredient_usages_name ON ingredient_usages (name)"
+    );
+
+    private final Path path;
+    private Connection connection;
+
+    // how many transactions are running (only the outermost one commits), and what to do if it is rolled back.
+    private int depth = 0;
+    private final List<Runnable> rollbackListeners = new ArrayList<>();
+
+    /**
+     * Constructs a {@code SqlDatabase} for the database at {@code path}, which is the path of the database
+     * file without its extension (H2 adds {@link #FILE_EXTENSION}). The database is only opened (and created
+     * if needed) when it is first used.
+     */
+    public SqlDatabase(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the path of the database, without its extension.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns the path of the database file itself, including its extension.
+     */
+    public Path getFilePath() {
+        return this.path.resolveSibling(this.path.getFileName() + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns true if the database file exists.
+     */
+    public boolean exists() {
+        return Files.exists(this.getFilePath());
+    }
+
+    /**
+     * Runs {@code action} in a transaction, which is committed if it returns normally, and rolled back if it
+     * throws. If this is called inside another transaction, {@code action} just becomes part of it, so nothing
+     * is committed until the outermost transaction is done.
+     */
+    public synchronized <T> T transaction(SqlAction<T> action) throws SQLException, IllegalValueException {
+        var conn = this.getConnection();
+        if (this.depth > 0) {
+            this.depth++;
+            try {
+                return action.run(conn);
+            } finally {
+                this.depth--;
+            }
+        }
+
+        conn.setAutoCommit(false);
+        this.depth = 1;
+
+        try {
+            var ret = action.run(conn);
+            conn.commit();
+            return ret;
+
+        } catch (SQLException | IllegalValueException | RuntimeException e) {
+            conn.rollback();
+            this.rollbackListeners.forEach(Runnable::run);
+            throw e;
+
+        } finally {
+            this.depth = 0;
+            this.rollbackListeners.clear();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Adds a listener that is called if the current transaction is rolled back, eg. so that a storage can forget
+     * which rows it wrote in it. This must be called inside a transaction; the listener is dropped once it ends.
+     */
+    public synchronized void onRollback(Runnable listener) {
+        if (this.depth == 0) {
+            throw new IllegalStateException("not in a transaction");
+        }
+        this.rollbackListeners.add(listener);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.connection == null) {
+            return;
+        }
+
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            this.connection = null;
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (this.connection != null) {
+            return this.connection;
+        }
+
+        try {
+            FileUtil.createParentDirsOfFile(this.path);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+
+        var conn = DriverManager.getConnection("jdbc:h2:file:" + this.path.toAbsolutePath());
+        try {
+            this.createSchema(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+
+        logger.log("Opened database '%s'", this.getFilePath());
+        this.connection = conn;
+        return conn;
+    }
+
+    private void createSchema(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            for (var sql : SCHEMA) {
+                stmt.execute(sql);
+            }
+
+            String version = null;
+            try (var rs = stmt.executeQuery("SELECT value FROM meta WHERE key = 'schema_version'")) {
+                if (rs.next()) {
+                    version = rs.getString(1);
+                }
+            }
+
+            if (version == null) {
+                stmt.execute("INSERT INTO meta VALUES ('schema_version', '" + SCHEMA_VERSION + "')");
+            } else if (Integer.parseInt(version) > SCHEMA_VERSION) {
+                throw new SQLException(String.format(MESSAGE_NEWER_SCHEMA, Integer.parseInt(version),
+                    SCHEMA_VERSION));
+            }
+        }
+    }
+
+    /**
+     * An action run inside a transaction.
+     */
+    @FunctionalInterface
+    public interface SqlAction<T> {
+        T run(Connection conn) throws SQLException, IllegalValueException;
+    }
+}
@@ -0,0 +1,234 @@
+// SqlEntryBookStorage.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.Entry;
+import chopchop.model.EntryBook;
+import chopchop.model.ReadOnlyEntryBook;
+
+/**
+ * The common parts of storing an entry book in a {@link SqlDatabase}. Each entry is a row in the main table
+ * (with a surrogate id, its name, and its position in the book), plus rows in child tables that reference it
+ * and are deleted along with it.
+ *
+ * Entries are immutable, so the storage remembers which row each entry object was saved to (or loaded from).
+ * Saving then only deletes the rows of entries that are gone, inserts rows for new entries, and updates the
+ * positions of entries that moved -- which is usually nothing, since positions only need to be increasing.
+ */
+abstract class SqlEntryBookStorage<T extends Entry> {
+    private final SqlDatabase database;
+    private final String table;
+    private final String duplicateMessage;
+
+    // the (id, position) of the row that each entry was saved to or loaded from; null if unknown.
+    private Map<T, long[]> rows;
+    private long nextId;
+
+    SqlEntryBookStorage(SqlDatabase database, String table, String duplicateMessage) {
+        this.database = database;
+        this.table = table;
+        this.duplicateMessage = duplicateMessage;
+    }
+
+    public SqlDatabase getDatabase() {
+        return this.database;
+    }
+
+    /**
+     * Reads all the entries in the table, in order; each entry is returned with its id and position.
+     */
+    protected abstract List<Row<T>> readRows(Connection conn) throws SQLException, IllegalValueException;
+
+    /**
+     * Inserts the row for {@code entry} into the main table, and its children into the child tables.
+     */
+    protected abstract void insertRow(Connection conn, long id, long position, T entry) throws SQLException;
+
+    Optional<ReadOnlyEntryBook<T>> readBook(Path filePath) throws DataConversionException {
+        if (!filePath.equals(this.database.getFilePath())) {
+            return this.readOther(filePath);
+        }
+
+        if (!this.database.exists()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(this.database.transaction(conn -> {
+                var book = new EntryBook<T>();
+                var rows = new IdentityHashMap<T, long[]>();
+                book.startEditing();
+
+                for (var row : this.readRows(conn)) {
+                    if (book.has(row.entry)) {
+                        throw new IllegalValueException(this.duplicateMessage);
+                    }
+
+                    book.add(row.entry);
+                    rows.put(row.entry, new long[] { row.id, row.position });
+                }
+
+                book.finishEditing();
+                this.rows = rows;
+                this.nextId = this.queryNextId(conn);
+                return book;
+            }));
+
+        } catch (SQLException e) {
+            throw new DataConversionException(e);
+        } catch (IllegalValueException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    void saveBook(ReadOnlyEntryBook<T> book, Path filePath) throws IOException {
+        if (!filePath.equals(this.database.getFilePath())) {
+            this.saveOther(book, filePath);
+            return;
+        }
+
+        try {
+            this.rows = this.database.transaction(conn -> {
+                // if an enclosing transaction is rolled back, the rows written here are gone again.
+                this.database.onRollback(() -> this.rows = null);
+                return this.writeChanges(conn, book.getEntryList());
+            });
+        } catch (SQLException | IllegalValueException e) {
+            this.rows = null;
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Reads or writes a book in a different database; this is used when a different path is given explicitly.
+     */
+    protected abstract SqlEntryBookStorage<T> withDatabase(SqlDatabase database);
+
+    private Optional<ReadOnlyEntryBook<T>> readOther(Path filePath) throws DataConversionException {
+        try (var other = new SqlDatabase(getDatabasePath(filePath))) {
+            return this.withDatabase(other).readBook(filePath);
+        } catch (IOException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    private void saveOther(ReadOnlyEntryBook<T> book, Path filePath) throws IOException {
+        try (var other = new SqlDatabase(getDatabasePath(filePath))) {
+            this.withDatabase(other).saveBook(book, filePath);
+        }
+    }
+
+    /**
+     * Returns the path to give {@link SqlDatabase} for the database file at {@code filePath}.
+     */
+    static Path getDatabasePath(Path filePath) {
+        var name = filePath.getFileName().toString();
+        if (name.endsWith(SqlDatabase.FILE_EXTENSION)) {
+            name = name.substring(0, name.length() - SqlDatabase.FILE_EXTENSION.length());
+        }
+        return filePath.resolveSibling(name);
+    }
+
+    private Map<T, long[]> writeChanges(Connection conn, List<T> entries) throws SQLException {
+        var oldRows = this.rows;
+        if (oldRows == null) {
+            // we don't know what's in the table, so start from scratch.
+            try (var stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM " + this.table);
+            }
+            oldRows = new IdentityHashMap<>();
+            this.nextId = this.queryNextId(conn);
+        }
+
+        var newRows = new IdentityHashMap<T, long[]>();
+        var moved = new ArrayList<long[]>();
+        var added = new ArrayList<T>();
+
+        // keep the old position of each entry if it is still in order; otherwise give it a new one.
+        var prev = Long.MIN_VALUE;
+        for (var entry : entries) {
+            var old = oldRows.get(entry);
+            long position;
+
+            if (old != null && old[1] > prev) {
+                position = old[1];
+            } else {
+                position = (prev == Long.MIN_VALUE ? 0 : prev + 1);
+            }
+
+            if (old == null || newRows.containsKey(entry)) {
+                newRows.put(entry, new long[] { -1, position });
+                added.add(entry);
+            } else {
+                newRows.put(entry, new long[] { old[0], position });
+                if (position != old[1]) {
+                    moved.add(newRows.get(entry));
+                }
+            }
+
+            prev = position;
+        }
+
+        try (var delete = conn.prepareStatement("DELETE FROM " + this.table + " WHERE id = ?")) {
+            for (var e : oldRows.entrySet()) {
+                if (!newRows.containsKey(e.getKey()) || newRows.get(e.getKey())[0] != e.getValue()[0]) {
+                    delete.setLong(1, e.getValue()[0]);
+                    delete.addBatch();
+                }
+            }
+            delete.executeBatch();
+        }
+
+        try (var update = conn.prepareStatement("UPDATE " + this.table + " SET position = ? WHERE id = ?")) {
+            for (var row : moved) {
+                update.setLong(1, row[1]);
+                update.setLong(2, row[0]);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+
+        for (var entry : added) {
+            var row = newRows.get(entry);
+            row[0] = this.nextId++;
+            this.insertRow(conn, row[0], row[1], entry);
+        }
+
+        return newRows;
+    }
+
+    private long queryNextId(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement();
+             var rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + this.table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * An entry read from the database, with its id and position.
+     */
+    static class Row<T> {
+        private final long id;
+        private final long position;
+        private final T entry;
+
+        Row(long id, long position, T entry) {
+            this.id = id;
+            this.position = position;
+            this.entry = entry;
+        }
+    }
+}
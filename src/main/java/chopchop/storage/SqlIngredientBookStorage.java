@@ -0,0 +1,163 @@
+// SqlIngredientBookStorage.java
+
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.attributes.Name;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.Ingredient;
+
+/**
+ * Stores the ingredient book in a {@link SqlDatabase}.
+ */
+public class SqlIngredientBookStorage extends SqlEntryBookStorage<Ingredient> implements IngredientBookStorage {
+
+    public SqlIngredientBookStorage(SqlDatabase database) {
+        super(database, "ingredients", JsonSerializableIngredientBook.MESSAGE_DUPLICATE_INGREDIENT);
+    }
+
+    @Override
+    public Path getIngredientBookFilePath() {
+        return this.getDatabase().getFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook() throws DataConversionException {
+        return this.readIngredientBook(this.getIngredientBookFilePath());
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+        return this.readBook(filePath);
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook) throws IOException {
+        this.saveIngredientBook(ingredientBook, this.getIngredientBookFilePath());
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook, Path filePath) throws IOException {
+        requireNonNull(ingredientBook);
+        requireNonNull(filePath);
+        this.saveBook(ingredientBook, filePath);
+    }
+
+    @Override
+    protected SqlEntryBookStorage<Ingredient> withDatabase(SqlDatabase database) {
+        return new SqlIngredientBookStorage(database);
+    }
+
+    @Override
+    protected List<Row<Ingredient>> readRows(Connection conn) throws SQLException, IllegalValueException {
+        var sets = new HashMap<Long, TreeMap<Optional<ExpiryDate>, Quantity>>();
+        var tags = new HashMap<Long, Set<Tag>>();
+
+        try (var stmt = conn.createStatement()) {
+            try (var rs = stmt.executeQuery(
+                "SELECT ingredient_id, quantity, expiry FROM ingredient_sets ORDER BY ingredient_id, idx")) {
+                while (rs.next()) {
+                    var qty = Quantity.parse(rs.getString(2));
+                    if (qty.isError()) {
+                        throw new IllegalValueException(qty.getError());
+                    }
+
+                    var date = rs.getDate(3);
+                    var expiry = date == null
+                        ? Optional.<ExpiryDate>empty()
+                        : Optional.of(new ExpiryDate(date.toLocalDate()));
+
+                    sets.computeIfAbsent(rs.getLong(1), k -> new TreeMap<>(Ingredient.SET_COMPARATOR))
+                        .put(expiry, qty.getValue());
+                }
+            }
+
+            try (var rs = stmt.executeQuery("SELECT ingredient_id, tag FROM ingredient_tags")) {
+                while (rs.next()) {
+                    var tag = rs.getString(2);
+                    if (!Tag.isValidTag(tag)) {
+                        throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+                    }
+
+                    tags.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(new Tag(tag));
+                }
+            }
+
+            var rows = new ArrayList<Row<Ingredient>>();
+            try (var rs = stmt.executeQuery("SELECT id, name, position FROM ingredients ORDER BY position")) {
+                while (rs.next()) {
+                    var id = rs.getLong(1);
+                    var name = rs.getString(2);
+                    if (!Name.isValidName(name)) {
+                        throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+                    }
+
+                    rows.add(new Row<>(id, rs.getLong(3), new Ingredient(name,
+                        sets.getOrDefault(id, new TreeMap<>(Ingredient.SET_COMPARATOR)),
+                        tags.getOrDefault(id, Set.of()))));
+                }
+            }
+
+            return rows;
+        }
+    }
+
+    @Override
+    protected void insertRow(Connection conn, long id, long position, Ingredient ingredient) throws SQLException {
+        try (var stmt = conn.prepareStatement("INSERT INTO ingredients (id, name, position) VALUES (?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, ingredient.getName());
+            stmt.setLong(3, position);
+            stmt.executeUpdate();
+        }
+
+        try (var stmt = conn.prepareStatement(
+            "INSERT INTO ingredient_sets (ingredient_id, idx, quantity, expiry) VALUES (?, ?, ?, ?)")) {
+
+            int idx = 0;
+            for (var set : ingredient.getIngredientSets().entrySet()) {
+                stmt.setLong(1, id);
+                stmt.setInt(2, idx++);
+                stmt.setString(3, set.getValue().toString());
+
+                if (set.getKey().isPresent()) {
+                    stmt.setDate(4, Date.valueOf(set.getKey().get().getDate()));
+                } else {
+                    stmt.setNull(4, Types.DATE);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (var stmt = conn.prepareStatement("INSERT INTO ingredient_tags (ingredient_id, tag) VALUES (?, ?)")) {
+            for (var tag : ingredient.getTags()) {
+                stmt.setLong(1, id);
+                stmt.setString(2, tag.toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// SqlIngredientUsageStorage.java
+
+package chopchop.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.usage.IngredientUsage;
+
+/**
+ * Stores the ingredient usages in a {@link SqlDatabase}.
+ */
+public class SqlIngredientUsageStorage extends SqlUsageStorage<IngredientUsage> {
+
+    public SqlIngredientUsageStorage(SqlDatabase database) {
+        super(database, "ingredient_usages");
+    }
+
+    @Override
+    protected IngredientUsage readUsage(ResultSet rs) throws SQLException, IllegalValueException {
+        var qty = Quantity.parse(rs.getString("quantity"));
+        if (qty.isError()) {
+            throw new IllegalValueException(qty.getError());
+        }
+
+        return new IngredientUsage(rs.getString("name"), rs.getTimestamp("date").toLocalDateTime(), qty.getValue());
+    }
+
+    @Override
+    protected PreparedStatement prepareInsert(Connection conn) throws SQLException {
+        return conn.prepareStatement(
+            "INSERT INTO ingredient_usages (position, name, date, quantity) VALUES (?, ?, ?, ?)");
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement stmt, IngredientUsage usage) throws SQLException {
+        stmt.setString(2, usage.getName());
+        stmt.setTimestamp(3, Timestamp.valueOf(usage.getDate()));
+        stmt.setString(4, usage.getQty().toString());
+    }
+
+    @Override
+    protected SqlUsageStorage<IngredientUsage> withDatabase(SqlDatabase database) {
+        return new SqlIngredientUsageStorage(database);
+    }
+}
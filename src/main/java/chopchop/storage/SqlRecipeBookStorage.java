@@ -0,0 +1,175 @@
+// SqlRecipeBookStorage.java
+
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.attributes.Name;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+
+/**
+ * Stores the recipe book in a {@link SqlDatabase}.
+ */
+public class SqlRecipeBookStorage extends SqlEntryBookStorage<Recipe> implements RecipeBookStorage {
+
+    public SqlRecipeBookStorage(SqlDatabase database) {
+        super(database, "recipes", JsonSerializableRecipeBook.MESSAGE_DUPLICATE_RECIPE);
+    }
+
+    @Override
+    public Path getRecipeBookFilePath() {
+        return this.getDatabase().getFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook() throws DataConversionException {
+        return this.readRecipeBook(this.getRecipeBookFilePath());
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+        return this.readBook(filePath);
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook) throws IOException {
+        this.saveRecipeBook(recipeBook, this.getRecipeBookFilePath());
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath) throws IOException {
+        requireNonNull(recipeBook);
+        requireNonNull(filePath);
+        this.saveBook(recipeBook, filePath);
+    }
+
+    @Override
+    protected SqlEntryBookStorage<Recipe> withDatabase(SqlDatabase database) {
+        return new SqlRecipeBookStorage(database);
+    }
+
+    @Override
+    protected List<Row<Recipe>> readRows(Connection conn) throws SQLException, IllegalValueException {
+        var ingredients = new HashMap<Long, List<IngredientReference>>();
+        var steps = new HashMap<Long, List<Step>>();
+        var tags = new HashMap<Long, Set<Tag>>();
+
+        try (var stmt = conn.createStatement()) {
+            try (var rs = stmt.executeQuery(
+                "SELECT recipe_id, name, quantity FROM recipe_ingredients ORDER BY recipe_id, idx")) {
+                while (rs.next()) {
+                    var qty = Quantity.parse(rs.getString(3));
+                    if (qty.isError()) {
+                        throw new IllegalValueException(qty.getError());
+                    }
+
+                    ingredients.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>())
+                        .add(new IngredientReference(rs.getString(2), qty.getValue()));
+                }
+            }
+
+            try (var rs = stmt.executeQuery("SELECT recipe_id, step FROM recipe_steps ORDER BY recipe_id, idx")) {
+                while (rs.next()) {
+                    var step = rs.getString(2);
+                    if (!Step.isValidStep(step)) {
+                        throw new IllegalValueException(Step.MESSAGE_CONSTRAINTS);
+                    }
+
+                    steps.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(new Step(step));
+                }
+            }
+
+            try (var rs = stmt.executeQuery("SELECT recipe_id, tag FROM recipe_tags")) {
+                while (rs.next()) {
+                    var tag = rs.getString(2);
+                    if (!Tag.isValidTag(tag)) {
+                        throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+                    }
+
+                    tags.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(new Tag(tag));
+                }
+            }
+
+            var rows = new ArrayList<Row<Recipe>>();
+            try (var rs = stmt.executeQuery("SELECT id, name, position FROM recipes ORDER BY position")) {
+                while (rs.next()) {
+                    var id = rs.getLong(1);
+                    var name = rs.getString(2);
+                    if (!Name.isValidName(name)) {
+                        throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+                    }
+
+                    rows.add(new Row<>(id, rs.getLong(3), new Recipe(name,
+                        ingredients.getOrDefault(id, List.of()),
+                        steps.getOrDefault(id, List.of()),
+                        tags.getOrDefault(id, Set.of()))));
+                }
+            }
+
+            return rows;
+        }
+    }
+
+    @Override
+    protected void insertRow(Connection conn, long id, long position, Recipe recipe) throws SQLException {
+        try (var stmt = conn.prepareStatement("INSERT INTO recipes (id, name, position) VALUES (?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, recipe.getName());
+            stmt.setLong(3, position);
+            stmt.executeUpdate();
+        }
+
+        try (var stmt = conn.prepareStatement(
+            "INSERT INTO recipe_ingredients (recipe_id, idx, name, quantity) VALUES (?, ?, ?, ?)")) {
+
+            var ingredients = recipe.getIngredients();
+            for (int i = 0; i < ingredients.size(); i++) {
+                stmt.setLong(1, id);
+                stmt.setInt(2, i);
+                stmt.setString(3, ingredients.get(i).getName());
+                stmt.setString(4, ingredients.get(i).getQuantity().toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (var stmt = conn.prepareStatement("INSERT INTO recipe_steps (recipe_id, idx, step) VALUES (?, ?, ?)")) {
+            var steps = recipe.getSteps();
+            for (int i = 0; i < steps.size(); i++) {
+                stmt.setLong(1, id);
+                stmt.setInt(2, i);
+                stmt.setString(3, steps.get(i).toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (var stmt = conn.prepareStatement("INSERT INTO recipe_tags (recipe_id, tag) VALUES (?, ?)")) {
+            for (var tag : recipe.getTags()) {
+                stmt.setLong(1, id);
+                stmt.setString(2, tag.toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// SqlRecipeUsageStorage.java
+
+package chopchop.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Stores the recipe usages in a {@link SqlDatabase}.
+ */
+public class SqlRecipeUsageStorage extends SqlUsageStorage<RecipeUsage> {
+
+    public SqlRecipeUsageStorage(SqlDatabase database) {
+        super(database, "recipe_usages");
+    }
+
+    @Override
+    protected RecipeUsage readUsage(ResultSet rs) throws SQLException {
+        return new RecipeUsage(rs.getString("name"), rs.getTimestamp("date").toLocalDateTime());
+    }
+
+    @Override
+    protected PreparedStatement prepareInsert(Connection conn) throws SQLException {
+        return conn.prepareStatement("INSERT INTO recipe_usages (position, name, date) VALUES (?, ?, ?)");
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement stmt, RecipeUsage usage) throws SQLException {
+        stmt.setString(2, usage.getName());
+        stmt.setTimestamp(3, Timestamp.valueOf(usage.getDate()));
+    }
+
+    @Override
+    protected SqlUsageStorage<RecipeUsage> withDatabase(SqlDatabase database) {
+        return new SqlRecipeUsageStorage(database);
+    }
+}
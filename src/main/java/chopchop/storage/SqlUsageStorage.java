@@ -0,0 +1,157 @@
+// SqlUsageStorage.java
+
+package chopchop.storage;
+
+import static chopchop.commons.util.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.model.UsageList;
+import chopchop.model.usage.Usage;
+
+/**
+ * Stores a usage list in a {@link SqlDatabase}, one row per usage, keyed by its position in the list. Usages
+ * are almost always added to (or removed from) the end of the list, so saving only rewrites the rows after
+ * the longest prefix of the list that is unchanged since it was last saved or loaded.
+ */
+public abstract class SqlUsageStorage<T extends Usage> implements UsageStorage<T> {
+    private final SqlDatabase database;
+    private final String table;
+
+    // the usages that are currently in the table, in order; null if unknown.
+    private List<T> saved;
+
+    SqlUsageStorage(SqlDatabase database, String table) {
+        this.database = database;
+        this.table = table;
+    }
+
+    /**
+     * Reads a usage from the current row of {@code rs}, whose columns are those of the table.
+     */
+    protected abstract T readUsage(ResultSet rs) throws SQLException, IllegalValueException;
+
+    /**
+     * Returns the statement used to insert usages, whose first parameter is the position.
+     */
+    protected abstract PreparedStatement prepareInsert(Connection conn) throws SQLException;
+
+    /**
+     * Sets the parameters (after the position) of the insert statement for {@code usage}.
+     */
+    protected abstract void setInsertParameters(PreparedStatement stmt, T usage) throws SQLException;
+
+    protected abstract SqlUsageStorage<T> withDatabase(SqlDatabase database);
+
+    @Override
+    public Path getUsageFilePath() {
+        return this.database.getFilePath();
+    }
+
+    @Override
+    public Optional<UsageList<T>> readUsages() throws DataConversionException {
+        return this.readUsages(this.getUsageFilePath());
+    }
+
+    @Override
+    public Optional<UsageList<T>> readUsages(Path filePath) throws DataConversionException {
+        requireNonNull(filePath);
+
+        if (!filePath.equals(this.database.getFilePath())) {
+            try (var other = new SqlDatabase(SqlEntryBookStorage.getDatabasePath(filePath))) {
+                return this.withDatabase(other).readUsages(filePath);
+            } catch (IOException e) {
+                throw new DataConversionException(e);
+            }
+        }
+
+        if (!this.database.exists()) {
+            return Optional.empty();
+        }
+
+        try {
+            var usages = this.database.transaction(conn -> {
+                var ret = new ArrayList<T>();
+                try (var stmt = conn.createStatement();
+                     var rs = stmt.executeQuery("SELECT * FROM " + this.table + " ORDER BY position")) {
+                    while (rs.next()) {
+                        ret.add(this.readUsage(rs));
+                    }
+                }
+                return ret;
+            });
+
+            this.saved = new ArrayList<>(usages);
+            return Optional.of(new UsageList<>(usages));
+
+        } catch (SQLException e) {
+            throw new DataConversionException(e);
+        } catch (IllegalValueException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    @Override
+    public void saveUsages(UsageList<T> usages) throws IOException {
+        this.saveUsages(usages, this.getUsageFilePath());
+    }
+
+    @Override
+    public void saveUsages(UsageList<T> usages, Path filePath) throws IOException {
+        requireAllNonNull(usages, filePath);
+
+        if (!filePath.equals(this.database.getFilePath())) {
+            try (var other = new SqlDatabase(SqlEntryBookStorage.getDatabasePath(filePath))) {
+                this.withDatabase(other).saveUsages(usages, filePath);
+            }
+            return;
+        }
+
+        var list = new ArrayList<T>(usages.getUsages());
+        try {
+            this.database.transaction(conn -> {
+                // if an enclosing transaction is rolled back, the rows written here are gone again.
+                this.database.onRollback(() -> this.saved = null);
+
+                var keep = 0;
+                if (this.saved != null) {
+                    while (keep < list.size() && keep < this.saved.size() && list.get(keep) == this.saved.get(keep)) {
+                        keep++;
+                    }
+                }
+
+                try (var delete = conn.prepareStatement("DELETE FROM " + this.table + " WHERE position >= ?")) {
+                    delete.setLong(1, keep);
+                    delete.executeUpdate();
+                }
+
+                try (var insert = this.prepareInsert(conn)) {
+                    for (int i = keep; i < list.size(); i++) {
+                        insert.setLong(1, i);
+                        this.setInsertParameters(insert, list.get(i));
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                return null;
+            });
+
+            this.saved = list;
+
+        } catch (SQLException | IllegalValueException e) {
+            this.saved = null;
+            throw new IOException(e);
+        }
+    }
+}
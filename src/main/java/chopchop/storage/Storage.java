@@ -33,4 +33,20 @@ public interface Storage extends IngredientBookStorage, RecipeBookStorage, UserP
     public void saveIngredientUsages(UsageList<IngredientUsage> usages) throws IOException;
 
     public void saveIngredientUsages(UsageList<IngredientUsage> usages, Path filePath) throws IOException;
+
+    /**
+     * Runs {@code action}, which saves some of the data, so that its saves either all take effect or none do, if
+     * the storage can do that. By default the saves are just run one after another.
+     */
+    public default void runInTransaction(SaveAction action) throws IOException {
+        action.run();
+    }
+
+    /**
+     * A group of saves to run with {@link #runInTransaction(SaveAction)}.
+     */
+    @FunctionalInterface
+    public interface SaveAction {
+        void run() throws IOException;
+    }
 }
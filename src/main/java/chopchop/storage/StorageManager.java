@@ -1,11 +1,14 @@
 package chopchop.storage;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.sql.SQLException;
 import java.util.Optional;
 
 import chopchop.commons.core.Log;
 import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
 import chopchop.model.ReadOnlyEntryBook;
 import chopchop.model.ReadOnlyUserPrefs;
 import chopchop.model.UsageList;
@@ -27,6 +30,9 @@ public class StorageManager implements Storage {
     private final UsageStorage<IngredientUsage> ingredientUsageStorage;
     private final UserPrefsStorage userPrefsStorage;
 
+    // the database that the storages write to, if they are sql storages.
+    private SqlDatabase database;
+
     /**
      * Creates a {@code StorageManager} with the given {@code RecipeBookStorage}, {@code IngredientBookStorage} and
      * {@code UserPrefStorage}.
@@ -42,6 +48,44 @@ public class StorageManager implements Storage {
         this.userPrefsStorage = userPrefsStorage;
     }
 
+    /**
+     * Creates a {@code StorageManager} that keeps all the data in the given database.
+     */
+    public static StorageManager forDatabase(SqlDatabase database, UserPrefsStorage userPrefsStorage) {
+        var storage = new StorageManager(new SqlRecipeBookStorage(database), new SqlIngredientBookStorage(database),
+            new SqlRecipeUsageStorage(database), new SqlIngredientUsageStorage(database), userPrefsStorage);
+
+        storage.database = database;
+        return storage;
+    }
+
+    /**
+     * Runs the saves in {@code action} in one database transaction, so that either all of them are committed or
+     * none are. For file storages there is nothing to group them with, so they are just run one after another.
+     */
+    @Override
+    public void runInTransaction(SaveAction action) throws IOException {
+        if (this.database == null) {
+            action.run();
+            return;
+        }
+
+        try {
+            this.database.transaction(conn -> {
+                try {
+                    action.run();
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (SQLException | IllegalValueException e) {
+            throw new IOException(e);
+        }
+    }
+
     // ================ UserPrefs methods ==============================
 
     @Override
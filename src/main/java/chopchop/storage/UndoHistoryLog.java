@@ -0,0 +1,220 @@
+// UndoHistoryLog.java
+
+package chopchop.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import chopchop.commons.core.Log;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.Pair;
+import chopchop.commons.util.StringUtil;
+import chopchop.model.ModelChange;
+
+/**
+ * The undo history, saved as an append-only log so that commands can still be undone (and redone) after a
+ * restart. Each line is one event, in json: a command that changed the model (saved as the {@link ModelChange}
+ * it made, since the commands themselves are not saved), an undo, or a redo. Replaying the events gives the
+ * changes in the history, and how many of them are currently done.
+ *
+ * The log only grows, so it is rewritten with just the current history (see {@link #rewrite(List, int)}) once
+ * it has many more events than that; clearing the history also rewrites it. As with the input history, failing
+ * to read or write the log is not an error: it is logged, and the undo history is just not saved.
+ */
+public class UndoHistoryLog {
+    public static final String FILE_NAME = "undo.log";
+
+    private static final Log logger = new Log(UndoHistoryLog.class);
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String TYPE_ADD = "add";
+    private static final String TYPE_UNDO = "undo";
+    private static final String TYPE_REDO = "redo";
+
+    private final Path path;
+
+    // the number of events in the file, as far as we know.
+    private int eventCount = 0;
+
+    /**
+     * Constructs an {@code UndoHistoryLog} for the log at {@code path}.
+     */
+    public UndoHistoryLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the path of the undo history log for the preferences file at {@code userPrefsPath}. Like the input
+     * history, it is not kept with the data files, so it is not backed up; restoring a backup or switching
+     * workspaces clears the undo history anyway.
+     */
+    public static Path getLogPath(Path userPrefsPath) {
+        return userPrefsPath.resolveSibling(FILE_NAME);
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns the number of events in the log.
+     */
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Replays the log, and returns the changes in the history (oldest first), along with how many of them are
+     * done; the rest were undone, and can be redone. If an event cannot be read (eg. because it was only partly
+     * written when the app stopped), it and everything after it are dropped from the log.
+     */
+    public Pair<List<ModelChange>, Integer> read() {
+        var changes = new ArrayList<ModelChange>();
+        var done = 0;
+        this.eventCount = 0;
+
+        if (!Files.exists(this.path)) {
+            return Pair.of(changes, done);
+        }
+
+        var mapper = JsonModelModule.getObjectMapper();
+        try (BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8)) {
+            String line;
+            var lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                JsonUndoEvent event;
+                ModelChange change;
+                try {
+                    event = mapper.readValue(line, JsonUndoEvent.class);
+                    change = event.change == null ? null : event.change.toModelType();
+                } catch (IOException | IllegalValueException | RuntimeException e) {
+                    logger.warn("Dropping the undo history after line %d of '%s', which is unreadable: %s",
+                        lineNumber, this.path, e.getMessage());
+                    this.rewrite(changes, done);
+                    return Pair.of(changes, done);
+                }
+
+                if (TYPE_ADD.equals(event.type) && change != null) {
+                    changes.subList(done, changes.size()).clear();
+                    changes.add(change);
+                    done = changes.size();
+                } else if (TYPE_UNDO.equals(event.type)) {
+                    done = Math.max(done - 1, 0);
+                } else if (TYPE_REDO.equals(event.type) && done < changes.size()) {
+                    // redoing a command does not always make the same change (eg. it might make a recipe again
+                    // at a different time), so the change is saved again.
+                    if (change != null) {
+                        changes.set(done, change);
+                    }
+                    done++;
+                }
+
+                this.eventCount++;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read undo history from '%s': %s", this.path, StringUtil.getDetails(e));
+            return Pair.of(new ArrayList<>(), 0);
+        }
+
+        logger.debug("Read %d undoable changes (%d done) from '%s'", changes.size(), done, this.path);
+        return Pair.of(changes, done);
+    }
+
+    /**
+     * Saves a new change, which discards any changes that were undone.
+     */
+    public void add(ModelChange change) {
+        this.append(new JsonUndoEvent(TYPE_ADD, new JsonAdaptedModelChange(change)));
+    }
+
+    /**
+     * Saves that the last change that was done was undone.
+     */
+    public void undo() {
+        this.append(new JsonUndoEvent(TYPE_UNDO, null));
+    }
+
+    /**
+     * Saves that the first change that was undone was redone, making {@code change}.
+     */
+    public void redo(ModelChange change) {
+        this.append(new JsonUndoEvent(TYPE_REDO, new JsonAdaptedModelChange(change)));
+    }
+
+    /**
+     * Replaces the log with one that only holds the given changes, of which the first {@code done} are done.
+     */
+    public void rewrite(List<ModelChange> changes, int done) {
+        try {
+            var mapper = JsonModelModule.getObjectMapper();
+            var sb = new StringBuilder();
+            for (var change : changes) {
+                sb.append(mapper.writeValueAsString(new JsonUndoEvent(TYPE_ADD, new JsonAdaptedModelChange(change))))
+                    .append('\n');
+            }
+
+            var undo = mapper.writeValueAsString(new JsonUndoEvent(TYPE_UNDO, null));
+            for (int i = done; i < changes.size(); i++) {
+                sb.append(undo).append('\n');
+            }
+
+            FileUtil.createParentDirsOfFile(this.path);
+            var temp = this.path.resolveSibling(this.path.getFileName() + TEMP_SUFFIX);
+            Files.writeString(temp, sb.toString(), StandardCharsets.UTF_8);
+            FileUtil.replaceFile(temp, this.path);
+
+            this.eventCount = changes.size() + (changes.size() - done);
+            logger.debug("Compacted '%s' to %d undoable changes", this.path, changes.size());
+
+        } catch (IOException e) {
+            logger.warn("Failed to save undo history to '%s': %s", this.path, StringUtil.getDetails(e));
+        }
+    }
+
+    private void append(JsonUndoEvent event) {
+        try {
+            var line = JsonModelModule.getObjectMapper().writeValueAsString(event);
+
+            FileUtil.createParentDirsOfFile(this.path);
+            Files.writeString(this.path, line + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+            this.eventCount++;
+
+        } catch (IOException e) {
+            logger.warn("Failed to save undo history to '%s': %s", this.path, StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * One line of the log.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class JsonUndoEvent {
+        private final String type;
+        private final JsonAdaptedModelChange change;
+
+        /**
+         * Constructs a {@code JsonUndoEvent} with the given details.
+         */
+        @JsonCreator
+        public JsonUndoEvent(@JsonProperty("type") String type,
+                             @JsonProperty("change") JsonAdaptedModelChange change) {
+            this.type = type;
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// WorkspaceStorage.java
+
+package chopchop.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.ReadOnlyUserPrefs;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Storage for whichever workspace is active. Everything is forwarded to the storage of the active workspace,
+ * which can be switched at runtime, so that the rest of the app can keep holding on to this one object.
+ */
+public class WorkspaceStorage implements Storage {
+
+    private volatile Storage current;
+
+    /**
+     * Constructs a {@code WorkspaceStorage} that initially forwards to {@code current}.
+     */
+    public WorkspaceStorage(Storage current) {
+        this.setCurrent(current);
+    }
+
+    public Storage getCurrent() {
+        return this.current;
+    }
+
+    /**
+     * Forwards everything to {@code current} from now on.
+     */
+    public void setCurrent(Storage current) {
+        requireNonNull(current);
+        this.current = current;
+    }
+
+    @Override
+    public Path getUserPrefsFilePath() {
+        return this.current.getUserPrefsFilePath();
+    }
+
+    @Override
+    public Optional<UserPrefs> readUserPrefs() throws DataConversionException {
+        return this.current.readUserPrefs();
+    }
+
+    @Override
+    public void saveUserPrefs(ReadOnlyUserPrefs userPrefs) throws IOException {
+        this.current.saveUserPrefs(userPrefs);
+    }
+
+    @Override
+    public Path getRecipeBookFilePath() {
+        return this.current.getRecipeBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook() throws DataConversionException {
+        return this.current.readRecipeBook();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Recipe>> readRecipeBook(Path filePath) throws DataConversionException {
+        return this.current.readRecipeBook(filePath);
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook) throws IOException {
+        this.current.saveRecipeBook(recipeBook);
+    }
+
+    @Override
+    public void saveRecipeBook(ReadOnlyEntryBook<Recipe> recipeBook, Path filePath) throws IOException {
+        this.current.saveRecipeBook(recipeBook, filePath);
+    }
+
+    @Override
+    public Path getIngredientBookFilePath() {
+        return this.current.getIngredientBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook() throws DataConversionException {
+        return this.current.readIngredientBook();
+    }
+
+    @Override
+    public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook(Path filePath) throws DataConversionException {
+        return this.current.readIngredientBook(filePath);
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook) throws IOException {
+        this.current.saveIngredientBook(ingredientBook);
+    }
+
+    @Override
+    public void saveIngredientBook(ReadOnlyEntryBook<Ingredient> ingredientBook, Path filePath) throws IOException {
+        this.current.saveIngredientBook(ingredientBook, filePath);
+    }
+
+    @Override
+    public Path getRecipeUsageFilePath() {
+        return this.current.getRecipeUsageFilePath();
+    }
+
+    @Override
+    public Optional<UsageList<RecipeUsage>> readRecipeUsages() throws DataConversionException {
+        return this.current.readRecipeUsages();
+    }
+
+    @Override
+    public Optional<UsageList<RecipeUsage>> readRecipeUsages(Path filePath) throws DataConversionException {
+        return this.current.readRecipeUsages(filePath);
+    }
+
+    @Override
+    public void saveRecipeUsages(UsageList<RecipeUsage> usages) throws IOException {
+        this.current.saveRecipeUsages(usages);
+    }
+
+    @Override
+    public void saveRecipeUsages(UsageList<RecipeUsage> usages, Path filePath) throws IOException {
+        this.current.saveRecipeUsages(usages, filePath);
+    }
+
+    @Override
+    public Path getIngredientUsageFilePath() {
+        return this.current.getIngredientUsageFilePath();
+    }
+
+    @Override
+    public Optional<UsageList<IngredientUsage>> readIngredientUsages() throws DataConversionException {
+        return this.current.readIngredientUsages();
+    }
+
+    @Override
+    public Optional<UsageList<IngredientUsage>> readIngredientUsages(Path filePath) throws DataConversionException {
+        return this.current.readIngredientUsages(filePath);
+    }
+
+    @Override
+    public void saveIngredientUsages(UsageList<IngredientUsage> usages) throws IOException {
+        this.current.saveIngredientUsages(usages);
+    }
+
+    @Override
+    public void saveIngredientUsages(UsageList<IngredientUsage> usages, Path filePath) throws IOException {
+        this.current.saveIngredientUsages(usages, filePath);
+    }
+
+    @Override
+    public void runInTransaction(SaveAction action) throws IOException {
+        this.current.runInTransaction(action);
+    }
+}
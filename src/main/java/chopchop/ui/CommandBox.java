@@ -2,61 +2,60 @@
 
 package chopchop.ui;
 
+import java.util.List;
+
 import chopchop.logic.Logic;
-import chopchop.logic.commands.CommandResult;
 import javafx.fxml.FXML;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Region;
 
 /**
- * The UI component that is responsible for receiving user command inputs.
+ * The UI component that is responsible for receiving user command inputs. Commands are executed in the
+ * background, so more can be typed (and entered) while they run; Escape cancels them. Up and down go through the
+ * previous inputs that start with what was typed, and Ctrl+R searches them incrementally.
  */
 public class CommandBox extends UiPart<Region> {
 
     private static final String FXML = "CommandBox.fxml";
 
     private final CommandExecutor commandExecutor;
+    private final Runnable cancelHandler;
     private final Logic logic;
 
-    private int historyPointer;
+    // the inputs being gone through with up/down or ctrl+r (most recent first), the prefix they were searched
+    // for, and the one being shown (-1 if it's the prefix itself). the matches are null when not searching.
+    private List<String> historyMatches = null;
+    private String historyPrefix = "";
+    private int historyIndex = -1;
 
     @FXML
     private TextField commandTextField;
 
+    @FXML
+    private ProgressIndicator busyIndicator;
+
     /**
-     * Constructs {@code CommandBox}
+     * Constructs {@code CommandBox}, which runs {@code cancelHandler} when the user asks to cancel the commands
+     * that are running.
      */
-    public CommandBox(CommandExecutor commandExecutor, Logic logic) {
+    public CommandBox(CommandExecutor commandExecutor, Runnable cancelHandler, Logic logic) {
         super(FXML);
         this.commandExecutor = commandExecutor;
+        this.cancelHandler = cancelHandler;
         this.logic = logic;
 
-        // No commands entered yet.
-        this.historyPointer = 0;
-
         this.commandTextField.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
-            if (event.getCode().equals(KeyCode.DOWN) && this.historyPointer < logic.getInputHistory().size()) {
-                this.historyPointer++;
-
-                if (this.historyPointer == logic.getInputHistory().size()) {
-                    this.commandTextField.clear();
-                } else {
-                    var command = logic.getInputHistory().get(this.historyPointer);
-                    this.commandTextField.setText(command);
-                    this.commandTextField.positionCaret(command.length());
-                }
-
-                logic.resetCompletionState();
+            if (event.getCode().equals(KeyCode.UP)) {
+                this.showOlderMatch();
                 event.consume();
-            } else if (event.getCode().equals(KeyCode.UP) && this.historyPointer > 0) {
-                this.historyPointer--;
-                var command = logic.getInputHistory().get(this.historyPointer);
-                this.commandTextField.setText(command);
-                this.commandTextField.positionCaret(command.length());
-
-                logic.resetCompletionState();
+            } else if (event.getCode().equals(KeyCode.DOWN)) {
+                this.showNewerMatch();
+                event.consume();
+            } else if (event.getCode().equals(KeyCode.R) && event.isControlDown()) {
+                this.searchHistory();
                 event.consume();
             } else if (event.getCode().equals(KeyCode.TAB)) {
                 var text = this.commandTextField.getText();
@@ -74,14 +73,84 @@ public class CommandBox extends UiPart<Region> {
                 this.commandTextField.setText(completion + snd);
                 this.commandTextField.positionCaret(cursor);
 
+                event.consume();
+            } else if (event.getCode().equals(KeyCode.ESCAPE) && this.busyIndicator.isVisible()) {
+                this.cancelHandler.run();
                 event.consume();
             } else {
-                // when the user presses any other key, just reset the completion state.
+                // when the user presses any other key, just reset the completion state and the history search
+                // (but not for ctrl on its own, which might be for another ctrl+r).
                 logic.resetCompletionState();
+                if (!event.getCode().isModifierKey()) {
+                    this.historyMatches = null;
+                }
             }
         });
     }
 
+    /**
+     * Shows the next older input in the history that starts with what was typed before the user started going
+     * through the history.
+     */
+    private void showOlderMatch() {
+        if (this.historyMatches == null) {
+            this.historyPrefix = this.commandTextField.getText();
+            this.historyMatches = this.logic.getInputHistory(this.historyPrefix);
+            this.historyIndex = -1;
+        }
+
+        if (this.historyIndex + 1 < this.historyMatches.size()) {
+            this.historyIndex++;
+            this.showInput(this.historyMatches.get(this.historyIndex));
+        }
+    }
+
+    /**
+     * Shows the next newer input in the history, going back to what was typed after the newest one.
+     */
+    private void showNewerMatch() {
+        if (this.historyMatches == null || this.historyIndex < 0) {
+            return;
+        }
+
+        this.historyIndex--;
+        this.showInput(this.historyIndex < 0
+            ? this.historyPrefix
+            : this.historyMatches.get(this.historyIndex));
+    }
+
+    /**
+     * Searches backwards through the history for inputs that start with the text before the caret, showing the
+     * next older one each time it is called with the same text. The rest of the input is selected, so typing
+     * replaces it and narrows the search the next time.
+     */
+    private void searchHistory() {
+        var caret = Math.min(this.commandTextField.getCaretPosition(), this.commandTextField.getAnchor());
+        var query = this.commandTextField.getText().substring(0, caret);
+
+        if (this.historyMatches == null || !query.equals(this.historyPrefix)) {
+            this.historyPrefix = query;
+            this.historyMatches = this.logic.getInputHistory(query);
+            this.historyIndex = -1;
+        }
+
+        if (this.historyIndex + 1 < this.historyMatches.size()) {
+            this.historyIndex++;
+
+            var match = this.historyMatches.get(this.historyIndex);
+            this.commandTextField.setText(match);
+            this.commandTextField.selectRange(match.length(), query.length());
+        }
+
+        this.logic.resetCompletionState();
+    }
+
+    private void showInput(String input) {
+        this.commandTextField.setText(input);
+        this.commandTextField.positionCaret(input.length());
+        this.logic.resetCompletionState();
+    }
+
     /**
      * Handles the Enter button pressed event.
      */
@@ -90,11 +159,19 @@ public class CommandBox extends UiPart<Region> {
         var command = this.commandTextField.getText();
         if (!command.isEmpty()) {
             this.commandExecutor.execute(command);
-            this.historyPointer = this.logic.getInputHistory().size();
+
+            this.historyMatches = null;
             this.commandTextField.clear();
         }
     }
 
+    /**
+     * Shows whether there are commands running (or waiting to run).
+     */
+    public void setBusy(boolean isBusy) {
+        this.busyIndicator.setVisible(isBusy);
+    }
+
     protected void setFocus(String keypress) {
         if (!this.commandTextField.isFocused()) {
             this.commandTextField.appendText(keypress);
@@ -109,10 +186,10 @@ public class CommandBox extends UiPart<Region> {
     @FunctionalInterface
     public interface CommandExecutor {
         /**
-         * Executes the command and returns the result.
+         * Starts executing the command; the result is shown once it finishes.
          *
          * @see Logic#execute(String)
          */
-        CommandResult execute(String commandText);
+        void execute(String commandText);
     }
 }
@@ -4,6 +4,8 @@ package chopchop.ui;
 
 import static chopchop.model.Model.PREDICATE_SHOW_ALL_ENTRIES;
 
+import java.util.concurrent.Executor;
+
 import chopchop.MainApp;
 import chopchop.logic.Logic;
 import chopchop.model.Model;
@@ -25,6 +27,7 @@ public class DisplayController extends UiPart<Region> {
     private static final String NOTIFICATION_MESSAGE = "Feature will be coming soon!!";
 
     private final Model model;
+    private final Executor modelExecutor;
     private final Region welcomeMessage;
     private final RecipeViewPanel recipeViewPanel;
     private final IngredientViewPanel ingredientViewPanel;
@@ -43,16 +46,19 @@ public class DisplayController extends UiPart<Region> {
     private Button recommendationButton;
 
     /**
-     * Creates a {@code DisplayController} with the given {@code Logic}.
+     * Creates a {@code DisplayController} with the given {@code Logic}. The model is only changed with
+     * {@code modelExecutor}, since it belongs to the thread that executes commands.
      * @param logic
      */
-    public DisplayController(Logic logic, Model model) {
+    public DisplayController(Logic logic, Model model, Executor modelExecutor) {
         super(FXML);
         this.model = model;
-        this.recipeViewPanel = new RecipeViewPanel(logic.getFilteredRecipeList());
-        this.ingredientViewPanel = new IngredientViewPanel(logic.getFilteredIngredientList());
-        this.recommendationViewPanel = new RecommendationViewPanel(logic.getRecommendedRecipeList(),
-                logic.getExpiringRecipeList());
+        this.modelExecutor = modelExecutor;
+        this.recipeViewPanel = new RecipeViewPanel(new FxListAdapter<>(logic.getFilteredRecipeList()));
+        this.ingredientViewPanel = new IngredientViewPanel(new FxListAdapter<>(logic.getFilteredIngredientList()));
+        this.recommendationViewPanel = new RecommendationViewPanel(
+                new FxListAdapter<>(logic.getRecommendedRecipeList()),
+                new FxListAdapter<>(logic.getExpiringRecipeList()));
 
         {
             var container = new ScrollPane();
@@ -166,7 +172,7 @@ public class DisplayController extends UiPart<Region> {
      */
     @FXML
     public void handleRecipePanel() {
-        this.model.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES);
+        this.modelExecutor.execute(() -> this.model.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES));
         this.displayRecipeList();
     }
 
@@ -175,7 +181,7 @@ public class DisplayController extends UiPart<Region> {
      */
     @FXML
     public void handleIngredientPanel() {
-        this.model.updateFilteredIngredientList(PREDICATE_SHOW_ALL_ENTRIES);
+        this.modelExecutor.execute(() -> this.model.updateFilteredIngredientList(PREDICATE_SHOW_ALL_ENTRIES));
         this.displayIngredientList();
     }
 
@@ -184,7 +190,7 @@ public class DisplayController extends UiPart<Region> {
      */
     @FXML
     public void handleRecommendations() {
-        this.model.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES);
+        this.modelExecutor.execute(() -> this.model.updateFilteredRecipeList(PREDICATE_SHOW_ALL_ENTRIES));
         this.displayRecommendationList();
     }
 }
@@ -0,0 +1,68 @@
+// FxListAdapter.java
+
+package chopchop.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import chopchop.commons.util.ListenableList;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Presents a {@code ListenableList} from the model as a JavaFX {@code ObservableList}, so that it can be shown
+ * by the UI. The source may be changed on any (one) thread; the adapter copies it there, and hands the copy to
+ * the FX thread.
+ *
+ * Every change is reported to JavaFX as the whole list being replaced, since the UI redraws the whole list
+ * anyway; this is the only place where the model's lists pay for JavaFX's change events.
+ */
+public class FxListAdapter<T> extends ObservableListBase<T> {
+
+    private final ListenableList<T> source;
+
+    // what the list contained as of the last change that JavaFX was told about.
+    private List<T> contents;
+
+    /**
+     * Creates an {@code ObservableList} that follows the given list.
+     */
+    public FxListAdapter(ListenableList<T> source) {
+        this.source = source;
+        this.contents = new ArrayList<>(source);
+        this.source.addListener((removed, added) -> this.onSourceChanged());
+    }
+
+    @Override
+    public T get(int index) {
+        return this.contents.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.contents.size();
+    }
+
+    private void onSourceChanged() {
+        var contents = new ArrayList<>(this.source);
+        if (Platform.isFxApplicationThread()) {
+            this.setContents(contents);
+        } else {
+            Platform.runLater(() -> this.setContents(contents));
+        }
+    }
+
+    private void setContents(List<T> contents) {
+        var old = this.contents;
+        this.contents = contents;
+
+        this.beginChange();
+        if (!old.isEmpty()) {
+            this.nextRemove(0, old);
+        }
+        if (!this.contents.isEmpty()) {
+            this.nextAdd(0, this.contents.size());
+        }
+        this.endChange();
+    }
+}
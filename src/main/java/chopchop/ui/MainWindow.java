@@ -4,6 +4,7 @@ package chopchop.ui;
 
 import chopchop.commons.core.GuiSettings;
 import chopchop.commons.core.Log;
+import chopchop.logic.CommandQueue;
 import chopchop.logic.Logic;
 import chopchop.logic.commands.CommandResult;
 import chopchop.model.Model;
@@ -26,6 +27,7 @@ public class MainWindow extends UiPart<Stage> {
     private Stage primaryStage;
     private Logic logic;
     private Model model;
+    private CommandQueue commandQueue;
 
     private CommandBox commandBox;
     private CommandOutput commandOutput;
@@ -50,15 +52,17 @@ public class MainWindow extends UiPart<Stage> {
     private StackPane commandOutputPlaceholder;
 
     /**
-     * Creates a {@code MainWindow} with the given {@code Stage} and {@code Logic}.
+     * Creates a {@code MainWindow} with the given {@code Stage} and {@code Logic}, which executes commands (and
+     * changes the model) with {@code commandQueue}.
      */
-    public MainWindow(Stage primaryStage, Logic logic, Model model) {
+    public MainWindow(Stage primaryStage, Logic logic, Model model, CommandQueue commandQueue) {
         super(FXML, primaryStage);
 
         // Set dependencies
         this.primaryStage = primaryStage;
         this.logic = logic;
         this.model = model;
+        this.commandQueue = commandQueue;
 
         // Configure the UI
         this.setWindowDefaultSize(logic.getGuiSettings());
@@ -89,15 +93,16 @@ public class MainWindow extends UiPart<Stage> {
         this.commandOutput = commandOutput;
         this.commandOutputPlaceholder.getChildren().add(commandOutput.getRoot());
 
-        this.statsOutput = new StatsBox(this.model);
+        this.statsOutput = new StatsBox(this.model, this.commandQueue);
         this.pinBoxPlaceholder.getChildren().add(statsOutput.getRoot());
 
-        var displayController = new DisplayController(this.logic, this.model);
+        var displayController = new DisplayController(this.logic, this.model, this.commandQueue);
         DisplayNavigator.setDisplayController(displayController);
         this.displayPlaceholder.getChildren().setAll(displayController.getRoot());
 
-        var commandBox = new CommandBox(this::executeCommand, this.logic);
+        var commandBox = new CommandBox(this::executeCommand, this::cancelCommands, this.logic);
         this.commandBox = commandBox;
+        this.commandQueue.setBusyListener(commandBox::setBusy);
         this.commandBoxPlaceholder.getChildren().setAll(commandBox.getRoot());
         this.primaryStage.addEventFilter(KeyEvent.KEY_TYPED, event -> {
             commandBox.setFocus(event.getCharacter());
@@ -126,12 +131,26 @@ public class MainWindow extends UiPart<Stage> {
     }
 
     /**
-     * Executes the command and returns the result.
+     * Queues the command to be executed, after any commands that are still running; its result is shown when
+     * it finishes.
      *
      * @see Logic#execute(String)
      */
-    private CommandResult executeCommand(String commandText) {
-        var result = this.logic.execute(commandText);
+    private void executeCommand(String commandText) {
+        this.commandQueue.submit(commandText, this::showResult);
+    }
+
+    /**
+     * Cancels the commands that are running, or waiting to run.
+     */
+    private void cancelCommands() {
+        this.commandOutput.setFeedbackToUser(CommandResult.message("%s", this.commandQueue.cancel()));
+    }
+
+    /**
+     * Shows the result of a command.
+     */
+    private void showResult(CommandResult result) {
         logger.log("command result: %s", result.toString());
 
         if (result.isStatsOutput()) {
@@ -169,8 +188,6 @@ public class MainWindow extends UiPart<Stage> {
         default:
             break;
         }
-
-        return result;
     }
 
     /**
@@ -188,7 +205,7 @@ public class MainWindow extends UiPart<Stage> {
     private void handleExit() {
         var guiSettings = new GuiSettings(this.primaryStage.getWidth(), this.primaryStage.getHeight(),
             (int) this.primaryStage.getX(), (int) this.primaryStage.getY());
-        this.logic.setGuiSettings(guiSettings);
+        this.commandQueue.execute(() -> this.logic.setGuiSettings(guiSettings));
         this.primaryStage.hide();
     }
 }
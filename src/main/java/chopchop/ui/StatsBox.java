@@ -6,12 +6,12 @@ package chopchop.ui;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import chopchop.commons.util.Pair;
 import chopchop.logic.commands.CommandResult;
 import chopchop.model.Model;
-import chopchop.model.usage.RecipeUsage;
-import javafx.collections.ListChangeListener;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
@@ -32,6 +32,10 @@ public class StatsBox extends UiPart<Region> {
     private static final String FXML = "StatsBox.fxml";
 
     private final Model model;
+    private final Executor modelExecutor;
+
+    // incremented whenever the content changes, so that a stale list of recent recipes is not shown.
+    private int generation = 0;
 
     @FXML
     private Text subtitle;
@@ -40,19 +44,23 @@ public class StatsBox extends UiPart<Region> {
     private VBox recipeList;
 
     /**
-     * Creates a {@code StatsBox}.
+     * Creates a {@code StatsBox}, which reads the model with {@code modelExecutor}.
      */
-    public StatsBox(Model model) {
+    public StatsBox(Model model, Executor modelExecutor) {
         super(FXML);
 
         this.model = model;
-        this.model.getObservableRecipeUsages().addListener((ListChangeListener<RecipeUsage>) e -> this.clearMessage());
+        this.modelExecutor = modelExecutor;
+
+        // the usages change on the thread that executes commands.
+        this.model.getObservableRecipeUsages().addListener((removed, added) -> Platform.runLater(this::clearMessage));
     }
 
     /**
      * Sets the content based on the command result
      */
     public void setMessage(CommandResult result) {
+        this.generation++;
         this.subtitle.setText(result.toString());
         this.showRecentRecipes(result.toString(), result.getStatsMessage());
     }
@@ -61,9 +69,16 @@ public class StatsBox extends UiPart<Region> {
      * Clears the message and goes back to the recent recipes view
      */
     public void clearMessage() {
-        var list = this.model.getRecentlyUsedRecipes(10);
-
-        this.showRecentRecipes(list.isEmpty() ? SUBTITLE_NO_RECIPES : SUBTITLE_DEFAULT, list);
+        var current = ++this.generation;
+
+        this.modelExecutor.execute(() -> {
+            var list = this.model.getRecentlyUsedRecipes(10);
+            Platform.runLater(() -> {
+                if (this.generation == current) {
+                    this.showRecentRecipes(list.isEmpty() ? SUBTITLE_NO_RECIPES : SUBTITLE_DEFAULT, list);
+                }
+            });
+        });
     }
 
     private void showRecentRecipes(String subtitle, List<Pair<String, String>> list) {
@@ -14,12 +14,13 @@ public interface Ui {
     void start(Stage primaryStage);
 
     /**
-     * Displays a modal dialog box
+     * Displays a modal dialog box. If this is called from another thread, the dialog is shown later, on the FX
+     * thread, and this returns right away.
      */
     void displayModalDialog(AlertType alertType, String title, String header, String body);
 
     /**
-     * Displays text in the command output box.
+     * Displays text in the command output box; this can be called from any thread.
      */
     void showCommandOutput(String text, boolean isError);
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import chopchop.MainApp;
 import chopchop.commons.core.Log;
 import chopchop.commons.util.StringUtil;
+import chopchop.logic.CommandQueue;
 import chopchop.logic.Logic;
 import chopchop.logic.commands.CommandResult;
 import chopchop.model.Model;
@@ -31,15 +32,18 @@ public class UiManager implements Ui {
 
     private Logic logic;
     private Model model;
+    private CommandQueue commandQueue;
     private MainWindow mainWindow;
 
     /**
-     * Creates a {@code UiManager} with the given {@code Logic}.
+     * Creates a {@code UiManager} with the given {@code Logic}, which executes commands with
+     * {@code commandQueue}.
      */
-    public UiManager(Logic logic, Model model) {
+    public UiManager(Logic logic, Model model, CommandQueue commandQueue) {
         super();
         this.logic = logic;
         this.model = model;
+        this.commandQueue = commandQueue;
     }
 
     @Override
@@ -50,7 +54,7 @@ public class UiManager implements Ui {
         primaryStage.getIcons().add(this.getImage(APPLICATION_ICON));
 
         try {
-            mainWindow = new MainWindow(primaryStage, logic, model);
+            mainWindow = new MainWindow(primaryStage, logic, model, commandQueue);
             mainWindow.show(); //This should be called before creating other UI parts
             mainWindow.fillInnerParts();
 
@@ -70,6 +74,12 @@ public class UiManager implements Ui {
 
     @Override
     public void showCommandOutput(String text, boolean isError) {
+        // this is also called by the services, on the thread that executes commands.
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.showCommandOutput(text, isError));
+            return;
+        }
+
         this.mainWindow.showCommandOutput(isError
             ? CommandResult.error(text)
             : CommandResult.message(text)
@@ -78,6 +88,11 @@ public class UiManager implements Ui {
 
     @Override
     public void displayModalDialog(AlertType type, String title, String header, String content) {
+        // as above; the dialog then does not block the thread that asked for it.
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.displayModalDialog(type, title, header, content));
+            return;
+        }
 
         var alert = new Alert(type);
         alert.getDialogPane().getStylesheets().add("stylesheets/Style.css");
@@ -0,0 +1,91 @@
+// BkTreeTest.java
+
+package chopchop.commons.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class BkTreeTest {
+
+    @Test
+    public void search_withinDistance_closestFirst() {
+        var tree = new BkTree();
+        List.of("parmesan", "pancake", "pasta", "parsley", "paprika", "cheese").forEach(tree::add);
+
+        assertEquals(List.of(Pair.of("parmesan", 1)), tree.search("parmesean", 1));
+        assertEquals(List.of(Pair.of("pasta", 0)), tree.search("pasta", 0));
+        assertEquals(List.of(Pair.of("pasta", 1), Pair.of("pancake", 4), Pair.of("paprika", 4),
+            Pair.of("parsley", 4)), tree.search("pastaa", 4));
+        assertEquals(List.of(), tree.search("tomato", 2));
+        assertEquals(List.of(), new BkTree().search("tomato", 2));
+    }
+
+    @Test
+    public void remove_addedTwice_removedOnlyOnce() {
+        var tree = new BkTree();
+        tree.add("salad");
+        tree.add("salad");
+        tree.add("salt");
+
+        tree.remove("salad");
+        assertEquals(List.of(Pair.of("salad", 1), Pair.of("salt", 3)), tree.search("salads", 3));
+
+        tree.remove("salad");
+        tree.remove("salad");
+        assertEquals(List.of(Pair.of("salt", 3)), tree.search("salads", 3));
+        assertEquals(1, tree.size());
+
+        tree.add("salad");
+        assertEquals(List.of(Pair.of("salad", 1), Pair.of("salt", 3)), tree.search("salads", 3));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    public void search_randomChanges_sameAsComparingAll() {
+        var random = new Random(3);
+        var tree = new BkTree();
+        var counts = new HashMap<String, Integer>();
+
+        for (int i = 0; i < 5000; i++) {
+            var str = randomString(random);
+            if (random.nextInt(3) == 0) {
+                tree.remove(str);
+                counts.computeIfPresent(str, (k, v) -> v == 1 ? null : v - 1);
+            } else {
+                tree.add(str);
+                counts.merge(str, 1, Integer::sum);
+            }
+
+            if (i % 250 == 0) {
+                var query = randomString(random);
+                for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                    var max = maxDistance;
+                    var expected = counts.keySet().stream()
+                        .map(s -> Pair.of(s, StringUtil.getEditDistance(query, s)))
+                        .filter(p -> p.snd() <= max)
+                        .sorted(Comparator.comparing((Pair<String, Integer> p) -> p.snd()).thenComparing(Pair::fst))
+                        .collect(Collectors.toList());
+
+                    assertEquals(expected, tree.search(query, maxDistance));
+                }
+                assertEquals(counts.size(), tree.size());
+            }
+        }
+    }
+
+    private static String randomString(Random random) {
+        var sb = new StringBuilder();
+        var length = random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,101 @@
+// BulkEditableListTest.java
+
+package chopchop.commons.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkEditableListTest {
+
+    private static class Recorder implements ListListener<String> {
+        private final List<Pair<List<String>, List<String>>> changes = new ArrayList<>();
+
+        @Override
+        public void onChanged(List<? extends String> removed, List<? extends String> added) {
+            this.changes.add(Pair.of(new ArrayList<>(removed), new ArrayList<>(added)));
+        }
+    }
+
+    @Test
+    public void edits_notifyListenersWithChanges() {
+        var list = new BulkEditableList<>(List.of("a", "b", "c"));
+        var recorder = new Recorder();
+        list.addListener(recorder);
+
+        list.add("d");
+        list.set(0, "z");
+        list.removeAll(List.of("b", "c"));
+
+        assertEquals(List.of("z", "d"), list);
+        assertEquals(List.of(
+            Pair.of(List.of(), List.of("d")),
+            Pair.of(List.of("a"), List.of("z")),
+            Pair.of(List.of("b", "c"), List.of())), recorder.changes);
+
+        // nothing was removed, so nothing changed.
+        list.removeAll(List.of("q"));
+        assertEquals(3, recorder.changes.size());
+    }
+
+    @Test
+    public void bulkEdit_nested_notifiesOnceAtEnd() {
+        var list = new BulkEditableList<String>();
+        var recorder = new Recorder();
+        list.addListener(recorder);
+
+        list.startEditing();
+        list.add("a");
+        list.startEditing();
+        list.add("b");
+        list.finishEditing();
+        list.remove("a");
+        assertTrue(recorder.changes.isEmpty());
+        list.finishEditing();
+
+        assertEquals(List.of(Pair.of(List.of("a"), List.of("a", "b"))), recorder.changes);
+    }
+
+    @Test
+    public void unmodifiableView_followsListAndRejectsEdits() {
+        var list = new BulkEditableList<>(List.of("a"));
+        var view = list.asUnmodifiableList();
+        var recorder = new Recorder();
+        view.addListener(recorder);
+
+        list.setAll(List.of("b", "c"));
+        assertEquals(List.of("b", "c"), view);
+        assertEquals(1, recorder.changes.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.add("d"));
+    }
+
+    @Test
+    public void filteredView_followsSourceAndPredicate() {
+        var list = new BulkEditableList<>(List.of("apple", "banana", "avocado"));
+        var view = new FilteredListView<>(list, s -> s.startsWith("a"));
+        var recorder = new Recorder();
+        view.addListener(recorder);
+
+        assertEquals(List.of("apple", "avocado"), view);
+
+        // changes that the view does not show are not reported.
+        list.add("cherry");
+        list.add("apricot");
+        assertEquals(List.of("apple", "avocado", "apricot"), view);
+        assertEquals(List.of(Pair.of(List.of(), List.of("apricot"))), recorder.changes);
+
+        view.setComparator(Comparator.naturalOrder());
+        assertEquals(List.of("apple", "apricot", "avocado"), view);
+
+        view.setPredicate(null);
+        view.setComparator(null);
+        assertEquals(list, view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add("durian"));
+    }
+}
@@ -3,11 +3,21 @@ package chopchop.commons.util;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static chopchop.testutil.Assert.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class FileUtilTest {
 
+    @TempDir
+    public Path testFolder;
+
     @Test
     public void isValidPath() {
         // valid path
@@ -20,4 +30,42 @@ public class FileUtilTest {
         assertThrows(NullPointerException.class, () -> FileUtil.isValidPath(null));
     }
 
+    @Test
+    public void openStreams_compressedAndPlain_sameContents() throws Exception {
+        var content = "tomato, tomato, tomato, tomato, tomato".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        var plain = this.testFolder.resolve("plain.json");
+        try (var out = FileUtil.openOutputStream(plain, /* compress: */ false, 16)) {
+            out.write(content);
+        }
+
+        var compressed = this.testFolder.resolve("compressed.json");
+        try (var out = FileUtil.openOutputStream(compressed, /* compress: */ true, 16)) {
+            out.write(content);
+        }
+
+        assertFalse(FileUtil.isCompressed(plain));
+        assertTrue(FileUtil.isCompressed(compressed));
+        assertEquals(content.length, Files.size(plain));
+        assertTrue(Files.size(compressed) < Files.size(plain));
+
+        try (var in = FileUtil.openInputStream(plain, 16)) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        try (var in = FileUtil.openInputStream(compressed, 16)) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void openInputStream_shortFile_notCompressed() throws Exception {
+        var file = this.testFolder.resolve("short.json");
+        Files.write(file, new byte[] { 0x1f });
+
+        assertFalse(FileUtil.isCompressed(file));
+        try (var in = FileUtil.openInputStream(file, 16)) {
+            assertArrayEquals(new byte[] { 0x1f }, in.readAllBytes());
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package chopchop.commons.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static chopchop.testutil.Assert.assertThrows;
@@ -88,6 +89,27 @@ public class StringUtilTest {
         assertTrue(StringUtil.containsWordIgnoreCase("AAA bBb ccc  bbb", "bbB"));
     }
 
+    //---------------- Tests for getEditDistance --------------------------------------
+
+    @Test
+    public void getEditDistance_variousStrings() {
+        assertEquals(0, StringUtil.getEditDistance("", ""));
+        assertEquals(3, StringUtil.getEditDistance("", "egg"));
+        assertEquals(0, StringUtil.getEditDistance("parmesan", "parmesan"));
+        assertEquals(1, StringUtil.getEditDistance("parmesean", "parmesan"));
+        assertEquals(2, StringUtil.getEditDistance("pamresan", "parmesan"));
+        assertEquals(3, StringUtil.getEditDistance("kitten", "sitting"));
+        assertEquals(1, StringUtil.getEditDistance("Egg", "egg"));
+    }
+
+    @Test
+    public void getTypoTolerance_growsWithLength() {
+        assertEquals(0, StringUtil.getTypoTolerance("ab"));
+        assertEquals(1, StringUtil.getTypoTolerance("egg"));
+        assertEquals(2, StringUtil.getTypoTolerance("parmesan"));
+        assertEquals(3, StringUtil.getTypoTolerance("chocolate chip cookies"));
+    }
+
     //---------------- Tests for getDetails --------------------------------------
 
     /*
@@ -0,0 +1,113 @@
+// CommandQueueTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.logic.commands.CommandResult;
+import chopchop.model.ModelManager;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.storage.JsonIngredientBookStorage;
+import chopchop.storage.JsonIngredientUsageStorage;
+import chopchop.storage.JsonRecipeBookStorage;
+import chopchop.storage.JsonRecipeUsageStorage;
+import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.StorageManager;
+
+public class CommandQueueTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private ModelManager model;
+    private CommandQueue queue;
+
+    private final List<CommandResult> results = Collections.synchronizedList(new ArrayList<>());
+    private final List<Boolean> busyChanges = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setUp() {
+        this.model = new ModelManager(getTypicalRecipeBook(), getTypicalIngredientBook(), new UsageList<>(),
+            new UsageList<>(), new UserPrefs());
+
+        var storage = new StorageManager(
+            new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json")),
+            new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json")),
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json")),
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+
+        // the results are handed back on the queue's thread, which is enough to see what was handed back.
+        this.queue = new CommandQueue(new LogicManager(this.model, storage), Runnable::run);
+        this.queue.setBusyListener(this.busyChanges::add);
+    }
+
+    /**
+     * Blocks the queue until the returned latch is counted down, so that commands can be submitted behind it.
+     */
+    private CountDownLatch blockQueue() {
+        var gate = new CountDownLatch(1);
+        this.queue.execute(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return gate;
+    }
+
+    @Test
+    public void submit_commands_executedInOrder() {
+        var gate = this.blockQueue();
+
+        this.queue.submit("add ingredient milk", this.results::add);
+        this.queue.submit("delete ingredient milk", this.results::add);
+        this.queue.submit("delete ingredient milk", this.results::add);
+        assertTrue(this.queue.isBusy());
+
+        gate.countDown();
+        this.queue.close();
+
+        assertEquals(3, this.results.size());
+        assertTrue(this.results.get(0).didSucceed());
+        assertTrue(this.results.get(1).didSucceed());
+        assertTrue(this.results.get(2).isError());
+        assertFalse(this.model.findIngredientWithName("milk").isPresent());
+
+        assertFalse(this.queue.isBusy());
+        assertEquals(List.of(true, false), this.busyChanges);
+    }
+
+    @Test
+    public void cancel_queuedCommands_droppedWithoutResults() {
+        var gate = this.blockQueue();
+
+        this.queue.submit("add ingredient milk", this.results::add);
+        this.queue.submit("add ingredient sugar", this.results::add);
+        assertEquals("Cancelled 2 queued commands", this.queue.cancel());
+        assertEquals("There are no commands to cancel", this.queue.cancel());
+
+        gate.countDown();
+        this.queue.close();
+
+        assertTrue(this.results.isEmpty());
+        assertFalse(this.model.findIngredientWithName("milk").isPresent());
+        assertEquals(List.of(true, false), this.busyChanges);
+    }
+}
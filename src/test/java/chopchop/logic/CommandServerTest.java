@@ -0,0 +1,196 @@
+// CommandServerTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.CUSTARD_SALAD;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.model.ListFilters;
+import chopchop.model.ModelManager;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.storage.JsonIngredientBookStorage;
+import chopchop.storage.JsonIngredientUsageStorage;
+import chopchop.storage.JsonRecipeBookStorage;
+import chopchop.storage.JsonRecipeUsageStorage;
+import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.StorageManager;
+
+public class CommandServerTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private ModelManager model;
+    private CommandServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.model = new ModelManager(getTypicalRecipeBook(), getTypicalIngredientBook(), new UsageList<>(),
+            new UsageList<>(), new UserPrefs());
+
+        var storage = new StorageManager(
+            new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json")),
+            new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json")),
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json")),
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+
+        this.server = new CommandServer(new LogicManager(this.model, storage), /* port: */ 0);
+        this.server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.server.close();
+    }
+
+    /**
+     * Sends a request over the connection, and returns the response lines (without the terminating full stop).
+     */
+    private static List<String> send(PrintWriter out, BufferedReader in, String request) throws Exception {
+        out.println(request);
+        out.flush();
+
+        var lines = new ArrayList<String>();
+        String line;
+        while (!(line = in.readLine()).equals(".")) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private Socket connect() throws Exception {
+        return new Socket(InetAddress.getLoopbackAddress(), this.server.getPort());
+    }
+
+    @Test
+    public void serve_commands_respondsAndCountsThem() throws Exception {
+        try (var socket = this.connect();
+             var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             var out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            var view = send(out, in, "view recipe apricot salad");
+            assertEquals("ok", view.get(0), String.join("\n", view));
+            assertTrue(view.get(1).startsWith("Displaying recipe 'Apricot Salad'"));
+
+            var add = send(out, in, "add ingredient milk /qty 1l");
+            assertEquals("ok", add.get(0), String.join("\n", add));
+            assertTrue(this.model.findIngredientWithName("milk").isPresent());
+
+            assertEquals("error", send(out, in, "frobnicate").get(0));
+
+            var metrics = String.join("\n", send(out, in, CommandServer.METRICS_REQUEST));
+            assertTrue(metrics.contains("read-only: 1 command "));
+            assertTrue(metrics.contains("other: 2 commands "));
+
+            // the connection is closed after quitting.
+            assertEquals("ok", send(out, in, "quit").get(0));
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void handle_concurrentClients_allAnswered() throws Exception {
+        var pool = Executors.newFixedThreadPool(4);
+        var tasks = new ArrayList<Callable<Boolean>>();
+
+        for (int i = 0; i < 8; i++) {
+            var request = i % 2 == 0 ? "stats recipe top" : String.format("add ingredient thing%d", i);
+            tasks.add(() -> {
+                try (var socket = this.connect();
+                     var in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                         StandardCharsets.UTF_8));
+                     var out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                         StandardCharsets.UTF_8))) {
+
+                    var answered = true;
+                    for (int j = 0; j < 10; j++) {
+                        var status = send(out, in, request).get(0);
+                        answered &= status.equals("ok") || status.equals("error");
+                    }
+                    return answered;
+                }
+            });
+        }
+
+        try {
+            for (var future : pool.invokeAll(tasks)) {
+                assertTrue(future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(this.model.findIngredientWithName("thing1").isPresent());
+        assertTrue(this.model.findIngredientWithName("thing7").isPresent());
+        assertTrue(this.server.getMetricsReport().contains("read-only: 40 commands"));
+    }
+
+    @Test
+    public void handle_find_filtersOnlyThatClient() throws Exception {
+        var mine = new ListFilters();
+        var theirs = new ListFilters();
+        var size = this.model.getFilteredRecipeList().size();
+        assertEquals("ok", this.server.handle(mine, "find recipe banana").get(0));
+
+        // the filter is kept with the client, not in the model, so other clients' indices don't change.
+        assertEquals(size, this.model.getFilteredRecipeList().size());
+        var view = this.server.handle(mine, "view recipe #1");
+        assertEquals("ok", view.get(0), String.join("\n", view));
+        assertTrue(view.get(1).startsWith("Displaying recipe 'Banana Salad'"));
+        assertFalse(this.server.handle(theirs, "view recipe #1").get(1).startsWith("Displaying recipe 'Banana"));
+
+        // commands that change the model use the client's filter too.
+        assertEquals("ok", this.server.handle(mine, "delete recipe #1").get(0));
+        assertFalse(this.model.findRecipeWithName("banana salad").isPresent());
+        assertEquals(size - 1, this.model.getFilteredRecipeList().size());
+    }
+
+    @Test
+    public void handle_readDuringWrite_seesLastSnapshot() throws Exception {
+        var pool = Executors.newSingleThreadExecutor();
+        try {
+            this.server.runExclusively(() -> {
+                this.model.addRecipe(CUSTARD_SALAD);
+
+                // the write is still going, so the read must neither wait for it nor see it.
+                var read = pool.submit(() -> this.server.handle(new ListFilters(), "view recipe custard salad"));
+                try {
+                    assertEquals("error", read.get(10, TimeUnit.SECONDS).get(0));
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals("ok", this.server.handle(new ListFilters(), "view recipe custard salad").get(0));
+        assertTrue(this.server.getMetricsReport().contains("read-only: 2 commands"));
+    }
+}
@@ -0,0 +1,180 @@
+// DataFileSyncTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.APRICOT;
+import static chopchop.testutil.TypicalIngredients.BANANA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.util.FileUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.attributes.units.Count;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.storage.DataFileWatcher;
+import chopchop.storage.JsonIngredientBookStorage;
+import chopchop.storage.JsonIngredientUsageStorage;
+import chopchop.storage.JsonRecipeBookStorage;
+import chopchop.storage.JsonRecipeUsageStorage;
+import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.StorageManager;
+import chopchop.testutil.StubbedModel;
+
+public class DataFileSyncTest {
+
+    private static final Ingredient EGG = new Ingredient("Egg", Optional.of(Count.of(6)), Optional.empty(),
+        Set.of());
+
+    @TempDir
+    public Path testFolder;
+
+    private StubbedModel model;
+    private StorageManager storage;
+    private DataFileSync sync;
+
+    // tasks posted by the watcher thread, which are only run when the test says so.
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final List<String> messages = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.model = StubbedModel.filled();
+        this.storage = new StorageManager(
+            new JsonRecipeBookStorage(this.testFolder.resolve("recipes.json")),
+            new JsonIngredientBookStorage(this.testFolder.resolve("ingredients.json")),
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusages.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusages.json")),
+            new JsonUserPrefsStorage(this.testFolder.resolve("prefs.json")));
+
+        this.storage.saveRecipeBook(this.model.getRecipeBook());
+        this.storage.saveIngredientBook(this.model.getIngredientBook());
+
+        var watcher = new DataFileWatcher();
+        this.sync = new DataFileSync(this.model, this.storage, watcher, this.pending::add, (msg, isError) -> {
+            this.messages.add((isError ? "error: " : "") + msg);
+        });
+        this.sync.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.sync.close();
+    }
+
+    private void editIngredientsExternally(List<Ingredient> ingredients) throws Exception {
+        var book = new EntryBook<Ingredient>();
+        book.setAll(ingredients);
+
+        // use a separate storage, as another program would.
+        new JsonIngredientBookStorage(this.storage.getIngredientBookFilePath()).saveIngredientBook(book);
+    }
+
+    @Test
+    public void reconcile_externalEdit_appliesChangedEntries() throws Exception {
+        var ingredients = new ArrayList<>(this.model.getIngredientBook().getEntryList());
+        ingredients.remove(APRICOT);
+        ingredients.set(ingredients.indexOf(BANANA), BANANA.combine(BANANA));
+        ingredients.add(EGG);
+
+        this.editIngredientsExternally(ingredients);
+        this.sync.reconcile();
+
+        assertEquals(ingredients, this.model.getIngredientBook().getEntryList());
+        assertEquals(List.of("Reloaded ingredients changed outside ChopChop (1 added, 1 updated, 1 removed)"),
+            this.messages);
+
+        // the same change is not merged again.
+        this.sync.reconcile();
+        this.pending.forEach(Runnable::run);
+        assertEquals(1, this.messages.size());
+    }
+
+    @Test
+    public void reconcile_externalEdit_notifiesMergeListeners() throws Exception {
+        var merges = new ArrayList<String>();
+        this.sync.addMergeListener(() -> merges.add("merged"));
+
+        var ingredients = new ArrayList<>(this.model.getIngredientBook().getEntryList());
+        ingredients.add(EGG);
+        this.editIngredientsExternally(ingredients);
+        this.sync.reconcile();
+        assertEquals(List.of("merged"), merges);
+
+        // an external save that doesn't change anything is not a merge.
+        this.editIngredientsExternally(ingredients);
+        this.sync.reconcile();
+        assertEquals(List.of("merged"), merges);
+    }
+
+    @Test
+    public void reconcile_ownSave_ignored() throws Exception {
+        this.model.addIngredient(EGG);
+        this.storage.saveIngredientBook(this.model.getIngredientBook());
+        this.sync.markSaved();
+
+        this.sync.reconcile();
+        assertTrue(this.messages.isEmpty());
+        assertTrue(this.model.findIngredientWithName("egg").isPresent());
+    }
+
+    @Test
+    public void reconcile_unsavedLocalChange_conflictKeepsLocal() throws Exception {
+        var external = new ArrayList<>(this.model.getIngredientBook().getEntryList());
+        external.set(external.indexOf(BANANA), BANANA.combine(BANANA));
+        external.add(EGG);
+
+        // a local edit that has not been saved yet.
+        var local = BANANA.combine(BANANA).combine(BANANA);
+        this.model.setIngredient(BANANA, local);
+
+        this.editIngredientsExternally(external);
+        this.sync.reconcile();
+
+        assertEquals(Optional.of(local), this.model.findIngredientWithName(BANANA.getName()));
+        assertTrue(this.model.findIngredientWithName("egg").isPresent());
+        assertEquals(2, this.messages.size());
+        assertTrue(this.messages.get(1).startsWith("error: "));
+        assertTrue(this.messages.get(1).contains(BANANA.getName()));
+    }
+
+    @Test
+    public void reconcile_invalidFile_keepsModel() throws Exception {
+        var original = new ArrayList<>(this.model.getIngredientBook().getEntryList());
+        FileUtil.writeToFile(this.storage.getIngredientBookFilePath(), "{ owo");
+
+        this.sync.reconcile();
+        assertEquals(original, this.model.getIngredientBook().getEntryList());
+        assertEquals(1, this.messages.size());
+        assertTrue(this.messages.get(0).startsWith("error: "));
+    }
+
+    @Test
+    public void watcher_externalEdit_postsMerge() throws Exception {
+        var ingredients = new ArrayList<>(this.model.getIngredientBook().getEntryList());
+        ingredients.add(EGG);
+        this.editIngredientsExternally(ingredients);
+
+        // wait for the watcher to notice the change.
+        for (int i = 0; i < 100 && this.pending.isEmpty(); i++) {
+            Thread.sleep(DataFileWatcher.SETTLE_MILLIS / 2);
+        }
+
+        assertFalse(this.pending.isEmpty());
+        this.pending.forEach(Runnable::run);
+        assertEquals(ingredients, this.model.getIngredientBook().getEntryList());
+    }
+}
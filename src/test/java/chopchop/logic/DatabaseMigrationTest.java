@@ -0,0 +1,103 @@
+// DatabaseMigrationTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static chopchop.testutil.TypicalUsages.getRecipeUsageList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.model.EntryBook;
+import chopchop.model.ModelManager;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.storage.JsonIngredientBookStorage;
+import chopchop.storage.JsonIngredientUsageStorage;
+import chopchop.storage.JsonRecipeBookStorage;
+import chopchop.storage.JsonRecipeUsageStorage;
+import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.SqlDatabase;
+import chopchop.storage.Storage;
+import chopchop.storage.StorageManager;
+
+public class DatabaseMigrationTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private SqlDatabase database;
+    private Storage dataFiles;
+    private Storage storage;
+    private ModelManager model;
+
+    @BeforeEach
+    public void setUp() {
+        this.database = new SqlDatabase(this.testFolder.resolve("chopchop"));
+        this.dataFiles = new StorageManager(
+            new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json")),
+            new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json")),
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json")),
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+
+        this.storage = StorageManager.forDatabase(this.database,
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+
+        this.model = new ModelManager(new EntryBook<>(), getTypicalIngredientBook(), new UsageList<>(),
+            new UsageList<>(), new UserPrefs());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void execute_migrate_dataFilesSavedToDatabase() throws Exception {
+        this.dataFiles.saveRecipeBook(getTypicalRecipeBook());
+        this.dataFiles.saveRecipeUsages(getRecipeUsageList());
+
+        var logic = new LogicManager(this.model, this.storage, null, null, null,
+            new DatabaseMigration(this.dataFiles));
+
+        var result = logic.execute("migrate");
+        assertTrue(result.didSucceed(), result.toString());
+        assertEquals(getTypicalRecipeBook(), new EntryBook<>(this.model.getRecipeBook()));
+
+        // a fresh storage, so that nothing is remembered from the save.
+        var saved = StorageManager.forDatabase(this.database,
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+
+        assertEquals(getTypicalRecipeBook(), new EntryBook<>(saved.readRecipeBook().get()));
+        assertEquals(getRecipeUsageList().getUsageList(), saved.readRecipeUsages().get().getUsageList());
+
+        // there was no ingredient data file, so the ingredients are left alone.
+        assertEquals(getTypicalIngredientBook(), new EntryBook<>(saved.readIngredientBook().get()));
+    }
+
+    @Test
+    public void execute_noDataFiles_error() {
+        var logic = new LogicManager(this.model, this.storage, null, null, null,
+            new DatabaseMigration(this.dataFiles));
+
+        assertTrue(logic.execute("migrate").isError());
+        assertEquals(getTypicalIngredientBook(), new EntryBook<>(this.model.getIngredientBook()));
+    }
+
+    @Test
+    public void execute_noDatabase_error() throws Exception {
+        this.dataFiles.saveRecipeBook(getTypicalRecipeBook());
+
+        var logic = new LogicManager(this.model, this.dataFiles);
+        assertTrue(logic.execute("migrate").isError());
+        assertTrue(this.model.getRecipeBook().getEntryList().isEmpty());
+    }
+}
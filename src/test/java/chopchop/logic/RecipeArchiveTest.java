@@ -0,0 +1,156 @@
+// RecipeArchiveTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.CUSTARD;
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.APRICOT_SALAD;
+import static chopchop.testutil.TypicalRecipes.BANANA_SALAD;
+import static chopchop.testutil.TypicalRecipes.CUSTARD_SALAD;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.logic.commands.FindRecipeCommand;
+import chopchop.logic.commands.MakeRecipeCommand;
+import chopchop.logic.commands.ViewRecipeCommand;
+import chopchop.logic.history.HistoryManager;
+import chopchop.logic.parser.ItemReference;
+import chopchop.model.EntryBook;
+import chopchop.model.ModelChange;
+import chopchop.model.ModelManager;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.model.attributes.NameContainsKeywordsPredicate;
+import chopchop.model.usage.RecipeUsage;
+
+public class RecipeArchiveTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 11, 1, 12, 0);
+
+    @TempDir
+    public Path testFolder;
+
+    private ModelManager model;
+    private RecipeArchive archive;
+
+    @BeforeEach
+    public void setUp() {
+        var usages = new UsageList<>(List.of(
+            new RecipeUsage(APRICOT_SALAD.getName(), NOW.minusYears(3)),
+            new RecipeUsage(BANANA_SALAD.getName(), NOW.minusYears(3)),
+            new RecipeUsage(BANANA_SALAD.getName(), NOW.minusDays(2))));
+
+        this.model = new ModelManager(getTypicalRecipeBook(), getTypicalIngredientBook(), usages, new UsageList<>(),
+            new UserPrefs());
+        this.model.addIngredient(CUSTARD);
+        this.model.addRecipe(CUSTARD_SALAD);
+
+        var recipeBookPath = this.testFolder.resolve("recipebook.json");
+        this.archive = new RecipeArchive(() -> recipeBookPath, /* compress: */ false);
+    }
+
+    @Test
+    public void archiveRecipesMadeBefore_onlyMovesRecipesLastMadeBeforeCutoff() throws Exception {
+        var archived = this.archive.archiveRecipesMadeBefore(this.model, NOW.minusYears(1));
+
+        // banana salad was made recently, and custard salad was never made.
+        assertEquals(List.of(APRICOT_SALAD), archived);
+        assertEquals(List.of(BANANA_SALAD, CUSTARD_SALAD), this.model.getRecipeBook().getEntryList());
+        assertTrue(Files.exists(this.testFolder.resolve(RecipeArchive.FILE_NAME)));
+
+        // a fresh archive reads it back from the file.
+        var reread = new RecipeArchive(() -> this.testFolder.resolve("recipebook.json"), false);
+        assertEquals(Optional.of(APRICOT_SALAD), reread.find("APRICOT salad"));
+        assertEquals(List.of(APRICOT_SALAD), reread.search(new NameContainsKeywordsPredicate(List.of("apricot"))));
+        assertTrue(reread.search(new NameContainsKeywordsPredicate(List.of("banana"))).isEmpty());
+    }
+
+    @Test
+    public void commands_archivedRecipe_foundViewedAndPromotedWhenMade() throws Exception {
+        this.archive.archiveRecipesMadeBefore(this.model, NOW.minusYears(1));
+
+        var find = new FindRecipeCommand(new NameContainsKeywordsPredicate(List.of("salad")))
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertTrue(find.toString().contains("Also found 1 archived recipe"));
+
+        var view = new ViewRecipeCommand(ItemReference.ofName("apricot salad"))
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertTrue(view.didSucceed());
+        assertEquals(Optional.of(APRICOT_SALAD), view.getDisplayedRecipe());
+        assertFalse(this.model.findRecipeWithName("apricot salad").isPresent());
+
+        var make = new MakeRecipeCommand(ItemReference.ofName("apricot salad"))
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertTrue(make.didSucceed());
+        assertTrue(this.model.findRecipeWithName("apricot salad").isPresent());
+        assertTrue(this.archive.find("apricot salad").isEmpty());
+    }
+
+    @Test
+    public void undo_promotedRecipe_staysInRecipeBook() throws Exception {
+        this.archive.archiveRecipesMadeBefore(this.model, NOW.minusYears(1));
+
+        var make = new MakeRecipeCommand(ItemReference.ofName("apricot salad"));
+        var recorded = ModelChange.record(this.model, "make recipe apricot salad", () -> {
+            return make.execute(this.model, new HistoryManager(), this.archive);
+        });
+        assertTrue(recorded.fst().didSucceed());
+
+        // moving the recipe back is not part of the change, so undoing it after a restart leaves the recipe.
+        var change = recorded.snd();
+        assertTrue(change.getRecipes().isEmpty());
+
+        var restarted = new ModelManager(this.model.getRecipeBook(), this.model.getIngredientBook(),
+            new UsageList<>(this.model.getRecipeUsageList().getUsageList()),
+            new UsageList<>(this.model.getIngredientUsageList().getUsageList()), new UserPrefs());
+        assertTrue(change.canUndo(restarted));
+        change.undo(restarted);
+        assertTrue(restarted.findRecipeWithName("apricot salad").isPresent());
+
+        // and neither does undoing the command itself.
+        assertTrue(make.undo(this.model).didSucceed());
+        assertTrue(this.model.findRecipeWithName("apricot salad").isPresent());
+        assertEquals(new HashSet<>(restarted.getIngredientBook().getEntryList()),
+            new HashSet<>(this.model.getIngredientBook().getEntryList()));
+    }
+
+    @Test
+    public void findFuzzy_archivedOnlyName_found() throws Exception {
+        this.archive.archiveRecipesMadeBefore(this.model, NOW.minusYears(1));
+
+        // apricot is only in the name of an archived recipe, so the misspelling is matched against the archive.
+        var find = new FindRecipeCommand(new NameContainsKeywordsPredicate(List.of("aprcot")), /* fuzzy: */ true)
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertTrue(find.toString().contains("Also found 1 archived recipe"));
+        assertTrue(find.toString().contains(APRICOT_SALAD.getName()));
+
+        var exact = new FindRecipeCommand(new NameContainsKeywordsPredicate(List.of("aprcot")))
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertFalse(exact.toString().contains("archived"));
+    }
+
+    @Test
+    public void make_archivedRecipeMissingIngredients_staysArchived() throws Exception {
+        this.archive.archiveRecipesMadeBefore(this.model, NOW.minusYears(1));
+        this.model.setIngredientBook(new EntryBook<>());
+
+        var make = new MakeRecipeCommand(ItemReference.ofName("apricot salad"))
+            .execute(this.model, new HistoryManager(), this.archive);
+        assertTrue(make.isError());
+        assertFalse(this.model.findRecipeWithName("apricot salad").isPresent());
+        assertTrue(this.archive.find("apricot salad").isPresent());
+    }
+}
@@ -0,0 +1,141 @@
+// WorkspaceManagerTest.java
+
+package chopchop.logic;
+
+import static chopchop.testutil.TypicalIngredients.APRICOT;
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.model.EntryBook;
+import chopchop.model.ModelManager;
+import chopchop.model.UsageList;
+import chopchop.model.UserPrefs;
+import chopchop.storage.JsonIngredientBookStorage;
+import chopchop.storage.JsonIngredientUsageStorage;
+import chopchop.storage.JsonRecipeBookStorage;
+import chopchop.storage.JsonRecipeUsageStorage;
+import chopchop.storage.JsonUserPrefsStorage;
+import chopchop.storage.Storage;
+import chopchop.storage.StorageManager;
+import chopchop.storage.WorkspaceStorage;
+
+public class WorkspaceManagerTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private ModelManager model;
+    private WorkspaceStorage storage;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.model = new ModelManager(getTypicalRecipeBook(), getTypicalIngredientBook(), new UsageList<>(),
+            new UsageList<>(), new UserPrefs());
+
+        this.storage = new WorkspaceStorage(this.createStorage(this.testFolder));
+        this.save();
+    }
+
+    private Storage createStorage(Path directory) {
+        return new StorageManager(
+            new JsonRecipeBookStorage(directory.resolve("recipebook.json")),
+            new JsonIngredientBookStorage(directory.resolve("ingredientbook.json")),
+            new JsonRecipeUsageStorage(directory.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(directory.resolve("ingredientusage.json")),
+            new JsonUserPrefsStorage(this.testFolder.resolve("preferences.json")));
+    }
+
+    private WorkspaceManager createManager(long budget, String active) {
+        return new WorkspaceManager(this.model, this.storage, this::createStorage,
+            this.testFolder.resolve(WorkspaceManager.DIRECTORY_NAME), budget, /* sync: */ null, active);
+    }
+
+    // what the LogicManager does after every command.
+    private void save() throws Exception {
+        this.storage.saveRecipeBook(this.model.getRecipeBook());
+        this.storage.saveIngredientBook(this.model.getIngredientBook());
+        this.storage.saveRecipeUsages(this.model.getRecipeUsageList());
+        this.storage.saveIngredientUsages(this.model.getIngredientUsageList());
+    }
+
+    @Test
+    public void switchTo_newWorkspace_startsEmptyAndKeepsOthersSeparate() throws Exception {
+        var workspaces = this.createManager(Long.MAX_VALUE, WorkspaceManager.DEFAULT_WORKSPACE);
+
+        var result = workspaces.switchTo("Dessert");
+        assertFalse(result.isError());
+        assertFalse(result.getValue());
+
+        assertEquals("dessert", workspaces.getActiveWorkspace());
+        assertEquals("dessert", this.model.getUserPrefs().getActiveWorkspace());
+        assertTrue(this.model.getRecipeBook().getEntryList().isEmpty());
+        assertEquals(this.testFolder.resolve(WorkspaceManager.DIRECTORY_NAME).resolve("dessert")
+            .resolve("recipebook.json"), this.storage.getRecipeBookFilePath());
+
+        this.model.addIngredient(APRICOT);
+        this.save();
+
+        // switching back takes the data from memory, and it is unaffected by the other workspace.
+        result = workspaces.switchTo(WorkspaceManager.DEFAULT_WORKSPACE);
+        assertTrue(result.getValue());
+        assertEquals(getTypicalRecipeBook().getEntryList(), this.model.getRecipeBook().getEntryList());
+        assertEquals(getTypicalIngredientBook().getEntryList(), this.model.getIngredientBook().getEntryList());
+
+        assertEquals(List.of("default", "dessert"), workspaces.getWorkspaceNames());
+        assertTrue(workspaces.isCached("dessert"));
+
+        assertTrue(workspaces.switchTo("dessert").getValue());
+        assertEquals(List.of(APRICOT), this.model.getIngredientBook().getEntryList());
+    }
+
+    @Test
+    public void switchTo_overBudget_evictsAndReloadsFromDisk() throws Exception {
+        var workspaces = this.createManager(/* budget: */ 0, WorkspaceManager.DEFAULT_WORKSPACE);
+
+        assertFalse(workspaces.switchTo("other").getValue());
+        assertFalse(workspaces.isCached(WorkspaceManager.DEFAULT_WORKSPACE));
+        assertEquals(0, workspaces.getCacheSize());
+
+        assertFalse(workspaces.switchTo(WorkspaceManager.DEFAULT_WORKSPACE).getValue());
+        assertEquals(getTypicalRecipeBook().getEntryList(), this.model.getRecipeBook().getEntryList());
+    }
+
+    @Test
+    public void switchTo_filesChangedWhileCached_reloadsFromDisk() throws Exception {
+        var workspaces = this.createManager(Long.MAX_VALUE, WorkspaceManager.DEFAULT_WORKSPACE);
+        workspaces.switchTo("other");
+
+        // another program edits the inactive workspace's files.
+        new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json")).saveRecipeBook(new EntryBook<>());
+
+        assertFalse(workspaces.switchTo(WorkspaceManager.DEFAULT_WORKSPACE).getValue());
+        assertTrue(this.model.getRecipeBook().getEntryList().isEmpty());
+    }
+
+    @Test
+    public void switchTo_invalidOrActive_error() {
+        var workspaces = this.createManager(Long.MAX_VALUE, WorkspaceManager.DEFAULT_WORKSPACE);
+
+        assertTrue(workspaces.switchTo("../escape").isError());
+        assertTrue(workspaces.switchTo("DEFAULT").isError());
+        assertFalse(Files.exists(this.testFolder.resolve(WorkspaceManager.DIRECTORY_NAME)));
+    }
+
+    @Test
+    public void constructor_missingActiveWorkspace_usesDefault() {
+        var workspaces = this.createManager(Long.MAX_VALUE, "gone");
+        assertEquals(WorkspaceManager.DEFAULT_WORKSPACE, workspaces.getActiveWorkspace());
+        assertEquals(this.testFolder.resolve("recipebook.json"), this.storage.getRecipeBookFilePath());
+    }
+}
@@ -0,0 +1,137 @@
+// CompletionTrieTest.java
+
+package chopchop.logic.autocomplete;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class CompletionTrieTest {
+
+    @Test
+    public void complete_prefix_shortestFirstIgnoringCase() {
+        var trie = CompletionTrie.of(List.of("Baked beans", "Banana", "bread", "Apple", "BAN"));
+
+        assertEquals(List.of("BAN", "Banana", "Baked beans"), trie.complete("ba"));
+        assertEquals(List.of("BAN", "Banana"), trie.complete("BAN"));
+        assertEquals(List.of("BAN", "bread"), trie.complete("b", 2));
+        assertEquals(List.of(), trie.complete("cake"));
+        assertEquals(5, trie.complete("").size());
+    }
+
+    @Test
+    public void complete_sameLength_mostFrequentFirst() {
+        var trie = new CompletionTrie(/* rankByCount: */ false);
+        trie.add("pasta");
+        trie.add("pizza");
+        trie.add("pesto");
+
+        assertEquals(List.of("pasta", "pesto", "pizza"), trie.complete("p"));
+
+        trie.addFrequency("pizza", 3);
+        trie.addFrequency("PESTO", 1);
+        assertEquals(List.of("pizza", "pesto", "pasta"), trie.complete("p"));
+
+        // the frequency is kept while the name is gone.
+        trie.remove("pizza");
+        trie.add("Pizza");
+        assertEquals(List.of("Pizza", "pesto", "pasta"), trie.complete("p"));
+    }
+
+    @Test
+    public void add_rankByCount_mostCommonFirst() {
+        var trie = CompletionTrie.of(List.of("sweet", "spicy", "spicy", "sweet", "salty", "spicy"));
+        assertEquals(List.of("spicy", "sweet", "salty"), trie.complete("s"));
+        assertEquals(3, trie.size());
+
+        trie.remove("spicy");
+        trie.remove("spicy");
+        assertEquals(List.of("sweet", "salty", "spicy"), trie.complete("s"));
+
+        trie.remove("spicy");
+        assertEquals(List.of("sweet", "salty"), trie.complete("s"));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void complete_randomChanges_sameAsSortingNames() {
+        var random = new Random(7);
+        var trie = new CompletionTrie(/* rankByCount: */ false);
+
+        // the expected state: the names in the trie (and how many times each was added), and their frequencies.
+        var names = new HashMap<String, String>();
+        var counts = new HashMap<String, Integer>();
+        var frequencies = new HashMap<String, Integer>();
+
+        for (int i = 0; i < 20000; i++) {
+            var name = randomName(random);
+            var key = name.toLowerCase();
+
+            switch (random.nextInt(3)) {
+            case 0:
+                trie.add(name);
+                names.putIfAbsent(key, name);
+                counts.merge(key, 1, Integer::sum);
+                break;
+
+            case 1:
+                trie.remove(name);
+                if (counts.containsKey(key) && counts.merge(key, -1, Integer::sum) == 0) {
+                    counts.remove(key);
+                    names.remove(key);
+                }
+                break;
+
+            default:
+                var delta = random.nextInt(5) - 1;
+                trie.addFrequency(name, delta);
+                frequencies.put(key, Math.max(0, frequencies.getOrDefault(key, 0) + delta));
+                break;
+            }
+
+            if (i % 500 == 0) {
+                assertSameCompletions(trie, names, frequencies);
+            }
+        }
+
+        assertSameCompletions(trie, names, frequencies);
+    }
+
+    private static void assertSameCompletions(CompletionTrie trie, Map<String, String> names,
+        Map<String, Integer> frequencies) {
+
+        for (var prefix : List.of("", "a", "b", "ab", "ba", "aab", "c", "bbb")) {
+            var expected = names.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .sorted(Comparator.comparing((Map.Entry<String, String> e) -> e.getKey().length())
+                    .thenComparing(e -> -frequencies.getOrDefault(e.getKey(), 0))
+                    .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+
+            assertEquals(expected, trie.complete(prefix));
+
+            var best = new ArrayList<>(expected.subList(0, Math.min(expected.size(),
+                CompletionTrie.CACHED_COMPLETIONS)));
+            assertEquals(best, trie.complete(prefix, CompletionTrie.CACHED_COMPLETIONS));
+        }
+    }
+
+    private static String randomName(Random random) {
+        var sb = new StringBuilder();
+        var length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            var c = (char) ('a' + random.nextInt(3));
+            sb.append(random.nextInt(4) == 0 ? Character.toUpperCase(c) : c);
+        }
+        return sb.toString();
+    }
+}
@@ -6,6 +6,8 @@ import java.util.Optional;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
 
+import chopchop.logic.history.HistoryManager;
+import chopchop.logic.parser.CommandParser;
 import chopchop.model.EntryBook;
 import chopchop.model.ModelStub;
 import chopchop.model.ReadOnlyEntryBook;
@@ -15,6 +17,7 @@ import chopchop.model.ingredient.Ingredient;
 
 import org.junit.jupiter.api.Test;
 import chopchop.testutil.IngredientBuilder;
+import chopchop.testutil.StubbedModel;
 
 import static java.util.Objects.requireNonNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -59,6 +62,24 @@ public class AddIngredientCommandTest {
         assertTrue(out3.isError());
     }
 
+    @Test
+    public void undo_ingredientReplaced_nothingChanged() {
+        var model = StubbedModel.empty();
+        var history = new HistoryManager();
+
+        var add = new AddIngredientCommand("milk", Optional.of(Volume.litres(1)), Optional.empty(), Set.of());
+        assertTrue(add.execute(model, history).didSucceed());
+
+        // eg. merging the data files in replaces the added ingredient with another of the same name.
+        var edit = new CommandParser().parse("edit ingredient milk /tag:add dairy").getValue();
+        assertTrue(edit.execute(model, history).didSucceed());
+        var replaced = model.findIngredientWithName("milk").get();
+
+        var result = add.undo(model);
+        assertTrue(result.isError());
+        assertTrue(model.findIngredientWithName("milk").get() == replaced);
+    }
+
     /**
      * A Model stub that contains a single ingredient.
      */
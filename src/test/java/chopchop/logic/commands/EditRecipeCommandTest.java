@@ -168,6 +168,26 @@ public class EditRecipeCommandTest {
         assertFalse(m.findRecipeWithName("owo salad").isPresent());
     }
 
+    @Test
+    void test_undoAfterRecipeReplaced() {
+        var m = StubbedModel.filled();
+        var p = new CommandParser();
+        var erc = (EditRecipeCommand) p.parse("edit recipe custard salad /name owo salad").getValue();
+        assertTrue(erc.execute(m, new HistoryManager()).didSucceed());
+
+        // eg. merging the data files in replaces the edited recipe with another of the same name.
+        assertTrue(runCommand(m, "edit recipe owo salad /tag:add sweet").didSucceed());
+        var replaced = m.findRecipeWithName("owo salad").get();
+
+        var res = erc.undo(m);
+        assertTrue(res.isError());
+        assertEquals("Error: Could not undo edit; recipe 'owo salad' was changed or removed since then",
+            res.toString());
+
+        assertTrue(m.findRecipeWithName("owo salad").get() == replaced);
+        assertFalse(m.findRecipeWithName("custard salad").isPresent());
+    }
+
     @Test
     void test_editSteps() {
         {
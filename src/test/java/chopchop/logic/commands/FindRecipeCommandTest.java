@@ -44,6 +44,18 @@ public class FindRecipeCommandTest {
         assertEquals(Arrays.asList(APRICOT_SALAD, BANANA_SALAD), model.getFilteredRecipeList());
     }
 
+    @Test
+    public void execute_fuzzyMisspeltKeywords_recipesFound() {
+        var command = new FindRecipeCommand(preparePredicate("aprcot bnana"), /* fuzzy: */ true);
+        expectedModel.updateFilteredRecipeList(preparePredicate("apricot banana"));
+        assertCommandSuccess(command, model, expectedModel);
+        assertEquals(Arrays.asList(APRICOT_SALAD, BANANA_SALAD), model.getFilteredRecipeList());
+
+        // without /fuzzy, only exact words match.
+        new FindRecipeCommand(preparePredicate("aprcot bnana")).execute(model, null);
+        assertEquals(Collections.emptyList(), model.getFilteredRecipeList());
+    }
+
     /**
      * Parses {@code userInput} into a {@code NameContainsKeywordsPredicate}.
      */
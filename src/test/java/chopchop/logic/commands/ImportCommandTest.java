@@ -0,0 +1,140 @@
+// ImportCommandTest.java
+
+package chopchop.logic.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.logic.history.HistoryManager;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.attributes.units.Count;
+import chopchop.model.attributes.units.Mass;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+import chopchop.storage.JsonModelModule;
+import chopchop.testutil.StubbedModel;
+import chopchop.testutil.TypicalRecipes;
+
+public class ImportCommandTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void importIngredients_csv_combinesAndUndoes() throws Exception {
+        var path = this.testFolder.resolve("ingredients.csv");
+        FileUtil.writeToFile(path, "name,quantity,expiry,tags\n"
+            + "Flour,200g,2021-01-01,baking;dry\n"
+            + "\"Salt, coarse\",50g,,\n"
+            + "flour,300g,2021-01-01,\n"
+            + "Peanut,2,,\n");
+
+        var model = StubbedModel.filled();
+        var original = new ArrayList<>(model.getIngredientBook().getEntryList());
+
+        var cmd = new ImportIngredientCommand(path);
+        var res = cmd.execute(model, new HistoryManager());
+        assertTrue(res.didSucceed());
+
+        assertEquals(original.size() + 2, model.getIngredientBook().getEntryList().size());
+        assertEquals(Optional.of(Mass.grams(500)), model.findIngredientWithName("flour").map(Ingredient::getQuantity));
+        assertEquals(Set.of(new Tag("baking"), new Tag("dry")), model.findIngredientWithName("flour").get().getTags());
+        assertTrue(model.findIngredientWithName("Salt, coarse").isPresent());
+        assertEquals(Count.of(3), model.findIngredientWithName("peanut").get().getQuantity());
+
+        assertTrue(cmd.undo(model).didSucceed());
+        assertEquals(original, model.getIngredientBook().getEntryList());
+
+        assertTrue(cmd.redo(model, new HistoryManager()).didSucceed());
+        assertEquals(original.size() + 2, model.getIngredientBook().getEntryList().size());
+        assertEquals(Count.of(3), model.findIngredientWithName("peanut").get().getQuantity());
+    }
+
+    @Test
+    public void importRecipes_jsonLines_skipsDuplicates() throws Exception {
+        var path = this.testFolder.resolve("recipes.jsonl");
+        var recipe = new Recipe("Apple Pie", List.of(new IngredientReference("Apple", Count.of(3))),
+            List.of(new Step("bake")), Set.of());
+
+        FileUtil.writeToFile(path, toJson(recipe).replace("\n", "") + "\n\n"
+            + toJson(TypicalRecipes.APRICOT_SALAD).replace("\n", "") + "\n");
+
+        var model = StubbedModel.filled();
+        var original = new ArrayList<>(model.getRecipeBook().getEntryList());
+
+        var cmd = new ImportRecipeCommand(path);
+        var res = cmd.execute(model, new HistoryManager());
+        assertTrue(res.didSucceed());
+        assertTrue(res.toString().contains("skipped 1"));
+
+        assertEquals(original.size() + 1, model.getRecipeBook().getEntryList().size());
+        assertEquals(Optional.of(recipe), model.findRecipeWithName("apple pie"));
+
+        assertTrue(cmd.undo(model).didSucceed());
+        assertEquals(original, model.getRecipeBook().getEntryList());
+    }
+
+    @Test
+    public void importRecipes_jsonAndCsv_success() throws Exception {
+        var json = this.testFolder.resolve("recipes.json");
+        FileUtil.writeToFile(json, String.format("{ \"recipes\": [ %s ] }",
+            toJson(TypicalRecipes.APRICOT_SALAD)));
+
+        var model = StubbedModel.empty();
+        assertTrue(new ImportRecipeCommand(json).execute(model, new HistoryManager()).didSucceed());
+        assertEquals(List.of(TypicalRecipes.APRICOT_SALAD), model.getRecipeBook().getEntryList());
+
+        var csv = this.testFolder.resolve("recipes.csv");
+        FileUtil.writeToFile(csv, "name,ingredients,steps\r\n"
+            + "Apple Pie,apple: 3; flour: 200g; butter,\"mix; bake, for \"\"a while\"\"\"\r\n");
+
+        assertTrue(new ImportRecipeCommand(csv).execute(model, new HistoryManager()).didSucceed());
+
+        var pie = model.findRecipeWithName("apple pie").get();
+        assertEquals(List.of(new IngredientReference("apple", Count.of(3)),
+            new IngredientReference("flour", Mass.grams(200)),
+            new IngredientReference("butter", Optional.empty())), pie.getIngredients());
+        assertEquals(List.of(new Step("mix"), new Step("bake, for \"a while\"")), pie.getSteps());
+    }
+
+    @Test
+    public void import_invalidFile_nothingChanged() throws Exception {
+        var model = StubbedModel.filled();
+        var original = new ArrayList<>(model.getIngredientBook().getEntryList());
+
+        var path = this.testFolder.resolve("ingredients.csv");
+        FileUtil.writeToFile(path, "name,quantity\nFlour,200g\nSugar,3 furlongs\n");
+
+        var res = new ImportIngredientCommand(path).execute(model, new HistoryManager());
+        assertFalse(res.didSucceed());
+        assertTrue(res.toString().contains("Line 3"));
+        assertEquals(original, model.getIngredientBook().getEntryList());
+
+        // incompatible quantities cannot be combined.
+        FileUtil.writeToFile(path, "name,quantity\nFlour,200g\nflour,3\n");
+        assertFalse(new ImportIngredientCommand(path).execute(model, new HistoryManager()).didSucceed());
+        assertEquals(original, model.getIngredientBook().getEntryList());
+
+        assertFalse(new ImportRecipeCommand(this.testFolder.resolve("missing.json"))
+            .execute(model, new HistoryManager()).didSucceed());
+    }
+
+    private static String toJson(Recipe recipe) throws IOException {
+        return JsonUtil.toJsonString(recipe, JsonModelModule.getObjectMapper());
+    }
+}
@@ -52,7 +52,7 @@ public class MakeRecipeCommandTest {
 
         var c2 = runCommand(m, "make recipe owo salad");
         assertTrue(c2.isError());
-        assertEquals("Error: No recipe named 'owo salad'", c2.toString());
+        assertEquals("Error: No recipe named 'owo salad' (did you mean 'uwu salad'?)", c2.toString());
 
         var c3 = runCommand(m, "make recipe uwu salad");
         assertTrue(c3.isError());
@@ -0,0 +1,88 @@
+// RunCommandTest.java
+
+package chopchop.logic.commands;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import chopchop.logic.history.HistoryManager;
+import chopchop.testutil.StubbedModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RunCommandTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    void execute_mixedScript_runsValidLinesAndReportsErrorsByLine() throws Exception {
+        var script = this.testFolder.resolve("scan.txt");
+        Files.write(script, List.of(
+            "# weekly inventory scan",
+            "add ingredient egg /qty 12",
+            "",
+            "add ingredient flour /qty 500g",
+            "add ingredient",
+            "undo",
+            "add recipe pancakes /ingredient egg /qty 2 /ingredient flour /qty 200g /step mix"));
+
+        var model = StubbedModel.filled();
+        var cmd = new RunCommand(script);
+        var result = cmd.execute(model, new HistoryManager());
+
+        assertTrue(result.didSucceed());
+        assertTrue(result.toString().contains("Ran 5 commands"));
+        assertTrue(result.toString().contains("3 succeeded, 2 failed"));
+        assertTrue(result.toString().contains("line 5: "));
+        assertTrue(result.toString().contains("line 6: 'undo' cannot be used in a script"));
+
+        assertTrue(model.findIngredientWithName("egg").isPresent());
+        assertTrue(model.findRecipeWithName("pancakes").isPresent());
+
+        // the whole script is undone and redone at once.
+        cmd.undo(model);
+        assertFalse(model.findIngredientWithName("egg").isPresent());
+        assertFalse(model.findIngredientWithName("flour").isPresent());
+        assertFalse(model.findRecipeWithName("pancakes").isPresent());
+
+        cmd.redo(model, new HistoryManager());
+        assertTrue(model.findIngredientWithName("flour").isPresent());
+        assertTrue(model.findRecipeWithName("pancakes").isPresent());
+    }
+
+    @Test
+    void execute_missingOrAllInvalid_error() throws Exception {
+        var model = StubbedModel.filled();
+        assertTrue(new RunCommand(this.testFolder.resolve("missing.txt"))
+            .execute(model, new HistoryManager()).isError());
+
+        var script = this.testFolder.resolve("bad.txt");
+        Files.write(script, List.of("owo", "delete recipe does not exist"));
+
+        var result = new RunCommand(script).execute(model, new HistoryManager());
+        assertTrue(result.isError());
+        assertEquals(4, model.getRecipeBook().getEntryList().size());
+    }
+
+    @Test
+    void execute_cancelled_stopsBeforeNextLine() throws Exception {
+        var script = this.testFolder.resolve("long.txt");
+        Files.write(script, List.of("add ingredient egg", "add ingredient flour"));
+
+        var model = StubbedModel.filled();
+        var cmd = new RunCommand(script);
+        cmd.cancel();
+
+        var result = cmd.execute(model, new HistoryManager());
+        assertTrue(result.didSucceed());
+        assertTrue(result.toString().contains("Ran 0 commands"));
+        assertTrue(result.toString().contains("(cancelled before line 1 of 2)"));
+        assertFalse(model.findIngredientWithName("egg").isPresent());
+    }
+}
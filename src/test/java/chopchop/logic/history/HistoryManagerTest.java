@@ -0,0 +1,177 @@
+// HistoryManagerTest.java
+
+package chopchop.logic.history;
+
+import static chopchop.testutil.TypicalIngredients.APRICOT;
+import static chopchop.testutil.TypicalRecipes.APRICOT_SALAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.logic.commands.CommandResult;
+import chopchop.logic.commands.Undoable;
+import chopchop.model.Model;
+import chopchop.model.ModelChange;
+import chopchop.model.ModelManager;
+import chopchop.storage.UndoHistoryLog;
+
+public class HistoryManagerTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private final List<String> undone = new ArrayList<>();
+
+    @Test
+    public void addCommand_overBudget_dropsOldest() {
+        var history = new HistoryManager(/* memoryBudget: */ 3000);
+        for (int i = 0; i < 5; i++) {
+            history.addCommand(new StubCommand("c" + i, 1000));
+        }
+
+        assertEquals(3000, history.getEstimatedSize());
+        assertEquals(2, history.getDroppedCount());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(history.undo(null).didSucceed());
+        }
+
+        assertEquals(List.of("c4", "c3", "c2"), this.undone);
+
+        var result = history.undo(null);
+        assertTrue(result.isError());
+        assertTrue(result.toString().contains("dropped"));
+    }
+
+    @Test
+    public void addCommand_largerThanBudget_keepsLatest() {
+        var history = new HistoryManager(/* memoryBudget: */ 1000);
+        history.addCommand(new StubCommand("small", 100));
+        history.addCommand(new StubCommand("large", 5000));
+
+        assertEquals(5000, history.getEstimatedSize());
+        assertTrue(history.undo(null).didSucceed());
+        assertEquals(List.of("large"), this.undone);
+    }
+
+    @Test
+    public void addCommand_afterUndo_discardsRedoableCommands() {
+        var history = new HistoryManager(/* memoryBudget: */ 10000);
+        history.addCommand(new StubCommand("a", 1000));
+        history.addCommand(new StubCommand("b", 2000));
+        history.undo(null);
+        history.addCommand(new StubCommand("c", 500));
+
+        assertEquals(1500, history.getEstimatedSize());
+        assertEquals(0, history.getDroppedCount());
+        assertTrue(history.redo(null).isError());
+    }
+
+    @Test
+    public void getMemoryReport_describesUsage() {
+        var history = new HistoryManager(/* memoryBudget: */ 4096);
+        history.addCommand(new StubCommand("a", 2048));
+        history.addCommand(new StubCommand("b", 4096));
+
+        assertEquals("1 undoable command using ~4 KB of 4 KB; 1 dropped", history.getMemoryReport());
+
+        history.clearCommands();
+        assertEquals(0, history.getEstimatedSize());
+        assertEquals("0 undoable commands using ~0 KB of 4 KB; 0 dropped", history.getMemoryReport());
+    }
+
+    @Test
+    public void undoLog_afterRestart_undoesAndRedoesSavedChanges() {
+        var model = new ModelManager();
+        var undoLog = new UndoHistoryLog(this.testFolder.resolve("undo.log"));
+        var history = new HistoryManager(/* memoryBudget: */ 10000, /* inputLog: */ null, undoLog);
+
+        var addRecipe = ModelChange.record(model, "add recipe", () -> {
+            model.addRecipe(APRICOT_SALAD);
+            return CommandResult.message("added");
+        });
+        history.addCommand(new StubCommand("add recipe", 100), addRecipe.snd());
+
+        var addIngredient = ModelChange.record(model, "add ingredient", () -> {
+            model.addIngredient(APRICOT);
+            return CommandResult.message("added");
+        });
+        history.addCommand(new StubCommand("add ingredient", 100), addIngredient.snd());
+
+        // the stub does not change the model, so undo the change by hand.
+        assertTrue(history.undo(model).didSucceed());
+        addIngredient.snd().undo(model);
+
+        var restarted = new HistoryManager(/* memoryBudget: */ 10000, /* inputLog: */ null,
+            new UndoHistoryLog(this.testFolder.resolve("undo.log")));
+
+        assertTrue(restarted.redo(model).didSucceed());
+        assertTrue(model.hasIngredient(APRICOT));
+
+        assertTrue(restarted.undo(model).didSucceed());
+        assertTrue(restarted.undo(model).didSucceed());
+        assertFalse(model.hasIngredient(APRICOT));
+        assertFalse(model.hasRecipe(APRICOT_SALAD));
+        assertTrue(restarted.undo(model).isError());
+    }
+
+    @Test
+    public void undoLog_dataChangedSinceRestart_cannotUndo() {
+        var model = new ModelManager();
+        var undoLog = new UndoHistoryLog(this.testFolder.resolve("undo.log"));
+        var history = new HistoryManager(/* memoryBudget: */ 10000, /* inputLog: */ null, undoLog);
+
+        var addRecipe = ModelChange.record(model, "add recipe", () -> {
+            model.addRecipe(APRICOT_SALAD);
+            return CommandResult.message("added");
+        });
+        history.addCommand(new StubCommand("add recipe", 100), addRecipe.snd());
+
+        // eg. the recipe was deleted by editing the data file while the app was closed.
+        model.deleteRecipe(APRICOT_SALAD);
+
+        var restarted = new HistoryManager(/* memoryBudget: */ 10000, /* inputLog: */ null,
+            new UndoHistoryLog(this.testFolder.resolve("undo.log")));
+
+        var result = restarted.undo(model);
+        assertTrue(result.isError());
+        assertTrue(result.toString().contains("changed some other way"));
+
+        // the command stays in the history, since it was not undone.
+        assertTrue(restarted.redo(model).isError());
+        assertTrue(restarted.undo(model).isError());
+    }
+
+    private class StubCommand implements Undoable {
+        private final String name;
+        private final long size;
+
+        StubCommand(String name, long size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        @Override
+        public CommandResult execute(Model model, HistoryManager historyManager) {
+            return CommandResult.message("%s", this.name);
+        }
+
+        @Override
+        public CommandResult undo(Model model) {
+            HistoryManagerTest.this.undone.add(this.name);
+            return CommandResult.message("%s", this.name);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.size;
+        }
+    }
+}
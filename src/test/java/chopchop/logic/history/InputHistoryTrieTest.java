@@ -0,0 +1,81 @@
+// InputHistoryTrieTest.java
+
+package chopchop.logic.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class InputHistoryTrieTest {
+
+    @Test
+    public void search_prefix_mostRecentFirst() {
+        var trie = new InputHistoryTrie(10);
+        trie.add("list recipes");
+        trie.add("add recipe pancakes");
+        trie.add("list ingredients");
+        trie.add("add ingredient milk");
+
+        assertEquals(List.of("list ingredients", "list recipes"), trie.search("list"));
+        assertEquals(List.of("add ingredient milk", "add recipe pancakes"), trie.search("add "));
+        assertEquals(List.of("add recipe pancakes"), trie.search("add recipe pancakes"));
+        assertEquals(List.of(), trie.search("delete"));
+        assertEquals(List.of(), trie.search("add recipe pancakes!"));
+        assertEquals(4, trie.search("").size());
+    }
+
+    @Test
+    public void add_duplicate_movedToFront() {
+        var trie = new InputHistoryTrie(10);
+        trie.add("list");
+        trie.add("list recipes");
+        trie.add("undo");
+        trie.add("list");
+
+        assertEquals(List.of("list", "undo", "list recipes"), trie.search(""));
+        assertEquals(List.of("list", "list recipes"), trie.search("li", 5));
+        assertEquals(List.of("list"), trie.search("li", 1));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void add_pastCapacity_removesLeastRecent() {
+        var trie = new InputHistoryTrie(3);
+        trie.add("list");
+        trie.add("list recipes");
+        trie.add("undo");
+        trie.add("list");
+        trie.add("redo");
+
+        assertEquals(List.of("redo", "list", "undo"), trie.search(""));
+        assertEquals(List.of("list"), trie.search("list"));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void search_randomInputs_sameAsFilteringHistory() {
+        var random = new Random(42);
+        var trie = new InputHistoryTrie(50);
+        var history = new ArrayList<String>();
+
+        for (int i = 0; i < 500; i++) {
+            var input = "abc".substring(random.nextInt(3)) + random.nextInt(80);
+            trie.add(input);
+            history.remove(input);
+            history.add(0, input);
+            if (history.size() > 50) {
+                history.remove(history.size() - 1);
+            }
+        }
+
+        for (var prefix : List.of("", "a", "b", "bc", "c1", "abc7", "x")) {
+            var expected = history.stream().filter(x -> x.startsWith(prefix)).collect(Collectors.toList());
+            assertEquals(expected, trie.search(prefix));
+        }
+    }
+}
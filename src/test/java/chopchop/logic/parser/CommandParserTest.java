@@ -80,6 +80,10 @@ public class CommandParserTest {
 
         tests.put("find recipe cake cucumber", "Result(FindRecipeCommand(keywords: [cake, cucumber]))");
         tests.put("find ingredient cake cucumber", "Result(FindIngredientCommand(keywords: [cake, cucumber]))");
+        tests.put("find recipe cake /fuzzy", "Result(FindRecipeCommand(keywords: [cake], fuzzy))");
+        tests.put("find ingredient cake /fuzzy cucumber",
+            "Result(FindIngredientCommand(keywords: [cake, cucumber], fuzzy))");
+        tests.put("find recipe cake /tag owo", "Error('find' command doesn't support '/tag')");
 
         tests.put("find recipe", "Error('find' command requires at least one search term)");
         tests.put("add recipe cake /", "Error(Expected argument name after '/')");
@@ -0,0 +1,38 @@
+// BackupCommandParserTest.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.HashMap;
+
+import chopchop.logic.parser.CommandParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BackupCommandParserTest {
+
+    @Test
+    void test_parse() {
+        var cases = new HashMap<String, Boolean>();
+        var parser = new CommandParser();
+
+        cases.put("backup all",                                                         false);
+        cases.put("backup /name owo",                                                   false);
+        cases.put("backup list 3",                                                      false);
+        cases.put("restore",                                                            false);
+        cases.put("restore latest",                                                     false);
+        cases.put("restore 0",                                                          false);
+        cases.put("restore -2",                                                         false);
+        cases.put("restore 3 /force",                                                   false);
+
+        cases.put("backup",                                                             true);
+        cases.put("backup list",                                                        true);
+        cases.put("restore 1",                                                          true);
+        cases.put("restore 42",                                                         true);
+
+        cases.forEach((k, v) -> {
+            System.out.printf("%s\n", k);
+            assertEquals(v, parser.parse(k).hasValue());
+        });
+    }
+}
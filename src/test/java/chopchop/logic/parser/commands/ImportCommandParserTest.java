@@ -0,0 +1,37 @@
+// ImportCommandParserTest.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.HashMap;
+
+import chopchop.logic.parser.CommandParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ImportCommandParserTest {
+
+    @Test
+    void test_parse() {
+        var cases = new HashMap<String, Boolean>();
+        var parser = new CommandParser();
+
+        cases.put("import",                                                             false);
+        cases.put("import recipes",                                                     false);
+        cases.put("import recommendations data.json",                                   false);
+        cases.put("import recipes data.txt",                                            false);
+        cases.put("import recipes data.json /name owo",                                 false);
+        cases.put("import recipes data/recipes.json",                                   false);
+
+        cases.put("import recipes recipes.json",                                        true);
+        cases.put("import recipe recipes.JSONL",                                        true);
+        cases.put("import ingredients ingredients.csv",                                 true);
+        cases.put("import ingredient ingredients.ndjson.gz",                            true);
+        cases.put("import ingredients data\\/my ingredients.csv",                       true);
+
+        cases.forEach((k, v) -> {
+            System.out.printf("%s\n", k);
+            assertEquals(v, parser.parse(k).hasValue());
+        });
+    }
+}
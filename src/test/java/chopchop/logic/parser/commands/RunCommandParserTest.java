@@ -0,0 +1,31 @@
+// RunCommandParserTest.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.HashMap;
+
+import chopchop.logic.parser.CommandParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RunCommandParserTest {
+
+    @Test
+    void test_parse() {
+        var cases = new HashMap<String, Boolean>();
+        var parser = new CommandParser();
+
+        cases.put("run",                                                                false);
+        cases.put("run    ",                                                            false);
+        cases.put("run scan.txt /name owo",                                             false);
+
+        cases.put("run scan.txt",                                                       true);
+        cases.put("run inventory scans\\/monday.txt",                                   true);
+
+        cases.forEach((k, v) -> {
+            System.out.printf("%s\n", k);
+            assertEquals(v, parser.parse(k).hasValue());
+        });
+    }
+}
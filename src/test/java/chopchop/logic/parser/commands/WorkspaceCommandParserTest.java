@@ -0,0 +1,35 @@
+// WorkspaceCommandParserTest.java
+
+package chopchop.logic.parser.commands;
+
+import java.util.HashMap;
+
+import chopchop.logic.parser.CommandParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WorkspaceCommandParserTest {
+
+    @Test
+    void test_parse() {
+        var cases = new HashMap<String, Boolean>();
+        var parser = new CommandParser();
+
+        cases.put("workspace",                                                          false);
+        cases.put("workspace open dessert",                                             false);
+        cases.put("workspace list all",                                                 false);
+        cases.put("workspace switch",                                                   false);
+        cases.put("workspace switch two words",                                         false);
+        cases.put("workspace switch dessert /name owo",                                 false);
+
+        cases.put("workspace list",                                                     true);
+        cases.put("workspace switch dessert",                                           true);
+        cases.put("workspace switch default",                                           true);
+
+        cases.forEach((k, v) -> {
+            System.out.printf("%s\n", k);
+            assertEquals(v, parser.parse(k).hasValue());
+        });
+    }
+}
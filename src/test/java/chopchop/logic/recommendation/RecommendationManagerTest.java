@@ -0,0 +1,139 @@
+// RecommendationManagerTest.java
+
+package chopchop.logic.recommendation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.util.FileUtil;
+import chopchop.model.attributes.ExpiryDate;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.units.Count;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+import chopchop.storage.JsonRecommendationCache;
+import chopchop.testutil.StubbedModel;
+
+public class RecommendationManagerTest {
+
+    private static final Ingredient EGGS = new Ingredient("Egg", Optional.of(Count.of(6)),
+        Optional.of(new ExpiryDate(LocalDate.now().plusDays(3))), Set.of());
+    private static final Ingredient MILK = new Ingredient("Milk", Optional.of(Count.of(1)),
+        Optional.of(new ExpiryDate(LocalDate.now().plusDays(30))), Set.of());
+
+    private static final Recipe OMELETTE = new Recipe("Omelette",
+        List.of(new IngredientReference("egg", Count.of(3))), List.of(new Step("fry")), Set.of());
+    private static final Recipe CUSTARD = new Recipe("Custard",
+        List.of(new IngredientReference("egg", Count.of(2)), new IngredientReference("milk", Count.of(1))),
+        List.of(new Step("stir")), Set.of());
+    private static final Recipe MILKSHAKE = new Recipe("Milkshake",
+        List.of(new IngredientReference("milk", Count.of(1))), List.of(new Step("shake")), Set.of());
+
+    @TempDir
+    public Path testFolder;
+
+    private static StubbedModel createModel() {
+        var model = StubbedModel.empty();
+        model.addIngredients(List.of(EGGS, MILK));
+        model.addRecipes(List.of(OMELETTE, CUSTARD, MILKSHAKE));
+        return model;
+    }
+
+    @Test
+    public void ingredientChanges_updateRecommendations() {
+        var model = createModel();
+        var manager = new RecommendationManager(model);
+
+        assertEquals(List.of(OMELETTE, CUSTARD, MILKSHAKE), manager.getRecommendedRecipeList());
+        assertEquals(List.of(OMELETTE, CUSTARD), manager.getExpiringRecipeList());
+
+        var fewerEggs = new Ingredient("Egg", Optional.of(Count.of(2)), EGGS.getExpiryDate(), Set.of());
+        model.setIngredient(EGGS, fewerEggs);
+        assertEquals(List.of(CUSTARD, MILKSHAKE), manager.getRecommendedRecipeList());
+
+        model.deleteIngredient(MILK);
+        assertEquals(List.of(), manager.getRecommendedRecipeList());
+
+        // recipes added later are computed as needed.
+        var boiledEgg = new Recipe("Boiled Egg", List.of(new IngredientReference("egg", Count.of(1))),
+            List.of(new Step("boil")), Set.of());
+        model.addRecipe(boiledEgg);
+        assertEquals(List.of(boiledEgg), manager.getRecommendedRecipeList());
+    }
+
+    @Test
+    public void resume_rebuild_appliesResultsOnModelThread() throws Exception {
+        var model = createModel();
+        var manager = new RecommendationManager(model);
+        var pending = new ConcurrentLinkedQueue<Runnable>();
+
+        manager.suspend();
+        manager.resume(/* rebuild: */ true, pending::add);
+        assertTrue(manager.isSuspended());
+
+        // a change while the index is being rebuilt must not be lost.
+        model.deleteIngredient(MILK);
+
+        waitFor(pending);
+        pending.forEach(Runnable::run);
+
+        assertFalse(manager.isSuspended());
+        assertEquals(List.of(OMELETTE), manager.getRecommendedRecipeList());
+    }
+
+    @Test
+    public void restore_matchingCache_usedWithoutComputing() throws Exception {
+        var recipePath = this.testFolder.resolve("recipes.json");
+        var ingredientPath = this.testFolder.resolve("ingredients.json");
+        var cachePath = JsonRecommendationCache.getCachePath(recipePath);
+        FileUtil.writeToFile(recipePath, "recipes");
+        FileUtil.writeToFile(ingredientPath, "ingredients");
+
+        // pretend that only the milkshake is recommended, which the cache is trusted with.
+        var today = LocalDate.now();
+        JsonRecommendationCache.write(cachePath, recipePath, ingredientPath, today, List.of(
+            new RecommendationIndex.CachedRecipe("omelette", false, Optional.empty()),
+            new RecommendationIndex.CachedRecipe("custard", false, Optional.empty()),
+            new RecommendationIndex.CachedRecipe("milkshake", true, Optional.empty())));
+
+        var cached = JsonRecommendationCache.read(cachePath, recipePath, ingredientPath, today);
+        assertTrue(cached.isPresent());
+
+        var model = StubbedModel.empty();
+        var manager = new RecommendationManager(model);
+        manager.getIndex().restore(today, cached.get());
+        manager.suspend();
+
+        model.addIngredients(List.of(EGGS, MILK));
+        model.addRecipes(List.of(OMELETTE, CUSTARD, MILKSHAKE));
+        manager.resume(/* rebuild: */ false, Runnable::run);
+
+        assertEquals(List.of(MILKSHAKE), manager.getRecommendedRecipeList());
+
+        // the cache is not used for other days, or once the data files change.
+        assertTrue(JsonRecommendationCache.read(cachePath, recipePath, ingredientPath, today.plusDays(1))
+            .isEmpty());
+
+        FileUtil.writeToFile(ingredientPath, "other ingredients");
+        assertTrue(JsonRecommendationCache.read(cachePath, recipePath, ingredientPath, today).isEmpty());
+    }
+
+    private static void waitFor(Queue<Runnable> pending) throws InterruptedException {
+        for (int i = 0; i < 100 && pending.isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+    }
+}
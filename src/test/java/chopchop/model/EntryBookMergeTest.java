@@ -0,0 +1,77 @@
+// EntryBookMergeTest.java
+
+package chopchop.model;
+
+import static chopchop.testutil.TypicalIngredients.APRICOT;
+import static chopchop.testutil.TypicalIngredients.BANANA;
+import static chopchop.testutil.TypicalIngredients.CUSTARD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import chopchop.commons.util.Pair;
+import chopchop.model.attributes.Tag;
+import chopchop.model.attributes.units.Count;
+import chopchop.model.ingredient.Ingredient;
+
+public class EntryBookMergeTest {
+
+    private static final Ingredient EGG = new Ingredient("Egg", Optional.of(Count.of(6)), Optional.empty(),
+        Set.of());
+    private static final Ingredient EGG_MORE = new Ingredient("egg", Optional.of(Count.of(12)), Optional.empty(),
+        Set.of());
+    private static final Ingredient EGG_TAGGED = new Ingredient("Egg", Optional.of(Count.of(6)), Optional.empty(),
+        Set.of(new Tag("dairy")));
+
+    @Test
+    public void compute_noLocalChanges_appliesRemoteChanges() {
+        var base = List.of(APRICOT, BANANA, EGG);
+        var remote = List.of(BANANA, EGG_MORE, CUSTARD);
+
+        var merge = EntryBookMerge.<Ingredient>compute(base, base, remote);
+        assertEquals(List.of(CUSTARD), merge.getAdded());
+        assertEquals(List.of(APRICOT), merge.getRemoved());
+        assertEquals(List.of(Pair.of(EGG, EGG_MORE)), merge.getUpdated());
+        assertTrue(merge.getConflicts().isEmpty());
+    }
+
+    @Test
+    public void compute_unchanged_empty() {
+        var base = List.of(APRICOT, EGG);
+        assertTrue(EntryBookMerge.<Ingredient>compute(base, base, base).isEmpty());
+
+        // local changes alone don't need merging.
+        var merge = EntryBookMerge.<Ingredient>compute(base, List.of(EGG_MORE, CUSTARD), base);
+        assertTrue(merge.isEmpty());
+        assertTrue(merge.getConflicts().isEmpty());
+    }
+
+    @Test
+    public void compute_changedOnBothSides_conflicts() {
+        var base = List.of(APRICOT, BANANA, EGG);
+
+        // egg was edited differently, banana was deleted locally but edited remotely, and custard was
+        // added on both sides; apricot was deleted on both sides, which is fine.
+        var local = List.of(EGG_TAGGED, CUSTARD);
+        var remote = List.of(BANANA.combine(BANANA), EGG_MORE,
+            new Ingredient("Custard", Optional.of(Count.of(1)), Optional.empty(), Set.of()));
+
+        var merge = EntryBookMerge.<Ingredient>compute(base, local, remote);
+        assertTrue(merge.isEmpty());
+        assertEquals(List.of(BANANA.getName(), EGG_MORE.getName(), "Custard"), merge.getConflicts());
+    }
+
+    @Test
+    public void compute_sameChangeOnBothSides_noConflict() {
+        var base = List.of(APRICOT, EGG);
+        var merge = EntryBookMerge.<Ingredient>compute(base, List.of(EGG_MORE), List.of(EGG_MORE));
+
+        assertTrue(merge.isEmpty());
+        assertTrue(merge.getConflicts().isEmpty());
+    }
+}
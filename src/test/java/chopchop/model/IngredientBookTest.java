@@ -17,8 +17,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.HashSet;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import chopchop.commons.util.BulkEditableList;
+import chopchop.commons.util.ListenableList;
 import org.junit.jupiter.api.Test;
 
 import chopchop.model.exceptions.DuplicateEntryException;
@@ -95,14 +95,14 @@ public class IngredientBookTest {
      * A stub ReadOnlyIngredientBook whose persons list can violate interface constraints.
      */
     private static class IngredientBookStub implements ReadOnlyEntryBook<Ingredient> {
-        private final ObservableList<Ingredient> ingredients = FXCollections.observableArrayList();
+        private final BulkEditableList<Ingredient> ingredients = new BulkEditableList<>();
 
         IngredientBookStub(Collection<Ingredient> ingredients) {
             this.ingredients.setAll(ingredients);
         }
 
         @Override
-        public ObservableList<Ingredient> getEntryList() {
+        public ListenableList<Ingredient> getEntryList() {
             return this.ingredients;
         }
     }
@@ -14,6 +14,8 @@ import static chopchop.testutil.TypicalUsages.getListViewRecipeList;
 import static chopchop.testutil.TypicalUsages.getRecipeUsageList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static chopchop.testutil.Assert.assertThrows;
 import static chopchop.testutil.TypicalIngredients.APRICOT;
@@ -213,4 +215,23 @@ public class ModelManagerTest {
         assertEquals(recipeUL.getRecentlyUsed(10), model.getRecentlyUsedRecipes(10));
         assertEquals(ingredientUL.getRecentlyUsed(10), model.getRecentlyUsedIngredients(10));
     }
+
+    @Test
+    void snapshot_sharesUnchangedLists() {
+        var model = new ModelManager(recipeBook, ingredientBook, recipeUL, ingredientUL, userPrefs);
+        var first = model.snapshot(1);
+
+        // only a filter changed, so the data is shared.
+        model.updateFilteredRecipeList(r -> false);
+        var second = model.snapshot(2);
+        assertSame(first.recipeBook, second.recipeBook);
+        assertSame(first.ingredientUsages, second.ingredientUsages);
+        assertTrue(second.toModel().getFilteredRecipeList().isEmpty());
+
+        model.deleteRecipe(model.getRecipeBook().getEntryList().get(0));
+        var third = model.snapshot(3);
+        assertNotSame(second.recipeBook, third.recipeBook);
+        assertSame(second.ingredientBook, third.ingredientBook);
+        assertEquals(second.recipeBook.getEntryList().size() - 1, third.recipeBook.getEntryList().size());
+    }
 }
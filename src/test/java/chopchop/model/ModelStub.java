@@ -2,6 +2,7 @@ package chopchop.model;
 
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -15,7 +16,7 @@ import chopchop.model.ingredient.Ingredient;
 
 import chopchop.model.usage.IngredientUsage;
 import chopchop.model.usage.RecipeUsage;
-import javafx.collections.ObservableList;
+import chopchop.commons.util.ListenableList;
 
 
 /**
@@ -84,7 +85,7 @@ public class ModelStub implements Model {
     }
 
     @Override
-    public ObservableList<Ingredient> getFilteredIngredientList() {
+    public ListenableList<Ingredient> getFilteredIngredientList() {
         throw new AssertionError("This method should not be called.");
     }
 
@@ -93,6 +94,46 @@ public class ModelStub implements Model {
         throw new AssertionError("This method should not be called.");
     }
 
+    @Override
+    public Predicate<? super Ingredient> getIngredientFilter() {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void addRecipes(List<Recipe> recipes) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void deleteRecipes(Collection<Recipe> recipes) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void startEditingRecipes() {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void finishEditingRecipes() {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void addIngredients(List<Ingredient> ingredients) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public void deleteIngredients(Collection<Ingredient> ingredients) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public ModelSnapshot snapshot(long version) {
+        throw new AssertionError("This method should not be called.");
+    }
+
     @Override
     public void startEditingIngredients() {
         throw new AssertionError("This method should not be called.");
@@ -144,7 +185,7 @@ public class ModelStub implements Model {
     }
 
     @Override
-    public ObservableList<Recipe> getFilteredRecipeList() {
+    public ListenableList<Recipe> getFilteredRecipeList() {
         throw new AssertionError("This method should not be called.");
     }
 
@@ -153,6 +194,11 @@ public class ModelStub implements Model {
         throw new AssertionError("This method should not be called.");
     }
 
+    @Override
+    public Predicate<? super Recipe> getRecipeFilter() {
+        throw new AssertionError("This method should not be called.");
+    }
+
     @Override
     public Optional<Recipe> findRecipeWithName(String name) {
         throw new AssertionError("This method should not be called.");
@@ -163,6 +209,26 @@ public class ModelStub implements Model {
         throw new AssertionError("This method should not be called.");
     }
 
+    @Override
+    public List<Recipe> findRecipesWithSimilarName(String name, int limit) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public List<String> findSimilarRecipeNameWords(String word) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public List<Ingredient> findIngredientsWithSimilarName(String name, int limit) {
+        throw new AssertionError("This method should not be called.");
+    }
+
+    @Override
+    public List<String> findSimilarIngredientNameWords(String word) {
+        throw new AssertionError("This method should not be called.");
+    }
+
     @Override
     public UsageList<RecipeUsage> getRecipeUsageList() {
         throw new AssertionError("This method should not be called.");
@@ -182,12 +248,12 @@ public class ModelStub implements Model {
     }
 
     @Override
-    public ObservableList<RecipeUsage> getObservableRecipeUsages() {
+    public ListenableList<RecipeUsage> getObservableRecipeUsages() {
         throw new AssertionError("This method should not be called.");
     }
 
     @Override
-    public ObservableList<IngredientUsage> getObservableIngredientUsages() {
+    public ListenableList<IngredientUsage> getObservableIngredientUsages() {
         throw new AssertionError("This method should not be called.");
     }
 
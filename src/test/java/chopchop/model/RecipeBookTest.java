@@ -1,15 +1,18 @@
 package chopchop.model;
 
 import chopchop.model.exceptions.DuplicateEntryException;
+import chopchop.model.exceptions.EntryNotFoundException;
 import chopchop.model.recipe.Recipe;
 import chopchop.testutil.RecipeBuilder;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import chopchop.commons.util.BulkEditableList;
+import chopchop.commons.util.ListenableList;
 import org.junit.jupiter.api.Test;
 
 import static chopchop.testutil.Assert.assertThrows;
 import static chopchop.testutil.TypicalIngredients.BANANA_REF;
 import static chopchop.testutil.TypicalRecipes.APRICOT_SALAD;
+import static chopchop.testutil.TypicalRecipes.BANANA_SALAD;
+import static chopchop.testutil.TypicalRecipes.CUSTARD_SALAD;
 import static chopchop.testutil.TypicalRecipes.STEP_BANANA_SALAD;
 import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
 
@@ -21,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.ArrayList;
 
 public class RecipeBookTest {
@@ -80,6 +84,72 @@ public class RecipeBookTest {
         assertTrue(recipeBook.has(editedRecipe)); //Both identity fields must be equal
     }
 
+    @Test
+    public void removeAll_someMissing_nothingRemoved() {
+        recipeBook.add(APRICOT_SALAD);
+        recipeBook.add(BANANA_SALAD);
+
+        assertThrows(EntryNotFoundException.class, () -> recipeBook.removeAll(List.of(APRICOT_SALAD, CUSTARD_SALAD)));
+        assertEquals(List.of(APRICOT_SALAD, BANANA_SALAD), recipeBook.getEntryList());
+        assertTrue(recipeBook.has(APRICOT_SALAD));
+    }
+
+    @Test
+    public void find_afterEdits_usesCurrentEntries() {
+        recipeBook.add(APRICOT_SALAD);
+        assertEquals(Optional.of(APRICOT_SALAD), recipeBook.find(APRICOT_SALAD.getName().toUpperCase()));
+
+        Recipe editedRecipe = new RecipeBuilder(APRICOT_SALAD)
+            .withIngredients(new ArrayList<>(Arrays.asList(BANANA_REF)))
+            .build();
+        recipeBook.set(APRICOT_SALAD, editedRecipe);
+        assertEquals(Optional.of(editedRecipe), recipeBook.find(APRICOT_SALAD.getName()));
+
+        // removing a recipe with the same name but different fields does nothing.
+        assertThrows(EntryNotFoundException.class, () -> recipeBook.removeAll(List.of(APRICOT_SALAD)));
+        assertEquals(Optional.of(editedRecipe), recipeBook.find(APRICOT_SALAD.getName()));
+
+        recipeBook.remove(editedRecipe);
+        assertEquals(Optional.empty(), recipeBook.find(APRICOT_SALAD.getName()));
+        assertFalse(recipeBook.has(APRICOT_SALAD));
+    }
+
+    @Test
+    public void findSimilar_afterEdits_usesCurrentEntries() {
+        recipeBook.setAll(List.of(APRICOT_SALAD, BANANA_SALAD));
+        assertEquals(List.of(APRICOT_SALAD), recipeBook.findSimilar("apricto salad", 3));
+        assertEquals(List.of(BANANA_SALAD), recipeBook.findSimilar("Banan Slad", 3));
+        assertEquals(List.of(), recipeBook.findSimilar("custard", 3));
+        assertEquals(List.of("apricot"), recipeBook.findSimilarWords("APRICT"));
+        assertEquals(List.of("salad"), recipeBook.findSimilarWords("slad"));
+
+        recipeBook.remove(APRICOT_SALAD);
+        recipeBook.add(CUSTARD_SALAD);
+        assertEquals(List.of(), recipeBook.findSimilar("apricto salad", 3));
+        assertEquals(List.of(CUSTARD_SALAD), recipeBook.findSimilar("custrad salad", 3));
+        assertEquals(List.of(), recipeBook.findSimilarWords("aprict"));
+        assertEquals(List.of("salad"), recipeBook.findSimilarWords("slad"));
+
+        recipeBook.setAll(List.of(APRICOT_SALAD));
+        assertEquals(List.of(APRICOT_SALAD), recipeBook.findSimilar("apricto salad", 3));
+    }
+
+    @Test
+    public void findSimilar_afterFailedRemoveAll_unchanged() {
+        recipeBook.setAll(List.of(APRICOT_SALAD, BANANA_SALAD));
+        assertEquals(List.of("apricot"), recipeBook.findSimilarWords("aprict"));
+
+        // custard salad is not in the book, so nothing is removed, and the index must not change either.
+        assertThrows(EntryNotFoundException.class, () -> recipeBook.removeAll(List.of(APRICOT_SALAD, CUSTARD_SALAD)));
+        assertEquals(List.of(APRICOT_SALAD, BANANA_SALAD), recipeBook.getEntryList());
+        assertEquals(List.of("apricot"), recipeBook.findSimilarWords("aprict"));
+        assertEquals(List.of(APRICOT_SALAD), recipeBook.findSimilar("apricto salad", 3));
+
+        recipeBook.removeAll(List.of(APRICOT_SALAD));
+        assertEquals(List.of(), recipeBook.findSimilarWords("aprict"));
+        assertEquals(List.of("salad"), recipeBook.findSimilarWords("slad"));
+    }
+
     @Test
     public void getRecipeList_modifyList_throwsUnsupportedOperationException() {
         assertThrows(UnsupportedOperationException.class, () -> recipeBook.getEntryList().remove(0));
@@ -89,14 +159,14 @@ public class RecipeBookTest {
      * A stub ReadOnlyRecipeBook whose recipes list can violate interface constraints.
      */
     private static class RecipeBookStub implements ReadOnlyEntryBook<Recipe> {
-        private final ObservableList<Recipe> recipes = FXCollections.observableArrayList();
+        private final BulkEditableList<Recipe> recipes = new BulkEditableList<>();
 
         RecipeBookStub(Collection<Recipe> recipes) {
             this.recipes.setAll(recipes);
         }
 
         @Override
-        public ObservableList<Recipe> getEntryList() {
+        public ListenableList<Recipe> getEntryList() {
             return recipes;
         }
     }
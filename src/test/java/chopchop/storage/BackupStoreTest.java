@@ -0,0 +1,186 @@
+// BackupStoreTest.java
+
+package chopchop.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BackupStoreTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path data;
+    private BackupStore store;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.data = Files.createDirectories(this.testFolder.resolve("data"));
+        this.store = new BackupStore(this.data.resolve(BackupStore.DIRECTORY_NAME));
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        var bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] insert(byte[] data, int offset, byte[] extra) {
+        var result = new byte[data.length + extra.length];
+        System.arraycopy(data, 0, result, 0, offset);
+        System.arraycopy(extra, 0, result, offset, extra.length);
+        System.arraycopy(data, offset, result, offset + extra.length, data.length - offset);
+        return result;
+    }
+
+    @Test
+    public void findChunkEnds_insertion_onlyChangesNearbyChunks() {
+        var original = randomBytes(512 * 1024, 1);
+        var edited = insert(original, 200 * 1024, "a new recipe".getBytes());
+
+        var originalEnds = BackupStore.findChunkEnds(original);
+        var editedEnds = BackupStore.findChunkEnds(edited);
+
+        assertEquals(original.length, originalEnds.get(originalEnds.size() - 1));
+        for (int i = 0; i < originalEnds.size(); i++) {
+            var length = originalEnds.get(i) - (i == 0 ? 0 : originalEnds.get(i - 1));
+            assertTrue(length <= BackupStore.MAX_CHUNK_SIZE);
+            assertTrue(length >= BackupStore.MIN_CHUNK_SIZE || i == originalEnds.size() - 1);
+        }
+
+        // chunks before the edit are unchanged, and those after it are just shifted.
+        var shifted = editedEnds.stream().map(x -> x >= 200 * 1024 ? x - 12 : x).collect(Collectors.toSet());
+        var common = new HashSet<>(originalEnds);
+        common.retainAll(shifted);
+        assertTrue(common.size() >= originalEnds.size() - 2);
+    }
+
+    @Test
+    public void backup_unchangedAndEditedData_deduplicated() throws IOException {
+        var recipes = randomBytes(300 * 1024, 2);
+        Files.write(this.data.resolve("recipebook.json"), recipes);
+        Files.write(this.data.resolve("ingredientbook.json"), randomBytes(1000, 3));
+
+        var first = this.store.backup(this.data);
+        assertTrue(first.snd());
+        assertEquals(1, first.fst().getNumber());
+        assertEquals(2, first.fst().getFileCount());
+        assertEquals(recipes.length + 1000, first.fst().getSize());
+
+        var second = this.store.backup(this.data);
+        assertFalse(second.snd());
+        assertEquals(1, second.fst().getNumber());
+
+        Files.write(this.data.resolve("recipebook.json"), insert(recipes, 100 * 1024, "edit".getBytes()));
+        var third = this.store.backup(this.data);
+        assertTrue(third.snd());
+        assertEquals(2, third.fst().getNumber());
+        assertTrue(third.fst().getAddedSize() < 3 * BackupStore.MAX_CHUNK_SIZE);
+
+        assertEquals(2, this.store.getGenerations().size());
+    }
+
+    @Test
+    public void restore_olderGeneration_restoresExactFiles() throws IOException {
+        var recipes = randomBytes(100 * 1024, 4);
+        Files.write(this.data.resolve("recipebook.json"), recipes);
+        Files.createDirectories(this.data.resolve("recipebook"));
+        Files.write(this.data.resolve("recipebook").resolve("segment-0.json"), "segment".getBytes());
+        this.store.backup(this.data);
+
+        Files.write(this.data.resolve("recipebook.json"), "overwritten".getBytes());
+        Files.delete(this.data.resolve("recipebook").resolve("segment-0.json"));
+        Files.write(this.data.resolve("new.json"), "created later".getBytes());
+        this.store.backup(this.data);
+
+        var restored = this.store.restore(1, this.data);
+        assertEquals(1, restored.getNumber());
+
+        assertArrayEquals(recipes, Files.readAllBytes(this.data.resolve("recipebook.json")));
+        assertEquals("segment", Files.readString(this.data.resolve("recipebook").resolve("segment-0.json")));
+
+        // files that aren't in the backup are left alone.
+        assertEquals("created later", Files.readString(this.data.resolve("new.json")));
+
+        // restoring doesn't touch the backups themselves.
+        assertEquals(2, this.store.getGenerations().size());
+        assertThrows(IOException.class, () -> this.store.restore(3, this.data));
+    }
+
+    @Test
+    public void backup_excludedDirectory_notBackedUpOrRestored() throws IOException {
+        var logs = Files.createDirectories(this.data.resolve("logs"));
+        var store = new BackupStore(this.data.resolve(BackupStore.DIRECTORY_NAME), List.of(logs));
+
+        Files.write(this.data.resolve("recipebook.json"), "recipes".getBytes());
+        Files.write(logs.resolve("chopchop-0.log"), "first run".getBytes());
+        var first = store.backup(this.data);
+        assertEquals(1, first.fst().getFileCount());
+
+        // only the logs changed, so there's nothing new to back up.
+        Files.write(logs.resolve("chopchop-0.log"), "second run".getBytes());
+        assertFalse(store.backup(this.data).snd());
+
+        Files.write(this.data.resolve("recipebook.json"), "edited".getBytes());
+        store.restore(1, this.data);
+        assertEquals("recipes", Files.readString(this.data.resolve("recipebook.json")));
+        assertEquals("second run", Files.readString(logs.resolve("chopchop-0.log")));
+    }
+
+    @Test
+    public void restore_corruptedChunk_leavesDataUntouched() throws IOException {
+        Files.write(this.data.resolve("recipebook.json"), randomBytes(10 * 1024, 5));
+        this.store.backup(this.data);
+
+        try (var chunks = Files.walk(this.store.getRoot().resolve("chunks"))) {
+            for (var chunk : chunks.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Files.write(chunk, "garbage".getBytes());
+            }
+        }
+
+        Files.write(this.data.resolve("recipebook.json"), "current".getBytes());
+        assertThrows(IOException.class, () -> this.store.restore(1, this.data));
+        assertEquals("current", Files.readString(this.data.resolve("recipebook.json")));
+    }
+
+    @Test
+    public void prune_removesOldGenerationsAndUnusedChunks() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            Files.write(this.data.resolve("recipebook.json"), randomBytes(20 * 1024, 10 + i));
+            this.store.backup(this.data);
+        }
+
+        assertEquals(3, this.store.prune(2));
+
+        var generations = this.store.getGenerations();
+        assertEquals(2, generations.size());
+        assertEquals(4, generations.get(0).getNumber());
+        assertEquals(5, generations.get(1).getNumber());
+
+        long chunkCount;
+        try (var chunks = Files.walk(this.store.getRoot().resolve("chunks"))) {
+            chunkCount = chunks.filter(Files::isRegularFile).count();
+        }
+
+        // only the chunks of the two remaining (completely different) files are left.
+        assertTrue(chunkCount <= 2 * (20 * 1024 / BackupStore.MIN_CHUNK_SIZE + 1));
+
+        this.store.restore(4, this.data);
+        assertArrayEquals(randomBytes(20 * 1024, 13), Files.readAllBytes(this.data.resolve("recipebook.json")));
+    }
+}
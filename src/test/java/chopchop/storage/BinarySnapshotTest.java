@@ -0,0 +1,268 @@
+// BinarySnapshotTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.Assert.assertThrows;
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static chopchop.testutil.TypicalUsages.getIngredientUsageList;
+import static chopchop.testutil.TypicalUsages.getRecipeUsageList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.recipe.Recipe;
+
+public class BinarySnapshotTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void getSnapshotPath_replacesJsonExtension() {
+        assertEquals(Paths.get("data", "recipebook.snapshot"),
+            BinarySnapshot.getSnapshotPath(Paths.get("data", "recipebook.json")));
+        assertEquals(Paths.get("data", "recipes.snapshot"),
+            BinarySnapshot.getSnapshotPath(Paths.get("data", "recipes")));
+    }
+
+    @Test
+    public void readAndSave_recipeBook_success() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        var storage = new BinaryRecipeBookStorage(path);
+        var original = getTypicalRecipeBook();
+
+        storage.saveRecipeBook(original);
+        assertEquals(original, new EntryBook<>(storage.readRecipeBook().get()));
+    }
+
+    @Test
+    public void readRecipeBook_stepsLoadedLazily() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        var original = getTypicalRecipeBook();
+        new BinaryRecipeBookStorage(path).saveRecipeBook(original);
+        assertTrue(Files.exists(BinarySnapshot.getBodiesPath(path)));
+
+        var recipes = new BinaryRecipeBookStorage(path, /* cacheSize: */ 2).readRecipeBook().get().getEntryList();
+        var store = ((RecipeBodyStore.Body) recipes.get(0).getStepSource()).getStore();
+        assertEquals(0, store.getCachedCount());
+
+        for (int i = 0; i < recipes.size(); i++) {
+            assertEquals(original.getEntryList().get(i).getSteps(), recipes.get(i).getSteps());
+        }
+        assertEquals(Math.min(2, recipes.size()), store.getCachedCount());
+    }
+
+    @Test
+    public void saveRecipeBook_unchangedRecipes_bodiesNotRewritten() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        var storage = new BinaryRecipeBookStorage(path);
+        storage.saveRecipeBook(getTypicalRecipeBook());
+
+        var bodies = BinarySnapshot.getBodiesPath(path);
+        var size = Files.size(bodies);
+
+        var book = new EntryBook<>(storage.readRecipeBook().get());
+        storage.saveRecipeBook(book);
+        assertEquals(size, Files.size(bodies));
+
+        // re-saving the book read from another storage copies the bodies across.
+        var other = this.testFolder.resolve("other.snapshot");
+        new BinaryRecipeBookStorage(other).saveRecipeBook(book);
+        assertEquals(size, Files.size(BinarySnapshot.getBodiesPath(other)));
+        assertEquals(getTypicalRecipeBook(),
+            new EntryBook<>(new BinaryRecipeBookStorage(other).readRecipeBook().get()));
+    }
+
+    @Test
+    public void saveRecipeBook_mostlyGarbage_compactsBodies() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        var storage = new BinaryRecipeBookStorage(path);
+        var original = getTypicalRecipeBook();
+
+        storage.saveRecipeBook(original);
+        var bodies = BinarySnapshot.getBodiesPath(path);
+        var size = Files.size(bodies);
+
+        // keep appending fresh copies of the steps, so the old ones become garbage.
+        for (int i = 0; i < 2000; i++) {
+            var book = new EntryBook<Recipe>();
+            for (var recipe : original.getEntryList()) {
+                book.add(new Recipe(recipe.getName(), recipe.getIngredients(), recipe.getSteps(), recipe.getTags()));
+            }
+            storage.saveRecipeBook(book);
+        }
+
+        // the old file is only deleted on exit, since recipes loaded from it may still be around.
+        var recipes = new BinaryRecipeBookStorage(path).readRecipeBook().get();
+        var compacted = ((RecipeBodyStore.Body) recipes.getEntryList().get(0).getStepSource()).getStore().getPath();
+        assertNotEquals(bodies.getFileName(), compacted.getFileName());
+        assertTrue(Files.size(compacted) <= 2 * size + 64 * 1024);
+        assertEquals(original, new EntryBook<>(recipes));
+
+        // reading does not change anything.
+        var modified = Files.getLastModifiedTime(path);
+        new BinaryRecipeBookStorage(path).readRecipeBook();
+        assertEquals(modified, Files.getLastModifiedTime(path));
+    }
+
+    @Test
+    public void readRecipeBook_bodiesFileTruncated_throwsDataConversionException() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        new BinaryRecipeBookStorage(path).saveRecipeBook(getTypicalRecipeBook());
+
+        var bodies = BinarySnapshot.getBodiesPath(path);
+        var bytes = Files.readAllBytes(bodies);
+        Files.write(bodies, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeBookStorage(path).readRecipeBook());
+
+        Files.delete(bodies);
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeBookStorage(path).readRecipeBook());
+    }
+
+    @Test
+    public void getSteps_corruptedStepLength_failsToLoad() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+        var original = getTypicalRecipeBook();
+        new BinaryRecipeBookStorage(path).saveRecipeBook(original);
+        assertFalse(original.getEntryList().get(0).getSteps().isEmpty());
+
+        // the first body starts with the number of steps, then the length of the first one.
+        var bodies = BinarySnapshot.getBodiesPath(path);
+        for (var length : new int[] { -1, Integer.MAX_VALUE }) {
+            var bytes = Files.readAllBytes(bodies);
+            ByteBuffer.wrap(bytes).putInt(Integer.BYTES, length);
+            Files.write(bodies, bytes);
+
+            var recipe = new BinaryRecipeBookStorage(path).readRecipeBook().get().getEntryList().get(0);
+            assertThrows(UncheckedIOException.class, recipe::getSteps);
+        }
+    }
+
+    @Test
+    public void readAndSave_ingredientBook_success() throws Exception {
+        var path = this.testFolder.resolve("ingredients.snapshot");
+        var storage = new BinaryIngredientBookStorage(path);
+        var original = getTypicalIngredientBook();
+
+        storage.saveIngredientBook(original);
+        assertEquals(original, new EntryBook<>(storage.readIngredientBook().get()));
+    }
+
+    @Test
+    public void readAndSave_usages_success() throws Exception {
+        var recipeStorage = new BinaryRecipeUsageStorage(this.testFolder.resolve("recipeusage.snapshot"));
+        recipeStorage.saveUsages(getRecipeUsageList());
+        assertEquals(getRecipeUsageList().getUsageList(), recipeStorage.readUsages().get().getUsageList());
+
+        var ingredientStorage = new BinaryIngredientUsageStorage(this.testFolder.resolve("ingredientusage.snapshot"));
+        ingredientStorage.saveUsages(getIngredientUsageList());
+        assertEquals(getIngredientUsageList().getUsageList(), ingredientStorage.readUsages().get().getUsageList());
+    }
+
+    @Test
+    public void read_missingFile_emptyResult() throws Exception {
+        assertFalse(new BinaryRecipeBookStorage(this.testFolder.resolve("missing.snapshot"))
+            .readRecipeBook().isPresent());
+    }
+
+    @Test
+    public void read_invalidFiles_throwsDataConversionException() throws Exception {
+        var path = this.testFolder.resolve("recipes.snapshot");
+
+        // not a snapshot at all
+        FileUtil.writeToFile(path, "{ \"recipes\": [] }");
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeBookStorage(path).readRecipeBook());
+
+        // wrong kind of snapshot
+        new BinaryIngredientBookStorage(path).saveIngredientBook(getTypicalIngredientBook());
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeBookStorage(path).readRecipeBook());
+
+        // truncated snapshot
+        new BinaryRecipeBookStorage(path).saveRecipeBook(getTypicalRecipeBook());
+        var bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeBookStorage(path).readRecipeBook());
+    }
+
+    @Test
+    public void read_invalidDates_throwsDataConversionException() throws Exception {
+        var path = this.testFolder.resolve("recipeusage.snapshot");
+
+        // dates out of range must fail like any other corruption, rather than with an unchecked exception.
+        BinarySnapshot.write(path, BinarySnapshot.Kind.RECIPE_USAGES, List.of("salad"), (out, name) -> {
+            out.writeString(name);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeVarInt(0);
+        });
+        assertThrows(DataConversionException.class, () -> new BinaryRecipeUsageStorage(path).readUsages());
+
+        var ingredientPath = this.testFolder.resolve("ingredients.snapshot");
+        BinarySnapshot.write(ingredientPath, BinarySnapshot.Kind.INGREDIENTS, List.of("Salt"), (out, name) -> {
+            out.writeString(name);
+            out.writeVarInt(1);
+            out.writeBoolean(true);
+            out.writeLong(Long.MIN_VALUE);
+        });
+        assertThrows(DataConversionException.class, () -> new BinaryIngredientBookStorage(ingredientPath)
+            .readIngredientBook());
+    }
+
+    @Test
+    public void convert_jsonToSnapshotAndBack_identicalJson() throws Exception {
+        var json = this.testFolder.resolve("recipebook.json");
+        var snapshot = BinarySnapshot.getSnapshotPath(json);
+        var roundTrip = this.testFolder.resolve("roundtrip.json");
+
+        new JsonRecipeBookStorage(json).saveRecipeBook(getTypicalRecipeBook());
+        SnapshotConverter.toSnapshot(BinarySnapshot.Kind.RECIPES, json, snapshot);
+        SnapshotConverter.toJson(BinarySnapshot.Kind.RECIPES, snapshot, roundTrip);
+
+        assertEquals(FileUtil.readFromFile(json), FileUtil.readFromFile(roundTrip));
+    }
+
+    @Test
+    public void isUpToDateWith_jsonChangedAfterConversion_false() throws Exception {
+        var json = this.testFolder.resolve("ingredientbook.json");
+        var snapshot = BinarySnapshot.getSnapshotPath(json);
+
+        new JsonIngredientBookStorage(json).saveIngredientBook(getTypicalIngredientBook());
+        Files.setLastModifiedTime(json, FileTime.fromMillis(1_000_000));
+        SnapshotConverter.toSnapshot(BinarySnapshot.Kind.INGREDIENTS, json, snapshot);
+        assertTrue(BinarySnapshot.isUpToDateWith(snapshot, json));
+
+        // saving to the snapshot does not make it any less up to date with the json file.
+        new BinaryIngredientBookStorage(snapshot).saveIngredientBook(new EntryBook<>());
+        assertTrue(BinarySnapshot.isUpToDateWith(snapshot, json));
+
+        // but changing the json file does, even if its modification time goes backwards.
+        Files.setLastModifiedTime(json, FileTime.fromMillis(500_000));
+        assertFalse(BinarySnapshot.isUpToDateWith(snapshot, json));
+
+        Files.delete(json);
+        assertTrue(BinarySnapshot.isUpToDateWith(snapshot, json));
+    }
+
+    @Test
+    public void convert_missingInput_throwsDataConversionException() {
+        assertThrows(DataConversionException.class, () -> SnapshotConverter.toSnapshot(
+            BinarySnapshot.Kind.INGREDIENTS, this.testFolder.resolve("missing.json"),
+            this.testFolder.resolve("missing.snapshot")));
+    }
+}
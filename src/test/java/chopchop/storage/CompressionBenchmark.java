@@ -0,0 +1,140 @@
+// CompressionBenchmark.java
+
+package chopchop.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.JsonUtil;
+import chopchop.model.attributes.Quantity;
+import chopchop.model.attributes.Step;
+import chopchop.model.attributes.Tag;
+import chopchop.model.ingredient.IngredientReference;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.RecipeUsage;
+
+/**
+ * Compares the load and save throughput (and file size) of plain and gzip-compressed json data files,
+ * for a few sizes of recipe book and usage list. This is not a unit test; run it manually with
+ * <pre>
+ *   java -cp (test classpath) chopchop.storage.CompressionBenchmark [sizes...]
+ * </pre>
+ */
+public class CompressionBenchmark {
+    private static final int[] DEFAULT_SIZES = { 1_000, 10_000, 50_000 };
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Entry point for the benchmark.
+     */
+    public static void main(String[] args) throws Exception {
+        var sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        var folder = Files.createTempDirectory("chopchop-bench");
+        System.out.printf("%-10s %8s %11s %11s %11s %11s%n",
+            "file", "entries", "size (kB)", "save (ms)", "load (ms)", "load (MB/s)");
+
+        for (var size : sizes) {
+            var recipes = makeRecipes(size);
+            var usages = makeUsages(size);
+
+            for (var compress : new boolean[] { false, true }) {
+                run("recipes", folder.resolve("recipes.json"), size, compress,
+                    path -> JsonUtil.saveJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES, recipes,
+                        Function.identity(), compress, JsonModelModule.getObjectMapper()),
+                    path -> JsonUtil.readJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES,
+                        JsonModelModule.readerFor(Recipe.class, false), r -> { }));
+
+                run("usages", folder.resolve("usages.json"), size, compress,
+                    path -> JsonUtil.saveJsonArrayFile(path, JsonSerializableRecipeUsageList.FIELD_USAGES, usages,
+                        Function.identity(), compress, JsonModelModule.getObjectMapper()),
+                    path -> JsonUtil.readJsonArrayFile(path, JsonSerializableRecipeUsageList.FIELD_USAGES,
+                        JsonModelModule.readerFor(RecipeUsage.class, false), u -> { }));
+            }
+        }
+    }
+
+    private static void run(String what, Path path, int size, boolean compress, Action save, Action load)
+            throws Exception {
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            save.run(path);
+            load.run(path);
+        }
+
+        long saveNanos = 0;
+        long loadNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            var start = System.nanoTime();
+            save.run(path);
+            saveNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            load.run(path);
+            loadNanos += System.nanoTime() - start;
+        }
+
+        var bytes = Files.size(path);
+        var loadMillis = loadNanos / 1e6 / ROUNDS;
+
+        System.out.printf("%-10s %8d %11.1f %11.1f %11.1f %11.1f%n", what + (compress ? ".gz" : ""), size,
+            bytes / 1024.0, saveNanos / 1e6 / ROUNDS, loadMillis, (bytes / 1e6) / (loadMillis / 1e3));
+
+        Files.delete(path);
+    }
+
+    private static List<Recipe> makeRecipes(int count) {
+        var units = new String[] { "g", "ml", "cups", "tbsp", "" };
+        var tags = List.of(new Tag("dinner"), new Tag("quick"), new Tag("vegetarian"), new Tag("dessert"));
+
+        var recipes = new ArrayList<Recipe>(count);
+        for (int i = 0; i < count; i++) {
+            var ingredients = new ArrayList<IngredientReference>();
+            for (int k = 0; k < 1 + i % 6; k++) {
+                ingredients.add(new IngredientReference("ingredient " + (i * 7 + k) % 500,
+                    Quantity.parse(String.format("%d%s", 1 + k * 50, units[k % units.length])).getValue()));
+            }
+
+            var steps = new ArrayList<Step>();
+            for (int k = 0; k < 1 + i % 5; k++) {
+                steps.add(new Step(String.format("Step %d: mix the ingredients and cook for %d minutes.",
+                    k + 1, 5 + (i + k) % 30)));
+            }
+
+            recipes.add(new Recipe("recipe " + i, ingredients, steps,
+                Set.of(tags.get(i % tags.size()), tags.get((i + 1) % tags.size()))));
+        }
+
+        return recipes;
+    }
+
+    private static List<RecipeUsage> makeUsages(int count) {
+        var start = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+        var usages = new ArrayList<RecipeUsage>(count);
+        for (int i = 0; i < count; i++) {
+            usages.add(new RecipeUsage("recipe " + (i % 997), start.plusMinutes(i * 37L)));
+        }
+
+        return usages;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run(Path path) throws IOException, DataConversionException;
+    }
+}
@@ -0,0 +1,134 @@
+// InputHistoryLogTest.java
+
+package chopchop.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.logic.history.HistoryManager;
+
+public class InputHistoryLogTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void read_missingFile_empty() {
+        var log = new InputHistoryLog(this.testFolder.resolve("history.log"), 10);
+        assertTrue(log.read().isEmpty());
+    }
+
+    @Test
+    public void append_thenRead_sameInputs() {
+        var path = this.testFolder.resolve("history.log");
+        var log = new InputHistoryLog(path, 10);
+        log.read();
+
+        var inputs = List.of("add recipe pancakes", "find \\/ step\\", "two\nlines", "löffel");
+        inputs.forEach(log::append);
+
+        assertEquals(inputs, new InputHistoryLog(path, 10).read());
+    }
+
+    @Test
+    public void append_pastCapacity_keepsLatestBounded() throws Exception {
+        var path = this.testFolder.resolve("history.log");
+        var log = new InputHistoryLog(path, 5);
+        log.read();
+
+        var inputs = new ArrayList<String>();
+        for (int i = 0; i < 23; i++) {
+            inputs.add("list recipes " + i);
+            log.append("list recipes " + i);
+        }
+
+        // the file never holds more than twice the capacity.
+        assertTrue(Files.readAllLines(path).size() <= 10);
+        assertEquals(inputs.subList(18, 23), new InputHistoryLog(path, 5).read());
+    }
+
+    @Test
+    public void read_largeLog_readsTailAndCompacts() throws Exception {
+        var path = this.testFolder.resolve("history.log");
+
+        var sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("add ingredient milk /qty ").append(i).append("ml\n");
+        }
+        // a line that was not completely written is dropped.
+        sb.append("add ingredient eg");
+        Files.writeString(path, sb.toString(), StandardCharsets.UTF_8);
+
+        var lines = new InputHistoryLog(path, HistoryManager.INPUT_HISTORY_SIZE).read();
+        assertEquals(HistoryManager.INPUT_HISTORY_SIZE, lines.size());
+        assertEquals("add ingredient milk /qty 4000ml", lines.get(0));
+        assertEquals("add ingredient milk /qty 4999ml", lines.get(lines.size() - 1));
+
+        assertEquals(HistoryManager.INPUT_HISTORY_SIZE, Files.readAllLines(path).size());
+    }
+
+    @Test
+    public void read_repeatedInputs_keepsLatestDistinct() throws Exception {
+        var path = this.testFolder.resolve("history.log");
+        Files.writeString(path, "a\nb\nc\na\nd\na\na\nc\n", StandardCharsets.UTF_8);
+
+        // like the trie, each input is only kept at the last time it was entered.
+        assertEquals(List.of("b", "d", "a", "c"), new InputHistoryLog(path, 10).read());
+        assertEquals(List.of("d", "a", "c"), new InputHistoryLog(path, 3).read());
+
+        // the older inputs are compacted away, along with the repeats.
+        assertEquals(List.of("d", "a", "c"), Files.readAllLines(path));
+    }
+
+    @Test
+    public void append_repeatedInputs_compactsToDistinct() throws Exception {
+        var path = this.testFolder.resolve("history.log");
+        var log = new InputHistoryLog(path, 5);
+        log.read();
+
+        for (int i = 0; i < 5; i++) {
+            log.append("list recipes " + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            log.append("list ingredients");
+        }
+
+        assertTrue(Files.readAllLines(path).size() <= 10);
+        assertEquals(List.of("list recipes 1", "list recipes 2", "list recipes 3", "list recipes 4",
+            "list ingredients"), new InputHistoryLog(path, 5).read());
+    }
+
+    @Test
+    public void read_linesAcrossBlocks_readsWholeLines() throws Exception {
+        var path = this.testFolder.resolve("history.log");
+        var log = new InputHistoryLog(path, 10);
+        log.read();
+
+        var inputs = List.of("add recipe " + "ä".repeat(5000), "list recipes", "add recipe " + "b".repeat(20000));
+        inputs.forEach(log::append);
+
+        assertEquals(inputs, new InputHistoryLog(path, 10).read());
+    }
+
+    @Test
+    public void historyManager_restart_recallsInputs() {
+        var path = this.testFolder.resolve("history.log");
+
+        var first = new HistoryManager(HistoryManager.DEFAULT_MEMORY_BUDGET, new InputHistoryLog(path, 10));
+        first.addInput("list recipes");
+        first.addInput("undo");
+
+        var second = new HistoryManager(HistoryManager.DEFAULT_MEMORY_BUDGET, new InputHistoryLog(path, 10));
+        assertEquals(List.of("undo", "list recipes"), second.getInputHistory());
+        assertEquals(List.of("undo"), second.getInputHistory("u"));
+    }
+}
@@ -0,0 +1,171 @@
+// JsonChecksumFileTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
+import chopchop.commons.util.Pair;
+import chopchop.model.EntryBook;
+import chopchop.model.recipe.Recipe;
+
+public class JsonChecksumFileTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void save_writesChecksumFile_trustedOnRead() throws Exception {
+        var path = this.testFolder.resolve("recipes.json");
+        var storage = new JsonRecipeBookStorage(path);
+        var original = getTypicalRecipeBook();
+
+        storage.saveRecipeBook(original);
+        assertTrue(Files.exists(JsonChecksumFile.getChecksumPath(path)));
+
+        var trusted = readRecipes(path);
+        assertEquals(original.getEntryList(), trusted.fst());
+        assertEquals(0, trusted.snd());
+
+        var readBack = storage.readRecipeBook().get();
+        assertEquals(original.getEntryList(), new EntryBook<>(readBack).getEntryList());
+    }
+
+    @Test
+    public void read_modifiedFile_untrustedButLoads() throws Exception {
+        var path = this.testFolder.resolve("recipes.json");
+        var storage = new JsonRecipeBookStorage(path);
+        var original = getTypicalRecipeBook();
+
+        storage.saveRecipeBook(original);
+        FileUtil.writeToFile(path, FileUtil.readFromFile(path) + "\n");
+
+        var readBack = storage.readRecipeBook().get();
+        assertEquals(original.getEntryList(), new EntryBook<>(readBack).getEntryList());
+
+        // a missing checksum file is also not trusted.
+        Files.delete(JsonChecksumFile.getChecksumPath(path));
+        assertEquals(original.getEntryList(), readRecipes(path).fst());
+    }
+
+    @Test
+    public void read_modifiedFileSameSize_trustedReadDiscarded() throws Exception {
+        var path = this.testFolder.resolve("recipes.json");
+        var original = getTypicalRecipeBook();
+        new JsonRecipeBookStorage(path).saveRecipeBook(original);
+
+        // the size still matches, so the recipes are handed on before the checksum is found not to match.
+        FileUtil.writeToFile(path, FileUtil.readFromFile(path).replace("Cut the apricot", "Cut the APRICOT"));
+
+        var read = readRecipes(path);
+        assertEquals(1, read.snd());
+        assertEquals(original.getEntryList().size(), read.fst().size());
+        assertEquals("Cut the APRICOT, add salad dressing, and mix well in a bowl.",
+            read.fst().get(0).getSteps().get(0).toString());
+    }
+
+    @Test
+    public void read_modifiedFileSameSize_validatedInFull() throws Exception {
+        var path = this.testFolder.resolve("recipes.json");
+        new JsonRecipeBookStorage(path).saveRecipeBook(getTypicalRecipeBook());
+
+        // the size still matches the checksum file, so this is only caught by the checksum.
+        var json = FileUtil.readFromFile(path);
+        var name = "\"" + getTypicalRecipeBook().getEntryList().get(0).getName() + "\"";
+        FileUtil.writeToFile(path, json.replace(name, "\"" + " ".repeat(name.length() - 2) + "\""));
+
+        var e = assertThrows(DataConversionException.class, () -> new JsonRecipeBookStorage(path).readRecipeBook());
+        assertTrue(e.getCause().getMessage().startsWith("Entry 1 (line "), e.getCause().getMessage());
+    }
+
+    @Test
+    public void readJsonArrayFile_withChecksum_matchesFileChecksum() throws Exception {
+        for (var compress : new boolean[] { false, true }) {
+            var path = this.testFolder.resolve(compress ? "recipes.json.gz" : "recipes.json");
+            new JsonRecipeBookStorage(path, compress).saveRecipeBook(getTypicalRecipeBook());
+
+            var checksum = new CRC32();
+            JsonUtil.readJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES,
+                JsonModelModule.readerFor(Recipe.class, false), checksum, recipe -> { });
+            assertEquals(FileUtil.checksum(path), FileUtil.formatChecksum(checksum));
+        }
+    }
+
+    @Test
+    public void read_invalidEntry_reportsEntryAndLine() throws Exception {
+        var path = this.testFolder.resolve("ingredients.json");
+        var entry = "    { \"name\": \"%s\", \"sets\": { \"sets\": [ { \"quantity\": \"%s\", "
+            + "\"expiryDate\": \"\" } ] }, \"tags\": [] }";
+
+        FileUtil.writeToFile(path, "{\n  \"ingredients\": [\n"
+            + String.format(entry, "flour", "200g") + ",\n"
+            + String.format(entry, "sugar", "3 furlongs") + "\n"
+            + "  ]\n}\n");
+
+        var e = assertThrows(DataConversionException.class, () -> new JsonIngredientBookStorage(path)
+            .readIngredientBook());
+        assertTrue(e.getCause().getMessage().startsWith("Entry 2 (line 4)"), e.getCause().getMessage());
+    }
+
+    @Test
+    public void read_consumerError_reportsEntryAndLine() throws Exception {
+        var path = this.testFolder.resolve("recipes.json");
+        new JsonRecipeBookStorage(path).saveRecipeBook(getTypicalRecipeBook());
+
+        // errors from the consumer are reported the same way whether the file is trusted or not.
+        var count = new AtomicInteger();
+        var e = assertThrows(DataConversionException.class, () -> JsonChecksumFile.readJsonArrayFile(path,
+            JsonSerializableRecipeBook.FIELD_RECIPES, Recipe.class, recipe -> {
+                if (count.incrementAndGet() == 2) {
+                    throw new IllegalValueException("bad recipe");
+                }
+            }, () -> count.set(0)));
+        assertTrue(e.getCause().getMessage().matches("Entry 2 \\(line \\d+\\): bad recipe"),
+            e.getCause().getMessage());
+    }
+
+    @Test
+    public void save_compressed_trustedOnRead() throws Exception {
+        var path = this.testFolder.resolve("recipes.json.gz");
+        var storage = new JsonRecipeBookStorage(path, /* compress: */ true);
+        var original = getTypicalRecipeBook();
+
+        storage.saveRecipeBook(original);
+        var trusted = readRecipes(path);
+        assertEquals(original.getEntryList(), trusted.fst());
+        assertEquals(0, trusted.snd());
+        assertEquals(original.getEntryList(), new EntryBook<>(storage.readRecipeBook().get()).getEntryList());
+    }
+
+    /**
+     * Reads the recipes in the file at {@code path}, and returns them along with the number of times that
+     * the recipes handed on by a trusted read were discarded.
+     */
+    private static Pair<List<Recipe>, Integer> readRecipes(Path path) throws DataConversionException {
+        var recipes = new ArrayList<Recipe>();
+        var resets = new AtomicInteger();
+        JsonChecksumFile.readJsonArrayFile(path, JsonSerializableRecipeBook.FIELD_RECIPES, Recipe.class,
+            recipes::add, () -> {
+                resets.incrementAndGet();
+                recipes.clear();
+            });
+
+        return Pair.of(recipes, resets.get());
+    }
+}
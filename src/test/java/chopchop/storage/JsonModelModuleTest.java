@@ -0,0 +1,135 @@
+// JsonModelModuleTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredients;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipes;
+import static chopchop.testutil.TypicalUsages.getIngredientList;
+import static chopchop.testutil.TypicalUsages.getRecipeList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import chopchop.commons.exceptions.IllegalValueException;
+import chopchop.commons.util.JsonUtil;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.IngredientUsage;
+import chopchop.model.usage.RecipeUsage;
+
+public class JsonModelModuleTest {
+
+    @Test
+    public void serialise_sameAsAdaptedClasses() throws Exception {
+        for (var recipe : getTypicalRecipes()) {
+            assertEquals(JsonUtil.toJsonString(new JsonAdaptedRecipe(recipe)), toJson(recipe));
+        }
+
+        for (var ingredient : getTypicalIngredients()) {
+            assertEquals(JsonUtil.toJsonString(new JsonAdaptedIngredient(ingredient)),
+                toJson(ingredient));
+        }
+
+        for (var usage : getRecipeList()) {
+            assertEquals(JsonUtil.toJsonString(new JsonAdaptedRecipeUsage(usage)), toJson(usage));
+        }
+
+        for (var usage : getIngredientList()) {
+            assertEquals(JsonUtil.toJsonString(new JsonAdaptedIngredientUsage(usage)),
+                toJson(usage));
+        }
+    }
+
+    @Test
+    public void deserialise_roundTrip_success() throws Exception {
+        for (var recipe : getTypicalRecipes()) {
+            assertEquals(recipe, fromJson(toJson(recipe), Recipe.class));
+        }
+
+        for (var ingredient : getTypicalIngredients()) {
+            assertEquals(ingredient, fromJson(toJson(ingredient), Ingredient.class));
+        }
+
+        for (var usage : getRecipeList()) {
+            assertEquals(usage, fromJson(toJson(usage), RecipeUsage.class));
+        }
+
+        for (var usage : getIngredientList()) {
+            assertEquals(usage, fromJson(toJson(usage), IngredientUsage.class));
+        }
+    }
+
+    @Test
+    public void deserialise_invalidRecipes_sameErrorsAsAdaptedClasses() {
+        assertSameError("{ \"ingredients\": [], \"steps\": [], \"tags\": [] }", Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \" \", \"ingredients\": [], \"steps\": [], \"tags\": [] }",
+            Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \"a\", \"steps\": [], \"tags\": [] }", Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \"a\", \"ingredients\": [ { \"name\": \"b\" } ], \"steps\": [], \"tags\": [] }",
+            Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \"a\", \"ingredients\": [ { \"name\": \"b\", \"quantity\": \"3 furlongs\" } ],"
+            + " \"steps\": [], \"tags\": [] }", Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \"a\", \"ingredients\": [], \"tags\": [] }",
+            Recipe.class, JsonAdaptedRecipe.class);
+        assertSameError("{ \"name\": \"a\", \"ingredients\": [], \"steps\": [] }",
+            Recipe.class, JsonAdaptedRecipe.class);
+    }
+
+    @Test
+    public void deserialise_invalidIngredients_sameErrorsAsAdaptedClasses() {
+        assertSameError("{ \"sets\": { \"sets\": [] }, \"tags\": [] }", Ingredient.class, JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"tags\": [] }", Ingredient.class, JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"sets\": {}, \"tags\": [] }", Ingredient.class,
+            JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"sets\": { \"sets\": [] } }", Ingredient.class,
+            JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"sets\": { \"sets\": [ { \"expiryDate\": \"\" } ] }, \"tags\": [] }",
+            Ingredient.class, JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"sets\": { \"sets\": [ { \"quantity\": \"1\" } ] }, \"tags\": [] }",
+            Ingredient.class, JsonAdaptedIngredient.class);
+        assertSameError("{ \"name\": \"a\", \"sets\": { \"sets\": [ { \"quantity\": \"1\", \"expiryDate\": \"x\" } ] },"
+            + " \"tags\": [] }", Ingredient.class, JsonAdaptedIngredient.class);
+    }
+
+    @Test
+    public void deserialise_invalidUsages_sameErrorsAsAdaptedClasses() {
+        assertSameError("{ \"date\": \"2020-10-28T18:49:10\" }", RecipeUsage.class, JsonAdaptedRecipeUsage.class);
+        assertSameError("{ \"name\": \"a\" }", RecipeUsage.class, JsonAdaptedRecipeUsage.class);
+        assertSameError("{ \"name\": \"a\", \"date\": \"2020-10-28T18:49:10\" }", IngredientUsage.class,
+            JsonAdaptedIngredientUsage.class);
+        assertSameError("{ \"name\": \"a\", \"date\": \"2020-10-28T18:49:10\", \"qty\": \"3 furlongs\" }",
+            IngredientUsage.class, JsonAdaptedIngredientUsage.class);
+    }
+
+    private void assertSameError(String json, Class<?> modelClass, Class<?> adaptedClass) {
+        var expected = assertThrows(IllegalValueException.class, () -> toModelType(json, adaptedClass));
+
+        var actual = assertThrows(JsonMappingException.class, () -> fromJson(json, modelClass));
+        assertEquals(expected.getMessage(), actual.getCause().getMessage());
+    }
+
+    private static void toModelType(String json, Class<?> adaptedClass) throws Throwable {
+        try {
+            var adapted = JsonUtil.fromJsonString(json, adaptedClass);
+            adaptedClass.getMethod("toModelType").invoke(adapted);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String toJson(Object value) throws IOException {
+        return JsonUtil.toJsonString(value, JsonModelModule.getObjectMapper());
+    }
+
+    private static <T> T fromJson(String json, Class<T> valueClass) throws IOException {
+        return JsonUtil.fromJsonString(json, valueClass, JsonModelModule.getObjectMapper());
+    }
+}
@@ -6,6 +6,7 @@ import static chopchop.testutil.TypicalRecipes.CUSTARD_SALAD;
 import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -17,6 +18,8 @@ import chopchop.model.recipe.Recipe;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.commons.util.JsonUtil;
 
 public class JsonRecipeBookStorageTest {
     private static final Path TEST_DATA_FOLDER = Paths.get("src", "test", "data", "JsonRecipeBookStorageTest");
@@ -88,6 +91,40 @@ public class JsonRecipeBookStorageTest {
 
     }
 
+    @Test
+    public void saveRecipeBook_streamed_sameFormatAsSerializableBook() throws Exception {
+        Path filePath = testFolder.resolve("TempRecipeBook.json");
+        EntryBook<Recipe> original = getTypicalRecipeBook();
+
+        new JsonRecipeBookStorage(filePath).saveRecipeBook(original);
+        assertEquals(JsonUtil.toJsonString(new JsonSerializableRecipeBook(original)) + String.format("%n"),
+            FileUtil.readFromFile(filePath));
+    }
+
+    @Test
+    public void readAndSaveRecipeBook_compressed_success() throws Exception {
+        Path filePath = testFolder.resolve("TempRecipeBook.json");
+        EntryBook<Recipe> original = getTypicalRecipeBook();
+
+        new JsonRecipeBookStorage(filePath, /* compress: */ true).saveRecipeBook(original);
+        assertTrue(FileUtil.isCompressed(filePath));
+
+        // compression is detected on read, regardless of how the storage was constructed.
+        assertEquals(original, new EntryBook<>(new JsonRecipeBookStorage(filePath).readRecipeBook().get()));
+
+        new JsonRecipeBookStorage(filePath, /* compress: */ false).saveRecipeBook(original);
+        assertFalse(FileUtil.isCompressed(filePath));
+        assertEquals(original, new EntryBook<>(new JsonRecipeBookStorage(filePath, true).readRecipeBook().get()));
+    }
+
+    @Test
+    public void readRecipeBook_missingRecipesField_throwDataConversionException() throws Exception {
+        Path filePath = testFolder.resolve("TempRecipeBook.json");
+        FileUtil.writeToFile(filePath, "{ \"ingredients\": [] }");
+
+        assertThrows(DataConversionException.class, () -> new JsonRecipeBookStorage(filePath).readRecipeBook());
+    }
+
     @Test
     public void saveRecipeBook_nullRecipeBook_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> saveRecipeBook(null, "SomeFile.json"));
@@ -0,0 +1,157 @@
+// ShardedRecipeBookStorageTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.Assert.assertThrows;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.commons.util.FileUtil;
+import chopchop.model.EntryBook;
+import chopchop.model.attributes.Step;
+import chopchop.model.recipe.Recipe;
+
+public class ShardedRecipeBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void getManifestPath_replacesJsonFileWithFolder() {
+        assertEquals(Paths.get("data", "recipebook", "manifest.json"),
+            ShardedRecipeBookStorage.getManifestPath(Paths.get("data", "recipebook.json")));
+    }
+
+    @Test
+    public void readAndSave_manyRecipes_sameBookInSameOrder() throws Exception {
+        var path = this.testFolder.resolve("recipes").resolve("manifest.json");
+        var storage = new ShardedRecipeBookStorage(path, 4, /* compress: */ false);
+
+        var original = makeBook(50);
+        storage.saveRecipeBook(original);
+        assertEquals(original, new EntryBook<>(storage.readRecipeBook().get()));
+
+        // a different segment count still reads the book, and re-shards it when saving.
+        var other = new ShardedRecipeBookStorage(path, 7, /* compress: */ true);
+        var book = new EntryBook<>(other.readRecipeBook().get());
+        assertEquals(original, book);
+
+        other.saveRecipeBook(book);
+        assertEquals(original, new EntryBook<>(new ShardedRecipeBookStorage(path).readRecipeBook().get()));
+    }
+
+    @Test
+    public void saveRecipeBook_oneRecipeEdited_onlyItsSegmentRewritten() throws Exception {
+        var path = this.testFolder.resolve("manifest.json");
+        var storage = new ShardedRecipeBookStorage(path, 8, /* compress: */ false);
+
+        var book = makeBook(40);
+        storage.saveRecipeBook(book);
+
+        var before = this.listSegments();
+        assertEquals(8, before.size());
+
+        var target = book.getEntryList().get(17);
+        book.set(target, new Recipe(target.getName(), target.getIngredients(),
+            List.of(new Step("Stir it again.")), target.getTags()));
+        storage.saveRecipeBook(book);
+
+        // the changed segment is written to a new file, and the one it replaced is deleted.
+        var after = this.listSegments();
+        assertEquals(8, after.size());
+
+        var prefix = String.format("segment-%02d.", ShardedRecipeBookStorage.getSegment(target, 8));
+        for (var segment : before) {
+            assertEquals(!segment.startsWith(prefix), after.contains(segment));
+        }
+
+        assertEquals(book, new EntryBook<>(new ShardedRecipeBookStorage(path).readRecipeBook().get()));
+    }
+
+    @Test
+    public void saveRecipeBook_fewerSegments_oldSegmentsDeleted() throws Exception {
+        var path = this.testFolder.resolve("manifest.json");
+        var book = makeBook(20);
+        new ShardedRecipeBookStorage(path, 8, /* compress: */ false).saveRecipeBook(book);
+
+        // a segment left behind by a save that did not finish.
+        FileUtil.writeToFile(path.resolveSibling("segment-03.1.json"), "{ \"recipes\": [] }");
+
+        var storage = new ShardedRecipeBookStorage(path, 2, /* compress: */ false);
+        storage.saveRecipeBook(new EntryBook<>(storage.readRecipeBook().get()));
+
+        assertEquals(2, this.listSegments().size());
+        assertEquals(book, new EntryBook<>(new ShardedRecipeBookStorage(path).readRecipeBook().get()));
+    }
+
+    @Test
+    public void read_segmentChecksumMismatch_throwsDataConversionException() throws Exception {
+        var path = this.testFolder.resolve("manifest.json");
+        new ShardedRecipeBookStorage(path, 1, false).saveRecipeBook(getTypicalRecipeBook());
+
+        // a segment that is still valid json with the right number of recipes, but not the one that was saved.
+        var segment = this.testFolder.resolve(this.listSegments().get(0));
+        FileUtil.writeToFile(segment, FileUtil.readFromFile(segment).replace("\"steps\"", "\"steps\" "));
+        assertThrows(DataConversionException.class, () -> new ShardedRecipeBookStorage(path).readRecipeBook());
+    }
+
+    @Test
+    public void read_missingManifest_emptyResult() throws Exception {
+        assertFalse(new ShardedRecipeBookStorage(this.testFolder.resolve("manifest.json"))
+            .readRecipeBook().isPresent());
+    }
+
+    @Test
+    public void read_missingOrInvalidSegment_throwsDataConversionException() throws Exception {
+        var path = this.testFolder.resolve("manifest.json");
+        new ShardedRecipeBookStorage(path, 1, false).saveRecipeBook(getTypicalRecipeBook());
+
+        var segment = this.testFolder.resolve(this.listSegments().get(0));
+        Files.delete(segment);
+        assertThrows(DataConversionException.class, () -> new ShardedRecipeBookStorage(path).readRecipeBook());
+
+        // a segment with fewer recipes than the manifest says.
+        FileUtil.writeToFile(segment, "{ \"recipes\": [] }");
+        assertThrows(DataConversionException.class, () -> new ShardedRecipeBookStorage(path).readRecipeBook());
+
+        // a manifest that refers outside of its folder.
+        FileUtil.writeToFile(path, "{ \"segments\": [ { \"file\": \"../x.json\", \"checksum\": \"0\", "
+            + "\"count\": 0 } ], \"order\": \"\" }");
+        assertThrows(DataConversionException.class, () -> new ShardedRecipeBookStorage(path).readRecipeBook());
+    }
+
+    private List<String> listSegments() throws IOException {
+        try (var files = Files.list(this.testFolder)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith("segment-"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static EntryBook<Recipe> makeBook(int count) {
+        var book = new EntryBook<Recipe>();
+        for (int i = 0; i < count; i++) {
+            var templates = getTypicalRecipeBook().getEntryList();
+            var template = templates.get(i % templates.size());
+            book.add(new Recipe("recipe " + i, template.getIngredients(), new ArrayList<>(template.getSteps()),
+                Set.copyOf(template.getTags())));
+        }
+
+        return book;
+    }
+}
@@ -0,0 +1,248 @@
+// SqlStorageTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.Assert.assertThrows;
+import static chopchop.testutil.TypicalIngredients.getTypicalIngredientBook;
+import static chopchop.testutil.TypicalRecipes.getTypicalRecipeBook;
+import static chopchop.testutil.TypicalUsages.getIngredientUsageList;
+import static chopchop.testutil.TypicalUsages.getRecipeUsageList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.commons.exceptions.DataConversionException;
+import chopchop.model.EntryBook;
+import chopchop.model.ReadOnlyEntryBook;
+import chopchop.model.UsageList;
+import chopchop.model.attributes.Step;
+import chopchop.model.ingredient.Ingredient;
+import chopchop.model.recipe.Recipe;
+import chopchop.model.usage.RecipeUsage;
+
+public class SqlStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private SqlDatabase database;
+
+    @BeforeEach
+    public void setUp() {
+        this.database = new SqlDatabase(this.testFolder.resolve("chopchop"));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void read_newDatabase_emptyResult() throws Exception {
+        assertFalse(this.database.exists());
+        assertFalse(new SqlRecipeBookStorage(this.database).readRecipeBook().isPresent());
+        assertFalse(new SqlRecipeUsageStorage(this.database).readUsages().isPresent());
+    }
+
+    @Test
+    public void readAndSave_allData_success() throws Exception {
+        var storage = StorageManager.forDatabase(this.database, new JsonUserPrefsStorage(
+            this.testFolder.resolve("prefs.json")));
+
+        storage.saveRecipeBook(getTypicalRecipeBook());
+        storage.saveIngredientBook(getTypicalIngredientBook());
+        storage.saveRecipeUsages(getRecipeUsageList());
+        storage.saveIngredientUsages(getIngredientUsageList());
+        assertTrue(this.database.exists());
+        this.database.close();
+
+        // a fresh set of storages, so that nothing is remembered from the saves.
+        var other = StorageManager.forDatabase(this.database, new JsonUserPrefsStorage(
+            this.testFolder.resolve("prefs.json")));
+
+        assertEquals(getTypicalRecipeBook(), new EntryBook<>(other.readRecipeBook().get()));
+        assertEquals(getTypicalIngredientBook(), new EntryBook<>(other.readIngredientBook().get()));
+        assertEquals(getRecipeUsageList().getUsageList(), other.readRecipeUsages().get().getUsageList());
+        assertEquals(getIngredientUsageList().getUsageList(), other.readIngredientUsages().get().getUsageList());
+    }
+
+    @Test
+    public void runInTransaction_failedSave_nothingSaved() throws Exception {
+        var storage = StorageManager.forDatabase(this.database, new JsonUserPrefsStorage(
+            this.testFolder.resolve("prefs.json")));
+
+        storage.saveRecipeBook(getTypicalRecipeBook());
+        storage.saveIngredientBook(getTypicalIngredientBook());
+
+        var book = new EntryBook<>(getTypicalRecipeBook());
+        book.remove(book.getEntryList().get(0));
+
+        assertThrows(IOException.class, () -> storage.runInTransaction(() -> {
+            storage.saveRecipeBook(book);
+            storage.saveIngredientBook(new EntryBook<>());
+            throw new IOException("disk on fire");
+        }));
+
+        assertEquals(getTypicalRecipeBook(),
+            new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+        assertEquals(getTypicalIngredientBook(),
+            new EntryBook<>(new SqlIngredientBookStorage(this.database).readIngredientBook().get()));
+
+        // the storage must not think that the rolled back rows were saved.
+        storage.runInTransaction(() -> storage.saveRecipeBook(book));
+        assertEquals(book, new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+    }
+
+    @Test
+    public void saveRecipeBook_incrementalChanges_sameAsFullSave() throws Exception {
+        var storage = new SqlRecipeBookStorage(this.database);
+        var book = new EntryBook<>(getTypicalRecipeBook());
+        storage.saveRecipeBook(book);
+
+        var first = book.getEntryList().get(0);
+        var edited = new Recipe(first.getName(), first.getIngredients(), List.of(new Step("Just eat it.")),
+            first.getTags());
+
+        book.set(first, edited);
+        book.remove(book.getEntryList().get(1));
+        book.add(new Recipe("Xigua Salad", first.getIngredients(), first.getSteps(), first.getTags()));
+        storage.saveRecipeBook(book);
+
+        assertEquals(book, new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+
+        // saving after a read only touches what changed since the read.
+        var reader = new SqlRecipeBookStorage(this.database);
+        var loaded = new EntryBook<>(reader.readRecipeBook().get());
+        loaded.remove(loaded.getEntryList().get(0));
+        reader.saveRecipeBook(loaded);
+
+        assertEquals(loaded, new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+    }
+
+    @Test
+    public void saveUsages_appendAndPop_success() throws Exception {
+        var storage = new SqlRecipeUsageStorage(this.database);
+        var usages = new UsageList<RecipeUsage>(getRecipeUsageList().getUsageList());
+        storage.saveUsages(usages);
+
+        usages.add(new RecipeUsage("new recipe", LocalDateTime.of(2020, 11, 1, 12, 0)));
+        storage.saveUsages(usages);
+        assertEquals(usages.getUsageList(), new SqlRecipeUsageStorage(this.database).readUsages().get()
+            .getUsageList());
+
+        usages.pop("new recipe");
+        storage.saveUsages(usages);
+        assertEquals(usages.getUsageList(), new SqlRecipeUsageStorage(this.database).readUsages().get()
+            .getUsageList());
+    }
+
+    @Test
+    public void migrate_jsonFiles_sameData() throws Exception {
+        var recipes = new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json"));
+        var ingredients = new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json"));
+        var recipeUsages = new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json"));
+        var ingredientUsages = new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json"));
+
+        recipes.saveRecipeBook(getTypicalRecipeBook());
+        ingredients.saveIngredientBook(getTypicalIngredientBook());
+        recipeUsages.saveUsages(getRecipeUsageList());
+
+        DatabaseMigrator.migrate(recipes, ingredients, recipeUsages, ingredientUsages, this.database);
+
+        assertEquals(getTypicalRecipeBook(),
+            new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+        assertEquals(getTypicalIngredientBook(),
+            new EntryBook<>(new SqlIngredientBookStorage(this.database).readIngredientBook().get()));
+        assertEquals(getRecipeUsageList().getUsageList(),
+            new SqlRecipeUsageStorage(this.database).readUsages().get().getUsageList());
+        assertTrue(new SqlIngredientUsageStorage(this.database).readUsages().get().getUsageList().isEmpty());
+    }
+
+    @Test
+    public void migrateToNewDatabase_success_databaseMovedIntoPlace() throws Exception {
+        var recipes = new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json"));
+        recipes.saveRecipeBook(getTypicalRecipeBook());
+
+        DatabaseMigrator.migrateToNewDatabase(recipes,
+            new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json")),
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json")), this.database);
+
+        try (var files = Files.list(this.testFolder)) {
+            assertEquals(List.of(this.database.getFilePath().getFileName().toString()), files
+                .map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SqlDatabase.FILE_EXTENSION))
+                .collect(Collectors.toList()));
+        }
+
+        assertEquals(getTypicalRecipeBook(),
+            new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+    }
+
+    @Test
+    public void migrateToNewDatabase_failsPartWay_noDatabase() throws Exception {
+        var recipes = new JsonRecipeBookStorage(this.testFolder.resolve("recipebook.json"));
+        recipes.saveRecipeBook(getTypicalRecipeBook());
+
+        // the recipes are saved before the ingredients, which then fail.
+        var ingredients = new JsonIngredientBookStorage(this.testFolder.resolve("ingredientbook.json")) {
+            @Override
+            public Optional<ReadOnlyEntryBook<Ingredient>> readIngredientBook() {
+                return Optional.of(() -> {
+                    throw new IllegalStateException("disk on fire");
+                });
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> DatabaseMigrator.migrateToNewDatabase(recipes, ingredients,
+            new JsonRecipeUsageStorage(this.testFolder.resolve("recipeusage.json")),
+            new JsonIngredientUsageStorage(this.testFolder.resolve("ingredientusage.json")), this.database));
+
+        try (var files = Files.list(this.testFolder)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(SqlDatabase.FILE_EXTENSION)));
+        }
+    }
+
+    @Test
+    public void read_invalidRow_throwsDataConversionException() throws Exception {
+        new SqlRecipeBookStorage(this.database).saveRecipeBook(getTypicalRecipeBook());
+        this.database.transaction(conn -> {
+            try (var stmt = conn.createStatement()) {
+                stmt.executeUpdate("UPDATE recipe_steps SET step = ' '");
+            }
+            return null;
+        });
+
+        assertThrows(DataConversionException.class, () -> new SqlRecipeBookStorage(this.database).readRecipeBook());
+    }
+
+    @Test
+    public void transaction_failure_rolledBack() throws Exception {
+        new SqlRecipeBookStorage(this.database).saveRecipeBook(getTypicalRecipeBook());
+
+        assertThrows(SQLException.class, () -> this.database.transaction(conn -> {
+            try (var stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM recipes");
+                stmt.executeUpdate("SELECT * FROM no_such_table");
+            }
+            return null;
+        }));
+
+        assertEquals(getTypicalRecipeBook(),
+            new EntryBook<>(new SqlRecipeBookStorage(this.database).readRecipeBook().get()));
+    }
+}
@@ -0,0 +1,105 @@
+// UndoHistoryLogTest.java
+
+package chopchop.storage;
+
+import static chopchop.testutil.TypicalIngredients.APRICOT;
+import static chopchop.testutil.TypicalRecipes.APRICOT_SALAD;
+import static chopchop.testutil.TypicalRecipes.BANANA_SALAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chopchop.model.ModelChange;
+
+public class UndoHistoryLogTest {
+
+    private static final ModelChange ADD_APRICOT_SALAD = new ModelChange("add recipe apricot salad",
+        new ModelChange.Part<>(List.of(), List.of(APRICOT_SALAD)), ModelChange.Part.empty(),
+        ModelChange.Part.empty(), ModelChange.Part.empty());
+
+    private static final ModelChange ADD_APRICOT = new ModelChange("add ingredient apricot",
+        ModelChange.Part.empty(), new ModelChange.Part<>(List.of(), List.of(APRICOT)),
+        ModelChange.Part.empty(), ModelChange.Part.empty());
+
+    private static final ModelChange EDIT_SALAD = new ModelChange("edit recipe apricot salad",
+        new ModelChange.Part<>(List.of(APRICOT_SALAD), List.of(BANANA_SALAD)), ModelChange.Part.empty(),
+        ModelChange.Part.empty(), ModelChange.Part.empty());
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void read_missingFile_empty() {
+        var saved = new UndoHistoryLog(this.testFolder.resolve("undo.log")).read();
+        assertTrue(saved.fst().isEmpty());
+        assertEquals(0, saved.snd());
+    }
+
+    @Test
+    public void addUndoRedo_thenRead_replaysHistory() {
+        var path = this.testFolder.resolve("undo.log");
+        var log = new UndoHistoryLog(path);
+        log.add(ADD_APRICOT_SALAD);
+        log.add(ADD_APRICOT);
+        log.undo();
+
+        var saved = new UndoHistoryLog(path).read();
+        assertEquals(List.of(ADD_APRICOT_SALAD, ADD_APRICOT), saved.fst());
+        assertEquals(1, saved.snd());
+
+        log.redo(ADD_APRICOT);
+        log.undo();
+        log.undo();
+
+        // adding a change after undoing discards the ones that were undone.
+        log.add(EDIT_SALAD);
+
+        saved = new UndoHistoryLog(path).read();
+        assertEquals(List.of(EDIT_SALAD), saved.fst());
+        assertEquals(1, saved.snd());
+    }
+
+    @Test
+    public void rewrite_keepsOnlyGivenChanges() throws Exception {
+        var path = this.testFolder.resolve("undo.log");
+        var log = new UndoHistoryLog(path);
+        for (int i = 0; i < 10; i++) {
+            log.add(ADD_APRICOT);
+            log.undo();
+        }
+
+        log.rewrite(List.of(ADD_APRICOT_SALAD, EDIT_SALAD), 1);
+        assertEquals(3, log.getEventCount());
+        assertEquals(3, Files.readAllLines(path).size());
+
+        var saved = new UndoHistoryLog(path).read();
+        assertEquals(List.of(ADD_APRICOT_SALAD, EDIT_SALAD), saved.fst());
+        assertEquals(1, saved.snd());
+    }
+
+    @Test
+    public void read_unreadableLine_dropsRest() throws Exception {
+        var path = this.testFolder.resolve("undo.log");
+        var log = new UndoHistoryLog(path);
+        log.add(ADD_APRICOT_SALAD);
+
+        // eg. a line that was only partly written when the app stopped.
+        Files.writeString(path, "{\"type\":\"add\",\"chan\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        log.add(ADD_APRICOT);
+
+        var saved = new UndoHistoryLog(path).read();
+        assertEquals(List.of(ADD_APRICOT_SALAD), saved.fst());
+        assertEquals(1, saved.snd());
+
+        // the log is rewritten without the unreadable line.
+        assertEquals(1, Files.readAllLines(path).size());
+    }
+}
@@ -2,6 +2,7 @@
 
 package chopchop.testutil;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -16,7 +17,7 @@ import chopchop.model.recipe.Recipe;
 import chopchop.model.UsageList;
 import chopchop.model.usage.RecipeUsage;
 import chopchop.model.usage.IngredientUsage;
-import javafx.collections.ObservableList;
+import chopchop.commons.util.ListenableList;
 
 public class StubbedModel extends chopchop.model.ModelStub {
 
@@ -64,12 +65,12 @@ public class StubbedModel extends chopchop.model.ModelStub {
     }
 
     @Override
-    public ObservableList<Recipe> getFilteredRecipeList() {
+    public ListenableList<Recipe> getFilteredRecipeList() {
         return this.recipes.getEntryList();
     }
 
     @Override
-    public ObservableList<Ingredient> getFilteredIngredientList() {
+    public ListenableList<Ingredient> getFilteredIngredientList() {
         return this.ingredients.getEntryList();
     }
 
@@ -89,6 +90,26 @@ public class StubbedModel extends chopchop.model.ModelStub {
             .findFirst();
     }
 
+    @Override
+    public List<Recipe> findRecipesWithSimilarName(String name, int limit) {
+        return this.recipes.findSimilar(name, limit);
+    }
+
+    @Override
+    public List<String> findSimilarRecipeNameWords(String word) {
+        return this.recipes.findSimilarWords(word);
+    }
+
+    @Override
+    public List<Ingredient> findIngredientsWithSimilarName(String name, int limit) {
+        return this.ingredients.findSimilar(name, limit);
+    }
+
+    @Override
+    public List<String> findSimilarIngredientNameWords(String word) {
+        return this.ingredients.findSimilarWords(word);
+    }
+
     @Override
     public void setRecipe(Recipe target, Recipe editedRecipe) {
         this.recipes.set(target, editedRecipe);
@@ -119,6 +140,36 @@ public class StubbedModel extends chopchop.model.ModelStub {
         this.ingredients.remove(target);
     }
 
+    @Override
+    public void addRecipes(List<Recipe> targets) {
+        this.recipes.addAll(targets);
+    }
+
+    @Override
+    public void deleteRecipes(Collection<Recipe> targets) {
+        this.recipes.removeAll(targets);
+    }
+
+    @Override
+    public void addIngredients(List<Ingredient> targets) {
+        this.ingredients.addAll(targets);
+    }
+
+    @Override
+    public void deleteIngredients(Collection<Ingredient> targets) {
+        this.ingredients.removeAll(targets);
+    }
+
+    @Override
+    public void startEditingRecipes() {
+        this.recipes.startEditing();
+    }
+
+    @Override
+    public void finishEditingRecipes() {
+        this.recipes.finishEditing();
+    }
+
     @Override
     public void startEditingIngredients() {
         this.ingredients.startEditing();
@@ -7,7 +7,6 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 
 import chopchop.logic.LogicManager;
-import chopchop.logic.commands.CommandResult;
 import chopchop.model.ModelManager;
 import chopchop.storage.JsonIngredientBookStorage;
 import chopchop.storage.JsonRecipeBookStorage;
@@ -57,12 +56,7 @@ public class CommandBoxTest extends GuiUnitTest {
         CommandBox commandBox = new CommandBox(commandText -> {
             history.add(commandText);
             logic.execute(commandText);
-            if (commandText.equals(COMMAND_THAT_SUCCEEDS)) {
-                return CommandResult.message("Command successful");
-            } else {
-                return CommandResult.error("Command failed");
-            }
-        }, logic);
+        }, () -> { }, logic);
         commandBoxHandle = new CommandBoxHandle(getChildNode(commandBox.getRoot(),
                 CommandBoxHandle.COMMAND_INPUT_FIELD_ID));
         uiPartExtension.setUiPart(commandBox);
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import java.nio.file.Path;
 import java.util.Collections;
 
+import chopchop.logic.CommandQueue;
 import chopchop.logic.LogicManager;
 import chopchop.model.ModelManager;
 import chopchop.storage.JsonIngredientBookStorage;
@@ -18,6 +19,7 @@ import chopchop.storage.JsonRecipeUsageStorage;
 import chopchop.storage.StorageManager;
 import guitests.guihandles.HelpWindowHandle;
 import guitests.guihandles.StageHandle;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,7 +60,7 @@ public class MainWindowTest extends GuiUnitTest {
 
         FxToolkit.setupStage(stage -> {
             this.stage = stage;
-            mainWindow = new MainWindow(stage, logic, modelManager);
+            mainWindow = new MainWindow(stage, logic, modelManager, new CommandQueue(logic, Platform::runLater));
             mainWindow.fillInnerParts();
             mainWindowHandle = new EmptyMainWindowHandle(stage);
             mainWindowHandle.focus();